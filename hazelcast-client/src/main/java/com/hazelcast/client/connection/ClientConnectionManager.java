@@ -79,6 +79,17 @@ public interface ClientConnectionManager extends ConnectionListenable {
      */
     void handleClientMessage(ClientMessage message, Connection connection);
 
+    /**
+     * Selects the connection to send a request over to the member of the given connection. When more than one
+     * connection per member is configured, requests for a partition always go over the same connection of the member
+     * and the other requests are spread round-robin over its connections.
+     *
+     * @param connection  the connection to the member the request is sent to
+     * @param partitionId the partition of the request or -1 if it is not bound to a partition
+     * @return the connection to send the request over
+     */
+    ClientConnection selectConnection(ClientConnection connection, int partitionId);
+
     void addConnectionHeartbeatListener(ConnectionHeartbeatListener connectionHeartbeatListener);
 
     Collection<ClientConnection> getActiveConnections();
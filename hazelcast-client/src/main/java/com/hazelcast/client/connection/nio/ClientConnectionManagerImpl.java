@@ -77,10 +77,13 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import static com.hazelcast.client.config.SocketOptions.DEFAULT_BUFFER_SIZE_BYTE;
 import static com.hazelcast.client.config.SocketOptions.KILO_BYTE;
+import static com.hazelcast.client.spi.properties.ClientProperty.CONNECTIONS_PER_MEMBER;
 import static com.hazelcast.client.spi.properties.ClientProperty.HEARTBEAT_INTERVAL;
 import static com.hazelcast.client.spi.properties.ClientProperty.HEARTBEAT_TIMEOUT;
 import static com.hazelcast.spi.properties.GroupProperty.SOCKET_CLIENT_BUFFER_DIRECT;
@@ -107,6 +110,7 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
     private final int connectionTimeout;
     private final long heartbeatInterval;
     private final long heartbeatTimeout;
+    private final int connectionsPerMember;
 
     private final HazelcastClientInstanceImpl client;
     private final SocketInterceptor socketInterceptor;
@@ -119,6 +123,9 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
             = new ConcurrentHashMap<Address, ClientConnection>();
     private final ConcurrentMap<Address, AuthenticationFuture> connectionsInProgress =
             new ConcurrentHashMap<Address, AuthenticationFuture>();
+    private final ConcurrentMap<Address, ExtraConnections> extraConnections =
+            new ConcurrentHashMap<Address, ExtraConnections>();
+    private final AtomicInteger connectionSelector = new AtomicInteger();
     private final Set<ConnectionListener> connectionListeners = new CopyOnWriteArraySet<ConnectionListener>();
 
     private final Set<ConnectionHeartbeatListener> heartbeatListeners =
@@ -144,6 +151,7 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
 
         long interval = hazelcastProperties.getMillis(HEARTBEAT_INTERVAL);
         this.heartbeatInterval = interval > 0 ? interval : Integer.parseInt(HEARTBEAT_INTERVAL.getDefaultValue());
+        this.connectionsPerMember = Math.max(1, hazelcastProperties.getInteger(CONNECTIONS_PER_MEMBER));
 
         this.executionService = (ClientExecutionServiceImpl) client.getClientExecutionService();
         this.socketOptions = networkConfig.getSocketOptions();
@@ -239,6 +247,9 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
         for (ClientConnection connection : activeConnections.values()) {
             connection.close("Hazelcast client is shutting down", null);
         }
+        for (ExtraConnections extras : extraConnections.values()) {
+            extras.closeAll("Hazelcast client is shutting down");
+        }
         shutdownIOThreads();
         connectionListeners.clear();
         heartbeatListeners.clear();
@@ -256,6 +267,21 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
         return activeConnections.get(target);
     }
 
+    @Override
+    public ClientConnection selectConnection(ClientConnection connection, int partitionId) {
+        if (connectionsPerMember == 1) {
+            return connection;
+        }
+        ExtraConnections extras = extraConnections.get(connection.getEndPoint());
+        if (extras == null) {
+            return connection;
+        }
+        // requests of a partition always take the same connection, so their order is kept
+        int index = partitionId >= 0 ? partitionId : connectionSelector.getAndIncrement() & Integer.MAX_VALUE;
+        ClientConnection selected = extras.get(index % connectionsPerMember);
+        return selected != null ? selected : connection;
+    }
+
     @Override
     public Connection getOrConnect(Address address, boolean asOwner) throws IOException {
         try {
@@ -436,8 +462,16 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
             }
             return;
         }
+        ExtraConnections extras = extraConnections.get(endpoint);
+        if (extras != null && extras.remove(connection)) {
+            logger.info("Removed extra connection to endpoint: " + endpoint + ", connection: " + connection);
+            return;
+        }
         if (activeConnections.remove(endpoint, connection)) {
             logger.info("Removed connection to endpoint: " + endpoint + ", connection: " + connection);
+            if (extras != null && extraConnections.remove(endpoint, extras)) {
+                extras.closeAll("Connection to the member is closed");
+            }
 
             for (ConnectionListener listener : connectionListeners) {
                 listener.connectionRemoved(connection);
@@ -471,44 +505,49 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
                 return;
             }
             final long now = Clock.currentTimeMillis();
-            for (final ClientConnection connection : activeConnections.values()) {
-                if (!connection.isAlive()) {
-                    continue;
+            for (ClientConnection connection : activeConnections.values()) {
+                if (connection.isAlive()) {
+                    heartbeat(connection, now);
                 }
+            }
+            for (ExtraConnections extras : extraConnections.values()) {
+                extras.heartbeat(now);
+            }
+        }
 
-                if (now - connection.lastReadTimeMillis() > heartbeatTimeout) {
-                    if (connection.isHeartBeating()) {
-                        logger.warning("Heartbeat failed to connection: " + connection);
-                        connection.onHeartbeatFailed();
-                        fireHeartbeatStopped(connection);
-                    }
+        private void heartbeat(final ClientConnection connection, long now) {
+            if (now - connection.lastReadTimeMillis() > heartbeatTimeout) {
+                if (connection.isHeartBeating()) {
+                    logger.warning("Heartbeat failed to connection: " + connection);
+                    connection.onHeartbeatFailed();
+                    fireHeartbeatStopped(connection);
                 }
-                if (now - connection.lastReadTimeMillis() > heartbeatInterval) {
-                    ClientMessage request = ClientPingCodec.encodeRequest();
-                    final ClientInvocation clientInvocation = new ClientInvocation(client, request, connection);
-                    clientInvocation.setBypassHeartbeatCheck(true);
-                    connection.onHeartbeatRequested();
-                    clientInvocation.invokeUrgent().andThen(new ExecutionCallback<ClientMessage>() {
-                        @Override
-                        public void onResponse(ClientMessage response) {
-                            if (connection.isAlive()) {
-                                connection.onHeartbeatReceived();
-                            }
+            }
+            if (now - connection.lastReadTimeMillis() > heartbeatInterval) {
+                ClientMessage request = ClientPingCodec.encodeRequest();
+                final ClientInvocation clientInvocation = new ClientInvocation(client, request, connection);
+                clientInvocation.setBypassHeartbeatCheck(true);
+                connection.onHeartbeatRequested();
+                clientInvocation.invokeUrgent().andThen(new ExecutionCallback<ClientMessage>() {
+                    @Override
+                    public void onResponse(ClientMessage response) {
+                        if (connection.isAlive()) {
+                            connection.onHeartbeatReceived();
                         }
+                    }
 
-                        @Override
-                        public void onFailure(Throwable t) {
-                            if (connection.isAlive()) {
-                                logger.warning("Error receiving heartbeat for connection: " + connection, t);
-                            }
+                    @Override
+                    public void onFailure(Throwable t) {
+                        if (connection.isAlive()) {
+                            logger.warning("Error receiving heartbeat for connection: " + connection, t);
                         }
-                    });
-                } else {
-                    if (!connection.isHeartBeating()) {
-                        logger.warning("Heartbeat is back to healthy for connection: " + connection);
-                        connection.onHeartbeatResumed();
-                        fireHeartbeatResumed(connection);
                     }
+                });
+            } else {
+                if (!connection.isHeartBeating()) {
+                    logger.warning("Heartbeat is back to healthy for connection: " + connection);
+                    connection.onHeartbeatResumed();
+                    fireHeartbeatResumed(connection);
                 }
             }
         }
@@ -658,6 +697,7 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
                         + " and there was no old connection to this end-point");
             }
             fireConnectionAddedEvent(connection);
+            openExtraConnections(target, connection);
         } else {
             if (logger.isFinestEnabled()) {
                 logger.finest("Re-authentication succeeded for " + connection);
@@ -692,5 +732,159 @@ public class ClientConnectionManagerImpl implements ClientConnectionManager {
         connectionsInProgress.remove(target);
     }
 
+    private void openExtraConnections(Address target, ClientConnection connection) {
+        if (connectionsPerMember == 1) {
+            return;
+        }
+        ExtraConnections extras = new ExtraConnections(target);
+        ExtraConnections oldExtras = extraConnections.put(connection.getEndPoint(), extras);
+        if (oldExtras != null) {
+            oldExtras.closeAll("Connection to the member is replaced");
+        }
+        extras.connectMissing();
+    }
+
+    private void authenticateExtraConnection(final ExtraConnections extras, final int index,
+                                             final ClientConnection connection) {
+        ClientPrincipal principal = ((ClientClusterServiceImpl) client.getClientClusterService()).getPrincipal();
+        if (principal == null) {
+            throw new IllegalStateException("Client is not authenticated to the cluster yet");
+        }
+        byte serializationVersion = ((InternalSerializationService) client.getSerializationService()).getVersion();
+        ClientMessage clientMessage = encodeAuthenticationRequest(false, client.getSerializationService(),
+                serializationVersion, principal.getUuid(), principal.getOwnerUuid());
+        ClientInvocation clientInvocation = new ClientInvocation(client, clientMessage, connection);
+        clientInvocation.invokeUrgent().andThen(new ExecutionCallback<ClientMessage>() {
+            @Override
+            public void onResponse(ClientMessage response) {
+                ClientAuthenticationCodec.ResponseParameters result = ClientAuthenticationCodec.decodeResponse(response);
+                if (AuthenticationStatus.getById(result.status) != AuthenticationStatus.AUTHENTICATED) {
+                    onFailure(new AuthenticationException("Authentication of extra connection failed with status "
+                            + result.status));
+                    return;
+                }
+                connection.setConnectedServerVersion(result.serverHazelcastVersion);
+                connection.setRemoteEndpoint(result.address);
+                extras.add(index, connection);
+            }
 
+            @Override
+            public void onFailure(Throwable t) {
+                extras.onConnectFailed(index, connection, t);
+            }
+        });
+    }
+
+    /**
+     * The connections to a member in addition to the connection which is registered in the active connections.
+     * <p>
+     * Only the registered connection is used for authentication as owner, listener registrations and cluster events;
+     * the extra connections carry requests only. They are opened in parallel, each one is served by the IO threads
+     * it is assigned to, and they are closed together with the registered connection.
+     */
+    private final class ExtraConnections {
+
+        private final Address target;
+        // index 0 stands for the registered connection, so it is never set
+        private final AtomicReferenceArray<ClientConnection> connections
+                = new AtomicReferenceArray<ClientConnection>(connectionsPerMember);
+        private final AtomicIntegerArray connecting = new AtomicIntegerArray(connectionsPerMember);
+
+        ExtraConnections(Address target) {
+            this.target = target;
+        }
+
+        ClientConnection get(int index) {
+            ClientConnection connection = connections.get(index);
+            return connection != null && connection.isAlive() ? connection : null;
+        }
+
+        void connectMissing() {
+            for (int index = 1; index < connectionsPerMember; index++) {
+                if (connections.get(index) == null && connecting.compareAndSet(index, 0, 1)) {
+                    executionService.execute(new InitExtraConnectionTask(this, index));
+                }
+            }
+        }
+
+        void add(int index, ClientConnection connection) {
+            connections.set(index, connection);
+            connecting.set(index, 0);
+            if (!alive || extraConnections.get(connection.getEndPoint()) != this || !connection.isAlive()) {
+                // the member or this client went away while the connection was being opened
+                connections.compareAndSet(index, connection, null);
+                connection.close("Connection to the member is closed", null);
+                return;
+            }
+            logger.info("Opened extra connection " + connection + " to " + connection.getEndPoint());
+        }
+
+        void onConnectFailed(int index, ClientConnection connection, Throwable cause) {
+            if (logger.isFinestEnabled()) {
+                logger.finest("Failed to open extra connection to " + target, cause);
+            }
+            if (connection != null) {
+                connection.close(null, cause);
+            }
+            connecting.set(index, 0);
+        }
+
+        boolean remove(Connection connection) {
+            for (int index = 1; index < connectionsPerMember; index++) {
+                if (connections.compareAndSet(index, (ClientConnection) connection, null)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void heartbeat(long now) {
+            for (int index = 1; index < connectionsPerMember; index++) {
+                ClientConnection connection = get(index);
+                if (connection == null) {
+                    continue;
+                }
+                if (now - connection.lastReadTimeMillis() > heartbeatTimeout) {
+                    connection.close("Heartbeat timed out", null);
+                } else if (now - connection.lastReadTimeMillis() > heartbeatInterval) {
+                    ClientInvocation clientInvocation = new ClientInvocation(client, ClientPingCodec.encodeRequest(),
+                            connection);
+                    clientInvocation.setBypassHeartbeatCheck(true);
+                    clientInvocation.invokeUrgent();
+                }
+            }
+            connectMissing();
+        }
+
+        void closeAll(String reason) {
+            for (int index = 1; index < connectionsPerMember; index++) {
+                ClientConnection connection = connections.getAndSet(index, null);
+                if (connection != null) {
+                    connection.close(reason, null);
+                }
+            }
+        }
+    }
+
+    private class InitExtraConnectionTask implements Runnable {
+
+        private final ExtraConnections extras;
+        private final int index;
+
+        InitExtraConnectionTask(ExtraConnections extras, int index) {
+            this.extras = extras;
+            this.index = index;
+        }
+
+        @Override
+        public void run() {
+            ClientConnection connection = null;
+            try {
+                connection = createSocketConnection(extras.target);
+                authenticateExtraConnection(extras, index, connection);
+            } catch (Exception e) {
+                extras.onConnectFailed(index, connection, e);
+            }
+        }
+    }
 }
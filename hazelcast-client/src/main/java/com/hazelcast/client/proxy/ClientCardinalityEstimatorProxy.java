@@ -19,11 +19,15 @@ package com.hazelcast.client.proxy;
 import com.hazelcast.cardinality.CardinalityEstimator;
 import com.hazelcast.client.impl.ClientMessageDecoder;
 import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.CardinalityEstimatorAddAllCodec;
 import com.hazelcast.client.impl.protocol.codec.CardinalityEstimatorAddCodec;
 import com.hazelcast.client.impl.protocol.codec.CardinalityEstimatorEstimateCodec;
+import com.hazelcast.client.impl.protocol.codec.CardinalityEstimatorMergeCodec;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.InternalCompletableFuture;
 
+import java.util.Collection;
+
 import static com.hazelcast.util.Preconditions.checkNotNull;
 
 /**
@@ -60,11 +64,24 @@ public class ClientCardinalityEstimatorProxy
         addAsync(obj).join();
     }
 
+    @Override
+    public void addAll(Collection<?> objects) {
+        addAllAsync(objects).join();
+    }
+
     @Override
     public long estimate() {
         return estimateAsync().join();
     }
 
+    @Override
+    public void merge(CardinalityEstimator other) {
+        checkNotNull(other, "Other estimator is null");
+
+        ClientMessage request = CardinalityEstimatorMergeCodec.encodeRequest(name, other.getName());
+        invoke(request);
+    }
+
     @Override
     public InternalCompletableFuture<Void> addAsync(Object obj) {
         checkNotNull(obj, "Object is null");
@@ -74,6 +91,21 @@ public class ClientCardinalityEstimatorProxy
         return invokeOnPartitionAsync(request, ADD_DECODER);
     }
 
+    @Override
+    public InternalCompletableFuture<Void> addAllAsync(Collection<?> objects) {
+        checkNotNull(objects, "Objects are null");
+
+        // a snapshot, so a concurrently modified collection can't overflow or underfill the hashes
+        Object[] objectArray = objects.toArray();
+        long[] hashes = new long[objectArray.length];
+        for (int i = 0; i < objectArray.length; i++) {
+            checkNotNull(objectArray[i], "Object is null");
+            hashes[i] = getSerializationService().toData(objectArray[i]).hash64();
+        }
+        ClientMessage request = CardinalityEstimatorAddAllCodec.encodeRequest(name, hashes);
+        return invokeOnPartitionAsync(request, ADD_DECODER);
+    }
+
     @Override
     public InternalCompletableFuture<Long> estimateAsync() {
         ClientMessage request = CardinalityEstimatorEstimateCodec.encodeRequest(name);
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.spi.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A table of the pending {@link ClientInvocation}s by their call id.
+ * <p>
+ * Since call ids are handed out sequentially, the invocations in flight map to distinct slots of a power of two
+ * sized array by the lower bits of their call ids; an invocation is put into a slot by a single CAS, without
+ * boxing the call id or allocating a map entry. Only if the slot is still taken by a long running invocation
+ * whose call id is a multiple of the table size apart, the invocation is put into an overflow map.
+ * <p>
+ * An invocation is only registered while its client message carries the call id it has been registered with;
+ * the call id only changes on a retry, which happens after the invocation has been removed.
+ */
+final class CallIdTable {
+
+    private final AtomicReferenceArray<ClientInvocation> slots;
+    private final int mask;
+    private final ConcurrentMap<Long, ClientInvocation> overflow = new ConcurrentHashMap<Long, ClientInvocation>();
+
+    /**
+     * @param capacity the number of slots, has to be a power of two
+     */
+    CallIdTable(int capacity) {
+        this.slots = new AtomicReferenceArray<ClientInvocation>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    void put(long callId, ClientInvocation invocation) {
+        if (!slots.compareAndSet(index(callId), null, invocation)) {
+            overflow.put(callId, invocation);
+        }
+    }
+
+    /**
+     * Removes the invocation with the given call id.
+     *
+     * @return the removed invocation or {@code null} if there is no invocation with the given call id
+     */
+    ClientInvocation remove(long callId) {
+        int index = index(callId);
+        ClientInvocation invocation = slots.get(index);
+        if (invocation != null && callIdOf(invocation) == callId && slots.compareAndSet(index, invocation, null)) {
+            return invocation;
+        }
+        return overflow.isEmpty() ? null : overflow.remove(callId);
+    }
+
+    /**
+     * Removes the invocation with the given call id only if it is the given one.
+     *
+     * @return {@code true} if the invocation was removed
+     */
+    boolean remove(long callId, ClientInvocation invocation) {
+        if (slots.compareAndSet(index(callId), invocation, null)) {
+            return true;
+        }
+        return overflow.remove(callId, invocation);
+    }
+
+    /**
+     * Returns a snapshot of the pending invocations.
+     */
+    List<ClientInvocation> invocations() {
+        List<ClientInvocation> invocations = new ArrayList<ClientInvocation>();
+        for (int i = 0; i < slots.length(); i++) {
+            ClientInvocation invocation = slots.get(i);
+            if (invocation != null) {
+                invocations.add(invocation);
+            }
+        }
+        invocations.addAll(overflow.values());
+        return invocations;
+    }
+
+    /**
+     * Returns the number of pending invocations. The slots are scanned, so this should not be called on a hot path.
+     */
+    int size() {
+        int size = overflow.size();
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    private int index(long callId) {
+        return (int) (callId & mask);
+    }
+
+    private static long callIdOf(ClientInvocation invocation) {
+        return invocation.getClientMessage().getCorrelationId();
+    }
+}
@@ -37,17 +37,19 @@ import com.hazelcast.spi.properties.HazelcastProperty;
 
 import java.io.IOException;
 import java.util.Collection;
-import java.util.Iterator;
 import java.util.LinkedList;
-import java.util.Map;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 
+import static com.hazelcast.client.spi.properties.ClientProperty.BATCHING_ENABLED;
+import static com.hazelcast.client.spi.properties.ClientProperty.BATCHING_MAX_SIZE;
+import static com.hazelcast.client.spi.properties.ClientProperty.BATCHING_WINDOW_MICROS;
 import static com.hazelcast.client.spi.properties.ClientProperty.INVOCATION_TIMEOUT_SECONDS;
+import static com.hazelcast.client.spi.properties.ClientProperty.MAX_CONCURRENT_INVOCATIONS;
+import static com.hazelcast.client.spi.properties.ClientProperty.RESPONSE_THREAD_COUNT;
 import static com.hazelcast.instance.OutOfMemoryErrorDispatcher.onOutOfMemory;
 import static com.hazelcast.spi.impl.operationservice.impl.AsyncInboundResponseHandler.getIdleStrategy;
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
 
 abstract class ClientInvocationServiceSupport implements ClientInvocationService {
 
@@ -55,6 +57,7 @@ abstract class ClientInvocationServiceSupport implements ClientInvocationService
             = new HazelcastProperty("hazelcast.client.responsequeue.idlestrategy", "block");
 
     private static final int WAIT_TIME_FOR_PACKETS_TO_BE_CONSUMED_THRESHOLD = 5000;
+    private static final int MAX_CALL_ID_TABLE_CAPACITY = 16384;
 
     protected final HazelcastClientInstanceImpl client;
     protected final ILogger invocationLogger;
@@ -63,10 +66,14 @@ abstract class ClientInvocationServiceSupport implements ClientInvocationService
     protected ClientPartitionService partitionService;
     private ClientListenerServiceImpl clientListenerService;
 
-    @Probe(name = "pendingCalls", level = ProbeLevel.MANDATORY)
-    private ConcurrentMap<Long, ClientInvocation> callIdMap = new ConcurrentHashMap<Long, ClientInvocation>();
+    private final CallIdTable callIdTable;
+
+    // the responses are striped over the response threads by call id, no threads means responses are
+    // handled on the IO threads
+    private ResponseThread[] responseThreads;
 
-    private ResponseThread responseThread;
+    // null if batching is disabled
+    private ClientMessageBatcher batcher;
 
     private volatile boolean isShutdown;
     private final long invocationTimeoutMillis;
@@ -75,6 +82,8 @@ abstract class ClientInvocationServiceSupport implements ClientInvocationService
         this.client = client;
         this.invocationLogger = client.getLoggingService().getLogger(ClientInvocationService.class);
         this.invocationTimeoutMillis = initInvocationTimeoutMillis();
+        int maxConcurrentInvocations = client.getProperties().getInteger(MAX_CONCURRENT_INVOCATIONS);
+        this.callIdTable = new CallIdTable(nextPowerOfTwo(Math.min(maxConcurrentInvocations, MAX_CALL_ID_TABLE_CAPACITY)));
         client.getMetricsRegistry().scanAndRegister(this, "invocations");
     }
 
@@ -88,10 +97,17 @@ abstract class ClientInvocationServiceSupport implements ClientInvocationService
         connectionManager = client.getConnectionManager();
         clientListenerService = (ClientListenerServiceImpl) client.getListenerService();
         partitionService = client.getClientPartitionService();
-        responseThread = new ResponseThread(client.getThreadGroup(), client.getName() + ".response-",
-                client.getClientConfig().getClassLoader());
-        responseThread.start();
+        responseThreads = new ResponseThread[Math.max(0, client.getProperties().getInteger(RESPONSE_THREAD_COUNT))];
+        for (int i = 0; i < responseThreads.length; i++) {
+            responseThreads[i] = new ResponseThread(client.getThreadGroup(), client.getName() + ".response-" + i,
+                    client.getClientConfig().getClassLoader());
+            responseThreads[i].start();
+        }
         ClientExecutionService executionService = client.getClientExecutionService();
+        if (client.getProperties().getBoolean(BATCHING_ENABLED)) {
+            batcher = new ClientMessageBatcher(executionService, client.getProperties().getLong(BATCHING_WINDOW_MICROS),
+                    client.getProperties().getInteger(BATCHING_MAX_SIZE), new BatchWriteFailureHandler());
+        }
         executionService.scheduleWithRepetition(new CleanResourcesTask(), 1, 1, TimeUnit.SECONDS);
     }
 
@@ -107,7 +123,8 @@ abstract class ClientInvocationServiceSupport implements ClientInvocationService
         registerInvocation(invocation);
 
         ClientMessage clientMessage = invocation.getClientMessage();
-        if (!isAllowedToSendRequest(connection, invocation) || !writeToConnection(connection, clientMessage)) {
+        if (!isAllowedToSendRequest(connection, invocation)
+                || !(offerToBatcher(connection, invocation) || writeToConnection(connection, clientMessage))) {
             final long callId = clientMessage.getCorrelationId();
             ClientInvocation clientInvocation = deRegisterCallId(callId);
             if (clientInvocation != null) {
@@ -123,6 +140,17 @@ abstract class ClientInvocationServiceSupport implements ClientInvocationService
         invocation.setSendConnection(connection);
     }
 
+    private boolean offerToBatcher(ClientConnection connection, ClientInvocation invocation) {
+        ClientMessage clientMessage = invocation.getClientMessage();
+        // only single key requests are batched, the others may be long running or need to be sent right away
+        if (batcher == null || clientMessage.getPartitionId() < 0 || clientMessage.isUrgent()
+                || invocation.getEventHandler() != null || invocation.shouldBypassHeartbeatCheck()) {
+            return false;
+        }
+        clientMessage.addFlag(ClientMessage.BEGIN_AND_END_FLAGS);
+        return batcher.offer(connection, clientMessage);
+    }
+
     private boolean writeToConnection(ClientConnection connection, ClientMessage clientMessage) {
         clientMessage.addFlag(ClientMessage.BEGIN_AND_END_FLAGS);
         return connection.write(clientMessage);
@@ -150,7 +178,7 @@ abstract class ClientInvocationServiceSupport implements ClientInvocationService
         ClientMessage clientMessage = clientInvocation.getClientMessage();
         clientMessage.setVersion(protocolVersion);
         long correlationId = clientMessage.getCorrelationId();
-        callIdMap.put(correlationId, clientInvocation);
+        callIdTable.put(correlationId, clientInvocation);
         EventHandler handler = clientInvocation.getEventHandler();
         if (handler != null) {
             clientListenerService.addEventHandler(correlationId, handler);
@@ -158,7 +186,12 @@ abstract class ClientInvocationServiceSupport implements ClientInvocationService
     }
 
     private ClientInvocation deRegisterCallId(long callId) {
-        return callIdMap.remove(callId);
+        return callIdTable.remove(callId);
+    }
+
+    @Probe(name = "pendingCalls", level = ProbeLevel.MANDATORY)
+    public int getPendingInvocationCount() {
+        return callIdTable.size();
     }
 
     public boolean isShutdown() {
@@ -168,25 +201,28 @@ abstract class ClientInvocationServiceSupport implements ClientInvocationService
     @Override
     public void shutdown() {
         isShutdown = true;
-        responseThread.interrupt();
-        Iterator<ClientInvocation> iterator = callIdMap.values().iterator();
-        while (iterator.hasNext()) {
-            ClientInvocation invocation = iterator.next();
-            iterator.remove();
-            invocation.notifyException(new HazelcastClientNotActiveException("Client is shutting down"));
+        for (ResponseThread responseThread : responseThreads) {
+            responseThread.interrupt();
+        }
+        for (ClientInvocation invocation : callIdTable.invocations()) {
+            if (callIdTable.remove(invocation.getClientMessage().getCorrelationId(), invocation)) {
+                invocation.notifyException(new HazelcastClientNotActiveException("Client is shutting down"));
+            }
+        }
+    }
+
+    private void removeDeadConnectionBatches() {
+        if (batcher != null) {
+            batcher.removeDeadConnections();
         }
-        assert callIdMap.isEmpty();
     }
 
     private class CleanResourcesTask implements Runnable {
 
         @Override
         public void run() {
-            Iterator<Map.Entry<Long, ClientInvocation>> iter = callIdMap.entrySet().iterator();
             Collection<ClientConnection> expiredConnections = null;
-            while (iter.hasNext()) {
-                Map.Entry<Long, ClientInvocation> entry = iter.next();
-                ClientInvocation invocation = entry.getValue();
+            for (ClientInvocation invocation : callIdTable.invocations()) {
                 ClientConnection connection = invocation.getSendConnection();
                 if (connection == null) {
                     continue;
@@ -209,16 +245,20 @@ abstract class ClientInvocationServiceSupport implements ClientInvocationService
                     }
                 }
 
-                iter.remove();
-
                 notifyException(invocation, connection);
             }
             if (expiredConnections != null) {
                 logExpiredConnections(expiredConnections);
             }
+            removeDeadConnectionBatches();
         }
 
         private void notifyException(ClientInvocation invocation, ClientConnection connection) {
+            if (!callIdTable.remove(invocation.getClientMessage().getCorrelationId(), invocation)) {
+                // the response arrived in the meantime
+                return;
+            }
+
             Exception ex;
             /**
              * Connection may be closed(e.g. remote member shutdown) in which case the isAlive is set to false or the
@@ -248,13 +288,54 @@ abstract class ClientInvocationServiceSupport implements ClientInvocationService
 
     @Override
     public void handleClientMessage(ClientMessage message, Connection connection) {
-        responseThread.responseQueue.add(new ClientPacket((ClientConnection) connection, message));
+        ClientConnection clientConnection = (ClientConnection) connection;
+        if (responseThreads.length == 0) {
+            try {
+                handleResponse(message);
+            } catch (Exception e) {
+                invocationLogger.severe("Failed to process response: " + message, e);
+            } finally {
+                clientConnection.decrementPendingPacketCount();
+            }
+            return;
+        }
+
+        // striping by call id spreads the responses evenly since call ids are handed out sequentially
+        int index = (int) ((message.getCorrelationId() & Long.MAX_VALUE) % responseThreads.length);
+        responseThreads[index].responseQueue.add(new ClientPacket(clientConnection, message));
+    }
+
+    private void handleResponse(ClientMessage clientMessage) {
+        long correlationId = clientMessage.getCorrelationId();
+
+        final ClientInvocation future = deRegisterCallId(correlationId);
+        if (future == null) {
+            invocationLogger.warning("No call for callId: " + correlationId + ", response: " + clientMessage);
+            return;
+        }
+        if (ErrorCodec.TYPE == clientMessage.getMessageType()) {
+            Throwable exception = client.getClientExceptionFactory().createException(clientMessage);
+            future.notifyException(exception);
+        } else {
+            future.notify(clientMessage);
+        }
     }
 
     public long getInvocationTimeoutMillis() {
         return invocationTimeoutMillis;
     }
 
+    private class BatchWriteFailureHandler implements ClientMessageBatcher.FailureHandler {
+
+        @Override
+        public void onWriteFailure(ClientConnection connection, ClientMessage clientMessage) {
+            ClientInvocation invocation = deRegisterCallId(clientMessage.getCorrelationId());
+            if (invocation != null) {
+                invocation.notifyException(new IOException("Packet not send to " + connection.getEndPoint()));
+            }
+        }
+    }
+
     private static class ClientPacket {
 
         private final ClientConnection clientConnection;
@@ -311,28 +392,12 @@ abstract class ClientInvocationServiceSupport implements ClientInvocationService
         private void process(ClientPacket packet) {
             final ClientConnection conn = packet.getClientConnection();
             try {
-                handleClientMessage(packet.getClientMessage());
+                handleResponse(packet.getClientMessage());
             } catch (Exception e) {
                 invocationLogger.severe("Failed to process task: " + packet + " on responseThread: " + getName(), e);
             } finally {
                 conn.decrementPendingPacketCount();
             }
         }
-
-        private void handleClientMessage(ClientMessage clientMessage) {
-            long correlationId = clientMessage.getCorrelationId();
-
-            final ClientInvocation future = deRegisterCallId(correlationId);
-            if (future == null) {
-                invocationLogger.warning("No call for callId: " + correlationId + ", response: " + clientMessage);
-                return;
-            }
-            if (ErrorCodec.TYPE == clientMessage.getMessageType()) {
-                Throwable exception = client.getClientExceptionFactory().createException(clientMessage);
-                future.notifyException(exception);
-            } else {
-                future.notify(clientMessage);
-            }
-        }
     }
 }
@@ -0,0 +1,171 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.spi.impl;
+
+import com.hazelcast.client.connection.nio.ClientConnection;
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.ClientBatchCodec;
+import com.hazelcast.client.spi.ClientExecutionService;
+import com.hazelcast.instance.BuildInfo;
+import com.hazelcast.util.ConstructorFunction;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.hazelcast.util.ConcurrencyUtil.getOrPutIfAbsent;
+
+/**
+ * Aggregates the requests sent concurrently to the same member into {@link ClientBatchCodec} messages.
+ * <p>
+ * The first request queued for a connection schedules a flush after the batching window; all requests queued
+ * for the connection until the flush runs are sent in batches of up to the maximum batch size. A window of 0
+ * flushes as soon as the internal executor picks up the flush, which still batches the requests queued in the
+ * meantime.
+ */
+final class ClientMessageBatcher {
+
+    /**
+     * Members before this version don't know the batch message.
+     */
+    private static final int MIN_SERVER_VERSION = BuildInfo.calculateVersion("3.9");
+
+    private final ConcurrentMap<ClientConnection, ConnectionBatch> batches
+            = new ConcurrentHashMap<ClientConnection, ConnectionBatch>();
+    private final ConstructorFunction<ClientConnection, ConnectionBatch> batchConstructor
+            = new ConstructorFunction<ClientConnection, ConnectionBatch>() {
+        @Override
+        public ConnectionBatch createNew(ClientConnection connection) {
+            return new ConnectionBatch(connection);
+        }
+    };
+
+    private final ClientExecutionService executionService;
+    private final long windowMicros;
+    private final int maxBatchSize;
+    private final FailureHandler failureHandler;
+
+    ClientMessageBatcher(ClientExecutionService executionService, long windowMicros, int maxBatchSize,
+                         FailureHandler failureHandler) {
+        this.executionService = executionService;
+        this.windowMicros = windowMicros;
+        this.maxBatchSize = maxBatchSize;
+        this.failureHandler = failureHandler;
+    }
+
+    /**
+     * Queues a request to be sent in a batch.
+     *
+     * @param connection    the connection to send the request to
+     * @param clientMessage the complete request
+     * @return {@code true} if the request was queued, {@code false} if it has to be sent on its own since the
+     * member doesn't support batches
+     */
+    boolean offer(ClientConnection connection, ClientMessage clientMessage) {
+        if (connection.getConnectedServerVersion() < MIN_SERVER_VERSION) {
+            return false;
+        }
+        getOrPutIfAbsent(batches, connection, batchConstructor).offer(clientMessage);
+        return true;
+    }
+
+    /**
+     * Removes the batches of the connections which are not alive anymore, failing their pending requests.
+     */
+    void removeDeadConnections() {
+        Iterator<Map.Entry<ClientConnection, ConnectionBatch>> iterator = batches.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<ClientConnection, ConnectionBatch> entry = iterator.next();
+            if (!entry.getKey().isAlive()) {
+                iterator.remove();
+                entry.getValue().run();
+            }
+        }
+    }
+
+    /**
+     * Handles the requests which could not be written to their connection.
+     */
+    interface FailureHandler {
+
+        void onWriteFailure(ClientConnection connection, ClientMessage clientMessage);
+    }
+
+    private final class ConnectionBatch implements Runnable {
+
+        private final ClientConnection connection;
+        private final Queue<ClientMessage> queue = new ConcurrentLinkedQueue<ClientMessage>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private ConnectionBatch(ClientConnection connection) {
+            this.connection = connection;
+        }
+
+        private void offer(ClientMessage clientMessage) {
+            queue.offer(clientMessage);
+            if (scheduled.compareAndSet(false, true)) {
+                if (windowMicros > 0) {
+                    executionService.schedule(this, windowMicros, TimeUnit.MICROSECONDS);
+                } else {
+                    executionService.execute(this);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            // cleared before draining, so requests queued from now on schedule another flush
+            scheduled.set(false);
+            List<ClientMessage> batch = new ArrayList<ClientMessage>();
+            ClientMessage clientMessage;
+            while ((clientMessage = queue.poll()) != null) {
+                batch.add(clientMessage);
+                if (batch.size() == maxBatchSize) {
+                    write(batch);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        }
+
+        private void write(List<ClientMessage> batch) {
+            ClientMessage clientMessage;
+            if (batch.size() == 1) {
+                clientMessage = batch.get(0);
+            } else {
+                clientMessage = ClientBatchCodec.encodeRequest(batch);
+                clientMessage.setVersion(ClientMessage.VERSION);
+                clientMessage.addFlag(ClientMessage.BEGIN_AND_END_FLAGS);
+            }
+            if (!connection.write(clientMessage)) {
+                for (ClientMessage request : batch) {
+                    failureHandler.onWriteFailure(connection, request);
+                }
+            }
+        }
+    }
+}
@@ -32,7 +32,7 @@ public class ClientNonSmartInvocationServiceImpl extends ClientInvocationService
 
     @Override
     public void invokeOnRandomTarget(ClientInvocation invocation) throws IOException {
-        sendToOwner(invocation);
+        sendToOwner(invocation, -1);
     }
 
     @Override
@@ -46,12 +46,12 @@ public class ClientNonSmartInvocationServiceImpl extends ClientInvocationService
     @Override
     public void invokeOnPartitionOwner(ClientInvocation invocation, int partitionId) throws IOException {
         invocation.getClientMessage().setPartitionId(partitionId);
-        sendToOwner(invocation);
+        sendToOwner(invocation, partitionId);
     }
 
     @Override
     public void invokeOnTarget(ClientInvocation invocation, Address target) throws IOException {
-        sendToOwner(invocation);
+        sendToOwner(invocation, -1);
     }
 
     @Override
@@ -65,7 +65,7 @@ public class ClientNonSmartInvocationServiceImpl extends ClientInvocationService
         return (ClientConnection) connectionManager.getConnection(ownerConnectionAddress);
     }
 
-    private void sendToOwner(ClientInvocation invocation) throws IOException {
+    private void sendToOwner(ClientInvocation invocation, int partitionId) throws IOException {
         ClientClusterService clusterService = client.getClientClusterService();
         Address ownerConnectionAddress = clusterService.getOwnerConnectionAddress();
         if (ownerConnectionAddress == null) {
@@ -75,6 +75,6 @@ public class ClientNonSmartInvocationServiceImpl extends ClientInvocationService
         if (conn == null) {
             throw new IOException("Packet is not sent to owner address: " + ownerConnectionAddress);
         }
-        send(invocation, (ClientConnection) conn);
+        send(invocation, connectionManager.selectConnection((ClientConnection) conn, partitionId));
     }
 }
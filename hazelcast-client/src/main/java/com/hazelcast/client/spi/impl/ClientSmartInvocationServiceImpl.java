@@ -43,7 +43,7 @@ public final class ClientSmartInvocationServiceImpl extends ClientInvocationServ
         }
         invocation.getClientMessage().setPartitionId(partitionId);
         Connection connection = getOrTriggerConnect(owner);
-        send(invocation, (ClientConnection) connection);
+        send(invocation, connectionManager.selectConnection((ClientConnection) connection, partitionId));
     }
 
     @Override
@@ -53,7 +53,7 @@ public final class ClientSmartInvocationServiceImpl extends ClientInvocationServ
             throw new IOException("No address found to invoke");
         }
         final Connection connection = getOrTriggerConnect(randomAddress);
-        send(invocation, (ClientConnection) connection);
+        send(invocation, connectionManager.selectConnection((ClientConnection) connection, -1));
     }
 
     @Override
@@ -18,6 +18,7 @@ package com.hazelcast.client.spi.properties;
 
 import com.hazelcast.spi.properties.HazelcastProperty;
 
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -139,6 +140,60 @@ public final class ClientProperty {
     public static final HazelcastProperty IO_BALANCER_INTERVAL_SECONDS
             = new HazelcastProperty("hazelcast.client.io.balancer.interval.seconds", 20, SECONDS);
 
+    /**
+     * The number of threads handling the responses of the invocations. The responses are striped over the threads
+     * by their call ids, so clients with a high invocation throughput can scale the response handling with the
+     * number of cores.
+     * <p/>
+     * A value of 0 handles the responses directly on the IO threads, which saves a thread handoff per response; this
+     * is only advisable when the callbacks and the code waiting on the invocation futures are not blocking the
+     * completion, since the IO threads are not reading any other data while a response is handled.
+     * <p/>
+     * The default is 1.
+     */
+    public static final HazelcastProperty RESPONSE_THREAD_COUNT
+            = new HazelcastProperty("hazelcast.client.response.thread.count", 1);
+
+    /**
+     * The number of connections the client opens to each member. A single connection can become the bottleneck of
+     * a client doing a lot of requests to a member; with more connections the requests are spread over several
+     * sockets, each of them served by the IO threads it is assigned to, so the IO thread counts should be raised
+     * accordingly.
+     * <p/>
+     * Requests bound to a partition always go over the same connection, so their order is kept; the other requests
+     * are spread round-robin. Listener registrations and cluster events always use the first connection to a member.
+     * The additional connections are opened in parallel in the background once the first connection is authenticated.
+     * <p/>
+     * The default is 1.
+     */
+    public static final HazelcastProperty CONNECTIONS_PER_MEMBER
+            = new HazelcastProperty("hazelcast.client.connections.per.member", 1);
+
+    /**
+     * Enables the batching of single key requests: requests sent concurrently to the same member are aggregated
+     * into a single message, which the member executes as if the requests had been sent separately. This raises
+     * the throughput of clients sending many small requests at the cost of the batching window added to their
+     * latency.
+     * <p/>
+     * Requests are only batched to members of version 3.9 or later. Batching is disabled by default.
+     */
+    public static final HazelcastProperty BATCHING_ENABLED
+            = new HazelcastProperty("hazelcast.client.batching.enabled", false);
+
+    /**
+     * The time in microseconds the first request of a batch waits for further requests to the same member.
+     * <p/>
+     * The default is 0, which only batches the requests sent while the batch is handed to the sending thread.
+     */
+    public static final HazelcastProperty BATCHING_WINDOW_MICROS
+            = new HazelcastProperty("hazelcast.client.batching.window.micros", 0L, MICROSECONDS);
+
+    /**
+     * The maximum number of requests sent in a single batch. The default is 64.
+     */
+    public static final HazelcastProperty BATCHING_MAX_SIZE
+            = new HazelcastProperty("hazelcast.client.batching.max.size", 64);
+
 
     private ClientProperty() {
     }
@@ -19,7 +19,6 @@ package com.hazelcast.client;
 import com.hazelcast.client.config.ClientConfig;
 import com.hazelcast.client.impl.ClientTestUtil;
 import com.hazelcast.client.impl.HazelcastClientInstanceImpl;
-import com.hazelcast.client.spi.impl.ClientInvocation;
 import com.hazelcast.client.spi.impl.ClientSmartInvocationServiceImpl;
 import com.hazelcast.client.test.bounce.ClientDriverFactory;
 import com.hazelcast.config.Config;
@@ -38,8 +37,6 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
-import java.lang.reflect.Field;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 import static com.hazelcast.client.spi.properties.ClientProperty.MAX_CONCURRENT_INVOCATIONS;
@@ -104,7 +101,7 @@ public class ClientBackpressureBouncingTest extends HazelcastTestSupport {
     private static class InvocationCheckingThread extends Thread {
         private final long deadLine;
         private final long warmUpDeadline;
-        private final ConcurrentMap<Long, ClientInvocation> callIdMap;
+        private final ClientSmartInvocationServiceImpl invocationService;
         private int maxInvocationCountObserved;
         private int maxInvocationCountObservedDuringWarmup;
 
@@ -112,13 +109,13 @@ public class ClientBackpressureBouncingTest extends HazelcastTestSupport {
             long durationMillis = TEST_DURATION_SECONDS * 1000;
             this.warmUpDeadline = System.currentTimeMillis() + (durationMillis / 5);
             this.deadLine = System.currentTimeMillis() + durationMillis;
-            this.callIdMap = extraCallIdMap(client);
+            this.invocationService = extractInvocationService(client);
         }
 
         @Override
         public void run() {
             while (System.currentTimeMillis() < deadLine) {
-                int currentSize = callIdMap.size();
+                int currentSize = invocationService.getPendingInvocationCount();
                 maxInvocationCountObserved = max(currentSize, maxInvocationCountObserved);
                 if (System.currentTimeMillis() < warmUpDeadline) {
                     maxInvocationCountObservedDuringWarmup = max(currentSize, maxInvocationCountObservedDuringWarmup);
@@ -140,12 +137,9 @@ public class ClientBackpressureBouncingTest extends HazelcastTestSupport {
                     + maxInvocationCountObserved, maxInvocationCountObserved <= maximumTolerableInvocationCount);
         }
 
-        private ConcurrentMap<Long, ClientInvocation> extraCallIdMap(HazelcastInstance client) throws NoSuchFieldException, IllegalAccessException {
+        private ClientSmartInvocationServiceImpl extractInvocationService(HazelcastInstance client) {
             HazelcastClientInstanceImpl clientImpl = ClientTestUtil.getHazelcastClientInstanceImpl(client);
-            ClientSmartInvocationServiceImpl invocationService = (ClientSmartInvocationServiceImpl) clientImpl.getInvocationService();
-            Field callIdMapField = ClientSmartInvocationServiceImpl.class.getSuperclass().getDeclaredField("callIdMap");
-            callIdMapField.setAccessible(true);
-            return (ConcurrentMap<Long, ClientInvocation>) callIdMapField.get(invocationService);
+            return (ClientSmartInvocationServiceImpl) clientImpl.getInvocationService();
         }
     }
 
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.connection;
+
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.spi.properties.ClientProperty;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ICompletableFuture;
+import com.hazelcast.core.IMap;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ClientMultipleConnectionsPerMemberTest extends HazelcastTestSupport {
+
+    private static final int CONNECTIONS_PER_MEMBER = 3;
+
+    private final TestHazelcastFactory hazelcastFactory = new TestHazelcastFactory();
+
+    @After
+    public void cleanup() {
+        hazelcastFactory.terminateAll();
+    }
+
+    @Test
+    public void testConnectionsAreOpenedToEachMember() {
+        HazelcastInstance member1 = hazelcastFactory.newHazelcastInstance();
+        HazelcastInstance member2 = hazelcastFactory.newHazelcastInstance();
+        newClient(true);
+
+        assertClientConnectionCountEventually(member1, CONNECTIONS_PER_MEMBER);
+        assertClientConnectionCountEventually(member2, CONNECTIONS_PER_MEMBER);
+    }
+
+    @Test
+    public void testRequests_smartRouting() throws Exception {
+        hazelcastFactory.newHazelcastInstance();
+        hazelcastFactory.newHazelcastInstance();
+
+        testRequests(newClient(true));
+    }
+
+    @Test
+    public void testRequests_nonSmartRouting() throws Exception {
+        hazelcastFactory.newHazelcastInstance();
+        hazelcastFactory.newHazelcastInstance();
+
+        testRequests(newClient(false));
+    }
+
+    @Test
+    public void testRequestsOfKeyAreOrdered() throws Exception {
+        HazelcastInstance member = hazelcastFactory.newHazelcastInstance();
+        HazelcastInstance client = newClient(true);
+        assertClientConnectionCountEventually(member, CONNECTIONS_PER_MEMBER);
+        IMap<String, Integer> map = client.getMap(randomMapName());
+
+        List<ICompletableFuture<Integer>> futures = new ArrayList<ICompletableFuture<Integer>>();
+        for (int i = 0; i < 1000; i++) {
+            futures.add(map.putAsync("key", i));
+        }
+        for (int i = 1; i < futures.size(); i++) {
+            assertEquals(i - 1, (int) futures.get(i).get());
+        }
+    }
+
+    @Test
+    public void testMemberShutdown() throws Exception {
+        HazelcastInstance member1 = hazelcastFactory.newHazelcastInstance();
+        HazelcastInstance member2 = hazelcastFactory.newHazelcastInstance();
+        HazelcastInstance client = newClient(true);
+        assertClientConnectionCountEventually(member1, CONNECTIONS_PER_MEMBER);
+        assertClientConnectionCountEventually(member2, CONNECTIONS_PER_MEMBER);
+
+        member2.shutdown();
+        assertClusterSizeEventually(1, client);
+
+        testRequests(client);
+        assertClientConnectionCountEventually(member1, CONNECTIONS_PER_MEMBER);
+    }
+
+    private HazelcastInstance newClient(boolean smartRouting) {
+        ClientConfig config = new ClientConfig()
+                .setProperty(ClientProperty.CONNECTIONS_PER_MEMBER.getName(), String.valueOf(CONNECTIONS_PER_MEMBER));
+        config.getNetworkConfig().setSmartRouting(smartRouting);
+        return hazelcastFactory.newHazelcastClient(config);
+    }
+
+    private static void testRequests(HazelcastInstance client) throws Exception {
+        IMap<Integer, Integer> map = client.getMap(randomMapName());
+        int count = 1000;
+        List<ICompletableFuture<Integer>> futures = new ArrayList<ICompletableFuture<Integer>>(count);
+        for (int i = 0; i < count; i++) {
+            futures.add(map.putAsync(i, i));
+        }
+        for (ICompletableFuture<Integer> future : futures) {
+            future.get();
+        }
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, (int) map.get(i));
+        }
+        assertEquals(count, map.size());
+    }
+
+    private static void assertClientConnectionCountEventually(final HazelcastInstance member, final int expected) {
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(expected, getNode(member).clientEngine.getClientEndpointCount());
+            }
+        });
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.spi.impl;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CallIdTableTest {
+
+    private final CallIdTable table = new CallIdTable(16);
+
+    @Test
+    public void testPutAndRemove() {
+        ClientInvocation invocation = invocation(5);
+        table.put(5, invocation);
+
+        assertEquals(1, table.size());
+        assertSame(invocation, table.remove(5));
+        assertNull(table.remove(5));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void testRemove_whenUnknownCallId() {
+        table.put(5, invocation(5));
+
+        assertNull(table.remove(21));
+        assertNull(table.remove(6));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    public void testPut_whenSlotTaken_thenOverflow() {
+        ClientInvocation first = invocation(5);
+        ClientInvocation second = invocation(21);
+        table.put(5, first);
+        table.put(21, second);
+
+        assertEquals(2, table.size());
+        assertEquals(2, table.invocations().size());
+        assertSame(second, table.remove(21));
+        assertSame(first, table.remove(5));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    public void testConditionalRemove() {
+        ClientInvocation invocation = invocation(5);
+        table.put(5, invocation);
+
+        assertFalse(table.remove(5, invocation(5)));
+        assertTrue(table.remove(5, invocation));
+        assertFalse(table.remove(5, invocation));
+    }
+
+    @Test
+    public void testConditionalRemove_fromOverflow() {
+        ClientInvocation first = invocation(5);
+        ClientInvocation second = invocation(21);
+        table.put(5, first);
+        table.put(21, second);
+
+        assertTrue(table.remove(21, second));
+        assertSame(first, table.remove(5));
+    }
+
+    private static ClientInvocation invocation(long callId) {
+        ClientMessage message = ClientMessage.createForEncode(ClientMessage.HEADER_SIZE);
+        message.setCorrelationId(callId);
+        ClientInvocation invocation = mock(ClientInvocation.class);
+        when(invocation.getClientMessage()).thenReturn(message);
+        return invocation;
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.spi.impl;
+
+import com.hazelcast.client.config.ClientConfig;
+import com.hazelcast.client.spi.properties.ClientProperty;
+import com.hazelcast.client.test.TestHazelcastFactory;
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ClientMessageBatchingTest extends HazelcastTestSupport {
+
+    private final TestHazelcastFactory hazelcastFactory = new TestHazelcastFactory();
+
+    @After
+    public void cleanup() {
+        hazelcastFactory.terminateAll();
+    }
+
+    @Test
+    public void testBatchedRequests() {
+        testBatchedRequests("0");
+    }
+
+    @Test
+    public void testBatchedRequests_withWindow() {
+        testBatchedRequests("200");
+    }
+
+    private void testBatchedRequests(String windowMicros) {
+        hazelcastFactory.newHazelcastInstance();
+        hazelcastFactory.newHazelcastInstance();
+        ClientConfig config = new ClientConfig()
+                .setProperty(ClientProperty.BATCHING_ENABLED.getName(), "true")
+                .setProperty(ClientProperty.BATCHING_WINDOW_MICROS.getName(), windowMicros)
+                .setProperty(ClientProperty.BATCHING_MAX_SIZE.getName(), "16");
+        HazelcastInstance client = hazelcastFactory.newHazelcastClient(config);
+        IMap<Integer, Integer> map = client.getMap(randomMapName());
+
+        int count = 1000;
+        final CountDownLatch latch = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            map.putAsync(i, i).andThen(new ExecutionCallback<Integer>() {
+                @Override
+                public void onResponse(Integer response) {
+                    latch.countDown();
+                }
+
+                @Override
+                public void onFailure(Throwable t) {
+                }
+            });
+        }
+        assertOpenEventually(latch);
+
+        assertEquals(count, map.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, (int) map.get(i));
+        }
+    }
+}
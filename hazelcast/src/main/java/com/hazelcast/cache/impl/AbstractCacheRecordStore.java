@@ -52,10 +52,12 @@ import javax.cache.integration.CacheWriter;
 import javax.cache.integration.CacheWriterException;
 import javax.cache.processor.EntryProcessor;
 import java.io.Closeable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -83,7 +85,7 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
     protected final AbstractCacheService cacheService;
     protected final CacheConfig cacheConfig;
     protected final EvictionConfig evictionConfig;
-    protected final Map<CacheEventType, Set<CacheEventData>> batchEvent = new HashMap<CacheEventType, Set<CacheEventData>>();
+    protected final CacheEventBatch eventBatch;
     protected final EvictionChecker evictionChecker;
     protected final EvictionPolicyEvaluator<Data, R> evictionPolicyEvaluator;
     protected final SamplingEvictionStrategy<Data, R, CRM> evictionStrategy;
@@ -117,6 +119,7 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
             throw new IllegalStateException("Eviction config cannot be null!");
         }
         wanReplicationEnabled = cacheService.isWanReplicationEnabled(name);
+        eventBatch = new CacheEventBatch();
         disablePerEntryInvalidationEvents = cacheConfig.isDisablePerEntryInvalidationEvents();
         if (cacheConfig.isStatisticsEnabled()) {
             statistics = cacheService.createCacheStatIfAbsent(name);
@@ -468,17 +471,15 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
     protected void publishEvent(CacheEventContext cacheEventContext) {
         if (isEventsEnabled()) {
             cacheEventContext.setCacheName(name);
-            if (eventsBatchingEnabled) {
-                CacheEventDataImpl cacheEventData =
-                        new CacheEventDataImpl(name, cacheEventContext.getEventType(), cacheEventContext.getDataKey(),
-                                cacheEventContext.getDataValue(), cacheEventContext.getDataOldValue(),
-                                cacheEventContext.isOldValueAvailable());
-                Set<CacheEventData> cacheEventDataSet = batchEvent.remove(cacheEventContext.getEventType());
-                if (cacheEventDataSet == null) {
-                    cacheEventDataSet = new HashSet<CacheEventData>();
-                    batchEvent.put(cacheEventContext.getEventType(), cacheEventDataSet);
-                }
-                cacheEventDataSet.add(cacheEventData);
+            CacheEventType eventType = cacheEventContext.getEventType();
+            if (eventsBatchingEnabled && eventType == CacheEventType.COMPLETED) {
+                // a single completion event is published after the batch
+                return;
+            }
+            if (eventsBatchingEnabled && CacheEventBatch.isBatchable(eventType)) {
+                eventBatch.add(new CacheEventDataImpl(name, eventType, cacheEventContext.getDataKey(),
+                        cacheEventContext.getDataValue(), cacheEventContext.getDataOldValue(),
+                        cacheEventContext.isOldValueAvailable()));
             } else {
                 cacheService.publishEvent(cacheEventContext);
             }
@@ -487,13 +488,32 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
 
     protected void publishBatchedEvents(String cacheName, CacheEventType cacheEventType, int orderKey) {
         if (isEventsEnabled()) {
-            Set<CacheEventData> cacheEventDatas = batchEvent.remove(cacheEventType);
+            Set<CacheEventData> cacheEventDatas = eventBatch.remove(cacheEventType);
             if (cacheEventDatas != null) {
                 cacheService.publishEvent(cacheName, new CacheEventSet(cacheEventType, cacheEventDatas), orderKey);
             }
         }
     }
 
+    /**
+     * Publishes all the batched events, one event set per event type, followed by the completion event
+     * of the operation. Everything is published with the same order key, so listeners receive the batches
+     * before the completion.
+     */
+    protected void publishBatchedEventsAndCompletion(int completionId) {
+        if (!isEventsEnabled()) {
+            eventBatch.clear();
+            return;
+        }
+        CacheEventContext completedEvent = createCacheCompleteEvent(completionId);
+        int orderKey = completedEvent.getOrderKey();
+        List<CacheEventType> eventTypes = new ArrayList<CacheEventType>(eventBatch.getEventTypes());
+        for (CacheEventType eventType : eventTypes) {
+            publishBatchedEvents(name, eventType, orderKey);
+        }
+        publishEvent(completedEvent);
+    }
+
     protected boolean compare(Object v1, Object v2) {
         if (v1 == null && v2 == null) {
             return true;
@@ -1032,6 +1052,24 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
         return (R) put(key, value, expiryPolicy, source, false, false, completionId);
     }
 
+    @Override
+    public Map<Data, CacheRecord> putAll(List<Map.Entry<Data, Data>> entries, ExpiryPolicy expiryPolicy,
+                                         String source, int completionId) {
+        Map<Data, CacheRecord> putRecords = new HashMap<Data, CacheRecord>(entries.size());
+        eventsBatchingEnabled = true;
+        try {
+            for (Map.Entry<Data, Data> entry : entries) {
+                Data key = entry.getKey();
+                putRecords.put(key, put(key, entry.getValue(), expiryPolicy, source, completionId));
+            }
+        } finally {
+            eventsBatchingEnabled = false;
+            // events of the entries put before a failure are published as well
+            publishBatchedEventsAndCompletion(completionId);
+        }
+        return putRecords;
+    }
+
     @Override
     public Object getAndPut(Data key, Object value, ExpiryPolicy expiryPolicy, String source, int completionId) {
         return put(key, value, expiryPolicy, source, true, false, completionId);
@@ -1370,11 +1408,7 @@ public abstract class AbstractCacheRecordStore<R extends CacheRecord, CRM extend
                 }
                 eventsBatchingEnabled = false;
             }
-            int orderKey = keys.hashCode();
-            publishBatchedEvents(name, CacheEventType.REMOVED, orderKey);
-            if (isEventsEnabled()) {
-                publishEvent(createCacheCompleteEvent(completionId));
-            }
+            publishBatchedEventsAndCompletion(completionId);
         }
     }
 
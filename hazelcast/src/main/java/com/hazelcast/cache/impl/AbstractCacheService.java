@@ -38,6 +38,7 @@ import com.hazelcast.spi.PartitionMigrationEvent;
 import com.hazelcast.spi.PostJoinAwareService;
 import com.hazelcast.spi.QuorumAwareService;
 import com.hazelcast.spi.SplitBrainHandlerService;
+import com.hazelcast.spi.impl.operationservice.InternalOperationService;
 import com.hazelcast.spi.partition.IPartitionLostEvent;
 import com.hazelcast.spi.partition.MigrationEndpoint;
 import com.hazelcast.util.Clock;
@@ -58,15 +59,18 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
 
 import static com.hazelcast.cache.impl.AbstractCacheRecordStore.SOURCE_NOT_AVAILABLE;
 import static com.hazelcast.config.InMemoryFormat.NATIVE;
+import static java.util.concurrent.TimeUnit.SECONDS;
 
 @SuppressWarnings("checkstyle:classdataabstractioncoupling")
 public abstract class AbstractCacheService implements ICacheService, PostJoinAwareService, PartitionAwareService,
         QuorumAwareService, SplitBrainHandlerService {
 
     private static final String SETUP_REF = "setupRef";
+    private static final long DELETE_TIMEOUT_SECONDS = 30;
 
     protected final ConcurrentMap<String, CacheConfig> configs = new ConcurrentHashMap<String, CacheConfig>();
     protected final ConcurrentMap<String, CacheContext> cacheContexts = new ConcurrentHashMap<String, CacheContext>();
@@ -289,14 +293,28 @@ public abstract class AbstractCacheService implements ICacheService, PostJoinAwa
     }
 
     protected void destroySegments(String name) {
-        for (CachePartitionSegment segment : segments) {
-            segment.deleteRecordStore(name, true);
-        }
+        deleteRecordStores(name, true);
     }
 
     protected void closeSegments(String name) {
+        deleteRecordStores(name, false);
+    }
+
+    /**
+     * Deletes the record stores of the given cache on the partition threads and waits for them to complete,
+     * since the records of a store must not be released while its partition thread may still access them.
+     */
+    private void deleteRecordStores(String name, boolean destroy) {
+        Semaphore semaphore = new Semaphore(0);
+        InternalOperationService operationService = (InternalOperationService) nodeEngine.getOperationService();
         for (CachePartitionSegment segment : segments) {
-            segment.deleteRecordStore(name, false);
+            operationService.execute(new CachePartitionSegmentDeleteTask(segment, name, destroy, semaphore));
+        }
+
+        try {
+            semaphore.tryAcquire(segments.length, DELETE_TIMEOUT_SECONDS, SECONDS);
+        } catch (Throwable t) {
+            throw ExceptionUtil.rethrow(t);
         }
     }
 
@@ -543,7 +561,7 @@ public abstract class AbstractCacheService implements ICacheService, PostJoinAwa
 
     @Override
     public CacheOperationProvider getCacheOperationProvider(String nameWithPrefix, InMemoryFormat inMemoryFormat) {
-        if (InMemoryFormat.NATIVE.equals(inMemoryFormat)) {
+        if (InMemoryFormat.NATIVE.equals(inMemoryFormat) && !isNativeInMemoryFormatSupported()) {
             throw new IllegalArgumentException("Native memory is available only in Hazelcast Enterprise."
                     + "Make sure you have Hazelcast Enterprise JARs on your classpath!");
         }
@@ -130,6 +130,7 @@ public class CacheEntryProcessorEntry<K, V, R extends CacheRecord>
         final Object objValue;
         switch (cacheRecordStore.cacheConfig.getInMemoryFormat()) {
             case BINARY:
+            case NATIVE:
                 objValue = cacheRecordStore.cacheService.toObject(record.getValue());
                 break;
             case OBJECT:
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cache.impl;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Collects the entry events published by a single operation on a partition, so they are published as one
+ * {@link CacheEventSet} per event type instead of one event set per entry.
+ * <p>
+ * This class is not thread-safe, it is only accessed by the partition thread of its record store.
+ */
+final class CacheEventBatch {
+
+    private final Map<CacheEventType, Set<CacheEventData>> events = new LinkedHashMap<CacheEventType, Set<CacheEventData>>();
+
+    /**
+     * Returns {@code true} if events of the given type can be batched.
+     */
+    static boolean isBatchable(CacheEventType eventType) {
+        switch (eventType) {
+            case CREATED:
+            case UPDATED:
+            case REMOVED:
+            case EXPIRED:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    void add(CacheEventData eventData) {
+        CacheEventType eventType = eventData.getCacheEventType();
+        Set<CacheEventData> eventsOfType = events.get(eventType);
+        if (eventsOfType == null) {
+            eventsOfType = new LinkedHashSet<CacheEventData>();
+            events.put(eventType, eventsOfType);
+        }
+        eventsOfType.add(eventData);
+    }
+
+    /**
+     * Removes and returns the events of the given type.
+     *
+     * @return the events or {@code null} if there is no event of the given type
+     */
+    Set<CacheEventData> remove(CacheEventType eventType) {
+        return events.remove(eventType);
+    }
+
+    boolean isEmpty() {
+        return events.isEmpty();
+    }
+
+    void clear() {
+        events.clear();
+    }
+
+    /**
+     * Returns the event types which have events, in the order of their first events.
+     */
+    Collection<CacheEventType> getEventTypes() {
+        return events.keySet();
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cache.impl;
+
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+
+import java.util.concurrent.Semaphore;
+
+/**
+ * Deletes the record store of a cache from a {@link CachePartitionSegment} on the partition thread of the segment,
+ * so the records of the store, which may be kept in native memory, are only released by the thread owning them.
+ */
+final class CachePartitionSegmentDeleteTask implements PartitionSpecificRunnable {
+
+    private final CachePartitionSegment segment;
+    private final String name;
+    private final boolean destroy;
+    private final Semaphore semaphore;
+
+    CachePartitionSegmentDeleteTask(CachePartitionSegment segment, String name, boolean destroy, Semaphore semaphore) {
+        this.segment = segment;
+        this.name = name;
+        this.destroy = destroy;
+        this.semaphore = semaphore;
+    }
+
+    @Override
+    public void run() {
+        try {
+            segment.deleteRecordStore(name, destroy);
+        } finally {
+            semaphore.release();
+        }
+    }
+
+    @Override
+    public int getPartitionId() {
+        return segment.getPartitionId();
+    }
+}
@@ -18,12 +18,20 @@ package com.hazelcast.cache.impl;
 
 import com.hazelcast.cache.impl.event.CacheWanEventPublisher;
 import com.hazelcast.cache.impl.operation.CacheReplicationOperation;
+import com.hazelcast.config.CacheConfig;
 import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.InvalidConfigurationException;
+import com.hazelcast.config.NativeMemoryConfig;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.memory.impl.MallocMemoryAllocator;
+import com.hazelcast.internal.memory.impl.MemoryManagerBean;
 import com.hazelcast.internal.nearcache.impl.invalidation.MetaDataGenerator;
 import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.PartitionMigrationEvent;
 import com.hazelcast.spi.PartitionReplicationEvent;
 
+import static com.hazelcast.config.InMemoryFormat.NATIVE;
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
 import static com.hazelcast.spi.partition.MigrationEndpoint.DESTINATION;
 import static com.hazelcast.spi.partition.MigrationEndpoint.SOURCE;
 
@@ -54,18 +62,55 @@ import static com.hazelcast.spi.partition.MigrationEndpoint.SOURCE;
  */
 public class CacheService extends AbstractCacheService {
 
+    private final Object nativeMemoryManagerMutex = new Object();
+    private volatile MemoryManager nativeMemoryManager;
+
     @Override
     protected CachePartitionSegment newPartitionSegment(int partitionId) {
         return new CachePartitionSegment(this, partitionId);
     }
 
+    @Override
+    protected boolean isNativeInMemoryFormatSupported() {
+        return true;
+    }
+
     @Override
     protected ICacheRecordStore createNewRecordStore(String name, int partitionId) {
-        CacheRecordStore recordStore = new CacheRecordStore(name, partitionId, nodeEngine, this);
+        CacheConfig cacheConfig = getCacheConfig(name);
+        CacheRecordStore recordStore = cacheConfig != null && cacheConfig.getInMemoryFormat() == NATIVE
+                ? new NativeCacheRecordStore(name, partitionId, nodeEngine, this)
+                : new CacheRecordStore(name, partitionId, nodeEngine, this);
         recordStore.instrument(nodeEngine);
         return recordStore;
     }
 
+    /**
+     * Returns the memory manager used by the caches with {@link InMemoryFormat#NATIVE} in-memory format,
+     * creating it on first use. Its capacity is the size configured in the {@link NativeMemoryConfig}.
+     *
+     * @throws InvalidConfigurationException if native memory is not enabled in the {@link NativeMemoryConfig}
+     */
+    public MemoryManager getNativeMemoryManager() {
+        MemoryManager memoryManager = nativeMemoryManager;
+        if (memoryManager == null) {
+            synchronized (nativeMemoryManagerMutex) {
+                memoryManager = nativeMemoryManager;
+                if (memoryManager == null) {
+                    NativeMemoryConfig nativeMemoryConfig = nodeEngine.getConfig().getNativeMemoryConfig();
+                    if (!nativeMemoryConfig.isEnabled()) {
+                        throw new InvalidConfigurationException("Native memory must be enabled in the NativeMemoryConfig"
+                                + " to use caches with NATIVE in-memory format!");
+                    }
+                    MallocMemoryAllocator allocator = new MallocMemoryAllocator(nativeMemoryConfig.getSize().bytes());
+                    memoryManager = new MemoryManagerBean(allocator, MEM);
+                    nativeMemoryManager = memoryManager;
+                }
+            }
+        }
+        return memoryManager;
+    }
+
     @Override
     protected CacheOperationProvider createOperationProvider(String nameWithPrefix, InMemoryFormat inMemoryFormat) {
         return new DefaultOperationProvider(nameWithPrefix);
@@ -29,12 +29,16 @@ import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.impl.operationservice.InternalOperationService;
 import com.hazelcast.spi.partition.IPartitionService;
 import com.hazelcast.spi.serialization.SerializationService;
 import com.hazelcast.util.ExceptionUtil;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
@@ -43,6 +47,9 @@ import java.util.concurrent.TimeUnit;
  * Handles split-brain functionality for cache.
  */
 class CacheSplitBrainHandler {
+
+    private static final long COLLECT_TIMEOUT_SECONDS = 30;
+
     private final NodeEngine nodeEngine;
     private final Map<String, CacheConfig> configs;
     private final CachePartitionSegment[] segments;
@@ -56,45 +63,102 @@ class CacheSplitBrainHandler {
     }
 
     Runnable prepareMergeRunnable() {
-        final Map<String, Map<Data, CacheRecord>> recordMap = new HashMap<String, Map<Data, CacheRecord>>(configs.size());
         final IPartitionService partitionService = nodeEngine.getPartitionService();
         final int partitionCount = partitionService.getPartitionCount();
         final Address thisAddress = nodeEngine.getClusterService().getThisAddress();
+        final InternalOperationService operationService = (InternalOperationService) nodeEngine.getOperationService();
 
+        // records are collected and cleared on the partition threads, since they may be kept in native memory
+        Semaphore semaphore = new Semaphore(0);
+        List<CollectRecordsTask> tasks = new ArrayList<CollectRecordsTask>();
         for (int i = 0; i < partitionCount; i++) {
             // Add your owned entries so they will be merged
             if (thisAddress.equals(partitionService.getPartitionOwner(i))) {
-                CachePartitionSegment segment = segments[i];
-                Iterator<ICacheRecordStore> iter = segment.recordStoreIterator();
-                while (iter.hasNext()) {
-                    ICacheRecordStore cacheRecordStore = iter.next();
-                    if (!(cacheRecordStore instanceof SplitBrainAwareCacheRecordStore)) {
-                        continue;
-                    }
-                    String cacheName = cacheRecordStore.getName();
-                    Map<Data, CacheRecord> records = recordMap.get(cacheName);
-                    if (records == null) {
-                        records = new HashMap<Data, CacheRecord>(cacheRecordStore.size());
-                        recordMap.put(cacheName, records);
-                    }
-                    for (Map.Entry<Data, CacheRecord> cacheRecordEntry : cacheRecordStore.getReadOnlyRecords().entrySet()) {
-                        Data key = cacheRecordEntry.getKey();
-                        CacheRecord cacheRecord = cacheRecordEntry.getValue();
-                        records.put(key, cacheRecord);
-                    }
-                    // Clear all records either owned or backup
-                    cacheRecordStore.clear();
+                CollectRecordsTask task = new CollectRecordsTask(segments[i], semaphore);
+                tasks.add(task);
+                operationService.execute(task);
+            }
+        }
 
-                    // send the cache invalidation event regardless if any actually cleared or not (no need to know how many
-                    // actually cleared)
-                    final CacheService cacheService = nodeEngine.getService(CacheService.SERVICE_NAME);
-                    cacheService.sendInvalidationEvent(cacheName, null, AbstractCacheRecordStore.SOURCE_NOT_AVAILABLE);
+        try {
+            if (!semaphore.tryAcquire(tasks.size(), COLLECT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                nodeEngine.getLogger(CacheService.class).warning("Timed out while collecting cache records to merge");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        final Map<String, Map<Data, CacheRecord>> recordMap = new HashMap<String, Map<Data, CacheRecord>>(configs.size());
+        for (CollectRecordsTask task : tasks) {
+            Map<String, Map<Data, CacheRecord>> partitionRecordMap = task.recordMap;
+            if (partitionRecordMap == null) {
+                continue;
+            }
+            for (Map.Entry<String, Map<Data, CacheRecord>> entry : partitionRecordMap.entrySet()) {
+                Map<Data, CacheRecord> records = recordMap.get(entry.getKey());
+                if (records == null) {
+                    recordMap.put(entry.getKey(), entry.getValue());
+                } else {
+                    records.putAll(entry.getValue());
                 }
             }
         }
         return new CacheMerger(nodeEngine, configs, recordMap, mergePolicyProvider);
     }
 
+    /**
+     * Copies the records of the split-brain aware record stores of a partition to the heap and clears the stores
+     * on the partition thread.
+     */
+    private final class CollectRecordsTask implements PartitionSpecificRunnable {
+
+        private final CachePartitionSegment segment;
+        private final Semaphore semaphore;
+
+        private volatile Map<String, Map<Data, CacheRecord>> recordMap;
+
+        CollectRecordsTask(CachePartitionSegment segment, Semaphore semaphore) {
+            this.segment = segment;
+            this.semaphore = semaphore;
+        }
+
+        @Override
+        public void run() {
+            try {
+                recordMap = collectRecords();
+            } finally {
+                semaphore.release();
+            }
+        }
+
+        private Map<String, Map<Data, CacheRecord>> collectRecords() {
+            Map<String, Map<Data, CacheRecord>> recordMap = new HashMap<String, Map<Data, CacheRecord>>();
+            Iterator<ICacheRecordStore> iter = segment.recordStoreIterator();
+            while (iter.hasNext()) {
+                ICacheRecordStore cacheRecordStore = iter.next();
+                if (!(cacheRecordStore instanceof SplitBrainAwareCacheRecordStore)) {
+                    continue;
+                }
+                String cacheName = cacheRecordStore.getName();
+                // getReadOnlyRecords() returns heap copies of native records
+                recordMap.put(cacheName, new HashMap<Data, CacheRecord>(cacheRecordStore.getReadOnlyRecords()));
+                // Clear all records either owned or backup
+                cacheRecordStore.clear();
+
+                // send the cache invalidation event regardless if any actually cleared or not (no need to know how many
+                // actually cleared)
+                final CacheService cacheService = nodeEngine.getService(CacheService.SERVICE_NAME);
+                cacheService.sendInvalidationEvent(cacheName, null, AbstractCacheRecordStore.SOURCE_NOT_AVAILABLE);
+            }
+            return recordMap;
+        }
+
+        @Override
+        public int getPartitionId() {
+            return segment.getPartitionId();
+        }
+    }
+
     private static class CacheMerger implements Runnable {
 
         private static final int TIMEOUT_FACTOR = 500;
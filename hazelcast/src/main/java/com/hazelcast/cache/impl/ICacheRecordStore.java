@@ -23,6 +23,7 @@ import com.hazelcast.nio.serialization.Data;
 
 import javax.cache.expiry.ExpiryPolicy;
 import javax.cache.processor.EntryProcessor;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -81,6 +82,22 @@ public interface ICacheRecordStore {
      */
     CacheRecord put(Data key, Object value, ExpiryPolicy expiryPolicy, String caller, int completionId);
 
+    /**
+     * Associates the specified values with the specified keys in this cache, like calling
+     * {@link #put(Data, Object, ExpiryPolicy, String, int)} for each entry.
+     * <p>
+     * The entry events are not published one by one but batched: a single event set is published per
+     * event type, followed by a single completion event.
+     *
+     * @param entries      the entries to put, all of them are owned by the partition of this record store.
+     * @param expiryPolicy custom expiry policy or null to use configured default value.
+     * @param caller       uuid of the calling node or client.
+     * @param completionId id of the completion event which is published after the batched events.
+     * @return the stored {@link CacheRecord}s by their keys, a record is <code>null</code> if it has expired.
+     */
+    Map<Data, CacheRecord> putAll(List<Map.Entry<Data, Data>> entries, ExpiryPolicy expiryPolicy, String caller,
+                                  int completionId);
+
     /**
      * Associates the specified value with the specified key in this cache,
      * returning an existing value if one existed.
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cache.impl;
+
+import com.hazelcast.cache.impl.maxsize.impl.NativeMemoryCacheEvictionChecker;
+import com.hazelcast.cache.impl.record.CacheDataRecord;
+import com.hazelcast.cache.impl.record.CacheNativeRecord;
+import com.hazelcast.cache.impl.record.CacheRecord;
+import com.hazelcast.cache.impl.record.CacheRecordFactory;
+import com.hazelcast.cache.impl.record.CacheRecordHashMap;
+import com.hazelcast.cache.impl.record.NativeCacheRecordFactory;
+import com.hazelcast.cache.impl.record.NativeCacheRecordHashMap;
+import com.hazelcast.config.EvictionConfig.MaxSizePolicy;
+import com.hazelcast.internal.eviction.EvictionChecker;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.memory.impl.MallocMemoryAllocator;
+import com.hazelcast.internal.memory.impl.MemoryManagerBean;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.util.Clock;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.hazelcast.cache.impl.CacheEventContextUtil.createCacheCreatedEvent;
+import static com.hazelcast.internal.eviction.EvictionChecker.EVICT_ALWAYS;
+
+/**
+ * <h1>Off-Heap implementation of the {@link ICacheRecordStore}</h1>
+ * <p>
+ * Used for caches with {@link com.hazelcast.config.InMemoryFormat#NATIVE} in-memory format. Values and their
+ * expiration and access metadata are kept in native memory as {@link CacheNativeRecord}s allocated through the
+ * native {@link MemoryManager} of the {@link CacheService}, so they don't add to the size of the Java heap.
+ * Keys stay on the heap since they are the keys of the {@link NativeCacheRecordHashMap}.
+ * </p>
+ * <p>
+ * Besides {@link MaxSizePolicy#ENTRY_COUNT}, the native memory based max-size policies are supported.
+ * Eviction works through the same sampling contract as the on-heap store. When a native memory allocation of
+ * the store fails, a part of its records is evicted (forced eviction) and the allocation is retried, so a
+ * {@link NativeOutOfMemoryError} is only thrown when evicting the records of the store doesn't free enough memory.
+ * </p>
+ * <p>
+ * Records never leave the partition thread in native form: values are returned as heap {@link Data} copies and
+ * records handed out for replication or merging are copied to the heap.
+ * </p>
+ */
+public class NativeCacheRecordStore extends CacheRecordStore {
+
+    private static final int FORCED_EVICTION_RETRY_COUNT = 5;
+    private static final int FORCED_EVICTION_PERCENTAGE = 20;
+    private static final int ONE_HUNDRED_PERCENT = 100;
+
+    public NativeCacheRecordStore(String name, int partitionId, NodeEngine nodeEngine, CacheService cacheService) {
+        super(name, partitionId, nodeEngine, cacheService);
+    }
+
+    @Override
+    protected EvictionChecker createCacheEvictionChecker(int size, MaxSizePolicy maxSizePolicy) {
+        if (maxSizePolicy == null) {
+            throw new IllegalArgumentException("Max-Size policy cannot be null");
+        }
+        if (maxSizePolicy == MaxSizePolicy.ENTRY_COUNT) {
+            return super.createCacheEvictionChecker(size, maxSizePolicy);
+        }
+        MallocMemoryAllocator allocator = (MallocMemoryAllocator) getMemoryManager().getAllocator();
+        return new NativeMemoryCacheEvictionChecker(allocator, size, maxSizePolicy);
+    }
+
+    @Override
+    protected CacheRecordHashMap createRecordCacheMap() {
+        return new NativeCacheRecordHashMap(nodeEngine.getSerializationService(), DEFAULT_INITIAL_CAPACITY, cacheContext);
+    }
+
+    @Override
+    protected CacheRecordFactory createCacheRecordFactory() {
+        MemoryManager memoryManager = getMemoryManager();
+        MemoryManager recordMemoryManager = new MemoryManagerBean(
+                new ForcedEvictionMemoryAllocator(memoryManager.getAllocator()), memoryManager.getAccessor());
+        return new NativeCacheRecordFactory(recordMemoryManager, nodeEngine.getSerializationService());
+    }
+
+    @Override
+    protected Object recordToValue(CacheRecord record) {
+        // native records always return a heap copy of their serialized value
+        return record.getValue();
+    }
+
+    /**
+     * Only used for read-through records, which are handed to the caller without being stored. They are
+     * created on the heap so a record that is never stored doesn't leak native memory.
+     */
+    @Override
+    protected CacheRecord createRecord(Data keyData, Object value, long expirationTime, int completionId) {
+        CacheRecord record = new CacheDataRecord(toHeapData(value), Clock.currentTimeMillis(), expirationTime);
+        if (isEventsEnabled()) {
+            publishEvent(createCacheCreatedEvent(toEventData(keyData), toEventData(value),
+                    expirationTime, null, completionId));
+        }
+        return record;
+    }
+
+    @Override
+    public void putRecord(Data key, CacheRecord record) {
+        super.putRecord(key, ((NativeCacheRecordFactory) cacheRecordFactory).toNativeRecord(record));
+    }
+
+    @Override
+    public Map<Data, CacheRecord> getReadOnlyRecords() {
+        Map<Data, CacheRecord> heapRecords = new HashMap<Data, CacheRecord>(records.size());
+        for (Map.Entry<Data, CacheRecord> entry : records.entrySet()) {
+            CacheRecord record = entry.getValue();
+            if (record instanceof CacheNativeRecord) {
+                record = ((CacheNativeRecord) record).toHeapRecord();
+            }
+            heapRecords.put(entry.getKey(), record);
+        }
+        return heapRecords;
+    }
+
+    /**
+     * Evicts {@value #FORCED_EVICTION_PERCENTAGE} percent of the records of this store, at least one record,
+     * regardless of the max-size policy. Called on the partition thread when a native memory allocation fails.
+     *
+     * @return the count of evicted records
+     */
+    protected int forceEvict() {
+        if (!isEvictionEnabled()) {
+            return 0;
+        }
+        int evictionCount = Math.max(1, records.size() * FORCED_EVICTION_PERCENTAGE / ONE_HUNDRED_PERCENT);
+        int evictedCount = 0;
+        while (evictedCount < evictionCount && !records.isEmpty()) {
+            int evicted = evictionStrategy.evict(records, evictionPolicyEvaluator, EVICT_ALWAYS, this);
+            if (evicted == 0) {
+                break;
+            }
+            evictedCount += evicted;
+        }
+        if (isStatisticsEnabled() && evictedCount > 0) {
+            statistics.increaseCacheEvictions(evictedCount);
+        }
+        return evictedCount;
+    }
+
+    private MemoryManager getMemoryManager() {
+        return ((CacheService) cacheService).getNativeMemoryManager();
+    }
+
+    /**
+     * Allocator of the records of this store, which retries a failed allocation after a {@link #forceEvict()
+     * forced eviction}. The shared allocator of the {@link CacheService} is not disposed with the store.
+     */
+    private final class ForcedEvictionMemoryAllocator implements MemoryAllocator {
+
+        private final MemoryAllocator allocator;
+
+        ForcedEvictionMemoryAllocator(MemoryAllocator allocator) {
+            this.allocator = allocator;
+        }
+
+        @Override
+        public long allocate(long size) {
+            for (int retry = 0; ; retry++) {
+                try {
+                    return allocator.allocate(size);
+                } catch (NativeOutOfMemoryError e) {
+                    if (retry == FORCED_EVICTION_RETRY_COUNT || forceEvict() == 0) {
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public long reallocate(long address, long currentSize, long newSize) {
+            for (int retry = 0; ; retry++) {
+                try {
+                    return allocator.reallocate(address, currentSize, newSize);
+                } catch (NativeOutOfMemoryError e) {
+                    if (retry == FORCED_EVICTION_RETRY_COUNT || forceEvict() == 0) {
+                        throw e;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void free(long address, long size) {
+            allocator.free(address, size);
+        }
+
+        @Override
+        public void dispose() {
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cache.impl.maxsize.impl;
+
+import com.hazelcast.config.EvictionConfig.MaxSizePolicy;
+import com.hazelcast.internal.eviction.EvictionChecker;
+import com.hazelcast.internal.memory.impl.MallocMemoryAllocator;
+import com.hazelcast.memory.MemoryUnit;
+
+/**
+ * Cache max-size policy implementation for the native memory based policies
+ * {@link MaxSizePolicy#USED_NATIVE_MEMORY_SIZE}, {@link MaxSizePolicy#USED_NATIVE_MEMORY_PERCENTAGE},
+ * {@link MaxSizePolicy#FREE_NATIVE_MEMORY_SIZE} and {@link MaxSizePolicy#FREE_NATIVE_MEMORY_PERCENTAGE}.
+ * <p>
+ * The used memory is the native memory of all caches with NATIVE in-memory format on this member.
+ */
+public class NativeMemoryCacheEvictionChecker
+        implements EvictionChecker {
+
+    private static final int ONE_HUNDRED_PERCENT = 100;
+
+    private final MallocMemoryAllocator allocator;
+    private final MaxSizePolicy maxSizePolicy;
+    private final long threshold;
+
+    public NativeMemoryCacheEvictionChecker(MallocMemoryAllocator allocator, int size, MaxSizePolicy maxSizePolicy) {
+        this.allocator = allocator;
+        this.maxSizePolicy = maxSizePolicy;
+        switch (maxSizePolicy) {
+            case USED_NATIVE_MEMORY_SIZE:
+            case FREE_NATIVE_MEMORY_SIZE:
+                this.threshold = MemoryUnit.MEGABYTES.toBytes(size);
+                break;
+            case USED_NATIVE_MEMORY_PERCENTAGE:
+            case FREE_NATIVE_MEMORY_PERCENTAGE:
+                this.threshold = allocator.getCapacity() * size / ONE_HUNDRED_PERCENT;
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid max-size policy " + maxSizePolicy
+                        + " for " + getClass().getName() + "!");
+        }
+    }
+
+    @Override
+    public boolean isEvictionRequired() {
+        switch (maxSizePolicy) {
+            case USED_NATIVE_MEMORY_SIZE:
+            case USED_NATIVE_MEMORY_PERCENTAGE:
+                return allocator.getUsedMemory() >= threshold;
+            default:
+                return allocator.getFreeMemory() <= threshold;
+        }
+    }
+}
@@ -34,7 +34,6 @@ import javax.cache.expiry.ExpiryPolicy;
 import java.io.IOException;
 import java.util.AbstractMap;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -78,13 +77,7 @@ public class CachePutAllOperation
         String callerUuid = getCallerUuid();
         ICacheService service = getService();
         cache = service.getOrCreateRecordStore(name, partitionId);
-        backupRecords = new HashMap<Data, CacheRecord>(entries.size());
-        for (Map.Entry<Data, Data> entry : entries) {
-            Data key = entry.getKey();
-            Data value = entry.getValue();
-            CacheRecord backupRecord = cache.put(key, value, expiryPolicy, callerUuid, completionId);
-            backupRecords.put(key, backupRecord);
-        }
+        backupRecords = cache.putAll(entries, expiryPolicy, callerUuid, completionId);
     }
 
     @Override
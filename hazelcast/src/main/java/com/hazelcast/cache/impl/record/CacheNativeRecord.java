@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cache.impl.record;
+
+import com.hazelcast.cache.impl.CacheDataSerializerHook;
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+
+import java.io.IOException;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+
+/**
+ * Implementation of {@link CacheRecord} which keeps its value and its expiration and access metadata
+ * in a single block of native memory, so only this small handle stays on the heap.
+ * <p>
+ * Block layout: creation time, expiration time and access time as longs, followed by the access hit
+ * count, the value size as ints and the serialized value itself. A {@code null} value has size {@code -1}.
+ * <p>
+ * Since a record which has been removed from its record map can still be used by the operation which
+ * removed it (e.g. to publish an event), such a record is {@link #detach() detached}: its state is copied
+ * to the heap before the block is freed. A record whose store is cleared is {@link #dispose() disposed}
+ * without the copy and must not be used anymore.
+ * <p>
+ * A native record is serialized in the format of {@link CacheDataRecord}, so it is received as an on-heap record,
+ * e.g. by a backup operation.
+ * <p>
+ * Like other cache records, a native record is only accessed by its own partition thread.
+ */
+public class CacheNativeRecord implements CacheRecord<Data>, IdentifiedDataSerializable {
+
+    static final int CREATION_TIME_OFFSET = 0;
+    static final int EXPIRATION_TIME_OFFSET = 8;
+    static final int ACCESS_TIME_OFFSET = 16;
+    static final int ACCESS_HIT_OFFSET = 24;
+    static final int VALUE_SIZE_OFFSET = 28;
+    static final int VALUE_OFFSET = 32;
+
+    private final MemoryManager memoryManager;
+
+    private long address;
+    private CacheDataRecord detachedRecord;
+
+    public CacheNativeRecord(MemoryManager memoryManager, Data value, long creationTime, long expirationTime) {
+        this.memoryManager = memoryManager;
+        this.address = allocate(value);
+        MemoryAccessor accessor = memoryManager.getAccessor();
+        accessor.putLong(address + CREATION_TIME_OFFSET, creationTime);
+        accessor.putLong(address + EXPIRATION_TIME_OFFSET, expirationTime);
+        accessor.putLong(address + ACCESS_TIME_OFFSET, TIME_NOT_AVAILABLE);
+    }
+
+    @Override
+    public Data getValue() {
+        if (detachedRecord != null) {
+            return detachedRecord.getValue();
+        }
+        long address = address();
+        MemoryAccessor accessor = memoryManager.getAccessor();
+        int size = accessor.getInt(address + VALUE_SIZE_OFFSET);
+        if (size < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[size];
+        accessor.copyToByteArray(address + VALUE_OFFSET, bytes, 0, size);
+        return new HeapData(bytes);
+    }
+
+    @Override
+    public void setValue(Data value) {
+        if (detachedRecord != null) {
+            detachedRecord.setValue(value);
+            return;
+        }
+        long oldAddress = address();
+        long newAddress = allocate(value);
+        if (detachedRecord != null) {
+            // this record has been evicted by a forced eviction to make room for the allocation
+            free(newAddress);
+            detachedRecord.setValue(value);
+            return;
+        }
+        memoryManager.getAccessor().copyMemory(oldAddress, newAddress, VALUE_SIZE_OFFSET);
+        free(oldAddress);
+        address = newAddress;
+    }
+
+    @Override
+    public long getCreationTime() {
+        return detachedRecord != null ? detachedRecord.getCreationTime() : getLong(CREATION_TIME_OFFSET);
+    }
+
+    @Override
+    public void setCreationTime(long time) {
+        if (detachedRecord != null) {
+            detachedRecord.setCreationTime(time);
+        } else {
+            putLong(CREATION_TIME_OFFSET, time);
+        }
+    }
+
+    @Override
+    public long getExpirationTime() {
+        return detachedRecord != null ? detachedRecord.getExpirationTime() : getLong(EXPIRATION_TIME_OFFSET);
+    }
+
+    @Override
+    public void setExpirationTime(long expirationTime) {
+        if (detachedRecord != null) {
+            detachedRecord.setExpirationTime(expirationTime);
+        } else {
+            putLong(EXPIRATION_TIME_OFFSET, expirationTime);
+        }
+    }
+
+    @Override
+    public boolean isExpiredAt(long now) {
+        long expirationTime = getExpirationTime();
+        return expirationTime > TIME_NOT_AVAILABLE && expirationTime <= now;
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return detachedRecord != null ? detachedRecord.getLastAccessTime() : getLong(ACCESS_TIME_OFFSET);
+    }
+
+    @Override
+    public void setAccessTime(long time) {
+        if (detachedRecord != null) {
+            detachedRecord.setAccessTime(time);
+        } else {
+            putLong(ACCESS_TIME_OFFSET, time);
+        }
+    }
+
+    @Override
+    public int getAccessHit() {
+        if (detachedRecord != null) {
+            return detachedRecord.getAccessHit();
+        }
+        return memoryManager.getAccessor().getInt(address() + ACCESS_HIT_OFFSET);
+    }
+
+    @Override
+    public void setAccessHit(int hit) {
+        if (detachedRecord != null) {
+            detachedRecord.setAccessHit(hit);
+        } else {
+            memoryManager.getAccessor().putInt(address() + ACCESS_HIT_OFFSET, hit);
+        }
+    }
+
+    @Override
+    public void incrementAccessHit() {
+        setAccessHit(getAccessHit() + 1);
+    }
+
+    @Override
+    public void resetAccessHit() {
+        setAccessHit(0);
+    }
+
+    /**
+     * Creates an on-heap copy of this record.
+     */
+    public CacheDataRecord toHeapRecord() {
+        CacheDataRecord record = new CacheDataRecord(getValue(), getCreationTime(), getExpirationTime());
+        record.setAccessTime(getLastAccessTime());
+        record.setAccessHit(getAccessHit());
+        return record;
+    }
+
+    /**
+     * Moves the state of this record to the heap and frees its native memory block.
+     * The record stays fully usable afterwards.
+     */
+    public void detach() {
+        if (detachedRecord != null || address == NULL_ADDRESS) {
+            return;
+        }
+        CacheDataRecord record = toHeapRecord();
+        free(address);
+        address = NULL_ADDRESS;
+        detachedRecord = record;
+    }
+
+    /**
+     * Frees the native memory block of this record without keeping its state.
+     * The record must not be used afterwards.
+     */
+    public void dispose() {
+        if (address != NULL_ADDRESS) {
+            free(address);
+            address = NULL_ADDRESS;
+        }
+    }
+
+    @Override
+    public void writeData(ObjectDataOutput out) throws IOException {
+        out.writeLong(getCreationTime());
+        out.writeLong(getExpirationTime());
+        out.writeLong(getLastAccessTime());
+        out.writeInt(getAccessHit());
+        out.writeData(getValue());
+    }
+
+    @Override
+    public void readData(ObjectDataInput in) throws IOException {
+        throw new UnsupportedOperationException("Native cache records are read as " + CacheDataRecord.class.getName());
+    }
+
+    @Override
+    public int getFactoryId() {
+        return CacheDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getId() {
+        return CacheDataSerializerHook.CACHE_DATA_RECORD;
+    }
+
+    private long allocate(Data value) {
+        byte[] bytes = value != null ? value.toByteArray() : null;
+        int size = bytes != null ? bytes.length : 0;
+        long address = memoryManager.getAllocator().allocate(VALUE_OFFSET + size);
+        MemoryAccessor accessor = memoryManager.getAccessor();
+        if (bytes != null) {
+            accessor.putInt(address + VALUE_SIZE_OFFSET, size);
+            accessor.copyFromByteArray(bytes, 0, address + VALUE_OFFSET, size);
+        } else {
+            accessor.putInt(address + VALUE_SIZE_OFFSET, -1);
+        }
+        return address;
+    }
+
+    private void free(long address) {
+        int size = memoryManager.getAccessor().getInt(address + VALUE_SIZE_OFFSET);
+        memoryManager.getAllocator().free(address, VALUE_OFFSET + Math.max(size, 0));
+    }
+
+    private long getLong(int offset) {
+        return memoryManager.getAccessor().getLong(address() + offset);
+    }
+
+    private void putLong(int offset, long value) {
+        memoryManager.getAccessor().putLong(address() + offset, value);
+    }
+
+    private long address() {
+        if (address == NULL_ADDRESS) {
+            throw new IllegalStateException("Native cache record has already been disposed!");
+        }
+        return address;
+    }
+}
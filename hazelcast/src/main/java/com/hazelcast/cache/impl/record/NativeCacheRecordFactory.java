@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cache.impl.record;
+
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.internal.memory.MemoryManager;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+
+/**
+ * Provides {@link CacheNativeRecord}s for caches with {@link InMemoryFormat#NATIVE} in-memory format.
+ */
+public class NativeCacheRecordFactory extends CacheRecordFactory<CacheRecord> {
+
+    private final MemoryManager memoryManager;
+
+    public NativeCacheRecordFactory(MemoryManager memoryManager, SerializationService serializationService) {
+        super(InMemoryFormat.NATIVE, serializationService);
+        this.memoryManager = memoryManager;
+    }
+
+    @Override
+    public CacheRecord newRecordWithExpiry(Object value, long creationTime, long expiryTime) {
+        Data dataValue = serializationService.toData(value);
+        return new CacheNativeRecord(memoryManager, dataValue, creationTime, expiryTime);
+    }
+
+    /**
+     * Copies the given on-heap record (e.g. a replicated one) into native memory.
+     *
+     * @param record the record to copy
+     * @return the native copy of the record
+     */
+    public CacheRecord toNativeRecord(CacheRecord record) {
+        if (record instanceof CacheNativeRecord) {
+            return record;
+        }
+        CacheRecord nativeRecord = newRecordWithExpiry(record.getValue(), record.getCreationTime(),
+                record.getExpirationTime());
+        nativeRecord.setAccessTime(record.getLastAccessTime());
+        nativeRecord.setAccessHit(record.getAccessHit());
+        return nativeRecord;
+    }
+}
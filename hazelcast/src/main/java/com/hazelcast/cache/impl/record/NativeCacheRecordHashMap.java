@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cache.impl.record;
+
+import com.hazelcast.cache.impl.CacheContext;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link CacheRecordHashMap} for {@link CacheNativeRecord}s which releases the native memory of the
+ * records leaving the map.
+ * <p>
+ * Replaced and removed records are {@link CacheNativeRecord#detach() detached} since the calling operation
+ * may still use them, records removed by {@link #clear()} are {@link CacheNativeRecord#dispose() disposed}.
+ */
+public class NativeCacheRecordHashMap extends CacheRecordHashMap {
+
+    private static final long serialVersionUID = 1L;
+
+    public NativeCacheRecordHashMap(SerializationService serializationService,
+                                    int initialCapacity, CacheContext cacheContext) {
+        super(serializationService, initialCapacity, cacheContext);
+    }
+
+    @Override
+    public CacheRecord put(Data key, CacheRecord value) {
+        CacheRecord oldRecord = super.put(key, value);
+        if (oldRecord != value) {
+            detach(oldRecord);
+        }
+        return oldRecord;
+    }
+
+    @Override
+    public CacheRecord remove(Object key) {
+        CacheRecord removedRecord = super.remove(key);
+        detach(removedRecord);
+        return removedRecord;
+    }
+
+    @Override
+    public boolean remove(Object key, Object value) {
+        boolean removed = super.remove(key, value);
+        if (removed) {
+            detach(value);
+        }
+        return removed;
+    }
+
+    @Override
+    public void clear() {
+        List<CacheRecord> removedRecords = new ArrayList<CacheRecord>(values());
+        super.clear();
+        for (CacheRecord record : removedRecords) {
+            if (record instanceof CacheNativeRecord) {
+                ((CacheNativeRecord) record).dispose();
+            }
+        }
+    }
+
+    private static void detach(Object record) {
+        if (record instanceof CacheNativeRecord) {
+            ((CacheNativeRecord) record).detach();
+        }
+    }
+}
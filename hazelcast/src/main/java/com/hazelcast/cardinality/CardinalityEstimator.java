@@ -20,6 +20,8 @@ import com.hazelcast.core.DistributedObject;
 import com.hazelcast.core.ICompletableFuture;
 import com.hazelcast.spi.annotation.Beta;
 
+import java.util.Collection;
+
 /**
  * CardinalityEstimator is a redundant and highly available distributed data-structure used
  * for probabilistic cardinality estimation purposes, on unique items, in significantly sized data cultures.
@@ -43,6 +45,30 @@ public interface CardinalityEstimator extends DistributedObject {
      */
     void add(Object obj);
 
+    /**
+     * Adds all objects of the collection in the estimation set with a single request.
+     * This is the method you want to use to feed many objects at once into the estimator.
+     *
+     * Objects are considered identical if they are serialized into the same binary blob.
+     * In other words: It does <strong>not</strong> use Java equality.
+     *
+     * @param objects objects to add in the estimation set.
+     * @throws NullPointerException if the collection or any of its objects is null
+     * @since 3.9
+     */
+    void addAll(Collection<?> objects);
+
+    /**
+     * Merges the estimation set of another estimator into this one, so this estimator estimates
+     * the cardinality of the union of both. The other estimator is not modified.
+     *
+     * This is not supported by the client yet.
+     *
+     * @param other the estimator to merge into this one.
+     * @throws NullPointerException if other is null
+     * @since 3.9
+     */
+    void merge(CardinalityEstimator other);
 
     /**
      * Estimates the cardinality of the aggregation so far.
@@ -91,6 +117,19 @@ public interface CardinalityEstimator extends DistributedObject {
      */
     ICompletableFuture<Void> addAsync(Object obj);
 
+    /**
+     * Adds all objects of the collection in the estimation set with a single request.
+     *
+     * This method will dispatch a request and return immediately an {@link ICompletableFuture}.
+     * See {@link #addAsync(Object)} for examples of its use.
+     *
+     * @param objects objects to add in the estimation set.
+     * @return an {@link ICompletableFuture} API consumers can use to track execution of this request.
+     * @throws NullPointerException if the collection or any of its objects is null
+     * @since 3.9
+     */
+    ICompletableFuture<Void> addAllAsync(Collection<?> objects);
+
     /**
      * Estimates the cardinality of the aggregation so far.
      * If it was previously estimated and never invalidated, then a cached version is used.
@@ -49,6 +49,18 @@ public class CardinalityEstimatorContainer implements IdentifiedDataSerializable
         hll.add(hash);
     }
 
+    public void addAll(long[] hashes) {
+        hll.addAll(hashes);
+    }
+
+    public void merge(HyperLogLog other) {
+        hll.merge(other);
+    }
+
+    public HyperLogLog getHyperLogLog() {
+        return hll;
+    }
+
     public long estimate() {
         return hll.estimate();
     }
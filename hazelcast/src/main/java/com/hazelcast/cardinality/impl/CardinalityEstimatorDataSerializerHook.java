@@ -19,9 +19,14 @@ package com.hazelcast.cardinality.impl;
 import com.hazelcast.cardinality.impl.hyperloglog.impl.DenseHyperLogLogEncoder;
 import com.hazelcast.cardinality.impl.hyperloglog.impl.HyperLogLogImpl;
 import com.hazelcast.cardinality.impl.hyperloglog.impl.SparseHyperLogLogEncoder;
+import com.hazelcast.cardinality.impl.operations.AggregateAllBackupOperation;
+import com.hazelcast.cardinality.impl.operations.AggregateAllOperation;
 import com.hazelcast.cardinality.impl.operations.AggregateBackupOperation;
 import com.hazelcast.cardinality.impl.operations.AggregateOperation;
 import com.hazelcast.cardinality.impl.operations.EstimateOperation;
+import com.hazelcast.cardinality.impl.operations.GetHyperLogLogOperation;
+import com.hazelcast.cardinality.impl.operations.MergeBackupOperation;
+import com.hazelcast.cardinality.impl.operations.MergeOperation;
 import com.hazelcast.cardinality.impl.operations.ReplicationOperation;
 import com.hazelcast.internal.serialization.DataSerializerHook;
 import com.hazelcast.internal.serialization.impl.FactoryIdHelper;
@@ -45,6 +50,11 @@ public final class CardinalityEstimatorDataSerializerHook
     public static final int HLL = 5;
     public static final int HLL_DENSE_ENC = 6;
     public static final int HLL_SPARSE_ENC = 7;
+    public static final int ADD_ALL = 8;
+    public static final int AGGREGATE_ALL_BACKUP = 9;
+    public static final int GET_HLL = 10;
+    public static final int MERGE = 11;
+    public static final int MERGE_BACKUP = 12;
 
     @Override
     public int getFactoryId() {
@@ -73,6 +83,16 @@ public final class CardinalityEstimatorDataSerializerHook
                         return new DenseHyperLogLogEncoder();
                     case HLL_SPARSE_ENC:
                         return new SparseHyperLogLogEncoder();
+                    case ADD_ALL:
+                        return new AggregateAllOperation();
+                    case AGGREGATE_ALL_BACKUP:
+                        return new AggregateAllBackupOperation();
+                    case GET_HLL:
+                        return new GetHyperLogLogOperation();
+                    case MERGE:
+                        return new MergeOperation();
+                    case MERGE_BACKUP:
+                        return new MergeBackupOperation();
                     default:
                         return null;
                 }
@@ -17,13 +17,20 @@
 package com.hazelcast.cardinality.impl;
 
 import com.hazelcast.cardinality.CardinalityEstimator;
+import com.hazelcast.cardinality.impl.hyperloglog.HyperLogLog;
+import com.hazelcast.cardinality.impl.operations.AggregateAllOperation;
 import com.hazelcast.cardinality.impl.operations.AggregateOperation;
 import com.hazelcast.cardinality.impl.operations.EstimateOperation;
+import com.hazelcast.cardinality.impl.operations.GetHyperLogLogOperation;
+import com.hazelcast.cardinality.impl.operations.MergeOperation;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.AbstractDistributedObject;
 import com.hazelcast.spi.InternalCompletableFuture;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import java.util.Collection;
 
 import static com.hazelcast.util.Preconditions.checkNotNull;
 
@@ -55,11 +62,32 @@ class CardinalityEstimatorProxy
         addAsync(obj).join();
     }
 
+    @Override
+    public void addAll(Collection<?> objects) {
+        addAllAsync(objects).join();
+    }
+
     @Override
     public long estimate() {
         return estimateAsync().join();
     }
 
+    @Override
+    public void merge(CardinalityEstimator other) {
+        checkNotNull(other, "Other estimator is null.");
+        String otherName = other.getName();
+        Data otherPartitionKey = getNodeEngine().getSerializationService().toData(otherName, PARTITIONING_STRATEGY);
+        int otherPartitionId = getPartitionId(otherPartitionKey);
+
+        Operation getOperation = new GetHyperLogLogOperation(otherName)
+                .setPartitionId(otherPartitionId);
+        HyperLogLog otherHll = this.<HyperLogLog>invokeOnPartition(getOperation).join();
+
+        Operation mergeOperation = new MergeOperation(name, otherHll)
+                .setPartitionId(partitionId);
+        invokeOnPartition(mergeOperation).join();
+    }
+
     @Override
     public InternalCompletableFuture<Void> addAsync(Object obj) {
         checkNotNull(obj, "Object is null.");
@@ -69,6 +97,22 @@ class CardinalityEstimatorProxy
         return invokeOnPartition(operation);
     }
 
+    @Override
+    public InternalCompletableFuture<Void> addAllAsync(Collection<?> objects) {
+        checkNotNull(objects, "Objects are null.");
+        SerializationService serializationService = getNodeEngine().getSerializationService();
+        // a snapshot, so a concurrently modified collection can't overflow or underfill the hashes
+        Object[] objectArray = objects.toArray();
+        long[] hashes = new long[objectArray.length];
+        for (int i = 0; i < objectArray.length; i++) {
+            checkNotNull(objectArray[i], "Object is null.");
+            hashes[i] = serializationService.toData(objectArray[i]).hash64();
+        }
+        Operation operation = new AggregateAllOperation(name, hashes)
+                .setPartitionId(partitionId);
+        return invokeOnPartition(operation);
+    }
+
     @Override
     public InternalCompletableFuture<Long> estimateAsync() {
         Operation operation = new EstimateOperation(name)
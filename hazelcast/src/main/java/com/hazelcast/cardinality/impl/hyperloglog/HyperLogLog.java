@@ -53,4 +53,16 @@ public interface HyperLogLog extends IdentifiedDataSerializable {
      * @param hashes the hash values array to aggregate
      */
     void addAll(long[] hashes);
+
+    /**
+     * Merges the registers of another HyperLogLog into this one, so this HyperLogLog estimates
+     * the cardinality of the union of both. The estimate of the other HyperLogLog is not affected.
+     * <p>
+     * The result is always densely encoded, since sparse registers can't be merged without
+     * losing their additional precision.
+     *
+     * @param other the HyperLogLog to merge
+     * @throws IllegalArgumentException if the other HyperLogLog has a different precision
+     */
+    void merge(HyperLogLog other);
 }
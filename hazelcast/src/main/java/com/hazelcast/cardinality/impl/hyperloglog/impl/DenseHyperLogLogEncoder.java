@@ -79,6 +79,59 @@ public class DenseHyperLogLogEncoder implements HyperLogLogEncoder {
         return false;
     }
 
+    /**
+     * Aggregates the hash values starting at the given index of the array.
+     *
+     * @param hashes    the hash values to aggregate
+     * @param fromIndex the index of the first hash value to aggregate
+     * @return {@code true} if any register was changed
+     */
+    public boolean addAll(long[] hashes, int fromIndex) {
+        // the fields are read once, so the loop only touches the register array
+        final byte[] register = this.register;
+        final int indexMask = register.length - 1;
+        final int p = this.p;
+        final long pFenseMask = this.pFenseMask;
+
+        boolean changed = false;
+        for (int i = fromIndex; i < hashes.length; i++) {
+            long hash = hashes[i];
+            int index = (int) hash & indexMask;
+            int value = Long.numberOfTrailingZeros((hash >>> p) | pFenseMask) + 1;
+            if (value > register[index]) {
+                register[index] = (byte) value;
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Merges the registers of the given encoder into the registers of this encoder,
+     * so this encoder estimates the cardinality of the union of both.
+     *
+     * @param other the encoder to merge
+     * @return {@code true} if any register was changed
+     * @throws IllegalArgumentException if the encoders have a different precision
+     */
+    public boolean merge(DenseHyperLogLogEncoder other) {
+        if (other.p != p) {
+            throw new IllegalArgumentException("Cannot merge HyperLogLog with precision " + other.p
+                    + " into HyperLogLog with precision " + p);
+        }
+
+        final byte[] register = this.register;
+        final byte[] otherRegister = other.register;
+        boolean changed = false;
+        for (int i = 0; i < register.length; i++) {
+            if (otherRegister[i] > register[i]) {
+                register[i] = otherRegister[i];
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
     @Override
     public long estimate() {
         final double raw = (1 / computeE()) * alpha() * m * m;
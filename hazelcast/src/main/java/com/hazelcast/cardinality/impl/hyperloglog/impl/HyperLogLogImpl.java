@@ -77,9 +77,31 @@ public class HyperLogLogImpl implements HyperLogLog {
 
     @Override
     public void addAll(long[] hashes) {
-        for (long hash : hashes) {
-            add(hash);
+        int i = 0;
+        // the sparse encoding may be converted to the dense one in the middle of the batch
+        while (i < hashes.length && SPARSE.equals(encoder.getEncodingType())) {
+            add(hashes[i++]);
         }
+        if (i < hashes.length && ((DenseHyperLogLogEncoder) encoder).addAll(hashes, i)) {
+            cachedEstimate = null;
+        }
+    }
+
+    @Override
+    public void merge(HyperLogLog other) {
+        if (!(other instanceof HyperLogLogImpl)) {
+            throw new IllegalArgumentException("Cannot merge " + other + " into " + this);
+        }
+
+        HyperLogLogEncoder otherEncoder = ((HyperLogLogImpl) other).encoder;
+        if (SPARSE.equals(otherEncoder.getEncodingType())) {
+            otherEncoder = ((SparseHyperLogLogEncoder) otherEncoder).asDense();
+        }
+        if (SPARSE.equals(encoder.getEncodingType())) {
+            encoder = ((SparseHyperLogLogEncoder) encoder).asDense();
+        }
+        ((DenseHyperLogLogEncoder) encoder).merge((DenseHyperLogLogEncoder) otherEncoder);
+        cachedEstimate = null;
     }
 
     @Override
@@ -127,6 +127,7 @@ public class SparseHyperLogLogEncoder implements HyperLogLogEncoder  {
     }
 
     public HyperLogLogEncoder asDense() {
+        mergeAndResetTmp();
         byte[] dense = new byte[1 << this.p];
         for (int hash : register.explode()) {
             int index = decodeHashPIndex(hash);
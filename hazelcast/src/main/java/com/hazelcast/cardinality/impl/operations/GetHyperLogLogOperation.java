@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cardinality.impl.operations;
+
+import com.hazelcast.cardinality.impl.CardinalityEstimatorDataSerializerHook;
+
+/**
+ * Returns a serialized copy of the HyperLogLog of an estimator, so it can be merged into another estimator
+ * while the original keeps being updated on its partition thread.
+ */
+public class GetHyperLogLogOperation
+        extends AbstractCardinalityEstimatorOperation {
+
+    private Object hll;
+
+    public GetHyperLogLogOperation() { }
+
+    public GetHyperLogLogOperation(String name) {
+        super(name);
+    }
+
+    @Override
+    public int getId() {
+        return CardinalityEstimatorDataSerializerHook.GET_HLL;
+    }
+
+    @Override
+    public void run() throws Exception {
+        hll = getNodeEngine().toData(getCardinalityEstimatorContainer().getHyperLogLog());
+    }
+
+    @Override
+    public Object getResponse() {
+        return hll;
+    }
+}
@@ -42,6 +42,7 @@ import com.hazelcast.core.Member;
 import com.hazelcast.instance.MemberImpl;
 import com.hazelcast.instance.Node;
 import com.hazelcast.internal.cluster.ClusterService;
+import com.hazelcast.internal.metrics.LatencyHistograms;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.Connection;
@@ -88,6 +89,7 @@ import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
+import static com.hazelcast.internal.metrics.LatencyHistograms.newLatencyHistogramsIfEnabled;
 import static com.hazelcast.spi.impl.OperationResponseHandlerFactory.createEmptyResponseHandler;
 
 /**
@@ -130,6 +132,8 @@ public class ClientEngineImpl implements ClientEngine, CoreService, PostJoinAwar
     private final MessageTaskFactory messageTaskFactory;
     private final ClientExceptionFactory clientExceptionFactory;
     private final int endpointRemoveDelaySeconds;
+    // null if the latency histograms are disabled
+    private final LatencyHistograms messageTaskLatencyHistograms;
 
 
     public ClientEngineImpl(Node node) {
@@ -143,6 +147,8 @@ public class ClientEngineImpl implements ClientEngine, CoreService, PostJoinAwar
         this.messageTaskFactory = new CompositeMessageTaskFactory(this.nodeEngine);
         this.clientExceptionFactory = initClientExceptionFactory();
         this.endpointRemoveDelaySeconds = node.getProperties().getInteger(GroupProperty.CLIENT_ENDPOINT_REMOVE_DELAY_SECONDS);
+        this.messageTaskLatencyHistograms = newLatencyHistogramsIfEnabled(
+                nodeEngine.getMetricsRegistry(), "client.messageTask.latency");
         ClientHeartbeatMonitor heartbeatMonitor = new ClientHeartbeatMonitor(
                 endpointManager, this, nodeEngine.getExecutionService(), node.getProperties());
         heartbeatMonitor.start();
@@ -211,6 +217,8 @@ public class ClientEngineImpl implements ClientEngine, CoreService, PostJoinAwar
                 executor.execute(messageTask);
             }
         } else {
+            // partition bound tasks go straight to the thread owning the partition, which then runs the operation
+            // of the task in place, so there is no handoff between decoding the request and executing it
             operationService.execute(messageTask);
         }
     }
@@ -286,6 +294,15 @@ public class ClientEngineImpl implements ClientEngine, CoreService, PostJoinAwar
         return clientExceptionFactory;
     }
 
+    /**
+     * Returns the latency histograms of the message tasks.
+     *
+     * @return the histograms or {@code null} if they are disabled
+     */
+    public LatencyHistograms getMessageTaskLatencyHistograms() {
+        return messageTaskLatencyHistograms;
+    }
+
     @Override
     public SecurityContext getSecurityContext() {
         return node.securityContext;
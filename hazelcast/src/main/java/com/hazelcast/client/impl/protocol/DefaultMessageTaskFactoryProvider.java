@@ -18,8 +18,10 @@ package com.hazelcast.client.impl.protocol;
 
 import com.hazelcast.client.impl.protocol.task.MessageTask;
 import com.hazelcast.client.impl.protocol.task.cache.Pre38CacheAddInvalidationListenerTask;
+import com.hazelcast.client.impl.protocol.task.cardinality.CardinalityEstimatorAddAllMessageTask;
 import com.hazelcast.client.impl.protocol.task.cardinality.CardinalityEstimatorAddMessageTask;
 import com.hazelcast.client.impl.protocol.task.cardinality.CardinalityEstimatorEstimateMessageTask;
+import com.hazelcast.client.impl.protocol.task.cardinality.CardinalityEstimatorMergeMessageTask;
 import com.hazelcast.client.impl.protocol.task.executorservice.durable.DurableExecutorDisposeResultMessageTask;
 import com.hazelcast.client.impl.protocol.task.executorservice.durable.DurableExecutorRetrieveAndDisposeResultMessageTask;
 import com.hazelcast.client.impl.protocol.task.executorservice.durable.DurableExecutorRetrieveResultMessageTask;
@@ -1901,6 +1903,25 @@ public class DefaultMessageTaskFactoryProvider implements MessageTaskFactoryProv
                 return new com.hazelcast.client.impl.protocol.task.map.MapPublisherCreateWithValueMessageTask(clientMessage, node, connection);
             }
         };
+//endregion
+        //region ----------  REGISTRATION FOR batched requests of com.hazelcast.client.impl.protocol.task
+        factories[com.hazelcast.client.impl.protocol.codec.ClientBatchCodec.REQUEST_TYPE] = new MessageTaskFactory() {
+            public MessageTask create(ClientMessage clientMessage, Connection connection) {
+                return new com.hazelcast.client.impl.protocol.task.BatchMessageTask(clientMessage, node, connection);
+            }
+        };
+//endregion
+        //region ----------  REGISTRATION FOR batched and merging requests of com.hazelcast.client.impl.protocol.task.cardinality
+        factories[com.hazelcast.client.impl.protocol.codec.CardinalityEstimatorAddAllCodec.REQUEST_TYPE] = new MessageTaskFactory() {
+            public MessageTask create(ClientMessage clientMessage, Connection connection) {
+                return new CardinalityEstimatorAddAllMessageTask(clientMessage, node, connection);
+            }
+        };
+        factories[com.hazelcast.client.impl.protocol.codec.CardinalityEstimatorMergeCodec.REQUEST_TYPE] = new MessageTaskFactory() {
+            public MessageTask create(ClientMessage clientMessage, Connection connection) {
+                return new CardinalityEstimatorMergeMessageTask(clientMessage, node, connection);
+            }
+        };
 //endregion
     }
 
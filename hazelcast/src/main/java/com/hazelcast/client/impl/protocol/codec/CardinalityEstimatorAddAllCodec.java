@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.impl.protocol.codec;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.util.ParameterUtil;
+
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+
+/**
+ * Codec of the request adding the hashes of several objects to a cardinality estimator in a single message.
+ * <p>
+ * The codec isn't part of the generated protocol definitions, so the message type is picked outside of the ranges
+ * used by them.
+ */
+public final class CardinalityEstimatorAddAllCodec {
+
+    public static final int REQUEST_TYPE = 0x7F02;
+    /**
+     * The message type of the void responses.
+     */
+    public static final int RESPONSE_TYPE = 100;
+    public static final boolean RETRYABLE = false;
+
+    private CardinalityEstimatorAddAllCodec() {
+    }
+
+    public static class RequestParameters {
+        public String name;
+        public long[] hashes;
+    }
+
+    public static ClientMessage encodeRequest(String name, long[] hashes) {
+        int dataSize = ClientMessage.HEADER_SIZE + ParameterUtil.calculateDataSize(name)
+                + INT_SIZE_IN_BYTES + hashes.length * LONG_SIZE_IN_BYTES;
+        ClientMessage clientMessage = ClientMessage.createForEncode(dataSize);
+        clientMessage.setMessageType(REQUEST_TYPE);
+        clientMessage.setRetryable(RETRYABLE);
+        clientMessage.set(name);
+        clientMessage.set(hashes.length);
+        for (long hash : hashes) {
+            clientMessage.set(hash);
+        }
+        clientMessage.updateFrameLength();
+        return clientMessage;
+    }
+
+    public static RequestParameters decodeRequest(ClientMessage clientMessage) {
+        RequestParameters parameters = new RequestParameters();
+        parameters.name = clientMessage.getStringUtf8();
+        long[] hashes = new long[clientMessage.getInt()];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = clientMessage.getLong();
+        }
+        parameters.hashes = hashes;
+        return parameters;
+    }
+
+    public static ClientMessage encodeResponse() {
+        ClientMessage clientMessage = ClientMessage.createForEncode(ClientMessage.HEADER_SIZE);
+        clientMessage.setMessageType(RESPONSE_TYPE);
+        clientMessage.updateFrameLength();
+        return clientMessage;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.impl.protocol.codec;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.util.ParameterUtil;
+
+/**
+ * Codec of the request merging the state of one cardinality estimator into another one.
+ * <p>
+ * The codec isn't part of the generated protocol definitions, so the message type is picked outside of the ranges
+ * used by them.
+ */
+public final class CardinalityEstimatorMergeCodec {
+
+    public static final int REQUEST_TYPE = 0x7F03;
+    /**
+     * The message type of the void responses.
+     */
+    public static final int RESPONSE_TYPE = 100;
+    public static final boolean RETRYABLE = false;
+
+    private CardinalityEstimatorMergeCodec() {
+    }
+
+    public static class RequestParameters {
+        public String name;
+        public String otherName;
+    }
+
+    public static ClientMessage encodeRequest(String name, String otherName) {
+        int dataSize = ClientMessage.HEADER_SIZE + ParameterUtil.calculateDataSize(name)
+                + ParameterUtil.calculateDataSize(otherName);
+        ClientMessage clientMessage = ClientMessage.createForEncode(dataSize);
+        clientMessage.setMessageType(REQUEST_TYPE);
+        clientMessage.setRetryable(RETRYABLE);
+        clientMessage.set(name);
+        clientMessage.set(otherName);
+        clientMessage.updateFrameLength();
+        return clientMessage;
+    }
+
+    public static RequestParameters decodeRequest(ClientMessage clientMessage) {
+        RequestParameters parameters = new RequestParameters();
+        parameters.name = clientMessage.getStringUtf8();
+        parameters.otherName = clientMessage.getStringUtf8();
+        return parameters;
+    }
+
+    public static ClientMessage encodeResponse() {
+        ClientMessage clientMessage = ClientMessage.createForEncode(ClientMessage.HEADER_SIZE);
+        clientMessage.setMessageType(RESPONSE_TYPE);
+        clientMessage.updateFrameLength();
+        return clientMessage;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.impl.protocol.codec;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.util.ClientProtocolBuffer;
+import com.hazelcast.client.impl.protocol.util.SafeBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+
+/**
+ * Codec of a batch of complete client request messages, which a client sends to a member in a single message.
+ * <p>
+ * The member executes the requests as if they had been sent separately, so each of them is answered by its own
+ * response carrying the correlation id of the request; the batch itself isn't answered. The codec isn't part of
+ * the generated protocol definitions, so the message type is picked outside of the ranges used by them.
+ */
+public final class ClientBatchCodec {
+
+    public static final int REQUEST_TYPE = 0x7F01;
+    public static final boolean RETRYABLE = false;
+
+    private ClientBatchCodec() {
+    }
+
+    /**
+     * Encodes the given request messages, which have to be complete frames, into a batch message.
+     */
+    public static ClientMessage encodeRequest(List<ClientMessage> requests) {
+        int dataSize = ClientMessage.HEADER_SIZE + INT_SIZE_IN_BYTES;
+        for (ClientMessage request : requests) {
+            dataSize += INT_SIZE_IN_BYTES + request.getFrameLength();
+        }
+        ClientMessage clientMessage = ClientMessage.createForEncode(dataSize);
+        clientMessage.setMessageType(REQUEST_TYPE);
+        clientMessage.setRetryable(RETRYABLE);
+        clientMessage.set(requests.size());
+        ClientProtocolBuffer buffer = clientMessage.buffer();
+        for (ClientMessage request : requests) {
+            int frameLength = request.getFrameLength();
+            clientMessage.set(frameLength);
+            buffer.putBytes(clientMessage.index(), request.buffer().byteArray(), 0, frameLength);
+            clientMessage.index(clientMessage.index() + frameLength);
+        }
+        clientMessage.updateFrameLength();
+        return clientMessage;
+    }
+
+    /**
+     * Decodes the request messages of a batch message, each of them is copied to a buffer of its own.
+     */
+    public static List<ClientMessage> decodeRequest(ClientMessage clientMessage) {
+        int count = clientMessage.getInt();
+        List<ClientMessage> requests = new ArrayList<ClientMessage>(count);
+        for (int i = 0; i < count; i++) {
+            byte[] frame = clientMessage.getByteArray();
+            requests.add(ClientMessage.createForDecode(new SafeBuffer(frame), 0));
+        }
+        return requests;
+    }
+}
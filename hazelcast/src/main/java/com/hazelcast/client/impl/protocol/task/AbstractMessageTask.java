@@ -26,6 +26,7 @@ import com.hazelcast.client.impl.protocol.ClientMessage;
 import com.hazelcast.core.HazelcastInstanceNotActiveException;
 import com.hazelcast.instance.BuildInfo;
 import com.hazelcast.instance.Node;
+import com.hazelcast.internal.metrics.LatencyHistograms;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.Connection;
@@ -53,6 +54,9 @@ public abstract class AbstractMessageTask<P> implements MessageTask, SecureReque
     protected final ClientEngineImpl clientEngine;
     protected P parameters;
     private final Node node;
+    // null if the latency histograms are disabled
+    private final LatencyHistograms latencyHistograms;
+    private final long startNanos;
 
     protected AbstractMessageTask(ClientMessage clientMessage, Node node, Connection connection) {
         this.clientMessage = clientMessage;
@@ -64,6 +68,8 @@ public abstract class AbstractMessageTask<P> implements MessageTask, SecureReque
         this.clientEngine = node.clientEngine;
         this.endpointManager = clientEngine.getEndpointManager();
         this.endpoint = getEndpoint();
+        this.latencyHistograms = clientEngine.getMessageTaskLatencyHistograms();
+        this.startNanos = latencyHistograms == null ? 0 : System.nanoTime();
     }
 
     @SuppressWarnings("unchecked")
@@ -208,6 +214,10 @@ public abstract class AbstractMessageTask<P> implements MessageTask, SecureReque
         // not allow any interleaving with operations. It will only slow down the system. Framing should be done inside
         // the io system; not outside.
         connection.write(resultClientMessage);
+        // a task sends a single response, but listener registrations send their events through this method too
+        if (latencyHistograms != null && !resultClientMessage.isFlagSet(ClientMessage.LISTENER_EVENT_FLAG)) {
+            latencyHistograms.record(getClass(), System.nanoTime() - startNanos);
+        }
     }
 
     protected void sendClientMessage(Object key, ClientMessage resultClientMessage) {
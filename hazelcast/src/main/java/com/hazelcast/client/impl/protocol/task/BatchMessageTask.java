@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.impl.protocol.task;
+
+import com.hazelcast.client.impl.ClientEngineImpl;
+import com.hazelcast.client.impl.protocol.ClientExceptionFactory;
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.ClientBatchCodec;
+import com.hazelcast.instance.Node;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.util.ExceptionUtil;
+
+import java.util.List;
+
+/**
+ * Executes a batch of requests a client has sent in a single {@link ClientBatchCodec} message.
+ * <p>
+ * Each request is handed to the client engine as if it had been received on its own, so it is executed on the
+ * thread it would be executed on otherwise and answered by its own response. The batch itself is never answered,
+ * so unlike the other tasks it doesn't extend {@link AbstractMessageTask}. The authentication and the permissions
+ * are checked by the tasks of the requests.
+ */
+public class BatchMessageTask implements MessageTask {
+
+    private final ClientMessage clientMessage;
+    private final Connection connection;
+    private final ClientEngineImpl clientEngine;
+    private final ILogger logger;
+
+    public BatchMessageTask(ClientMessage clientMessage, Node node, Connection connection) {
+        this.clientMessage = clientMessage;
+        this.connection = connection;
+        this.clientEngine = node.clientEngine;
+        this.logger = node.getLogger(getClass());
+    }
+
+    @Override
+    public int getPartitionId() {
+        return clientMessage.getPartitionId();
+    }
+
+    @Override
+    public void run() {
+        List<ClientMessage> requests;
+        try {
+            requests = ClientBatchCodec.decodeRequest(clientMessage);
+        } catch (Throwable t) {
+            // the requests are unknown, the client fails them when the connection is closed
+            logger.warning("Could not decode a batch of client requests", t);
+            connection.close("Could not decode a batch of client requests", t);
+            return;
+        }
+
+        for (ClientMessage request : requests) {
+            try {
+                clientEngine.handleClientMessage(request, connection);
+            } catch (Throwable t) {
+                sendException(request, t);
+            }
+        }
+    }
+
+    private void sendException(ClientMessage request, Throwable throwable) {
+        ClientExceptionFactory exceptionFactory = clientEngine.getClientExceptionFactory();
+        ClientMessage response = exceptionFactory.createExceptionMessage(ExceptionUtil.peel(throwable));
+        response.setCorrelationId(request.getCorrelationId());
+        response.addFlag(ClientMessage.BEGIN_AND_END_FLAGS);
+        response.setVersion(ClientMessage.VERSION);
+        connection.write(response);
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.client.impl.protocol.task.cardinality;
+
+import com.hazelcast.cardinality.impl.CardinalityEstimatorService;
+import com.hazelcast.cardinality.impl.hyperloglog.HyperLogLog;
+import com.hazelcast.cardinality.impl.operations.GetHyperLogLogOperation;
+import com.hazelcast.cardinality.impl.operations.MergeOperation;
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.client.impl.protocol.codec.CardinalityEstimatorMergeCodec;
+import com.hazelcast.client.impl.protocol.task.AbstractCallableMessageTask;
+import com.hazelcast.instance.Node;
+import com.hazelcast.nio.Connection;
+import com.hazelcast.security.SecurityContext;
+import com.hazelcast.security.permission.ActionConstants;
+import com.hazelcast.security.permission.CardinalityEstimatorPermission;
+import com.hazelcast.spi.OperationService;
+
+import java.security.Permission;
+
+import static com.hazelcast.partition.strategy.StringPartitioningStrategy.getPartitionKey;
+
+/**
+ * Merges an estimator into another one like the member proxy does, by reading the HyperLogLog of the other
+ * estimator from its partition and merging it on the partition of the estimator.
+ */
+public class CardinalityEstimatorMergeMessageTask
+        extends AbstractCallableMessageTask<CardinalityEstimatorMergeCodec.RequestParameters> {
+
+    public CardinalityEstimatorMergeMessageTask(ClientMessage clientMessage, Node node, Connection connection) {
+        super(clientMessage, node, connection);
+    }
+
+    @Override
+    protected Object call() throws Exception {
+        checkReadPermissionOnOther();
+
+        OperationService operationService = nodeEngine.getOperationService();
+        HyperLogLog otherHll = operationService.<HyperLogLog>invokeOnPartition(getServiceName(),
+                new GetHyperLogLogOperation(parameters.otherName), getPartitionId(parameters.otherName)).join();
+        operationService.invokeOnPartition(getServiceName(),
+                new MergeOperation(parameters.name, otherHll), getPartitionId(parameters.name)).join();
+        return null;
+    }
+
+    /**
+     * The other estimator is read, which {@link #getRequiredPermission()} can't express along with the modification.
+     */
+    private void checkReadPermissionOnOther() {
+        SecurityContext securityContext = clientEngine.getSecurityContext();
+        if (securityContext != null) {
+            securityContext.checkPermission(endpoint.getSubject(),
+                    new CardinalityEstimatorPermission(parameters.otherName, ActionConstants.ACTION_READ));
+        }
+    }
+
+    private int getPartitionId(String name) {
+        return nodeEngine.getPartitionService().getPartitionId(getPartitionKey(name));
+    }
+
+    @Override
+    protected CardinalityEstimatorMergeCodec.RequestParameters decodeClientMessage(ClientMessage clientMessage) {
+        return CardinalityEstimatorMergeCodec.decodeRequest(clientMessage);
+    }
+
+    @Override
+    protected ClientMessage encodeResponse(Object response) {
+        return CardinalityEstimatorMergeCodec.encodeResponse();
+    }
+
+    @Override
+    public String getServiceName() {
+        return CardinalityEstimatorService.SERVICE_NAME;
+    }
+
+    @Override
+    public Permission getRequiredPermission() {
+        return new CardinalityEstimatorPermission(parameters.name, ActionConstants.ACTION_MODIFY);
+    }
+
+    @Override
+    public String getDistributedObjectName() {
+        return parameters.name;
+    }
+
+    @Override
+    public String getMethodName() {
+        return "merge";
+    }
+
+    @Override
+    public Object[] getParameters() {
+        return new Object[] { parameters.name, parameters.otherName };
+    }
+}
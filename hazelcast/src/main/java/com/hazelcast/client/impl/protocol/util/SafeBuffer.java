@@ -133,10 +133,8 @@ public class SafeBuffer implements ClientProtocolBuffer {
 
     @Override
     public String getStringUtf8(int offset, int length) {
-        final byte[] stringInBytes = new byte[length];
-        getBytes(offset + Bits.INT_SIZE_IN_BYTES, stringInBytes);
-
-        return new String(stringInBytes, Bits.UTF_8);
+        // decode in place, without copying the bytes first
+        return new String(byteArray(), offset + Bits.INT_SIZE_IN_BYTES, length, Bits.UTF_8);
     }
 
 }
@@ -132,14 +132,15 @@ final class LockResourceImpl implements IdentifiedDataSerializable, LockResource
     private void setExpirationTime(long leaseTime) {
         version++;
         if (leaseTime < 0) {
+            cancelEviction();
             expirationTime = Long.MAX_VALUE;
-            lockStore.cancelEviction(key);
         } else {
-            expirationTime = Clock.currentTimeMillis() + leaseTime;
-            if (expirationTime < 0) {
+            long newExpirationTime = Clock.currentTimeMillis() + leaseTime;
+            if (newExpirationTime < 0) {
+                cancelEviction();
                 expirationTime = Long.MAX_VALUE;
-                lockStore.cancelEviction(key);
             } else {
+                expirationTime = newExpirationTime;
                 lockStore.scheduleEviction(key, version, leaseTime);
             }
         }
@@ -195,7 +196,18 @@ final class LockResourceImpl implements IdentifiedDataSerializable, LockResource
 
         condition.removeWaiter(caller, threadId);
         if (!condition.hasWaiter()) {
-            waiters.remove(conditionId);
+            removeWaitersInfo(conditionId);
+        }
+    }
+
+    /**
+     * Removes the waiters of the condition and drops the waiters map once no condition has waiters anymore,
+     * so that a lock without waiters doesn't keep an empty map alive.
+     */
+    private void removeWaitersInfo(String conditionId) {
+        waiters.remove(conditionId);
+        if (waiters.isEmpty()) {
+            waiters = null;
         }
     }
 
@@ -233,7 +245,7 @@ final class LockResourceImpl implements IdentifiedDataSerializable, LockResource
             iterator.remove();
         }
         if (!condition.hasWaiter()) {
-            this.waiters.remove(conditionId);
+            removeWaitersInfo(conditionId);
         }
 
     }
@@ -257,6 +269,9 @@ final class LockResourceImpl implements IdentifiedDataSerializable, LockResource
     void removeSignalKey(ConditionKey conditionKey) {
         if (conditionKeys != null) {
             conditionKeys.remove(conditionKey);
+            if (conditionKeys.isEmpty()) {
+                conditionKeys = null;
+            }
         }
     }
 
@@ -283,25 +298,36 @@ final class LockResourceImpl implements IdentifiedDataSerializable, LockResource
         Iterator<AwaitOperation> iterator = ops.iterator();
         AwaitOperation awaitResponse = iterator.next();
         iterator.remove();
+        if (ops.isEmpty()) {
+            expiredAwaitOps = null;
+        }
         return awaitResponse;
     }
 
     void clear() {
+        cancelEviction();
         threadId = 0;
         lockCount = 0;
         owner = null;
         referenceId = 0L;
         expirationTime = 0;
         acquireTime = -1L;
-        cancelEviction();
         version = 0;
         transactional = false;
         blockReads = false;
         local = false;
     }
 
-    void cancelEviction() {
-        lockStore.cancelEviction(key);
+    /**
+     * Cancels the eviction of this lock if one has been scheduled.
+     * <p>
+     * An eviction is only scheduled for a finite lease, so acquiring and releasing a lock without a lease,
+     * e.g. one taken by {@code IMap.lock(key)}, doesn't touch the eviction scheduler.
+     */
+    private void cancelEviction() {
+        if (expirationTime > 0 && expirationTime < Long.MAX_VALUE) {
+            lockStore.cancelEviction(key);
+        }
     }
 
     boolean isRemovable() {
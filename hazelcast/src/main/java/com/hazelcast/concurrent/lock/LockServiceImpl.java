@@ -22,6 +22,9 @@ import com.hazelcast.concurrent.lock.operations.UnlockOperation;
 import com.hazelcast.config.LockConfig;
 import com.hazelcast.core.DistributedObject;
 import com.hazelcast.instance.MemberImpl;
+import com.hazelcast.internal.metrics.LatencyHistogram;
+import com.hazelcast.internal.metrics.LatencyHistograms;
+import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.partition.strategy.StringPartitioningStrategy;
 import com.hazelcast.spi.ClientAwareService;
@@ -38,6 +41,7 @@ import com.hazelcast.spi.PartitionMigrationEvent;
 import com.hazelcast.spi.PartitionReplicationEvent;
 import com.hazelcast.spi.QuorumAwareService;
 import com.hazelcast.spi.RemoteService;
+import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.PartitionSpecificRunnable;
 import com.hazelcast.spi.impl.operationservice.InternalOperationService;
 import com.hazelcast.spi.partition.MigrationEndpoint;
@@ -54,6 +58,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
 import static com.hazelcast.util.ConcurrencyUtil.getOrPutSynchronized;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 @SuppressWarnings("checkstyle:methodcount")
 public final class LockServiceImpl implements LockService, ManagedService, RemoteService, MembershipAwareService,
@@ -68,6 +73,8 @@ public final class LockServiceImpl implements LockService, ManagedService, Remot
     private final ConcurrentMap<String, Object> quorumConfigCache = new ConcurrentHashMap<String, Object>();
     private final ContextMutexFactory quorumConfigCacheMutexFactory = new ContextMutexFactory();
     private final long maxLeaseTimeInMillis;
+    // null if the probes of the histogram are not tracked
+    private final LatencyHistogram lockHoldTimes;
 
     public LockServiceImpl(NodeEngine nodeEngine) {
         this.nodeEngine = nodeEngine;
@@ -77,6 +84,8 @@ public final class LockServiceImpl implements LockService, ManagedService, Remot
         }
 
         maxLeaseTimeInMillis = getMaxLeaseTimeInMillis(nodeEngine.getProperties());
+        MetricsRegistry metricsRegistry = ((NodeEngineImpl) nodeEngine).getMetricsRegistry();
+        lockHoldTimes = LatencyHistograms.LEVEL.isEnabled(metricsRegistry.minimumLevel()) ? new LatencyHistogram() : null;
     }
 
     NodeEngine getNodeEngine() {
@@ -85,6 +94,9 @@ public final class LockServiceImpl implements LockService, ManagedService, Remot
 
     @Override
     public void init(NodeEngine nodeEngine, Properties properties) {
+        if (lockHoldTimes != null) {
+            ((NodeEngineImpl) nodeEngine).getMetricsRegistry().scanAndRegister(lockHoldTimes, "lock.holdTime");
+        }
         registerLockStoreConstructor(SERVICE_NAME, new ConstructorFunction<ObjectNamespace, LockStoreInfo>() {
             public LockStoreInfo createNew(ObjectNamespace key) {
                 return new LockStoreInfo() {
@@ -123,6 +135,24 @@ public final class LockServiceImpl implements LockService, ManagedService, Remot
         return maxLeaseTimeInMillis;
     }
 
+    /**
+     * Returns {@code true} if the hold times of the locks are recorded.
+     */
+    public boolean isLockHoldTimeRecorded() {
+        return lockHoldTimes != null;
+    }
+
+    /**
+     * Records the time a lock was held until it has been released by its owner.
+     *
+     * @param acquireTime the time in millis when the lock was acquired, ignored if negative
+     */
+    public void recordLockHoldTime(long acquireTime) {
+        if (lockHoldTimes != null && acquireTime >= 0) {
+            lockHoldTimes.recordMicros(MILLISECONDS.toMicros(Clock.currentTimeMillis() - acquireTime));
+        }
+    }
+
     @Override
     public void registerLockStoreConstructor(String serviceName,
                                              ConstructorFunction<ObjectNamespace, LockStoreInfo> constructorFunction) {
@@ -192,7 +192,6 @@ public final class LockStoreImpl implements IdentifiedDataSerializable, LockStor
             lock.clear();
             if (lock.isRemovable()) {
                 locks.remove(key);
-                lock.cancelEviction();
             }
             return true;
         }
@@ -205,6 +204,14 @@ public final class LockStoreImpl implements IdentifiedDataSerializable, LockStor
         }
     }
 
+    /**
+     * Returns the time in millis when the lock of the key was acquired, or -1 if the key is not locked.
+     */
+    public long getAcquireTime(Data key) {
+        LockResourceImpl lock = locks.get(key);
+        return lock == null ? -1L : lock.getAcquireTime();
+    }
+
     public int getVersion(Data key) {
         LockResourceImpl lock = locks.get(key);
         if (lock != null) {
@@ -17,6 +17,7 @@
 package com.hazelcast.concurrent.lock.operations;
 
 import com.hazelcast.concurrent.lock.LockDataSerializerHook;
+import com.hazelcast.concurrent.lock.LockServiceImpl;
 import com.hazelcast.concurrent.lock.LockStoreImpl;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
@@ -66,6 +67,9 @@ public class UnlockOperation extends AbstractLockOperation implements Notifier,
 
     protected final void unlock() {
         LockStoreImpl lockStore = getLockStore();
+        LockServiceImpl service = getService();
+        boolean recordHoldTime = service.isLockHoldTimeRecorded();
+        long acquireTime = recordHoldTime ? lockStore.getAcquireTime(key) : -1L;
         boolean unlocked = lockStore.unlock(key, getCallerUuid(), threadId, getReferenceCallId());
         response = unlocked;
         if (!unlocked) {
@@ -73,6 +77,10 @@ public class UnlockOperation extends AbstractLockOperation implements Notifier,
             String ownerInfo = lockStore.getOwnerInfo(key);
             throw new IllegalMonitorStateException("Current thread is not owner of the lock! -> " + ownerInfo);
         }
+        // the hold time is recorded once the reentrant lock has been fully released, and only on the primary replica
+        if (recordHoldTime && !lockStore.isLocked(key)) {
+            service.recordLockHoldTime(acquireTime);
+        }
     }
 
     protected final void forceUnlock() {
@@ -563,6 +563,11 @@ public class MapConfig {
 
     /**
      * Sets statistics to enabled or disabled for this map.
+     * <p>
+     * When statistics are disabled and the map uses neither expiration nor eviction, its entries are kept in
+     * compact records which store their creation, last access and last update times with a precision of one
+     * second, rounded up. These times, e.g. in an {@link com.hazelcast.core.EntryView}, and the merges of merge
+     * policies comparing them are then only accurate to the second.
      *
      * @param statisticsEnabled True to enable map statistics, false to disable.
      * @return The current map config instance.
@@ -19,7 +19,6 @@ package com.hazelcast.config;
 import java.util.ArrayList;
 import java.util.List;
 
-import static com.hazelcast.util.Preconditions.checkFalse;
 import static com.hazelcast.util.Preconditions.checkHasText;
 import static com.hazelcast.util.Preconditions.checkNotNegative;
 import static com.hazelcast.util.Preconditions.checkNotNull;
@@ -281,14 +280,14 @@ public class QueryCacheConfig {
     /**
      * Sets memory format of values of entries in {@code QueryCache}.
      * <p/>
-     * Default value is binary.
+     * Default value is binary. With {@link InMemoryFormat#NATIVE} the serialized values are kept
+     * outside of the Java heap and deserialized on every access.
      *
      * @param inMemoryFormat the memory format
      * @return this {@code QueryCacheConfig} instance.
      */
     public QueryCacheConfig setInMemoryFormat(InMemoryFormat inMemoryFormat) {
         checkNotNull(inMemoryFormat, "inMemoryFormat cannot be null");
-        checkFalse(inMemoryFormat == InMemoryFormat.NATIVE, "InMemoryFormat." + inMemoryFormat + " is not supported.");
 
         this.inMemoryFormat = inMemoryFormat;
         return this;
@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.core;
+
+import static com.hazelcast.util.Preconditions.checkNotNull;
+
+/**
+ * A JSON formatted string which can be stored in an {@link IMap} and queried by its fields.
+ * <p>
+ * Predicates, indexes and projections can refer to the fields of the JSON document by attribute paths
+ * like {@code address.city}, {@code items[0].price} or {@code items[any].price}. The fields are read from
+ * the serialized form of the value, so the document is neither deserialized nor parsed into objects
+ * during a query.
+ * <p>
+ * JSON strings, numbers, booleans and nulls are returned as {@link String}, {@link Long} or {@link Double},
+ * {@link Boolean} and {@code null}. Nested objects and arrays are returned as {@link HazelcastJsonValue}.
+ * <p>
+ * The string is not validated: querying a value which is not valid JSON gives undefined results.
+ * <pre>
+ *     map.put(1, new HazelcastJsonValue("{\"name\": \"John\", \"age\": 35}"));
+ *     Collection&lt;HazelcastJsonValue&gt; adults = map.values(Predicates.greaterEqual("age", 18));
+ * </pre>
+ *
+ * @since 3.9
+ */
+public final class HazelcastJsonValue {
+
+    private final String json;
+
+    /**
+     * Creates a HazelcastJsonValue from the given string.
+     *
+     * @param json a JSON formatted string, must not be {@code null}
+     */
+    public HazelcastJsonValue(String json) {
+        this.json = checkNotNull(json, "JSON string cannot be null");
+    }
+
+    /**
+     * Returns the JSON formatted string.
+     */
+    @Override
+    public String toString() {
+        return json;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return json.equals(((HazelcastJsonValue) o).json);
+    }
+
+    @Override
+    public int hashCode() {
+        return json.hashCode();
+    }
+}
@@ -29,6 +29,9 @@ import com.hazelcast.spi.ExecutionService;
  *     <li>{@link IMap#executeOnKey(Object, EntryProcessor)}</li>
  *     <li>{@link IMap#submitToKey(Object, EntryProcessor)} </li>
  *     <li>{@link IMap#submitToKey(Object, EntryProcessor, ExecutionCallback)} </li>
+ *     <li>{@link IMap#executeOnEntries(EntryProcessor)} and
+ *     {@link IMap#executeOnEntries(EntryProcessor, com.hazelcast.query.Predicate)} if
+ *     {@link com.hazelcast.spi.properties.GroupProperty#MAP_ENTRY_PROCESSOR_OFFLOADING_ENABLED} is set</li>
  * </ul>
  */
 public interface Offloadable {
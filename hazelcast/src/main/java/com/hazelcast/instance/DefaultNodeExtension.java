@@ -33,6 +33,7 @@ import com.hazelcast.internal.cluster.impl.JoinMessage;
 import com.hazelcast.internal.cluster.impl.VersionMismatchException;
 import com.hazelcast.internal.networking.ReadHandler;
 import com.hazelcast.internal.networking.SocketChannelWrapperFactory;
+import com.hazelcast.internal.networking.sharedmemory.SharedMemorySocketChannelWrapperFactory;
 import com.hazelcast.internal.networking.WriteHandler;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.SerializationServiceBuilder;
@@ -48,6 +49,7 @@ import com.hazelcast.nio.MemberSocketInterceptor;
 import com.hazelcast.nio.tcp.DefaultSocketChannelWrapperFactory;
 import com.hazelcast.nio.tcp.MemberReadHandler;
 import com.hazelcast.nio.tcp.MemberWriteHandler;
+import com.hazelcast.nio.tcp.PacketCompressionStats;
 import com.hazelcast.nio.tcp.TcpIpConnection;
 import com.hazelcast.partition.strategy.DefaultPartitioningStrategy;
 import com.hazelcast.security.SecurityContext;
@@ -56,6 +58,7 @@ import com.hazelcast.spi.annotation.PrivateApi;
 import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.servicemanager.ServiceManager;
 import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.util.ConstructorFunction;
 import com.hazelcast.util.ExceptionUtil;
 import com.hazelcast.util.Preconditions;
@@ -65,12 +68,16 @@ import com.hazelcast.version.Version;
 import com.hazelcast.wan.WanReplicationService;
 import com.hazelcast.wan.impl.WanReplicationServiceImpl;
 
+import java.io.File;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CopyOnWriteArrayList;
 
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM_AVAILABLE;
 import static com.hazelcast.map.impl.MapServiceConstructor.getDefaultMapServiceConstructor;
+import static com.hazelcast.memory.MemoryUnit.KILOBYTES;
+
 
 @PrivateApi
 @SuppressWarnings({"checkstyle:methodcount", "checkstyle:classfanoutcomplexity"})
@@ -195,18 +202,34 @@ public class DefaultNodeExtension implements NodeExtension {
 
     @Override
     public SocketChannelWrapperFactory getSocketChannelWrapperFactory() {
+        HazelcastProperties properties = node.getProperties();
+        if (properties.getBoolean(GroupProperty.IO_SHARED_MEMORY_ENABLED)) {
+            if (!Boolean.getBoolean("hazelcast.io.spinning") || !MEM_AVAILABLE) {
+                logger.warning("Shared memory transport requires the spinning IO threading model and "
+                        + "native memory access, falling back to TCP");
+            } else {
+                String directory = properties.getString(GroupProperty.IO_SHARED_MEMORY_DIRECTORY);
+                int bufferSize = (int) KILOBYTES.toBytes(
+                        properties.getInteger(GroupProperty.IO_SHARED_MEMORY_BUFFER_SIZE));
+                return new SharedMemorySocketChannelWrapperFactory(new File(directory), bufferSize,
+                        node.getLogger(SharedMemorySocketChannelWrapperFactory.class));
+            }
+        }
         return new DefaultSocketChannelWrapperFactory();
     }
 
     @Override
     public ReadHandler createReadHandler(TcpIpConnection connection, IOService ioService) {
         NodeEngineImpl nodeEngine = node.nodeEngine;
-        return new MemberReadHandler(connection, nodeEngine.getPacketDispatcher());
+        PacketCompressionStats compressionStats = connection.getConnectionManager().getPacketCompressionStats();
+        return new MemberReadHandler(connection, nodeEngine.getPacketDispatcher(), compressionStats);
     }
 
     @Override
     public WriteHandler createWriteHandler(TcpIpConnection connection, IOService ioService) {
-        return new MemberWriteHandler();
+        int compressionThreshold = node.getProperties().getInteger(GroupProperty.SOCKET_COMPRESSION_THRESHOLD);
+        PacketCompressionStats compressionStats = connection.getConnectionManager().getPacketCompressionStats();
+        return new MemberWriteHandler(connection, node.getClusterService(), compressionThreshold, compressionStats);
     }
 
     @Override
@@ -42,6 +42,8 @@ public abstract class HttpCommandProcessor<T> extends AbstractTextCommandProcess
     public static final String URI_MANCENTER_WAN_CLEAR_QUEUES = URI_MANCENTER_BASE_URL + "/wan/clearWanQueues";
     public static final String URI_ADD_WAN_CONFIG = URI_MANCENTER_BASE_URL + "/wan/addWanConfig";
     public static final String URI_HEALTH_URL = "/hazelcast/health";
+    public static final String URI_METRICS = "/hazelcast/rest/metrics";
+    public static final String URI_METRICS_DELTA = URI_METRICS + "/delta";
 
     protected HttpCommandProcessor(TextCommandService textCommandService) {
         super(textCommandService);
@@ -22,6 +22,7 @@ import com.hazelcast.instance.NodeState;
 import com.hazelcast.internal.ascii.TextCommandService;
 import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.internal.cluster.impl.ClusterServiceImpl;
+import com.hazelcast.internal.metrics.publishers.MetricsPublishingService;
 import com.hazelcast.internal.partition.InternalPartitionService;
 import com.hazelcast.nio.ConnectionManager;
 
@@ -51,6 +52,8 @@ public class HttpGetCommandProcessor extends HttpCommandProcessor<HttpGetCommand
             handleHealthcheck(command);
         } else if (uri.startsWith(URI_CLUSTER_VERSION_URL)) {
             handleGetClusterVersion(command);
+        } else if (uri.startsWith(URI_METRICS)) {
+            handleMetrics(command, uri);
         } else {
             command.send400();
         }
@@ -79,6 +82,24 @@ public class HttpGetCommandProcessor extends HttpCommandProcessor<HttpGetCommand
         command.setResponse(MIME_TEXT_PLAIN, stringToBytes(res.toString()));
     }
 
+    private void handleMetrics(HttpGetCommand command, String uri) {
+        MetricsPublishingService metricsPublishingService = textCommandService.getNode().getNodeEngine()
+                .getMetricsPublishingService();
+        if (!metricsPublishingService.isEnabled()) {
+            command.setResponse(HttpCommand.RES_503);
+            return;
+        }
+
+        byte[] snapshot = uri.startsWith(URI_METRICS_DELTA)
+                ? metricsPublishingService.getDeltaSnapshot()
+                : metricsPublishingService.getFullSnapshot();
+        if (snapshot == null) {
+            command.send204();
+        } else {
+            command.setResponse(MIME_TEXT_PLAIN, snapshot);
+        }
+    }
+
     private void handleGetClusterVersion(HttpGetCommand command) {
         String res = "{\"status\":\"${STATUS}\",\"version\":\"${VERSION}\"}";
         Node node = textCommandService.getNode();
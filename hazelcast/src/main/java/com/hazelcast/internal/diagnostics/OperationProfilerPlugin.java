@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.diagnostics;
+
+import com.hazelcast.client.impl.client.SecureRequest;
+import com.hazelcast.spi.ExecutionService;
+import com.hazelcast.spi.NamedOperation;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.operationexecutor.OperationExecutor;
+import com.hazelcast.spi.impl.operationexecutor.OperationRunner;
+import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
+import com.hazelcast.spi.impl.operationservice.impl.operations.Backup;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.spi.properties.HazelcastProperty;
+import com.hazelcast.util.ItemCounter;
+
+import java.util.List;
+
+import static com.hazelcast.internal.diagnostics.Diagnostics.PREFIX;
+import static com.hazelcast.internal.diagnostics.OperationDescriptors.toOperationDesc;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * A {@link DiagnosticsPlugin} that shows where the operation threads spend their time.
+ *
+ * The task each partition and generic operation thread is executing is periodically sampled. Per period of this plugin,
+ * the samples are counted per operation class and per data structure, so it shows the time spent by the operation threads
+ * under normal load and not only on the slow operations reported by the {@link SlowOperationPlugin}. The time of an
+ * operation class is estimated as the number of its samples times the sample period.
+ *
+ * A sample only reads the current task of each operation runner, so the plugin is cheap enough to run continuously.
+ * Optionally the top frames of the stack of busy threads are sampled too. Taking a stack trace requires a safepoint,
+ * so this is disabled by default.
+ */
+public class OperationProfilerPlugin extends DiagnosticsPlugin {
+
+    /**
+     * The period in seconds the sampled profile is written and reset.
+     *
+     * If set to 0, the plugin is disabled.
+     */
+    public static final HazelcastProperty PERIOD_SECONDS
+            = new HazelcastProperty(PREFIX + ".operationprofiler.period.seconds", 60, SECONDS);
+
+    /**
+     * The period in milliseconds the operation threads are sampled.
+     */
+    public static final HazelcastProperty SAMPLE_PERIOD_MILLIS
+            = new HazelcastProperty(PREFIX + ".operationprofiler.sample.period.millis", 100, MILLISECONDS);
+
+    /**
+     * The number of top stack frames sampled of a busy operation thread.
+     *
+     * If set to 0, no stack frames are sampled.
+     */
+    public static final HazelcastProperty STACK_DEPTH
+            = new HazelcastProperty(PREFIX + ".operationprofiler.stack.depth", 0);
+
+    /**
+     * The maximum number of entries written per section.
+     */
+    public static final HazelcastProperty MAX_ENTRY_COUNT
+            = new HazelcastProperty(PREFIX + ".operationprofiler.max.entry.count", 20);
+
+    private static final int PERCENTAGE = 100;
+
+    private final NodeEngineImpl nodeEngine;
+    private final long periodMillis;
+    private final long samplePeriodMillis;
+    private final int stackDepth;
+    private final int maxEntryCount;
+
+    // guarded by this, the counters are updated by the sampler and written and reset by the diagnostics thread
+    private ItemCounter<String> operationSamples = new ItemCounter<String>();
+    private ItemCounter<String> dataStructureSamples = new ItemCounter<String>();
+    private ItemCounter<String> stackSamples = new ItemCounter<String>();
+    private long threadSamples;
+    private long busySamples;
+
+    public OperationProfilerPlugin(NodeEngineImpl nodeEngine) {
+        super(nodeEngine.getLogger(OperationProfilerPlugin.class));
+        this.nodeEngine = nodeEngine;
+        HazelcastProperties props = nodeEngine.getProperties();
+        this.periodMillis = props.getMillis(PERIOD_SECONDS);
+        this.samplePeriodMillis = props.getMillis(SAMPLE_PERIOD_MILLIS);
+        this.stackDepth = props.getInteger(STACK_DEPTH);
+        this.maxEntryCount = props.getInteger(MAX_ENTRY_COUNT);
+    }
+
+    @Override
+    public long getPeriodMillis() {
+        return periodMillis;
+    }
+
+    @Override
+    public void onStart() {
+        logger.info("Plugin:active, period-millis:" + periodMillis + " sample-period-millis:" + samplePeriodMillis
+                + " stack-depth:" + stackDepth);
+
+        ExecutionService executionService = nodeEngine.getExecutionService();
+        executionService.scheduleWithRepetition(new Runnable() {
+            @Override
+            public void run() {
+                sample();
+            }
+        }, samplePeriodMillis, samplePeriodMillis, MILLISECONDS);
+    }
+
+    /**
+     * Samples the current task of all operation threads.
+     */
+    void sample() {
+        OperationExecutor operationExecutor = ((OperationServiceImpl) nodeEngine.getOperationService()).getOperationExecutor();
+        synchronized (this) {
+            sample(operationExecutor.getPartitionOperationRunners());
+            sample(operationExecutor.getGenericOperationRunners());
+        }
+    }
+
+    private void sample(OperationRunner[] runners) {
+        for (OperationRunner runner : runners) {
+            Object task = runner.currentTask();
+            threadSamples++;
+            if (task == null) {
+                continue;
+            }
+
+            busySamples++;
+            String taskDesc = toTaskDesc(task);
+            operationSamples.add(taskDesc, 1);
+
+            String name = getDataStructureName(task);
+            if (name != null) {
+                dataStructureSamples.add(taskDesc + " name=" + name, 1);
+            }
+
+            if (stackDepth > 0) {
+                sampleStack(runner, task, taskDesc);
+            }
+        }
+    }
+
+    private void sampleStack(OperationRunner runner, Object task, String taskDesc) {
+        Thread thread = runner.currentThread();
+        // the thread only belongs to the task if the task is still running after the thread has been read
+        if (thread == null || runner.currentTask() != task) {
+            return;
+        }
+
+        StackTraceElement[] stackTrace = thread.getStackTrace();
+        if (runner.currentTask() != task) {
+            return;
+        }
+
+        StringBuilder sb = new StringBuilder(taskDesc);
+        int depth = Math.min(stackDepth, stackTrace.length);
+        for (int i = 0; i < depth; i++) {
+            sb.append(i == 0 ? " at " : " <- ").append(stackTrace[i]);
+        }
+        stackSamples.add(sb.toString(), 1);
+    }
+
+    private static String toTaskDesc(Object task) {
+        return task instanceof Operation ? toOperationDesc((Operation) task) : task.getClass().getName();
+    }
+
+    private static String getDataStructureName(Object task) {
+        Object namedTask = task instanceof Backup ? ((Backup) task).getBackupOp() : task;
+        if (namedTask instanceof NamedOperation) {
+            return ((NamedOperation) namedTask).getName();
+        } else if (namedTask instanceof SecureRequest) {
+            // client message tasks
+            return ((SecureRequest) namedTask).getDistributedObjectName();
+        }
+        return null;
+    }
+
+    @Override
+    public void run(DiagnosticsLogWriter writer) {
+        writer.startSection("OperationProfiler");
+        synchronized (this) {
+            writer.writeKeyValueEntry("samplePeriodMillis", samplePeriodMillis);
+            writer.writeKeyValueEntry("threadSamples", threadSamples);
+            writer.writeKeyValueEntry("busySamples", busySamples);
+            double busyPercentage = threadSamples == 0 ? 0d : PERCENTAGE * (double) busySamples / threadSamples;
+            writer.writeKeyValueEntry("busyPercentage", busyPercentage);
+
+            render(writer, "Operations", operationSamples);
+            render(writer, "DataStructures", dataStructureSamples);
+            if (stackDepth > 0) {
+                render(writer, "Stacks", stackSamples);
+            }
+
+            reset();
+        }
+        writer.endSection();
+    }
+
+    private void render(DiagnosticsLogWriter writer, String section, ItemCounter<String> samples) {
+        writer.startSection(section);
+        List<String> items = samples.descendingKeys();
+        for (int i = 0; i < items.size() && i < maxEntryCount; i++) {
+            String item = items.get(i);
+            long count = samples.get(item);
+            writer.writeEntry(item + " samples=" + count + " timeMillis=" + count * samplePeriodMillis);
+        }
+        writer.endSection();
+    }
+
+    private void reset() {
+        // new counters instead of ItemCounter.reset(), so the keys of the previous period are not retained
+        operationSamples = new ItemCounter<String>();
+        dataStructureSamples = new ItemCounter<String>();
+        stackSamples = new ItemCounter<String>();
+        threadSamples = 0;
+        busySamples = 0;
+    }
+}
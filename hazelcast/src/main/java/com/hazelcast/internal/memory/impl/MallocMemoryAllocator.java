@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.memory.NativeOutOfMemoryError;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE;
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE_AVAILABLE;
+import static com.hazelcast.util.Preconditions.checkPositive;
+
+/**
+ * {@link MemoryAllocator} which allocates and frees each block directly through the allocator of the
+ * operating system, without any pooling.
+ * <p>
+ * The total size of the allocated blocks is limited by a capacity. An allocation which would exceed
+ * the capacity fails with a {@link NativeOutOfMemoryError} and leaves the allocator unchanged.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class MallocMemoryAllocator implements MemoryAllocator {
+
+    private final long capacity;
+    private final AtomicLong usedMemory = new AtomicLong();
+
+    public MallocMemoryAllocator(long capacity) {
+        if (!UNSAFE_AVAILABLE) {
+            throw new UnsupportedOperationException("Native memory allocation requires sun.misc.Unsafe!");
+        }
+        this.capacity = checkPositive(capacity, "capacity should be positive");
+    }
+
+    @Override
+    public long allocate(long size) {
+        reserve(size);
+        long address;
+        try {
+            address = UNSAFE.allocateMemory(size);
+        } catch (OutOfMemoryError e) {
+            usedMemory.addAndGet(-size);
+            throw new NativeOutOfMemoryError("Cannot allocate " + size + " bytes of native memory!", e);
+        }
+        UNSAFE.setMemory(address, size, (byte) 0);
+        return address;
+    }
+
+    @Override
+    public long reallocate(long address, long currentSize, long newSize) {
+        long diff = newSize - currentSize;
+        if (diff > 0) {
+            reserve(diff);
+        }
+        long newAddress;
+        try {
+            newAddress = UNSAFE.reallocateMemory(address, newSize);
+        } catch (OutOfMemoryError e) {
+            if (diff > 0) {
+                usedMemory.addAndGet(-diff);
+            }
+            throw new NativeOutOfMemoryError("Cannot reallocate " + newSize + " bytes of native memory!", e);
+        }
+        if (diff > 0) {
+            UNSAFE.setMemory(newAddress + currentSize, diff, (byte) 0);
+        } else {
+            usedMemory.addAndGet(diff);
+        }
+        return newAddress;
+    }
+
+    @Override
+    public void free(long address, long size) {
+        UNSAFE.freeMemory(address);
+        usedMemory.addAndGet(-size);
+    }
+
+    /**
+     * Returns the maximum number of bytes which can be allocated at the same time.
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of bytes currently allocated.
+     */
+    public long getUsedMemory() {
+        return usedMemory.get();
+    }
+
+    /**
+     * Returns the number of bytes which can still be allocated.
+     */
+    public long getFreeMemory() {
+        return Math.max(capacity - usedMemory.get(), 0);
+    }
+
+    @Override
+    public void dispose() {
+        // blocks are owned by the callers, they have to be freed by them
+    }
+
+    private void reserve(long size) {
+        while (true) {
+            long used = usedMemory.get();
+            long newUsed = used + size;
+            if (newUsed > capacity) {
+                throw new NativeOutOfMemoryError("Not enough native memory to allocate " + size + " bytes! Used: "
+                        + used + " bytes, capacity: " + capacity + " bytes");
+            }
+            if (usedMemory.compareAndSet(used, newUsed)) {
+                return;
+            }
+        }
+    }
+}
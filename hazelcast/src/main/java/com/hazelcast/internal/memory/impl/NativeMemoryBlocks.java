@@ -0,0 +1,186 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.internal.memory.MemoryAccessor;
+import com.hazelcast.internal.memory.MemoryAllocator;
+import com.hazelcast.internal.memory.MemoryManager;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.internal.memory.MemoryAllocator.NULL_ADDRESS;
+
+/**
+ * Stores byte blobs outside of the Java heap, each in its own block allocated by a {@link MemoryAllocator}.
+ * <p>
+ * A block is freed explicitly when it is {@link #release(Block) released}, so the stored bytes never wait for the
+ * garbage collector. Reads don't take any lock: a reader pins the block while it copies the bytes, and a released block
+ * is freed by the last one of the releasing thread and its readers, so a reader never observes freed memory. A read
+ * started after the release fails instead.
+ * <p>
+ * Since only the small {@link Block} handles live on the heap, large amounts of data can be kept without
+ * increasing the GC pressure by the size of the data itself.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class NativeMemoryBlocks {
+
+    private final MemoryAllocator allocator;
+    private final MemoryAccessor accessor;
+    private final AtomicLong storedBytes = new AtomicLong();
+
+    /**
+     * @param memoryManager the memory manager to allocate, access and free the blocks with
+     */
+    public NativeMemoryBlocks(MemoryManager memoryManager) {
+        this.allocator = memoryManager.getAllocator();
+        this.accessor = memoryManager.getAccessor();
+    }
+
+    /**
+     * Copies the given bytes into a new native memory block.
+     *
+     * @param bytes the bytes to store
+     * @return the handle of the stored bytes
+     */
+    public Block store(byte[] bytes) {
+        int length = bytes.length;
+        long address = NULL_ADDRESS;
+        if (length > 0) {
+            address = allocator.allocate(length);
+            accessor.copyFromByteArray(bytes, 0, address, length);
+        }
+        storedBytes.addAndGet(length);
+        return new Block(this, address, length);
+    }
+
+    /**
+     * Releases the given stored bytes. Their block is freed at once, or by the last read which is still in progress.
+     *
+     * @param block the handle of the bytes to release, released blocks are ignored
+     */
+    public void release(Block block) {
+        if (block.markReleased()) {
+            storedBytes.addAndGet(-block.length);
+        }
+    }
+
+    /**
+     * Returns the number of bytes currently stored.
+     */
+    public long getStoredBytes() {
+        return storedBytes.get();
+    }
+
+    private void free(Block block) {
+        if (block.address != NULL_ADDRESS) {
+            allocator.free(block.address, block.length);
+        }
+    }
+
+    /**
+     * Handle of a byte blob stored in a {@link NativeMemoryBlocks}.
+     */
+    public static final class Block {
+
+        private static final AtomicIntegerFieldUpdater<Block> STATE
+                = AtomicIntegerFieldUpdater.newUpdater(Block.class, "state");
+
+        // the state is the count of readers times READER, plus RELEASED once released, or FREED once freed
+        private static final int RELEASED = 1;
+        private static final int READER = 2;
+        private static final int FREED = -1;
+
+        private final NativeMemoryBlocks blocks;
+        private final long address;
+        private final int length;
+
+        private volatile int state;
+
+        Block(NativeMemoryBlocks blocks, long address, int length) {
+            this.blocks = blocks;
+            this.address = address;
+            this.length = length;
+        }
+
+        public int length() {
+            return length;
+        }
+
+        /**
+         * Copies the stored bytes back to the heap.
+         *
+         * @return a new array holding the stored bytes or {@code null} if the block has been released
+         */
+        public byte[] toByteArray() {
+            if (!pin()) {
+                return null;
+            }
+            try {
+                byte[] bytes = new byte[length];
+                if (length > 0) {
+                    blocks.accessor.copyToByteArray(address, bytes, 0, length);
+                }
+                return bytes;
+            } finally {
+                unpin();
+            }
+        }
+
+        private boolean pin() {
+            for (;;) {
+                int current = state;
+                // FREED has the RELEASED bit set too
+                if ((current & RELEASED) != 0) {
+                    return false;
+                }
+                if (STATE.compareAndSet(this, current, current + READER)) {
+                    return true;
+                }
+            }
+        }
+
+        private void unpin() {
+            if (STATE.addAndGet(this, -READER) == RELEASED) {
+                free();
+            }
+        }
+
+        private boolean markReleased() {
+            for (;;) {
+                int current = state;
+                if ((current & RELEASED) != 0) {
+                    return false;
+                }
+                if (STATE.compareAndSet(this, current, current | RELEASED)) {
+                    if (current == 0) {
+                        free();
+                    }
+                    return true;
+                }
+            }
+        }
+
+        private void free() {
+            // the releasing thread and the last reader may both get here, only one of them frees the block
+            if (STATE.compareAndSet(this, RELEASED, FREED)) {
+                blocks.free(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.metrics;
+
+import com.hazelcast.util.Clock;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
+import static java.lang.Long.numberOfLeadingZeros;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * A lock-free histogram of latencies in microseconds.
+ * <p>
+ * The buckets are log-linear: every power of two range is split into {@value #SUB_BUCKET_COUNT} equally sized
+ * buckets, so a recorded latency is rounded up by at most 1/16th of its value. The buckets are striped by thread,
+ * so the threads recording into the same histogram mostly increment counters of their own; a stripe is allocated
+ * when the first latency is recorded into it, and the stripes are merged when the histogram is read.
+ * <p>
+ * The count, the percentiles and the maximum are exposed as {@link Probe} methods, so a histogram is rendered
+ * through the {@link MetricsRegistry} once it is passed to {@link MetricsRegistry#scanAndRegister(Object, String)}.
+ * The count is the number of latencies recorded since the creation of the histogram. The percentiles and the maximum
+ * are computed over a sliding window: reading them closes the current interval when it is older than the window
+ * length, and the latencies recorded since the start of the previous interval are used. When the histogram is read
+ * at least once per window length, as the metrics are, the percentiles cover the last one to two windows, so a
+ * latency spike shows up and later drops out of them instead of being buried by the history.
+ */
+public final class LatencyHistogram {
+
+    static final int SUB_BUCKET_BITS = 4;
+    static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // the most significant bit of the highest trackable latency, 2^41 microseconds is more than 25 days
+    static final int MAX_MSB = 40;
+    static final long MAX_VALUE = (1L << (MAX_MSB + 1)) - 1;
+    static final int BUCKET_COUNT = (MAX_MSB - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+    static final long DEFAULT_WINDOW_MILLIS = MINUTES.toMillis(1);
+
+    private static final int MAX_STRIPE_COUNT = 16;
+    private static final int STRIPE_COUNT
+            = nextPowerOfTwo(Math.min(Runtime.getRuntime().availableProcessors(), MAX_STRIPE_COUNT));
+
+    private static final double P50 = 0.5;
+    private static final double P90 = 0.9;
+    private static final double P99 = 0.99;
+    private static final double P999 = 0.999;
+
+    private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<AtomicLongArray>(STRIPE_COUNT);
+    private final AtomicLong max = new AtomicLong();
+    private final long windowMillis;
+
+    // the merged bucket counts at the start of the previous and of the current interval, guarded by this
+    private long[] previousIntervalStart = new long[BUCKET_COUNT];
+    private long[] currentIntervalStart = new long[BUCKET_COUNT];
+    private long currentIntervalStartMillis = Clock.currentTimeMillis();
+
+    public LatencyHistogram() {
+        this(DEFAULT_WINDOW_MILLIS);
+    }
+
+    LatencyHistogram(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param durationNanos the latency in nanoseconds
+     */
+    public void recordNanos(long durationNanos) {
+        recordMicros(NANOSECONDS.toMicros(durationNanos));
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param durationMicros the latency in microseconds
+     */
+    public void recordMicros(long durationMicros) {
+        long value = durationMicros < 0 ? 0 : Math.min(durationMicros, MAX_VALUE);
+        stripe().incrementAndGet(bucketIndex(value));
+
+        for (; ; ) {
+            long currentMax = max.get();
+            if (value <= currentMax || max.compareAndSet(currentMax, value)) {
+                return;
+            }
+        }
+    }
+
+    private AtomicLongArray stripe() {
+        int index = (int) Thread.currentThread().getId() & (STRIPE_COUNT - 1);
+        AtomicLongArray stripe = stripes.get(index);
+        if (stripe == null) {
+            stripes.compareAndSet(index, null, new AtomicLongArray(BUCKET_COUNT));
+            stripe = stripes.get(index);
+        }
+        return stripe;
+    }
+
+    @Probe
+    public long count() {
+        long count = 0;
+        for (long bucketCount : mergeStripes()) {
+            count += bucketCount;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the highest latency recorded within the window.
+     * <p>
+     * The returned value is the upper bound of the highest non-empty bucket, capped at the highest latency
+     * recorded since the creation of the histogram.
+     *
+     * @return the latency in microseconds or 0 if nothing has been recorded within the window
+     */
+    @Probe(name = "maxMicros")
+    public long max() {
+        long[] window = windowCounts();
+        for (int i = BUCKET_COUNT - 1; i >= 0; i--) {
+            if (window[i] > 0) {
+                return Math.min(bucketUpperBound(i), max.get());
+            }
+        }
+        return 0;
+    }
+
+    @Probe(name = "p50Micros")
+    public long p50() {
+        return percentile(P50);
+    }
+
+    @Probe(name = "p90Micros")
+    public long p90() {
+        return percentile(P90);
+    }
+
+    @Probe(name = "p99Micros")
+    public long p99() {
+        return percentile(P99);
+    }
+
+    @Probe(name = "p999Micros")
+    public long p999() {
+        return percentile(P999);
+    }
+
+    /**
+     * Returns the latency which is higher than or equal to the given fraction of the latencies recorded within
+     * the window.
+     * <p>
+     * The returned value is the upper bound of the bucket containing the percentile, capped at the highest
+     * latency recorded since the creation of the histogram.
+     *
+     * @param quantile the fraction of the recorded latencies, between 0 and 1
+     * @return the latency in microseconds or 0 if nothing has been recorded within the window
+     */
+    public long percentile(double quantile) {
+        long[] window = windowCounts();
+        long count = 0;
+        for (long bucketCount : window) {
+            count += bucketCount;
+        }
+        if (count == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += window[i];
+            if (seen >= rank) {
+                return Math.min(bucketUpperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Returns the bucket counts since the start of the previous interval, closing the current interval first
+     * if it is older than the window length.
+     */
+    private synchronized long[] windowCounts() {
+        long[] counts = mergeStripes();
+        long now = Clock.currentTimeMillis();
+        if (now - currentIntervalStartMillis >= windowMillis) {
+            previousIntervalStart = currentIntervalStart;
+            currentIntervalStart = counts.clone();
+            currentIntervalStartMillis = now;
+        }
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] -= previousIntervalStart[i];
+        }
+        return counts;
+    }
+
+    private long[] mergeStripes() {
+        long[] counts = new long[BUCKET_COUNT];
+        for (int stripeIndex = 0; stripeIndex < STRIPE_COUNT; stripeIndex++) {
+            AtomicLongArray stripe = stripes.get(stripeIndex);
+            if (stripe == null) {
+                continue;
+            }
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                counts[i] += stripe.get(i);
+            }
+        }
+        return counts;
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int msb = Long.SIZE - 1 - numberOfLeadingZeros(value);
+        int shift = msb - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKET_COUNT + (int) ((value >>> shift) & (SUB_BUCKET_COUNT - 1));
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_BUCKET_COUNT - 1;
+        long lowerBound = (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+        return lowerBound + (1L << shift) - 1;
+    }
+}
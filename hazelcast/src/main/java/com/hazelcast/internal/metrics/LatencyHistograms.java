@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.hazelcast.util.Preconditions.checkNotNull;
+
+/**
+ * Keeps a {@link LatencyHistogram} per class of measured tasks, e.g. per operation class.
+ * <p>
+ * A histogram is created and registered in the {@link MetricsRegistry} when the first latency of its class is
+ * recorded. Its probes are named {@code namePrefix[className].probeName}, e.g.
+ * {@code operation.latency[com.hazelcast.map.impl.operation.GetOperation].p99Micros}.
+ */
+public final class LatencyHistograms {
+
+    /**
+     * The level of the probes of the histograms.
+     */
+    public static final ProbeLevel LEVEL = ProbeLevel.INFO;
+
+    private final ConcurrentMap<Class, LatencyHistogram> histograms = new ConcurrentHashMap<Class, LatencyHistogram>();
+    private final MetricsRegistry metricsRegistry;
+    private final String namePrefix;
+
+    public LatencyHistograms(MetricsRegistry metricsRegistry, String namePrefix) {
+        this.metricsRegistry = checkNotNull(metricsRegistry, "metricsRegistry can't be null");
+        this.namePrefix = checkNotNull(namePrefix, "namePrefix can't be null");
+    }
+
+    /**
+     * Creates the histograms if the probes of the histograms are tracked by the given registry.
+     * <p>
+     * Recording latencies has a cost, so nothing should be recorded if nobody can see the percentiles.
+     *
+     * @param metricsRegistry the registry to register the histograms in
+     * @param namePrefix      the prefix of the probe names
+     * @return the created histograms or {@code null} if the probes are not tracked
+     */
+    public static LatencyHistograms newLatencyHistogramsIfEnabled(MetricsRegistry metricsRegistry, String namePrefix) {
+        return LEVEL.isEnabled(metricsRegistry.minimumLevel()) ? new LatencyHistograms(metricsRegistry, namePrefix) : null;
+    }
+
+    /**
+     * Records a latency of a task of the given class.
+     *
+     * @param clazz         the class of the measured task
+     * @param durationNanos the latency in nanoseconds
+     */
+    public void record(Class clazz, long durationNanos) {
+        getHistogram(clazz).recordNanos(durationNanos);
+    }
+
+    /**
+     * Returns the histogram of the given class, creating and registering it if needed.
+     *
+     * @param clazz the class of the measured tasks
+     * @return the histogram
+     */
+    public LatencyHistogram getHistogram(Class clazz) {
+        LatencyHistogram histogram = histograms.get(clazz);
+        if (histogram != null) {
+            return histogram;
+        }
+
+        histogram = new LatencyHistogram();
+        LatencyHistogram found = histograms.putIfAbsent(clazz, histogram);
+        if (found != null) {
+            return found;
+        }
+        metricsRegistry.scanAndRegister(histogram, namePrefix + "[" + clazz.getName() + "]");
+        return histogram;
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.metrics.publishers;
+
+/**
+ * Receives the metrics collected by the {@link MetricsPublishingService}, e.g. to push them to a monitoring system.
+ * <p>
+ * A collection cycle calls {@link #beginCycle(long, boolean)}, then the publish methods for each published probe
+ * and then {@link #endCycle()}. Only the probes which changed since the previous cycle are published, unless the
+ * cycle publishes a full snapshot.
+ * <p>
+ * A publisher is only called by the thread running the collection cycle, so it doesn't need to be thread-safe.
+ * A publisher configured by class name needs a public no-arg constructor. If it implements
+ * {@link com.hazelcast.core.HazelcastInstanceAware}, the HazelcastInstance is injected before the first cycle.
+ */
+public interface MetricsPublisher {
+
+    /**
+     * Returns the name of this publisher, used for logging.
+     *
+     * @return the name
+     */
+    String name();
+
+    /**
+     * Starts a collection cycle.
+     *
+     * @param sequence     the sequence of the cycle, incremented by one per cycle
+     * @param fullSnapshot {@code true} if all probes are published in this cycle
+     */
+    void beginCycle(long sequence, boolean fullSnapshot);
+
+    void publishLong(String name, long value);
+
+    void publishDouble(String name, double value);
+
+    /**
+     * Ends a collection cycle, e.g. to flush the published metrics.
+     */
+    void endCycle();
+
+    /**
+     * Releases the resources of this publisher when the member shuts down.
+     */
+    void shutdown();
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.metrics.publishers;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.HazelcastInstanceAware;
+import com.hazelcast.internal.metrics.MetricsRegistry;
+import com.hazelcast.internal.metrics.renderers.ProbeRenderer;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.spi.properties.HazelcastProperties;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import static com.hazelcast.nio.ClassLoaderUtil.newInstance;
+import static com.hazelcast.spi.properties.GroupProperty.METRICS_PUBLISHER_CLASSES;
+import static com.hazelcast.spi.properties.GroupProperty.METRICS_PUBLISHING_FULL_SNAPSHOT_INTERVAL;
+import static com.hazelcast.spi.properties.GroupProperty.METRICS_PUBLISHING_PERIOD_SECONDS;
+import static com.hazelcast.util.Preconditions.checkNotNull;
+import static com.hazelcast.util.StringUtil.stringToBytes;
+import static java.lang.Double.doubleToLongBits;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Periodically collects the metrics of the {@link MetricsRegistry} and publishes them.
+ * <p>
+ * The metrics can be pulled as text over the REST endpoint, either as a full snapshot or as the delta of the latest
+ * collection cycle, and they are pushed to the configured {@link MetricsPublisher}s. The publishers only receive the
+ * probes which changed since the previous cycle, except for every n-th cycle which publishes a full snapshot so a
+ * publisher can catch up after a failure.
+ * <p>
+ * The last published value of a probe is kept in a reused entry, so after the first cycle a cycle only allocates
+ * the pulled snapshots, independent of the number of publishers and scrapers.
+ */
+public class MetricsPublishingService {
+
+    private final ILogger logger;
+    private final MetricsRegistry metricsRegistry;
+    private final long periodMillis;
+    private final int fullSnapshotInterval;
+    private final String publisherClassNames;
+    private final Object publishersMutex = new Object();
+    // copy on write, so the collection cycle iterates the publishers without allocating an iterator per probe
+    private volatile MetricsPublisher[] publishers = new MetricsPublisher[0];
+    private final CollectingRenderer renderer = new CollectingRenderer();
+
+    private volatile byte[] fullSnapshot;
+    private volatile byte[] deltaSnapshot;
+
+    public MetricsPublishingService(ILogger logger, MetricsRegistry metricsRegistry, HazelcastProperties properties) {
+        this.logger = checkNotNull(logger, "logger can't be null");
+        this.metricsRegistry = checkNotNull(metricsRegistry, "metricsRegistry can't be null");
+        this.periodMillis = properties.getMillis(METRICS_PUBLISHING_PERIOD_SECONDS);
+        this.fullSnapshotInterval = Math.max(1, properties.getInteger(METRICS_PUBLISHING_FULL_SNAPSHOT_INTERVAL));
+        this.publisherClassNames = properties.getString(METRICS_PUBLISHER_CLASSES);
+    }
+
+    public boolean isEnabled() {
+        return periodMillis > 0;
+    }
+
+    /**
+     * Creates the publishers configured by class name.
+     *
+     * @param classLoader       the class loader to load the publisher classes with
+     * @param hazelcastInstance the instance to inject in {@link HazelcastInstanceAware} publishers
+     */
+    public void loadPublishers(ClassLoader classLoader, HazelcastInstance hazelcastInstance) {
+        if (!isEnabled() || publisherClassNames == null) {
+            return;
+        }
+
+        for (String className : publisherClassNames.split(",")) {
+            className = className.trim();
+            if (className.isEmpty()) {
+                continue;
+            }
+            try {
+                MetricsPublisher publisher = newInstance(classLoader, className);
+                if (publisher instanceof HazelcastInstanceAware) {
+                    ((HazelcastInstanceAware) publisher).setHazelcastInstance(hazelcastInstance);
+                }
+                addPublisher(publisher);
+            } catch (Exception e) {
+                logger.warning("Could not create metrics publisher " + className, e);
+            }
+        }
+    }
+
+    public void addPublisher(MetricsPublisher publisher) {
+        checkNotNull(publisher, "publisher can't be null");
+        synchronized (publishersMutex) {
+            MetricsPublisher[] newPublishers = Arrays.copyOf(publishers, publishers.length + 1);
+            newPublishers[publishers.length] = publisher;
+            publishers = newPublishers;
+        }
+    }
+
+    public void start() {
+        if (!isEnabled()) {
+            return;
+        }
+
+        logger.info("Metrics publishing started, period-millis:" + periodMillis + " publishers:" + publishers.length);
+        metricsRegistry.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    collect();
+                } catch (Throwable t) {
+                    // the task would not be scheduled again if it threw
+                    logger.severe("Failed to collect metrics", t);
+                }
+            }
+        }, periodMillis, MILLISECONDS);
+    }
+
+    public void shutdown() {
+        for (MetricsPublisher publisher : publishers) {
+            try {
+                publisher.shutdown();
+            } catch (Exception e) {
+                logger.warning("Failed to shut down metrics publisher " + publisher.name(), e);
+            }
+        }
+    }
+
+    /**
+     * Runs a collection cycle.
+     */
+    public synchronized void collect() {
+        renderer.beginCycle();
+        metricsRegistry.render(renderer);
+        renderer.endCycle();
+    }
+
+    /**
+     * Returns the values of all probes of the latest collection cycle as text, one {@code name=value} line per probe.
+     *
+     * @return the snapshot or {@code null} if no cycle has run yet
+     */
+    public byte[] getFullSnapshot() {
+        return fullSnapshot;
+    }
+
+    /**
+     * Returns the values of the probes which changed in the latest collection cycle as text.
+     *
+     * @return the snapshot or {@code null} if no cycle has run yet
+     */
+    public byte[] getDeltaSnapshot() {
+        return deltaSnapshot;
+    }
+
+    /**
+     * The last published value of a probe.
+     */
+    private static final class ProbeValue {
+        private long bits;
+        private long cycle;
+    }
+
+    private final class CollectingRenderer implements ProbeRenderer {
+
+        private final Map<String, ProbeValue> values = new HashMap<String, ProbeValue>();
+        private final StringBuilder fullText = new StringBuilder();
+        private final StringBuilder deltaText = new StringBuilder();
+        private MetricsPublisher[] cyclePublishers;
+        private long sequence;
+        private boolean fullCycle;
+
+        void beginCycle() {
+            sequence++;
+            fullCycle = sequence % fullSnapshotInterval == 1 || fullSnapshotInterval == 1;
+            fullText.setLength(0);
+            deltaText.setLength(0);
+            appendHeader(fullText);
+            appendHeader(deltaText);
+
+            cyclePublishers = publishers;
+            for (MetricsPublisher publisher : cyclePublishers) {
+                try {
+                    publisher.beginCycle(sequence, fullCycle);
+                } catch (Exception e) {
+                    logger.warning("Failed to publish metrics to " + publisher.name(), e);
+                }
+            }
+        }
+
+        private void appendHeader(StringBuilder text) {
+            text.append("# sequence=").append(sequence).append('\n');
+        }
+
+        @Override
+        public void renderLong(String name, long value) {
+            fullText.append(name).append('=').append(value).append('\n');
+            if (!update(name, value) && !fullCycle) {
+                return;
+            }
+            deltaText.append(name).append('=').append(value).append('\n');
+
+            for (MetricsPublisher publisher : cyclePublishers) {
+                try {
+                    publisher.publishLong(name, value);
+                } catch (Exception e) {
+                    logger.finest("Failed to publish metric " + name + " to " + publisher.name(), e);
+                }
+            }
+        }
+
+        @Override
+        public void renderDouble(String name, double value) {
+            fullText.append(name).append('=').append(value).append('\n');
+            if (!update(name, doubleToLongBits(value)) && !fullCycle) {
+                return;
+            }
+            deltaText.append(name).append('=').append(value).append('\n');
+
+            for (MetricsPublisher publisher : cyclePublishers) {
+                try {
+                    publisher.publishDouble(name, value);
+                } catch (Exception e) {
+                    logger.finest("Failed to publish metric " + name + " to " + publisher.name(), e);
+                }
+            }
+        }
+
+        @Override
+        public void renderException(String name, Exception e) {
+            // a probe without value is not published
+        }
+
+        @Override
+        public void renderNoValue(String name) {
+            // a probe without value is not published
+        }
+
+        /**
+         * Stores the value of a probe.
+         *
+         * @return {@code true} if the value changed since the previous cycle
+         */
+        private boolean update(String name, long bits) {
+            ProbeValue probeValue = values.get(name);
+            if (probeValue == null) {
+                probeValue = new ProbeValue();
+                probeValue.bits = bits;
+                probeValue.cycle = sequence;
+                values.put(name, probeValue);
+                return true;
+            }
+
+            probeValue.cycle = sequence;
+            if (probeValue.bits == bits) {
+                return false;
+            }
+            probeValue.bits = bits;
+            return true;
+        }
+
+        void endCycle() {
+            // forget the probes which have been deregistered
+            Iterator<ProbeValue> iterator = values.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().cycle != sequence) {
+                    iterator.remove();
+                }
+            }
+
+            fullSnapshot = stringToBytes(fullText.toString());
+            deltaSnapshot = stringToBytes(deltaText.toString());
+
+            for (MetricsPublisher publisher : cyclePublishers) {
+                try {
+                    publisher.endCycle();
+                } catch (Exception e) {
+                    logger.warning("Failed to publish metrics to " + publisher.name(), e);
+                }
+            }
+        }
+    }
+}
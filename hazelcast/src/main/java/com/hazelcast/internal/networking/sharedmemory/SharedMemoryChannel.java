@@ -0,0 +1,227 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.networking.sharedmemory;
+
+import com.hazelcast.nio.tcp.DefaultSocketChannelWrapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SocketChannel;
+
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+
+/**
+ * A {@link com.hazelcast.internal.networking.SocketChannelWrapper} which, once the shared memory handshake is
+ * done, reads from and writes to a pair of {@link SharedMemoryRingBuffer}s instead of the socket channel.
+ * <p>
+ * The socket channel stays open for the lifetime of the connection; it is used for the handshake, for the
+ * socket related calls like {@link #socket()} and to detect a peer which died without closing the ring buffers.
+ * <p>
+ * On the accepting side the channel starts in the detection state: if the first byte read is the first byte
+ * of the {@link #MAGIC}, which isn't the first byte of any protocol header, the handshake is read and the ring
+ * buffers are set up. Otherwise the channel passes all data through to the socket channel.
+ * <p>
+ * The ring buffers are polled, so the channel must only be used with the spinning IO threading model.
+ */
+final class SharedMemoryChannel extends DefaultSocketChannelWrapper {
+
+    static final byte[] MAGIC = {0, 'H', 'S', 'M'};
+    static final byte ACK_ACCEPTED = 1;
+    static final byte ACK_DECLINED = 0;
+    static final int MAX_PATH_LENGTH = 4096;
+
+    // the number of consecutive empty reads after which the socket channel is checked for an end of stream
+    private static final int EOF_CHECK_INTERVAL = 1024;
+
+    private enum State {
+        DETECTING,
+        HANDSHAKING,
+        TCP,
+        SHARED_MEMORY
+    }
+
+    private final SharedMemorySocketChannelWrapperFactory factory;
+    private final ByteBuffer probeBuffer = ByteBuffer.allocate(1);
+
+    private volatile State state;
+    private SharedMemoryRingBuffer inbound;
+    private SharedMemoryRingBuffer outbound;
+    private ByteBuffer handshakeBuffer;
+    private int capacity;
+    private int emptyReads;
+
+    /**
+     * Creates the channel of the accepting side, which detects whether the peer requests shared memory.
+     */
+    SharedMemoryChannel(SocketChannel socketChannel, SharedMemorySocketChannelWrapperFactory factory) {
+        super(socketChannel);
+        this.factory = factory;
+        this.state = State.DETECTING;
+    }
+
+    /**
+     * Creates the channel of the connecting side, for which the handshake has already been done.
+     */
+    SharedMemoryChannel(SocketChannel socketChannel, SharedMemoryRingBuffer inbound, SharedMemoryRingBuffer outbound) {
+        super(socketChannel);
+        this.factory = null;
+        this.inbound = inbound;
+        this.outbound = outbound;
+        this.state = State.SHARED_MEMORY;
+    }
+
+    boolean isSharedMemory() {
+        return state == State.SHARED_MEMORY;
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        switch (state) {
+            case SHARED_MEMORY:
+                return readSharedMemory(dst);
+            case TCP:
+                return socketChannel.read(dst);
+            case DETECTING:
+                return detect(dst);
+            case HANDSHAKING:
+                readHandshake();
+                return 0;
+            default:
+                throw new IllegalStateException("Unhandled state " + state);
+        }
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        if (state != State.SHARED_MEMORY) {
+            return socketChannel.write(src);
+        }
+        if (outbound.isClosed()) {
+            throw new ClosedChannelException();
+        }
+        return outbound.write(src);
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (state == State.SHARED_MEMORY) {
+            inbound.close();
+            outbound.close();
+        }
+        super.close();
+    }
+
+    private int readSharedMemory(ByteBuffer dst) throws IOException {
+        int read = inbound.read(dst);
+        if (read > 0) {
+            emptyReads = 0;
+            return read;
+        }
+        if (inbound.isClosed()) {
+            return -1;
+        }
+        if (++emptyReads == EOF_CHECK_INTERVAL) {
+            emptyReads = 0;
+            probeBuffer.clear();
+            if (socketChannel.read(probeBuffer) == -1) {
+                return -1;
+            }
+        }
+        return 0;
+    }
+
+    private int detect(ByteBuffer dst) throws IOException {
+        probeBuffer.clear();
+        int read = socketChannel.read(probeBuffer);
+        if (read <= 0) {
+            return read;
+        }
+
+        byte first = probeBuffer.get(0);
+        if (first != MAGIC[0]) {
+            state = State.TCP;
+            dst.put(first);
+            int remaining = socketChannel.read(dst);
+            return remaining > 0 ? remaining + 1 : 1;
+        }
+
+        state = State.HANDSHAKING;
+        handshakeBuffer = ByteBuffer.allocate(MAGIC.length - 1 + 2 * INT_SIZE_IN_BYTES);
+        readHandshake();
+        return 0;
+    }
+
+    /**
+     * Reads the rest of the magic, the ring buffer capacity, the path length and the path of the mapped file
+     * the connecting side has created and answers it with an {@link #ACK_ACCEPTED} or {@link #ACK_DECLINED}.
+     */
+    private void readHandshake() throws IOException {
+        if (socketChannel.read(handshakeBuffer) == -1) {
+            throw new IOException("Peer closed the connection during the shared memory handshake");
+        }
+        if (handshakeBuffer.hasRemaining()) {
+            return;
+        }
+
+        handshakeBuffer.flip();
+        if (capacity == 0) {
+            readHandshakeHeader();
+        } else {
+            completeHandshake(new String(handshakeBuffer.array(), "UTF-8"));
+        }
+    }
+
+    private void readHandshakeHeader() throws IOException {
+        for (int i = 1; i < MAGIC.length; i++) {
+            if (handshakeBuffer.get() != MAGIC[i]) {
+                throw new IOException("Invalid shared memory handshake");
+            }
+        }
+        capacity = handshakeBuffer.getInt();
+        int pathLength = handshakeBuffer.getInt();
+        if (capacity <= 0 || pathLength <= 0 || pathLength > MAX_PATH_LENGTH) {
+            throw new IOException("Invalid shared memory handshake, capacity: " + capacity
+                    + ", path length: " + pathLength);
+        }
+        handshakeBuffer = ByteBuffer.allocate(pathLength);
+    }
+
+    private void completeHandshake(String path) throws IOException {
+        handshakeBuffer = null;
+        SharedMemoryRingBuffer[] ringBuffers = factory.attach(socketChannel.socket(), path, capacity);
+        ByteBuffer ack = ByteBuffer.allocate(1);
+        ack.put(0, ringBuffers == null ? ACK_DECLINED : ACK_ACCEPTED);
+        if (socketChannel.write(ack) != 1) {
+            throw new IOException("Could not write the shared memory handshake acknowledgement");
+        }
+        if (ringBuffers == null) {
+            state = State.TCP;
+        } else {
+            // the ring buffer written by the connecting side is the inbound one of the accepting side
+            inbound = ringBuffers[0];
+            outbound = ringBuffers[1];
+            state = State.SHARED_MEMORY;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "SharedMemoryChannel{socketChannel=" + socketChannel + ", state=" + state + '}';
+    }
+}
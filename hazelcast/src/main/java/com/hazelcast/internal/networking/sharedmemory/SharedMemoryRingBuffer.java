@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.networking.sharedmemory;
+
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static com.hazelcast.util.QuickMath.isPowerOfTwo;
+
+/**
+ * A single producer single consumer byte ring buffer living in a region of a direct (typically memory mapped)
+ * {@link ByteBuffer}.
+ * <p>
+ * The region starts with a header containing the write sequence, the read sequence and the closed flag, each on
+ * its own cache line, followed by the data. The producer publishes the data by an ordered write of the write
+ * sequence, the consumer frees it by an ordered write of the read sequence, so the producer and the consumer can
+ * live in different processes sharing the same mapped file.
+ * <p>
+ * Since the header is written by the peer, the distance between the sequences is clamped to the capacity, so
+ * a faulty peer can corrupt the data of the connection but can't make the ring buffer access memory outside of it.
+ */
+final class SharedMemoryRingBuffer {
+
+    static final int HEADER_SIZE = 192;
+
+    private static final int WRITE_SEQUENCE_OFFSET = 0;
+    private static final int READ_SEQUENCE_OFFSET = 64;
+    private static final int CLOSED_OFFSET = 128;
+    private static final long ADDRESS_FIELD_OFFSET;
+
+    static {
+        try {
+            Field field = Buffer.class.getDeclaredField("address");
+            ADDRESS_FIELD_OFFSET = MEM.objectFieldOffset(field);
+        } catch (NoSuchFieldException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // the buffer is referenced to prevent the memory region from being unmapped while in use
+    private final ByteBuffer buffer;
+    private final int capacity;
+    private final int mask;
+    private final long writeSequenceAddress;
+    private final long readSequenceAddress;
+    private final long closedAddress;
+    private final long dataAddress;
+
+    /**
+     * @param buffer   the direct buffer containing the ring buffer
+     * @param offset   the offset of the ring buffer in the buffer, has to be a multiple of 8
+     * @param capacity the data capacity of the ring buffer, has to be a power of two
+     */
+    SharedMemoryRingBuffer(ByteBuffer buffer, int offset, int capacity) {
+        if (!buffer.isDirect()) {
+            throw new IllegalArgumentException("Buffer has to be direct");
+        }
+        if (!isPowerOfTwo(capacity)) {
+            throw new IllegalArgumentException("Capacity has to be a power of two, was " + capacity);
+        }
+        if (buffer.capacity() < offset + requiredSize(capacity)) {
+            throw new IllegalArgumentException("Buffer is too small for a ring buffer with capacity " + capacity);
+        }
+        this.buffer = buffer;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        long address = addressOf(buffer) + offset;
+        this.writeSequenceAddress = address + WRITE_SEQUENCE_OFFSET;
+        this.readSequenceAddress = address + READ_SEQUENCE_OFFSET;
+        this.closedAddress = address + CLOSED_OFFSET;
+        this.dataAddress = address + HEADER_SIZE;
+    }
+
+    /**
+     * Returns the number of bytes a ring buffer with the given data capacity occupies.
+     */
+    static int requiredSize(int capacity) {
+        return HEADER_SIZE + capacity;
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Copies as many remaining bytes of {@code src} to the ring buffer as there is space for.
+     * Must only be called by the producer.
+     *
+     * @return the number of bytes written, possibly 0 if the ring buffer is full
+     */
+    int write(ByteBuffer src) {
+        long writeSequence = MEM.getLong(writeSequenceAddress);
+        long readSequence = MEM.getLongVolatile(readSequenceAddress);
+        int length = Math.min(capacity - clamp(writeSequence - readSequence), src.remaining());
+        if (length == 0) {
+            return 0;
+        }
+
+        int index = (int) (writeSequence & mask);
+        int firstChunk = Math.min(length, capacity - index);
+        copyFromBuffer(src, dataAddress + index, firstChunk);
+        copyFromBuffer(src, dataAddress, length - firstChunk);
+        MEM.putOrderedLong(writeSequenceAddress, writeSequence + length);
+        return length;
+    }
+
+    /**
+     * Copies as many available bytes of the ring buffer to {@code dst} as it has space for.
+     * Must only be called by the consumer.
+     *
+     * @return the number of bytes read, possibly 0 if the ring buffer is empty
+     */
+    int read(ByteBuffer dst) {
+        long readSequence = MEM.getLong(readSequenceAddress);
+        long writeSequence = MEM.getLongVolatile(writeSequenceAddress);
+        int length = Math.min(clamp(writeSequence - readSequence), dst.remaining());
+        if (length == 0) {
+            return 0;
+        }
+
+        int index = (int) (readSequence & mask);
+        int firstChunk = Math.min(length, capacity - index);
+        copyToBuffer(dataAddress + index, dst, firstChunk);
+        copyToBuffer(dataAddress, dst, length - firstChunk);
+        MEM.putOrderedLong(readSequenceAddress, readSequence + length);
+        return length;
+    }
+
+    /**
+     * Returns the number of bytes which can be read.
+     */
+    int available() {
+        return clamp(MEM.getLongVolatile(writeSequenceAddress) - MEM.getLongVolatile(readSequenceAddress));
+    }
+
+    /**
+     * Returns the number of bytes between the write and the read sequence, clamped to [0, capacity].
+     */
+    private int clamp(long written) {
+        if (written < 0) {
+            return 0;
+        }
+        return written > capacity ? capacity : (int) written;
+    }
+
+    /**
+     * Marks the ring buffer as closed, which is visible to both the producer and the consumer.
+     */
+    void close() {
+        MEM.putLongVolatile(closedAddress, 1);
+    }
+
+    boolean isClosed() {
+        return MEM.getLongVolatile(closedAddress) != 0;
+    }
+
+    private static void copyFromBuffer(ByteBuffer src, long address, int length) {
+        if (length == 0) {
+            return;
+        }
+        int position = src.position();
+        if (src.hasArray()) {
+            MEM.copyFromByteArray(src.array(), src.arrayOffset() + position, address, length);
+        } else {
+            MEM.copyMemory(addressOf(src) + position, address, length);
+        }
+        src.position(position + length);
+    }
+
+    private static void copyToBuffer(long address, ByteBuffer dst, int length) {
+        if (length == 0) {
+            return;
+        }
+        int position = dst.position();
+        if (dst.hasArray()) {
+            MEM.copyToByteArray(address, dst.array(), dst.arrayOffset() + position, length);
+        } else {
+            MEM.copyMemory(address, addressOf(dst) + position, length);
+        }
+        dst.position(position + length);
+    }
+
+    private static long addressOf(ByteBuffer buffer) {
+        return MEM.getLong(buffer, ADDRESS_FIELD_OFFSET);
+    }
+}
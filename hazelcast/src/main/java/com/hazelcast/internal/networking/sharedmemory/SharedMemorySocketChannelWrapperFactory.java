@@ -0,0 +1,218 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.networking.sharedmemory;
+
+import com.hazelcast.internal.networking.SocketChannelWrapper;
+import com.hazelcast.internal.networking.SocketChannelWrapperFactory;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.nio.tcp.DefaultSocketChannelWrapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
+
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.IOUtil.closeResource;
+import static com.hazelcast.util.QuickMath.isPowerOfTwo;
+
+/**
+ * A {@link SocketChannelWrapperFactory} which switches connections between members on the same host to
+ * memory mapped ring buffers.
+ * <p>
+ * The connecting side creates a file holding a ring buffer per direction in the shared memory directory, maps it
+ * and sends its path over the freshly connected socket. The accepting side maps the same file and acknowledges
+ * the handshake, after which both sides delete the file; the mapping stays valid until both sides have released
+ * it. If the accepting side can't map the file, e.g. because the peer is on another host behind the same
+ * address, it declines the handshake and the connection falls back to TCP.
+ * <p>
+ * Since the path is sent by the peer, the accepting side only maps it for a loopback peer, and only if the path
+ * is the canonical path of a shared memory file directly inside the configured directory.
+ * <p>
+ * Since a member accepting a connection expects the handshake only if it has this factory installed, the
+ * shared memory transport has to be enabled on all members of the cluster.
+ */
+public class SharedMemorySocketChannelWrapperFactory implements SocketChannelWrapperFactory {
+
+    static final String FILE_PREFIX = "hazelcast-shm-";
+
+    private static final int HANDSHAKE_TIMEOUT_MILLIS = 10000;
+
+    private final File directory;
+    private final int capacity;
+    private final ILogger logger;
+
+    /**
+     * @param directory the directory to create the shared memory files in, preferably a memory backed file system
+     * @param capacity  the capacity of the ring buffer of each direction in bytes, has to be a power of two
+     * @param logger    the logger
+     */
+    public SharedMemorySocketChannelWrapperFactory(File directory, int capacity, ILogger logger) {
+        if (!isPowerOfTwo(capacity)) {
+            throw new IllegalArgumentException("Shared memory buffer size has to be a power of two, was " + capacity);
+        }
+        this.directory = directory;
+        this.capacity = capacity;
+        this.logger = logger;
+    }
+
+    @Override
+    public SocketChannelWrapper wrapSocketChannel(SocketChannel socketChannel, boolean client) throws Exception {
+        if (!client) {
+            return new SharedMemoryChannel(socketChannel, this);
+        }
+        if (!isLoopbackPeer(socketChannel.socket())) {
+            return new DefaultSocketChannelWrapper(socketChannel);
+        }
+        return connect(socketChannel);
+    }
+
+    @Override
+    public boolean isSSlEnabled() {
+        return false;
+    }
+
+    /**
+     * Does the handshake of the connecting side; the socket channel is still in blocking mode.
+     */
+    private SocketChannelWrapper connect(SocketChannel socketChannel) throws IOException {
+        File file = File.createTempFile(FILE_PREFIX, null, directory);
+        try {
+            ByteBuffer buffer = map(file, capacity, true);
+            writeHandshake(socketChannel, file);
+            if (readAck(socketChannel.socket()) != SharedMemoryChannel.ACK_ACCEPTED) {
+                logger.fine("Shared memory handshake declined by " + socketChannel.socket().getRemoteSocketAddress());
+                return new DefaultSocketChannelWrapper(socketChannel);
+            }
+            SharedMemoryRingBuffer outbound = new SharedMemoryRingBuffer(buffer, 0, capacity);
+            SharedMemoryRingBuffer inbound = new SharedMemoryRingBuffer(buffer, ringBufferSize(capacity), capacity);
+            return new SharedMemoryChannel(socketChannel, inbound, outbound);
+        } finally {
+            if (!file.delete()) {
+                logger.warning("Could not delete shared memory file " + file);
+            }
+        }
+    }
+
+    private void writeHandshake(SocketChannel socketChannel, File file) throws IOException {
+        byte[] path = file.getCanonicalPath().getBytes("UTF-8");
+        ByteBuffer handshake = ByteBuffer.allocate(SharedMemoryChannel.MAGIC.length + 2 * INT_SIZE_IN_BYTES + path.length);
+        handshake.put(SharedMemoryChannel.MAGIC);
+        handshake.putInt(capacity);
+        handshake.putInt(path.length);
+        handshake.put(path);
+        handshake.flip();
+        while (handshake.hasRemaining()) {
+            socketChannel.write(handshake);
+        }
+    }
+
+    private static int readAck(Socket socket) throws IOException {
+        int soTimeout = socket.getSoTimeout();
+        socket.setSoTimeout(HANDSHAKE_TIMEOUT_MILLIS);
+        try {
+            InputStream in = socket.getInputStream();
+            int ack = in.read();
+            if (ack == -1) {
+                throw new IOException("Peer closed the connection during the shared memory handshake");
+            }
+            return ack;
+        } finally {
+            socket.setSoTimeout(soTimeout);
+        }
+    }
+
+    /**
+     * Maps the file the connecting side has created, called by the accepting side during the handshake.
+     *
+     * @param socket       the socket of the connection
+     * @param path         the path of the file sent by the peer
+     * @param peerCapacity the ring buffer capacity sent by the peer
+     * @return the ring buffers written by the connecting and the accepting side or {@code null}
+     * if the file can't be used
+     */
+    SharedMemoryRingBuffer[] attach(Socket socket, String path, int peerCapacity) {
+        if (!isLoopbackPeer(socket)) {
+            logger.warning("Declining shared memory handshake from non-loopback peer " + socket.getRemoteSocketAddress());
+            return null;
+        }
+        File file = new File(path);
+        try {
+            if (!isPowerOfTwo(peerCapacity) || 2L * ringBufferSize(peerCapacity) > Integer.MAX_VALUE
+                    || !isSharedMemoryFile(file) || file.length() != 2L * ringBufferSize(peerCapacity)) {
+                logger.warning("Declining shared memory handshake for invalid file " + path);
+                return null;
+            }
+            ByteBuffer buffer = map(file, peerCapacity, false);
+            // the peer deletes the file as well, but it may already have given up on the handshake
+            file.delete();
+            return new SharedMemoryRingBuffer[]{
+                    new SharedMemoryRingBuffer(buffer, 0, peerCapacity),
+                    new SharedMemoryRingBuffer(buffer, ringBufferSize(peerCapacity), peerCapacity),
+            };
+        } catch (IOException e) {
+            logger.fine("Declining shared memory handshake, could not map " + path, e);
+            return null;
+        }
+    }
+
+    /**
+     * Checks that the path sent by the peer is the canonical path of a shared memory file in the directory,
+     * so a path with symbolic links or relative segments can't point to a file outside of it.
+     */
+    private boolean isSharedMemoryFile(File file) throws IOException {
+        return file.isAbsolute()
+                && file.getPath().equals(file.getCanonicalPath())
+                && directory.getCanonicalFile().equals(file.getParentFile())
+                && file.getName().startsWith(FILE_PREFIX)
+                && file.isFile();
+    }
+
+    private static MappedByteBuffer map(File file, int capacity, boolean create) throws IOException {
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            long size = 2L * ringBufferSize(capacity);
+            if (create) {
+                randomAccessFile.setLength(size);
+            }
+            // the mapping stays valid after the file has been closed
+            return randomAccessFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } finally {
+            closeResource(randomAccessFile);
+        }
+    }
+
+    private static int ringBufferSize(int capacity) {
+        return SharedMemoryRingBuffer.requiredSize(capacity);
+    }
+
+    /**
+     * Returns {@code true} if the connection doesn't leave this host: the peer address is either a loopback address
+     * or the local address of the socket, which is routed over the loopback interface as well.
+     */
+    static boolean isLoopbackPeer(Socket socket) {
+        InetAddress address = socket.getInetAddress();
+        return address != null && (address.isLoopbackAddress() || address.equals(socket.getLocalAddress()));
+    }
+}
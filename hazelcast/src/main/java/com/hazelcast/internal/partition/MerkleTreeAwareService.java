@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition;
+
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.PartitionReplicationEvent;
+
+import java.util.Map;
+
+/**
+ * A {@link com.hazelcast.spi.MigrationAwareService} which maintains Merkle trees of its partition data and is able to synchronize
+ * a backup replica by replicating only the data which differs between the trees of the partition owner and the
+ * replica.
+ * <p>
+ * The replica sends the snapshots of its trees together with the replica sync request. If the service doesn't return
+ * any snapshot, the partition data is synchronized completely using
+ * {@link com.hazelcast.spi.MigrationAwareService#prepareReplicationOperation(PartitionReplicationEvent)}.
+ *
+ * @see com.hazelcast.internal.util.merkletree.MerkleTree
+ */
+public interface MerkleTreeAwareService {
+
+    /**
+     * Returns the snapshots of the Merkle trees of the given partition, keyed by the name of the distributed object.
+     *
+     * @param partitionId the ID of the partition
+     * @return the snapshots of the Merkle trees, empty if there are none
+     */
+    Map<String, int[]> getMerkleTreeSnapshots(int partitionId);
+
+    /**
+     * Creates the operation which synchronizes the replica of the partition given the snapshots of the Merkle trees
+     * of the replica. The data of the distributed objects for which no snapshot is given is replicated completely.
+     *
+     * @param event              the replication event
+     * @param replicaMerkleTrees the snapshots of the Merkle trees of the replica keyed by the distributed object name
+     * @return the replication operation or {@code null} if there is nothing to replicate
+     */
+    Operation prepareReplicationOperation(PartitionReplicationEvent event, Map<String, int[]> replicaMerkleTrees);
+}
@@ -21,6 +21,7 @@ import com.hazelcast.internal.partition.operation.AssignPartitions;
 import com.hazelcast.internal.partition.operation.CheckReplicaVersion;
 import com.hazelcast.internal.partition.operation.FetchPartitionStateOperation;
 import com.hazelcast.internal.partition.operation.HasOngoingMigration;
+import com.hazelcast.internal.partition.operation.MerkleTreeReplicaSyncRequest;
 import com.hazelcast.internal.partition.operation.MigrationCommitOperation;
 import com.hazelcast.internal.partition.operation.MigrationOperation;
 import com.hazelcast.internal.partition.operation.MigrationRequestOperation;
@@ -62,8 +63,9 @@ public final class PartitionDataSerializerHook implements DataSerializerHook {
     public static final int SAFE_STATE_CHECK = 14;
     public static final int SHUTDOWN_REQUEST = 15;
     public static final int SHUTDOWN_RESPONSE = 16;
+    public static final int MERKLE_TREE_REPLICA_SYNC_REQUEST = 17;
 
-    private static final int LEN = SHUTDOWN_RESPONSE + 1;
+    private static final int LEN = MERKLE_TREE_REPLICA_SYNC_REQUEST + 1;
 
     @Override
     public int getFactoryId() {
@@ -154,6 +156,11 @@ public final class PartitionDataSerializerHook implements DataSerializerHook {
                 return new ShutdownResponseOperation();
             }
         };
+        constructors[MERKLE_TREE_REPLICA_SYNC_REQUEST] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new MerkleTreeReplicaSyncRequest();
+            }
+        };
 
         return new ArrayDataSerializableFactory(constructors);
     }
@@ -19,13 +19,18 @@ package com.hazelcast.internal.partition.impl;
 import com.hazelcast.instance.Node;
 import com.hazelcast.internal.metrics.Probe;
 import com.hazelcast.internal.partition.InternalPartition;
+import com.hazelcast.internal.partition.MerkleTreeAwareService;
+import com.hazelcast.internal.partition.operation.MerkleTreeReplicaSyncRequest;
 import com.hazelcast.internal.partition.operation.ReplicaSyncRequest;
 import com.hazelcast.internal.util.counters.MwCounter;
 import com.hazelcast.logging.ILogger;
 import com.hazelcast.nio.Address;
 import com.hazelcast.spi.ExecutionService;
 import com.hazelcast.spi.TaskScheduler;
+import com.hazelcast.spi.UrgentSystemOperation;
 import com.hazelcast.spi.impl.NodeEngineImpl;
+import com.hazelcast.spi.impl.PartitionSpecificRunnable;
+import com.hazelcast.spi.impl.servicemanager.ServiceInfo;
 import com.hazelcast.spi.properties.GroupProperty;
 import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.util.scheduler.EntryTaskScheduler;
@@ -36,11 +41,14 @@ import com.hazelcast.util.scheduler.ScheduledEntryProcessor;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicReferenceArray;
 
+import static com.hazelcast.internal.cluster.Versions.V3_9;
 import static com.hazelcast.internal.partition.InternalPartitionService.DEFAULT_REPLICA_SYNC_DELAY;
 import static com.hazelcast.internal.partition.InternalPartitionService.REPLICA_SYNC_RETRY_DELAY;
 import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
@@ -165,6 +173,22 @@ public class PartitionReplicaManager {
         schedulePartitionReplicaSync(syncInfo, target, scheduleDelay, "ANOTHER SYNC IN PROGRESS");
     }
 
+    /**
+     * Collects the snapshots of the Merkle trees of the partition from all {@link MerkleTreeAwareService}s.
+     * Must be called on the partition thread.
+     */
+    private Map<String, Map<String, int[]>> getMerkleTreeSnapshots(int partitionId) {
+        Map<String, Map<String, int[]>> snapshots = new HashMap<String, Map<String, int[]>>();
+        for (ServiceInfo serviceInfo : nodeEngine.getServiceInfos(MerkleTreeAwareService.class)) {
+            MerkleTreeAwareService service = (MerkleTreeAwareService) serviceInfo.getService();
+            Map<String, int[]> serviceSnapshots = service.getMerkleTreeSnapshots(partitionId);
+            if (!serviceSnapshots.isEmpty()) {
+                snapshots.put(serviceInfo.getName(), serviceSnapshots);
+            }
+        }
+        return snapshots;
+    }
+
     /** Checks preconditions for replica sync - if we don't know the owner yet, if this node is the owner or not a replica */
     boolean checkSyncPartitionTarget(int partitionId, int replicaIndex) {
         final InternalPartitionImpl partition = partitionStateManager.getPartitionImpl(partitionId);
@@ -230,8 +254,13 @@ public class PartitionReplicaManager {
             }
             replicaSyncRequestsCounter.inc();
             replicaSyncScheduler.schedule(partitionMigrationTimeout, partitionId, syncInfo);
-            ReplicaSyncRequest syncRequest = new ReplicaSyncRequest(partitionId, replicaIndex);
-            nodeEngine.getOperationService().send(syncRequest, target);
+            if (nodeEngine.getClusterService().getClusterVersion().isGreaterOrEqual(V3_9)) {
+                // the Merkle trees are only consistent with the partition data on the partition thread
+                nodeEngine.getOperationService().execute(new SendReplicaSyncRequestTask(partitionId, replicaIndex, target));
+            } else {
+                ReplicaSyncRequest syncRequest = new ReplicaSyncRequest(partitionId, replicaIndex);
+                nodeEngine.getOperationService().send(syncRequest, target);
+            }
             return true;
         }
         return false;
@@ -454,4 +483,32 @@ public class PartitionReplicaManager {
             }
         }
     }
+
+    /** Sends the replica sync request with the snapshots of the Merkle trees taken on the partition thread */
+    private final class SendReplicaSyncRequestTask implements PartitionSpecificRunnable, UrgentSystemOperation {
+
+        private final int partitionId;
+        private final int replicaIndex;
+        private final Address target;
+
+        SendReplicaSyncRequestTask(int partitionId, int replicaIndex, Address target) {
+            this.partitionId = partitionId;
+            this.replicaIndex = replicaIndex;
+            this.target = target;
+        }
+
+        @Override
+        public int getPartitionId() {
+            return partitionId;
+        }
+
+        @Override
+        public void run() {
+            Map<String, Map<String, int[]>> merkleTrees = getMerkleTreeSnapshots(partitionId);
+            ReplicaSyncRequest syncRequest = merkleTrees.isEmpty()
+                    ? new ReplicaSyncRequest(partitionId, replicaIndex)
+                    : new MerkleTreeReplicaSyncRequest(partitionId, replicaIndex, merkleTrees);
+            nodeEngine.getOperationService().send(syncRequest, target);
+        }
+    }
 }
@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.partition.operation;
+
+import com.hazelcast.internal.partition.MerkleTreeAwareService;
+import com.hazelcast.internal.partition.impl.PartitionDataSerializerHook;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link ReplicaSyncRequest} which carries the snapshots of the Merkle trees of the replica for the services
+ * implementing {@link MerkleTreeAwareService}, which allows them to replicate only the data which differs on the replica.
+ * <p>
+ * Sent only when the cluster version is at least 3.9, since older members don't know this operation.
+ */
+public final class MerkleTreeReplicaSyncRequest extends ReplicaSyncRequest {
+
+    public MerkleTreeReplicaSyncRequest() {
+    }
+
+    public MerkleTreeReplicaSyncRequest(int partitionId, int replicaIndex, Map<String, Map<String, int[]>> merkleTrees) {
+        super(partitionId, replicaIndex);
+        this.merkleTrees = merkleTrees;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        out.writeInt(merkleTrees.size());
+        for (Map.Entry<String, Map<String, int[]>> serviceEntry : merkleTrees.entrySet()) {
+            out.writeUTF(serviceEntry.getKey());
+            Map<String, int[]> trees = serviceEntry.getValue();
+            out.writeInt(trees.size());
+            for (Map.Entry<String, int[]> treeEntry : trees.entrySet()) {
+                out.writeUTF(treeEntry.getKey());
+                out.writeIntArray(treeEntry.getValue());
+            }
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        int serviceCount = in.readInt();
+        merkleTrees = new HashMap<String, Map<String, int[]>>(serviceCount);
+        for (int i = 0; i < serviceCount; i++) {
+            String serviceName = in.readUTF();
+            int treeCount = in.readInt();
+            Map<String, int[]> trees = new HashMap<String, int[]>(treeCount);
+            for (int j = 0; j < treeCount; j++) {
+                trees.put(in.readUTF(), in.readIntArray());
+            }
+            merkleTrees.put(serviceName, trees);
+        }
+    }
+
+    @Override
+    public int getId() {
+        return PartitionDataSerializerHook.MERKLE_TREE_REPLICA_SYNC_REQUEST;
+    }
+}
@@ -18,6 +18,7 @@ package com.hazelcast.internal.partition.operation;
 
 import com.hazelcast.internal.partition.InternalPartition;
 import com.hazelcast.internal.partition.InternalPartitionService;
+import com.hazelcast.internal.partition.MerkleTreeAwareService;
 import com.hazelcast.internal.partition.MigrationCycleOperation;
 import com.hazelcast.internal.partition.ReplicaErrorLogger;
 import com.hazelcast.internal.partition.impl.InternalPartitionImpl;
@@ -40,8 +41,10 @@ import com.hazelcast.spi.impl.servicemanager.ServiceInfo;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * The request sent from a replica to the partition owner to synchronize the replica data. The partition owner can send a
@@ -52,10 +55,15 @@ import java.util.List;
  * <li>the maximum number of parallel synchronizations has already been reached</li>
  * </ul>
  * An empty response can be sent if the current replica version is 0.
+ *
+ * @see MerkleTreeReplicaSyncRequest
  */
-public final class ReplicaSyncRequest extends AbstractPartitionOperation
+public class ReplicaSyncRequest extends AbstractPartitionOperation
         implements PartitionAwareOperation, MigrationCycleOperation {
 
+    // snapshots of the Merkle trees of the replica, keyed by service name and then by object name
+    Map<String, Map<String, int[]>> merkleTrees = Collections.emptyMap();
+
     public ReplicaSyncRequest() {
     }
 
@@ -165,7 +173,13 @@ public final class ReplicaSyncRequest extends AbstractPartitionOperation
         List<Operation> tasks = new LinkedList<Operation>();
         for (ServiceInfo serviceInfo : services) {
             MigrationAwareService service = (MigrationAwareService) serviceInfo.getService();
-            Operation op = service.prepareReplicationOperation(event);
+            Map<String, int[]> replicaMerkleTrees = merkleTrees.get(serviceInfo.getName());
+            Operation op;
+            if (replicaMerkleTrees != null && service instanceof MerkleTreeAwareService) {
+                op = ((MerkleTreeAwareService) service).prepareReplicationOperation(event, replicaMerkleTrees);
+            } else {
+                op = service.prepareReplicationOperation(event);
+            }
             if (op != null) {
                 op.setServiceName(serviceInfo.getName());
                 tasks.add(op);
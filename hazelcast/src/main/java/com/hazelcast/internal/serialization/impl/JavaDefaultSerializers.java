@@ -16,6 +16,7 @@
 
 package com.hazelcast.internal.serialization.impl;
 
+import com.hazelcast.core.HazelcastJsonValue;
 import com.hazelcast.nio.ClassLoaderUtil;
 import com.hazelcast.nio.ObjectDataInput;
 import com.hazelcast.nio.ObjectDataOutput;
@@ -42,6 +43,7 @@ import static com.hazelcast.internal.serialization.impl.SerializationConstants.J
 import static com.hazelcast.internal.serialization.impl.SerializationConstants.JAVA_DEFAULT_TYPE_ENUM;
 import static com.hazelcast.internal.serialization.impl.SerializationConstants.JAVA_DEFAULT_TYPE_EXTERNALIZABLE;
 import static com.hazelcast.internal.serialization.impl.SerializationConstants.JAVA_DEFAULT_TYPE_SERIALIZABLE;
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.JAVASCRIPT_JSON_SERIALIZATION_TYPE;
 import static com.hazelcast.nio.IOUtil.newObjectInputStream;
 
 
@@ -280,6 +282,29 @@ public final class JavaDefaultSerializers {
         }
     }
 
+    /**
+     * Serializes a {@link HazelcastJsonValue} as its string, which keeps the structural characters of the
+     * JSON document as single bytes in the serialized form. Uses the type-id of the JSON serialization
+     * of the JavaScript client, so values written by both are interchangeable.
+     */
+    public static final class HazelcastJsonValueSerializer extends SingletonSerializer<HazelcastJsonValue> {
+
+        @Override
+        public int getTypeId() {
+            return JAVASCRIPT_JSON_SERIALIZATION_TYPE;
+        }
+
+        @Override
+        public HazelcastJsonValue read(final ObjectDataInput in) throws IOException {
+            return new HazelcastJsonValue(in.readUTF());
+        }
+
+        @Override
+        public void write(final ObjectDataOutput out, final HazelcastJsonValue obj) throws IOException {
+            out.writeUTF(obj.toString());
+        }
+    }
+
     private abstract static class SingletonSerializer<T> implements StreamSerializer<T> {
 
         @Override
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.compression;
+
+import java.util.Arrays;
+
+import static com.hazelcast.nio.Bits.readIntL;
+
+/**
+ * A compressor and decompressor for the LZ4 block format.
+ * <p>
+ * The compressor trades compression ratio for speed: it does a single greedy pass over the input, looking up
+ * 4-byte sequences in a small hash table of previous positions. The decompressor is a plain copy loop.
+ * <p>
+ * Instances are not thread-safe since the hash table of the compressor is reused between calls. The decompression
+ * is stateless.
+ */
+public final class Lz4Codec {
+
+    private static final int MIN_MATCH = 4;
+    private static final int HASH_LOG = 12;
+    private static final int HASH_MULTIPLIER = -1640531535;
+    private static final int MAX_OFFSET = 65535;
+    // the last 5 bytes are always literals
+    private static final int LAST_LITERALS = 5;
+    // the last match must start at least 12 bytes before the end of the input
+    private static final int MF_LIMIT = 12;
+    private static final int RUN_MASK = 15;
+    private static final int ML_MASK = 15;
+    private static final int TOKEN_SHIFT = 4;
+    private static final int LENGTH_EXTENSION = 255;
+    private static final int BYTE_MASK = 0xFF;
+    private static final int BITS_PER_BYTE = 8;
+
+    private final int[] hashTable = new int[1 << HASH_LOG];
+
+    /**
+     * Returns the maximum length of the compressed form of an input with the given length.
+     */
+    public static int maxCompressedLength(int length) {
+        return length + length / LENGTH_EXTENSION + MIN_MATCH * MIN_MATCH;
+    }
+
+    /**
+     * Compresses the given input.
+     *
+     * @param src    the input
+     * @param srcOff the offset of the input
+     * @param srcLen the length of the input
+     * @param dst    the output, with at least {@link #maxCompressedLength(int)} bytes available from {@code dstOff}
+     * @param dstOff the offset of the output
+     * @return the length of the compressed output
+     */
+    public int compress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff) {
+        int srcEnd = srcOff + srcLen;
+        int matchLimit = srcEnd - LAST_LITERALS;
+        int mfLimit = srcEnd - MF_LIMIT;
+        int anchor = srcOff;
+        int ip = srcOff;
+        int op = dstOff;
+
+        Arrays.fill(hashTable, -1);
+        while (ip < mfLimit) {
+            int sequence = readIntL(src, ip);
+            int hash = hash(sequence);
+            int ref = hashTable[hash];
+            hashTable[hash] = ip;
+            if (ref < 0 || ip - ref > MAX_OFFSET || readIntL(src, ref) != sequence) {
+                ip++;
+                continue;
+            }
+
+            // extend the match backwards into the pending literals
+            while (ip > anchor && ref > srcOff && src[ip - 1] == src[ref - 1]) {
+                ip--;
+                ref--;
+            }
+            int matchLength = MIN_MATCH;
+            while (ip + matchLength < matchLimit && src[ip + matchLength] == src[ref + matchLength]) {
+                matchLength++;
+            }
+
+            op = writeLiterals(src, anchor, ip - anchor, matchLength - MIN_MATCH, dst, op);
+            int offset = ip - ref;
+            dst[op++] = (byte) offset;
+            dst[op++] = (byte) (offset >>> BITS_PER_BYTE);
+            if (matchLength - MIN_MATCH >= ML_MASK) {
+                op = writeLength(matchLength - MIN_MATCH - ML_MASK, dst, op);
+            }
+
+            ip += matchLength;
+            anchor = ip;
+        }
+
+        op = writeLiterals(src, anchor, srcEnd - anchor, 0, dst, op);
+        return op - dstOff;
+    }
+
+    /**
+     * Decompresses the given input.
+     *
+     * @param src    the compressed input
+     * @param srcOff the offset of the input
+     * @param srcLen the length of the input
+     * @param dst    the output
+     * @param dstOff the offset of the output
+     * @param dstLen the expected length of the decompressed output
+     * @return the length of the decompressed output
+     * @throws IllegalArgumentException if the input is malformed or decompresses to more than {@code dstLen} bytes
+     */
+    public static int decompress(byte[] src, int srcOff, int srcLen, byte[] dst, int dstOff, int dstLen) {
+        int srcEnd = srcOff + srcLen;
+        int dstEnd = dstOff + dstLen;
+        int ip = srcOff;
+        int op = dstOff;
+
+        while (true) {
+            checkInput(ip < srcEnd);
+            int token = src[ip++] & BYTE_MASK;
+
+            int literalLength = token >>> TOKEN_SHIFT;
+            if (literalLength == RUN_MASK) {
+                int b;
+                do {
+                    checkInput(ip < srcEnd);
+                    b = src[ip++] & BYTE_MASK;
+                    literalLength += b;
+                } while (b == LENGTH_EXTENSION);
+            }
+            checkInput(literalLength <= srcEnd - ip && literalLength <= dstEnd - op);
+            System.arraycopy(src, ip, dst, op, literalLength);
+            ip += literalLength;
+            op += literalLength;
+            if (ip == srcEnd) {
+                // the last sequence has no match
+                return op - dstOff;
+            }
+
+            checkInput(ip + 1 < srcEnd);
+            int offset = (src[ip] & BYTE_MASK) | ((src[ip + 1] & BYTE_MASK) << BITS_PER_BYTE);
+            ip += 2;
+            int matchLength = token & ML_MASK;
+            if (matchLength == ML_MASK) {
+                int b;
+                do {
+                    checkInput(ip < srcEnd);
+                    b = src[ip++] & BYTE_MASK;
+                    matchLength += b;
+                } while (b == LENGTH_EXTENSION);
+            }
+            matchLength += MIN_MATCH;
+            int ref = op - offset;
+            checkInput(offset > 0 && ref >= dstOff && matchLength <= dstEnd - op);
+            // the match may overlap with the output being written, so it is copied byte by byte
+            for (int i = 0; i < matchLength; i++) {
+                dst[op++] = dst[ref++];
+            }
+        }
+    }
+
+    private static int writeLiterals(byte[] src, int literalOff, int literalLength, int matchLengthCode,
+                                     byte[] dst, int op) {
+        int token = Math.min(matchLengthCode, ML_MASK);
+        if (literalLength >= RUN_MASK) {
+            dst[op++] = (byte) ((RUN_MASK << TOKEN_SHIFT) | token);
+            op = writeLength(literalLength - RUN_MASK, dst, op);
+        } else {
+            dst[op++] = (byte) ((literalLength << TOKEN_SHIFT) | token);
+        }
+        System.arraycopy(src, literalOff, dst, op, literalLength);
+        return op + literalLength;
+    }
+
+    private static int writeLength(int length, byte[] dst, int op) {
+        while (length >= LENGTH_EXTENSION) {
+            dst[op++] = (byte) LENGTH_EXTENSION;
+            length -= LENGTH_EXTENSION;
+        }
+        dst[op++] = (byte) length;
+        return op;
+    }
+
+    private static int hash(int sequence) {
+        return (sequence * HASH_MULTIPLIER) >>> (Integer.SIZE - HASH_LOG);
+    }
+
+    private static void checkInput(boolean condition) {
+        if (!condition) {
+            throw new IllegalArgumentException("Malformed LZ4 compressed input");
+        }
+    }
+}
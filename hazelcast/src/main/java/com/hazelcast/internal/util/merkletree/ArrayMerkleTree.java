@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.merkletree;
+
+import java.util.Arrays;
+
+import static com.hazelcast.internal.util.merkletree.MerkleTreeUtil.getLeftChildOrder;
+import static com.hazelcast.internal.util.merkletree.MerkleTreeUtil.getNodeCount;
+import static com.hazelcast.internal.util.merkletree.MerkleTreeUtil.getParentOrder;
+import static com.hazelcast.internal.util.merkletree.MerkleTreeUtil.hashEntry;
+import static com.hazelcast.internal.util.merkletree.MerkleTreeUtil.hashNodes;
+import static com.hazelcast.util.Preconditions.checkTrue;
+
+/**
+ * {@link MerkleTree} implementation storing the hashes of the nodes in a single {@code int} array.
+ * <p>
+ * The hash of a leaf is the sum of the hashes of its entries, which allows updating a leaf without iterating over
+ * its entries. Any update changes exactly one leaf and the {@code depth - 1} inner nodes on its path to the root.
+ */
+public class ArrayMerkleTree implements MerkleTree {
+
+    /**
+     * The minimum depth of a tree: a root with two leaves.
+     */
+    public static final int MIN_DEPTH = 2;
+    /**
+     * The maximum depth of a tree, which has {@code 2^19} leaves.
+     */
+    public static final int MAX_DEPTH = 20;
+
+    private final int depth;
+    private final int[] nodes;
+
+    public ArrayMerkleTree(int depth) {
+        checkTrue(depth >= MIN_DEPTH && depth <= MAX_DEPTH,
+                "Merkle tree depth must be in the range [" + MIN_DEPTH + "-" + MAX_DEPTH + "], was " + depth);
+        this.depth = depth;
+        this.nodes = new int[getNodeCount(depth)];
+    }
+
+    @Override
+    public void updateAdd(int keyHash, int valueHash) {
+        updateLeaf(keyHash, hashEntry(keyHash, valueHash));
+    }
+
+    @Override
+    public void updateReplace(int keyHash, int oldValueHash, int newValueHash) {
+        updateLeaf(keyHash, hashEntry(keyHash, newValueHash) - hashEntry(keyHash, oldValueHash));
+    }
+
+    @Override
+    public void updateRemove(int keyHash, int valueHash) {
+        updateLeaf(keyHash, -hashEntry(keyHash, valueHash));
+    }
+
+    @Override
+    public int getNodeHash(int nodeOrder) {
+        return nodes[nodeOrder];
+    }
+
+    @Override
+    public int getLeafOrderForHash(int keyHash) {
+        return MerkleTreeUtil.getLeafOrderForHash(keyHash, depth);
+    }
+
+    @Override
+    public int depth() {
+        return depth;
+    }
+
+    @Override
+    public int[] snapshot() {
+        return Arrays.copyOf(nodes, nodes.length);
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(nodes, 0);
+    }
+
+    private void updateLeaf(int keyHash, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        int nodeOrder = MerkleTreeUtil.getLeafOrderForHash(keyHash, depth);
+        nodes[nodeOrder] += delta;
+        while (nodeOrder > 0) {
+            nodeOrder = getParentOrder(nodeOrder);
+            int leftChildOrder = getLeftChildOrder(nodeOrder);
+            nodes[nodeOrder] = hashNodes(nodes[leftChildOrder], nodes[leftChildOrder + 1]);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.merkletree;
+
+/**
+ * A hash tree over the entries of a data structure, used to find the differing entries of two replicas without
+ * comparing the entries one by one.
+ * <p>
+ * The entries are distributed to the leaves of the tree by the hash of their keys. The hash of a leaf covers the
+ * hashes of all its entries and the hash of an inner node covers the hashes of its two children. Two replicas
+ * which have the same root hash are considered equal; if the roots differ, the trees can be compared top-down to
+ * find the leaves, and therefore the key ranges, that contain the differences.
+ * <p>
+ * The nodes are identified by their order in a breadth-first traversal, the root having the order {@code 0}.
+ * Implementations are not thread-safe; they are supposed to be updated by the partition thread owning the
+ * data structure.
+ *
+ * @see MerkleTreeUtil
+ */
+public interface MerkleTree {
+
+    /**
+     * Updates the tree with a newly added entry.
+     *
+     * @param keyHash   the hash of the key
+     * @param valueHash the hash of the value
+     */
+    void updateAdd(int keyHash, int valueHash);
+
+    /**
+     * Updates the tree with the changed value of an existing entry.
+     *
+     * @param keyHash      the hash of the key
+     * @param oldValueHash the hash of the previous value
+     * @param newValueHash the hash of the new value
+     */
+    void updateReplace(int keyHash, int oldValueHash, int newValueHash);
+
+    /**
+     * Updates the tree with a removed entry.
+     *
+     * @param keyHash   the hash of the key
+     * @param valueHash the hash of the removed value
+     */
+    void updateRemove(int keyHash, int valueHash);
+
+    /**
+     * Returns the hash of the node with the given order.
+     *
+     * @param nodeOrder the breadth-first order of the node
+     * @return the hash of the node
+     */
+    int getNodeHash(int nodeOrder);
+
+    /**
+     * Returns the leaf the entries with the given key hash belong to.
+     *
+     * @param keyHash the hash of the key
+     * @return the breadth-first order of the leaf
+     */
+    int getLeafOrderForHash(int keyHash);
+
+    /**
+     * Returns the depth of the tree, a tree consisting only of its root has a depth of {@code 1}.
+     */
+    int depth();
+
+    /**
+     * Returns a copy of the hashes of all the nodes, indexed by their breadth-first order.
+     */
+    int[] snapshot();
+
+    /**
+     * Resets all the nodes to the state of an empty tree.
+     */
+    void clear();
+}
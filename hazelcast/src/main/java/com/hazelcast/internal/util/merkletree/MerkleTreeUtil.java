@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.merkletree;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.hazelcast.util.HashUtil.MurmurHash3_fmix;
+import static com.hazelcast.util.Preconditions.checkTrue;
+
+/**
+ * Utility methods to navigate and compare {@link MerkleTree}s.
+ * <p>
+ * The nodes of a tree are addressed by their breadth-first order: the root has the order {@code 0} and the children
+ * of the node {@code n} have the orders {@code 2n + 1} and {@code 2n + 2}.
+ */
+public final class MerkleTreeUtil {
+
+    private static final int HASH_MULTIPLIER = 31;
+
+    private MerkleTreeUtil() {
+    }
+
+    /**
+     * Returns the number of nodes of a tree with the given depth.
+     */
+    public static int getNodeCount(int depth) {
+        return (1 << depth) - 1;
+    }
+
+    /**
+     * Returns the number of leaves of a tree with the given depth.
+     */
+    public static int getLeafCount(int depth) {
+        return 1 << (depth - 1);
+    }
+
+    /**
+     * Returns the order of the leftmost leaf of a tree with the given depth.
+     */
+    public static int getFirstLeafOrder(int depth) {
+        return getLeafCount(depth) - 1;
+    }
+
+    public static int getParentOrder(int nodeOrder) {
+        return (nodeOrder - 1) >> 1;
+    }
+
+    public static int getLeftChildOrder(int nodeOrder) {
+        return (nodeOrder << 1) + 1;
+    }
+
+    /**
+     * Returns the order of the leaf the entries with the given key hash belong to.
+     * <p>
+     * The key hash is mixed first since the keys stored in the same partition share the same
+     * {@code hash % partitionCount}.
+     *
+     * @param keyHash the hash of the key
+     * @param depth   the depth of the tree
+     * @return the order of the leaf
+     */
+    public static int getLeafOrderForHash(int keyHash, int depth) {
+        int leafCount = getLeafCount(depth);
+        return leafCount - 1 + (MurmurHash3_fmix(keyHash) & (leafCount - 1));
+    }
+
+    /**
+     * Returns the hash of an entry as it contributes to the hash of its leaf.
+     */
+    public static int hashEntry(int keyHash, int valueHash) {
+        return MurmurHash3_fmix(keyHash * HASH_MULTIPLIER + valueHash);
+    }
+
+    /**
+     * Returns the hash of an inner node. The hash of a node with two empty children is {@code 0}, so an empty tree
+     * consists only of zero hashes.
+     */
+    public static int hashNodes(int leftHash, int rightHash) {
+        if (leftHash == 0 && rightHash == 0) {
+            return 0;
+        }
+        return MurmurHash3_fmix(leftHash * HASH_MULTIPLIER + rightHash);
+    }
+
+    /**
+     * Compares two trees of the same depth given as the snapshots of their nodes and returns the orders of the
+     * leaves which differ. The trees are traversed top-down and the subtrees with matching hashes are skipped.
+     *
+     * @param local  the nodes of the local tree
+     * @param remote the nodes of the remote tree
+     * @return the orders of the differing leaves, in ascending order
+     * @throws IllegalArgumentException if the trees have different depths
+     * @see MerkleTree#snapshot()
+     */
+    public static int[] compareTrees(int[] local, int[] remote) {
+        checkTrue(local.length == remote.length, "Merkle trees of different depths can't be compared");
+        int firstLeafOrder = local.length >> 1;
+        List<Integer> differingLeaves = new ArrayList<Integer>();
+        collectDifferingLeaves(local, remote, 0, firstLeafOrder, differingLeaves);
+
+        int[] leaves = new int[differingLeaves.size()];
+        for (int i = 0; i < leaves.length; i++) {
+            leaves[i] = differingLeaves.get(i);
+        }
+        return leaves;
+    }
+
+    private static void collectDifferingLeaves(int[] local, int[] remote, int nodeOrder, int firstLeafOrder,
+                                               List<Integer> differingLeaves) {
+        if (local[nodeOrder] == remote[nodeOrder]) {
+            return;
+        }
+        if (nodeOrder >= firstLeafOrder) {
+            differingLeaves.add(nodeOrder);
+            return;
+        }
+        int leftChildOrder = getLeftChildOrder(nodeOrder);
+        collectDifferingLeaves(local, remote, leftChildOrder, firstLeafOrder, differingLeaves);
+        collectDifferingLeaves(local, remote, leftChildOrder + 1, firstLeafOrder, differingLeaves);
+    }
+
+    /**
+     * Returns the depth of a tree with the given number of nodes.
+     */
+    public static int getDepth(int nodeCount) {
+        return Integer.numberOfTrailingZeros(nodeCount + 1);
+    }
+}
@@ -181,6 +181,10 @@ public interface QueryCache<K, V> {
      * <p/>
      * This method returns {@code false} if the event is not in the buffer of event publisher side. That means recovery is not
      * possible.
+     * <p/>
+     * The same replay is also requested automatically as soon as an event loss is detected, so an
+     * {@link com.hazelcast.map.listener.EventLostListener EventLostListener} only needs to repopulate this
+     * {@code QueryCache} when this method returns {@code false}.
      *
      * @return {@code true} if the {@code QueryCache} content will be eventually consistent, otherwise {@code false}.
      * @see com.hazelcast.config.QueryCacheConfig#bufferSize
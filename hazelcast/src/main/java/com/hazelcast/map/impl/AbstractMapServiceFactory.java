@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl;
 
+import com.hazelcast.internal.partition.MerkleTreeAwareService;
 import com.hazelcast.spi.ClientAwareService;
 import com.hazelcast.spi.EventPublishingService;
 import com.hazelcast.spi.ManagedService;
@@ -56,6 +57,14 @@ abstract class AbstractMapServiceFactory implements MapServiceFactory {
      */
     abstract CountingMigrationAwareService createMigrationAwareService();
 
+    /**
+     * Creates a new {@link MerkleTreeAwareService} for {@link MapService}.
+     *
+     * @return Creates a new {@link MerkleTreeAwareService} implementation.
+     * @see com.hazelcast.internal.partition.MerkleTreeAwareService
+     */
+    abstract MerkleTreeAwareService createMerkleTreeAwareService();
+
     /**
      * Creates a new {@link TransactionalService} for {@link MapService}.
      *
@@ -149,6 +158,7 @@ abstract class AbstractMapServiceFactory implements MapServiceFactory {
         MapServiceContext mapServiceContext = getMapServiceContext();
         ManagedService managedService = createManagedService();
         CountingMigrationAwareService migrationAwareService = createMigrationAwareService();
+        MerkleTreeAwareService merkleTreeAwareService = createMerkleTreeAwareService();
         TransactionalService transactionalService = createTransactionalService();
         RemoteService remoteService = createRemoteService();
         EventPublishingService eventPublishingService = createEventPublishingService();
@@ -163,6 +173,7 @@ abstract class AbstractMapServiceFactory implements MapServiceFactory {
         checkNotNull(mapServiceContext, "mapServiceContext should not be null");
         checkNotNull(managedService, "managedService should not be null");
         checkNotNull(migrationAwareService, "migrationAwareService should not be null");
+        checkNotNull(merkleTreeAwareService, "merkleTreeAwareService should not be null");
         checkNotNull(transactionalService, "transactionalService should not be null");
         checkNotNull(remoteService, "remoteService should not be null");
         checkNotNull(eventPublishingService, "eventPublishingService should not be null");
@@ -177,6 +188,7 @@ abstract class AbstractMapServiceFactory implements MapServiceFactory {
         MapService mapService = new MapService();
         mapService.managedService = managedService;
         mapService.migrationAwareService = migrationAwareService;
+        mapService.merkleTreeAwareService = merkleTreeAwareService;
         mapService.transactionalService = transactionalService;
         mapService.remoteService = remoteService;
         mapService.eventPublishingService = eventPublishingService;
@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl;
 
+import com.hazelcast.internal.partition.MerkleTreeAwareService;
 import com.hazelcast.map.impl.event.MapEventPublishingService;
 import com.hazelcast.spi.ClientAwareService;
 import com.hazelcast.spi.EventPublishingService;
@@ -59,6 +60,11 @@ class DefaultMapServiceFactory extends AbstractMapServiceFactory {
         return new CountingMigrationAwareService(new MapMigrationAwareService(mapServiceContext));
     }
 
+    @Override
+    MerkleTreeAwareService createMerkleTreeAwareService() {
+        return new MapMerkleTreeAwareService(mapServiceContext);
+    }
+
     @Override
     TransactionalService createTransactionalService() {
         return new MapTransactionalService(mapServiceContext);
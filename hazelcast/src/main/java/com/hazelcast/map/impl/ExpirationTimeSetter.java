@@ -39,7 +39,11 @@ public final class ExpirationTimeSetter {
         record.setExpirationTime(expirationTime);
     }
 
-    private static long calculateExpirationTime(Record record, long maxIdleMillis) {
+    /**
+     * Returns the time at which the record expires due to either its TTL or the given max-idle,
+     * or {@code Long.MAX_VALUE} if it never expires.
+     */
+    public static long calculateExpirationTime(Record record, long maxIdleMillis) {
         // 1. Calculate TTL expiration time.
         final long ttl = checkedTime(record.getTtl());
         final long ttlExpirationTime = sumForExpiration(ttl, getLifeStartTime(record));
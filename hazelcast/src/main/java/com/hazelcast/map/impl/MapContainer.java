@@ -22,6 +22,7 @@ import com.hazelcast.config.WanReplicationRef;
 import com.hazelcast.core.IFunction;
 import com.hazelcast.core.PartitioningStrategy;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.util.counters.MwCounter;
 import com.hazelcast.map.eviction.MapEvictionPolicy;
 import com.hazelcast.map.impl.eviction.EvictionChecker;
 import com.hazelcast.map.impl.eviction.Evictor;
@@ -51,8 +52,10 @@ import com.hazelcast.wan.WanReplicationService;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.hazelcast.config.InMemoryFormat.OBJECT;
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.map.impl.eviction.Evictor.NULL_EVICTOR;
 import static com.hazelcast.map.impl.mapstore.MapStoreContextFactory.createMapStoreContext;
+import static com.hazelcast.spi.properties.GroupProperty.MAP_DELTA_BACKUP_MIN_VALUE_SIZE;
 import static java.lang.System.getProperty;
 
 /**
@@ -89,6 +92,10 @@ public class MapContainer {
     protected volatile Evictor evictor;
     protected volatile MapConfig mapConfig;
 
+    private final int deltaBackupMinValueSize;
+    private final MwCounter sentDeltaBackupCount = newMwCounter();
+    private final MwCounter appliedDeltaBackupCount = newMwCounter();
+
 
     /**
      * Operations which are done in this constructor should obey the rules defined
@@ -102,6 +109,7 @@ public class MapContainer {
         NodeEngine nodeEngine = mapServiceContext.getNodeEngine();
         this.partitioningStrategy = createPartitioningStrategy();
         this.quorumName = mapConfig.getQuorumName();
+        this.deltaBackupMinValueSize = nodeEngine.getProperties().getInteger(MAP_DELTA_BACKUP_MIN_VALUE_SIZE);
         this.serializationService = nodeEngine.getSerializationService();
         this.recordFactoryConstructor = createRecordFactoryConstructor(serializationService);
         this.queryEntryFactory = new QueryEntryFactory(mapConfig.getCacheDeserializedValues());
@@ -242,6 +250,31 @@ public class MapContainer {
         return quorumName;
     }
 
+    /**
+     * Returns the minimum size of a serialized value for which only the delta to the previous value is sent to the
+     * backups, {@code 0} if delta backups are disabled.
+     *
+     * @see com.hazelcast.spi.properties.GroupProperty#MAP_DELTA_BACKUP_MIN_VALUE_SIZE
+     */
+    public int getDeltaBackupMinValueSize() {
+        return deltaBackupMinValueSize;
+    }
+
+    /**
+     * Returns the counter of the backup operations sent with a value delta instead of the full value
+     * by the partitions owned by this member.
+     */
+    public MwCounter getSentDeltaBackupCount() {
+        return sentDeltaBackupCount;
+    }
+
+    /**
+     * Returns the counter of the value deltas applied by the backup replicas on this member.
+     */
+    public MwCounter getAppliedDeltaBackupCount() {
+        return appliedDeltaBackupCount;
+    }
+
     public IFunction<Object, Data> toData() {
         return toDataFunction;
     }
@@ -67,6 +67,7 @@ import com.hazelcast.map.impl.operation.MapGetAllOperationFactory;
 import com.hazelcast.map.impl.operation.MapGetInvalidationMetaDataOperation;
 import com.hazelcast.map.impl.operation.MapIsEmptyOperation;
 import com.hazelcast.map.impl.operation.MapLoadAllOperationFactory;
+import com.hazelcast.map.impl.operation.MapMerkleTreeReplicationOperation;
 import com.hazelcast.map.impl.operation.MapNearCacheStateHolder;
 import com.hazelcast.map.impl.operation.MapReplicationOperation;
 import com.hazelcast.map.impl.operation.MapReplicationStateHolder;
@@ -84,11 +85,13 @@ import com.hazelcast.map.impl.operation.PartitionWideEntryOperationFactory;
 import com.hazelcast.map.impl.operation.PartitionWideEntryWithPredicateBackupOperation;
 import com.hazelcast.map.impl.operation.PartitionWideEntryWithPredicateOperation;
 import com.hazelcast.map.impl.operation.PartitionWideEntryWithPredicateOperationFactory;
+import com.hazelcast.map.impl.operation.PartitionWideEntryWriteBackOperation;
 import com.hazelcast.map.impl.operation.PostJoinMapOperation;
 import com.hazelcast.map.impl.operation.PutAllBackupOperation;
 import com.hazelcast.map.impl.operation.PutAllOperation;
 import com.hazelcast.map.impl.operation.PutAllPartitionAwareOperationFactory;
 import com.hazelcast.map.impl.operation.PutBackupOperation;
+import com.hazelcast.map.impl.operation.PutDeltaBackupOperation;
 import com.hazelcast.map.impl.operation.PutFromLoadAllBackupOperation;
 import com.hazelcast.map.impl.operation.PutFromLoadAllOperation;
 import com.hazelcast.map.impl.operation.PutIfAbsentOperation;
@@ -285,8 +288,11 @@ public final class MapDataSerializerHook implements DataSerializerHook {
     public static final int REMOVE_FROM_LOAD_ALL = 134;
     public static final int ENTRY_REMOVING_PROCESSOR = 135;
     public static final int ENTRY_OFFLOADABLE_SET_UNLOCK = 136;
+    public static final int PARTITION_WIDE_ENTRY_WRITE_BACK = 137;
+    public static final int PUT_DELTA_BACKUP = 138;
+    public static final int MERKLE_TREE_MAP_REPLICATION = 139;
 
-    private static final int LEN = ENTRY_OFFLOADABLE_SET_UNLOCK + 1;
+    private static final int LEN = MERKLE_TREE_MAP_REPLICATION + 1;
 
     @Override
     public int getFactoryId() {
@@ -962,6 +968,21 @@ public final class MapDataSerializerHook implements DataSerializerHook {
                 return new EntryOffloadableSetUnlockOperation();
             }
         };
+        constructors[PARTITION_WIDE_ENTRY_WRITE_BACK] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new PartitionWideEntryWriteBackOperation();
+            }
+        };
+        constructors[PUT_DELTA_BACKUP] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new PutDeltaBackupOperation();
+            }
+        };
+        constructors[MERKLE_TREE_MAP_REPLICATION] = new ConstructorFunction<Integer, IdentifiedDataSerializable>() {
+            public IdentifiedDataSerializable createNew(Integer arg) {
+                return new MapMerkleTreeReplicationOperation();
+            }
+        };
 
         return new ArrayDataSerializableFactory(constructors);
     }
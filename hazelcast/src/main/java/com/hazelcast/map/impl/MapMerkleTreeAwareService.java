@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl;
+
+import com.hazelcast.internal.partition.MerkleTreeAwareService;
+import com.hazelcast.internal.util.merkletree.MerkleTree;
+import com.hazelcast.map.impl.operation.MapMerkleTreeReplicationOperation;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.PartitionReplicationEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Defines the Merkle tree based replica synchronization behavior of map service.
+ *
+ * @see MapService
+ * @see com.hazelcast.spi.properties.GroupProperty#MAP_MERKLE_TREE_DEPTH
+ */
+class MapMerkleTreeAwareService implements MerkleTreeAwareService {
+
+    private final MapServiceContext mapServiceContext;
+
+    MapMerkleTreeAwareService(MapServiceContext mapServiceContext) {
+        this.mapServiceContext = mapServiceContext;
+    }
+
+    @Override
+    public Map<String, int[]> getMerkleTreeSnapshots(int partitionId) {
+        PartitionContainer container = mapServiceContext.getPartitionContainer(partitionId);
+        Map<String, int[]> snapshots = new HashMap<String, int[]>();
+        for (RecordStore recordStore : container.getMaps().values()) {
+            MerkleTree merkleTree = recordStore.getMerkleTree();
+            if (merkleTree != null) {
+                snapshots.put(recordStore.getName(), merkleTree.snapshot());
+            }
+        }
+        return snapshots;
+    }
+
+    @Override
+    public Operation prepareReplicationOperation(PartitionReplicationEvent event, Map<String, int[]> replicaMerkleTrees) {
+        int partitionId = event.getPartitionId();
+        PartitionContainer container = mapServiceContext.getPartitionContainer(partitionId);
+
+        MapMerkleTreeReplicationOperation operation = new MapMerkleTreeReplicationOperation(container, partitionId,
+                event.getReplicaIndex(), replicaMerkleTrees);
+        operation.setService(mapServiceContext.getService());
+
+        return operation;
+    }
+}
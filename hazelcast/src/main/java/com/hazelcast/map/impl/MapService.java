@@ -19,6 +19,7 @@ package com.hazelcast.map.impl;
 import com.hazelcast.cluster.ClusterState;
 import com.hazelcast.core.DistributedObject;
 import com.hazelcast.internal.cluster.ClusterStateListener;
+import com.hazelcast.internal.partition.MerkleTreeAwareService;
 import com.hazelcast.map.impl.event.MapEventPublishingService;
 import com.hazelcast.monitor.LocalMapStats;
 import com.hazelcast.spi.ClientAwareService;
@@ -56,6 +57,7 @@ import static com.hazelcast.core.EntryEventType.INVALIDATION;
  *
  * @see MapManagedService
  * @see MapMigrationAwareService
+ * @see MapMerkleTreeAwareService
  * @see MapTransactionalService
  * @see MapRemoteService
  * @see MapEventPublishingService
@@ -68,7 +70,7 @@ import static com.hazelcast.core.EntryEventType.INVALIDATION;
  * @see MapClientAwareService
  * @see MapServiceContext
  */
-public class MapService implements ManagedService, MigrationAwareService,
+public class MapService implements ManagedService, MigrationAwareService, MerkleTreeAwareService,
         TransactionalService, RemoteService, EventPublishingService<Object, ListenerAdapter>,
         PostJoinAwareService, SplitBrainHandlerService, ReplicationSupportingService, StatisticsAwareService,
         PartitionAwareService, ClientAwareService, QuorumAwareService, NotifiableEventListener, ClusterStateListener {
@@ -77,6 +79,7 @@ public class MapService implements ManagedService, MigrationAwareService,
 
     protected ManagedService managedService;
     protected CountingMigrationAwareService migrationAwareService;
+    protected MerkleTreeAwareService merkleTreeAwareService;
     protected TransactionalService transactionalService;
     protected RemoteService remoteService;
     protected EventPublishingService eventPublishingService;
@@ -117,6 +120,16 @@ public class MapService implements ManagedService, MigrationAwareService,
         return migrationAwareService.prepareReplicationOperation(event);
     }
 
+    @Override
+    public Map<String, int[]> getMerkleTreeSnapshots(int partitionId) {
+        return merkleTreeAwareService.getMerkleTreeSnapshots(partitionId);
+    }
+
+    @Override
+    public Operation prepareReplicationOperation(PartitionReplicationEvent event, Map<String, int[]> replicaMerkleTrees) {
+        return merkleTreeAwareService.prepareReplicationOperation(event, replicaMerkleTrees);
+    }
+
     @Override
     public void beforeMigration(PartitionMigrationEvent event) {
         migrationAwareService.beforeMigration(event);
@@ -0,0 +1,204 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.eviction;
+
+import com.hazelcast.core.EntryView;
+import com.hazelcast.map.eviction.MapEvictionPolicy;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.LazyEntryViewFromRecord;
+import com.hazelcast.map.impl.recordstore.Storage;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Keeps the best eviction candidates of a partition across eviction rounds.
+ * <p>
+ * Each round merges a fresh sample into the pool, so a candidate found in an earlier round
+ * isn't lost when it is not sampled again and eviction quality improves without increasing
+ * the sample count. Candidates are held as records and compared over two reused
+ * {@link LazyEntryViewFromRecord} instances, and samples are exposed through a third reused view,
+ * so no view is allocated per sample.
+ * <p>
+ * Candidates which were removed or replaced in the storage since they joined the pool are dropped
+ * on the next round.
+ * <p>
+ * This class is not thread-safe, it is only accessed by the partition thread of its partition.
+ */
+final class EvictionPool {
+
+    static final int POOL_SIZE = 16;
+
+    private final MapEvictionPolicy mapEvictionPolicy;
+    private final Record[] candidates = new Record[POOL_SIZE];
+    private final List<Record> samples = new ArrayList<Record>();
+    private final LazyEntryViewFromRecord<Record> view1;
+    private final LazyEntryViewFromRecord<Record> view2;
+    private final LazyEntryViewFromRecord<Record> sampleView;
+
+    private int size;
+
+    EvictionPool(MapEvictionPolicy mapEvictionPolicy, SerializationService serializationService) {
+        this.mapEvictionPolicy = mapEvictionPolicy;
+        this.view1 = new LazyEntryViewFromRecord<Record>(serializationService);
+        this.view2 = new LazyEntryViewFromRecord<Record>(serializationService);
+        this.sampleView = new LazyEntryViewFromRecord<Record>(serializationService);
+    }
+
+    /**
+     * Drops the candidates which were removed or replaced in the supplied storage since they joined this pool.
+     *
+     * @param storage the storage of the record store to be evicted
+     */
+    void removeStaleCandidates(Storage storage) {
+        int i = 0;
+        while (i < size) {
+            Record candidate = candidates[i];
+            if (storage.get(candidate.getKey()) != candidate) {
+                removeAt(i);
+            } else {
+                i++;
+            }
+        }
+        // access statistics of the candidates may have changed since the last round
+        sort();
+    }
+
+    /**
+     * Samples the supplied storage.
+     * <p>
+     * The returned entry views are backed by a single reused view, so an entry view is only valid
+     * until the next one is returned.
+     *
+     * @param storage     the storage of the record store to be evicted
+     * @param sampleCount the count of records to sample
+     * @return the sampled entries
+     */
+    @SuppressWarnings("unchecked")
+    Iterable<EntryView> sample(Storage storage, int sampleCount) {
+        samples.clear();
+        storage.sampleRecords(sampleCount, samples);
+        return new Iterable<EntryView>() {
+            @Override
+            public Iterator<EntryView> iterator() {
+                return new SampleIterator();
+            }
+        };
+    }
+
+    /**
+     * Adds the supplied record to this pool if it is better than the worst candidate or the pool isn't full.
+     *
+     * @param record the sampled record
+     */
+    void offer(Record record) {
+        for (int i = 0; i < size; i++) {
+            if (candidates[i] == record) {
+                return;
+            }
+        }
+
+        int index = size;
+        while (index > 0 && compare(record, candidates[index - 1]) < 0) {
+            index--;
+        }
+        if (index == POOL_SIZE) {
+            return;
+        }
+
+        int moveCount = (size == POOL_SIZE ? size - 1 : size) - index;
+        System.arraycopy(candidates, index, candidates, index + 1, moveCount);
+        candidates[index] = record;
+        if (size < POOL_SIZE) {
+            size++;
+        }
+    }
+
+    /**
+     * Removes and returns the best candidate which doesn't have the excluded key.
+     *
+     * @param excludedKey           key which has the lowest priority to be selected, nullable
+     * @param fallbackToExcludedKey {@code true} if the candidate with the excluded key can be returned
+     *                              when there is no other candidate
+     * @return the best candidate or {@code null} if there is none
+     */
+    Record poll(Data excludedKey, boolean fallbackToExcludedKey) {
+        int excludedIndex = -1;
+        for (int i = 0; i < size; i++) {
+            if (excludedKey != null && excludedIndex == -1 && candidates[i].getKey().equals(excludedKey)) {
+                excludedIndex = i;
+                continue;
+            }
+            return removeAt(i);
+        }
+        return fallbackToExcludedKey && excludedIndex != -1 ? removeAt(excludedIndex) : null;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void sort() {
+        for (int i = 1; i < size; i++) {
+            Record record = candidates[i];
+            int index = i;
+            while (index > 0 && compare(record, candidates[index - 1]) < 0) {
+                candidates[index] = candidates[index - 1];
+                index--;
+            }
+            candidates[index] = record;
+        }
+    }
+
+    private Record removeAt(int index) {
+        Record record = candidates[index];
+        System.arraycopy(candidates, index + 1, candidates, index, size - index - 1);
+        candidates[--size] = null;
+        return record;
+    }
+
+    private int compare(Record record1, Record record2) {
+        return mapEvictionPolicy.compare(view1.reset(record1), view2.reset(record2));
+    }
+
+    private final class SampleIterator implements Iterator<EntryView> {
+
+        private int index;
+
+        @Override
+        public boolean hasNext() {
+            return index < samples.size();
+        }
+
+        @Override
+        public EntryView next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return sampleView.reset(samples.get(index++));
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -47,6 +47,16 @@ public interface Evictor {
 
     int SAMPLE_COUNT = getInteger(SYSTEM_PROPERTY_SAMPLE_COUNT, DEFAULT_SAMPLE_COUNT);
 
+    /**
+     * Count of entries to be evicted at once when the record-store needs eviction.
+     * Evicting more than one entry leaves room for the next puts, so they don't need to evict.
+     */
+    String SYSTEM_PROPERTY_EVICTION_BATCH_SIZE = "hazelcast.map.eviction.batch.size";
+
+    int DEFAULT_EVICTION_BATCH_SIZE = 1;
+
+    int EVICTION_BATCH_SIZE = getInteger(SYSTEM_PROPERTY_EVICTION_BATCH_SIZE, DEFAULT_EVICTION_BATCH_SIZE);
+
     /**
      * Evict supplied record-store.
      *
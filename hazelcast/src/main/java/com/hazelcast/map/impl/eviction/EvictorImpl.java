@@ -21,16 +21,20 @@ import com.hazelcast.map.eviction.MapEvictionPolicy;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.recordstore.LazyEntryViewFromRecord;
 import com.hazelcast.map.impl.recordstore.RecordStore;
-import com.hazelcast.map.impl.recordstore.Storage;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.partition.IPartition;
 import com.hazelcast.spi.partition.IPartitionService;
+import com.hazelcast.spi.serialization.SerializationService;
 import com.hazelcast.util.Clock;
 
 import static com.hazelcast.util.Preconditions.checkNotNull;
 
 /**
  * Evictor helper methods.
+ * <p>
+ * Candidates are selected from an {@link EvictionPool} per partition, which retains the best candidates
+ * of the previous samplings. The samples are taken through {@link #getSamples(RecordStore)} and
+ * {@link #getRecordFromEntryView(EntryView)}, which can be overridden to sample another storage.
  */
 public class EvictorImpl implements Evictor {
 
@@ -38,53 +42,53 @@ public class EvictorImpl implements Evictor {
     protected final IPartitionService partitionService;
     protected final MapEvictionPolicy mapEvictionPolicy;
 
+    /**
+     * Eviction pools indexed by partition ID, each one is only accessed by the partition thread of its partition.
+     */
+    private final EvictionPool[] evictionPools;
+
     public EvictorImpl(MapEvictionPolicy mapEvictionPolicy,
                        EvictionChecker evictionChecker, IPartitionService partitionService) {
         this.evictionChecker = checkNotNull(evictionChecker);
         this.partitionService = checkNotNull(partitionService);
         this.mapEvictionPolicy = checkNotNull(mapEvictionPolicy);
+        this.evictionPools = new EvictionPool[partitionService.getPartitionCount()];
     }
 
     @Override
     public void evict(RecordStore recordStore, Data excludedKey) {
-        EntryView evictableEntry = selectEvictableEntry(recordStore, excludedKey);
-        if (evictableEntry == null) {
-            return;
+        EvictionPool pool = getEvictionPool(recordStore);
+        pool.removeStaleCandidates(recordStore.getStorage());
+        for (EntryView sample : getSamples(recordStore)) {
+            pool.offer(getRecordFromEntryView(sample));
         }
 
-        evictEntry(recordStore, evictableEntry);
-    }
-
-    private EntryView selectEvictableEntry(RecordStore recordStore, Data excludedKey) {
-        Iterable<EntryView> samples = getSamples(recordStore);
-        EntryView excluded = null;
-        EntryView selected = null;
-
-        for (EntryView candidate : samples) {
-            if (excludedKey != null && excluded == null && getDataKey(candidate).equals(excludedKey)) {
-                excluded = candidate;
-                continue;
-            }
-
-            if (selected == null) {
-                selected = candidate;
-            } else if (mapEvictionPolicy.compare(candidate, selected) < 0) {
-                selected = candidate;
+        for (int i = 0; i < EVICTION_BATCH_SIZE; i++) {
+            // only the first round may select the excluded key, as it is done when there is nothing else to evict
+            Record record = pool.poll(excludedKey, i == 0);
+            if (record == null) {
+                return;
             }
+            evictRecord(recordStore, record);
         }
-
-        return selected == null ? excluded : selected;
     }
 
-    private Data getDataKey(EntryView candidate) {
-        return getRecordFromEntryView(candidate).getKey();
+    private EvictionPool getEvictionPool(RecordStore recordStore) {
+        int partitionId = recordStore.getPartitionId();
+        EvictionPool pool = evictionPools[partitionId];
+        if (pool == null) {
+            SerializationService serializationService = recordStore.getMapContainer().getMapServiceContext()
+                    .getNodeEngine().getSerializationService();
+            pool = new EvictionPool(mapEvictionPolicy, serializationService);
+            evictionPools[partitionId] = pool;
+        }
+        return pool;
     }
 
-    private void evictEntry(RecordStore recordStore, EntryView selectedEntry) {
-        Record record = getRecordFromEntryView(selectedEntry);
+    private void evictRecord(RecordStore recordStore, Record record) {
         Data key = record.getKey();
 
-        if (recordStore.isLocked(record.getKey())) {
+        if (recordStore.isLocked(key)) {
             return;
         }
 
@@ -112,9 +116,13 @@ public class EvictorImpl implements Evictor {
         return !partition.isLocal();
     }
 
+    /**
+     * Returns the samples of the supplied record store, which are merged into its eviction pool.
+     * <p>
+     * The returned entry views may be reused, so an entry view is only valid until the next one is returned.
+     */
     protected Iterable<EntryView> getSamples(RecordStore recordStore) {
-        Storage storage = recordStore.getStorage();
-        return (Iterable<EntryView>) storage.getRandomSamples(SAMPLE_COUNT);
+        return getEvictionPool(recordStore).sample(recordStore.getStorage(), SAMPLE_COUNT);
     }
 
     protected static long getNow() {
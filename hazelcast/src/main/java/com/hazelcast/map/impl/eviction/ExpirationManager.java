@@ -17,6 +17,8 @@
 package com.hazelcast.map.impl.eviction;
 
 import com.hazelcast.config.Config;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.MwCounter;
 import com.hazelcast.map.impl.PartitionContainer;
 import com.hazelcast.map.impl.operation.ClearExpiredOperation;
 import com.hazelcast.map.impl.recordstore.RecordStore;
@@ -36,6 +38,7 @@ import java.util.List;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ScheduledFuture;
 
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
 import static com.hazelcast.util.CollectionUtil.isEmpty;
 import static com.hazelcast.util.Preconditions.checkPositive;
@@ -78,6 +81,11 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  *       System.setProperty("{@value SYS_PROP_EXPIRATION_CLEANUP_OPERATION_COUNT}", "3");
  *   </pre>
  * </p>
+ * <p>
+ *     The cleanup operations don't scan the record stores: every record store keeps its keys ordered by expiration
+ *     time, so a cleanup only visits the entries which are due. The number of expired entries and the delay between
+ *     their expiration time and their removal are exposed as {@code map.expiration} metrics.
+ * </p>
  *
  * @since 3.3
  */
@@ -104,6 +112,11 @@ public final class ExpirationManager {
     private final int cleanupPercentage;
     private final int cleanupOperationCount;
 
+    @Probe(name = "expiredEntries")
+    private final MwCounter expiredEntryCount = newMwCounter();
+    @Probe(name = "expirationLatencyTotalMillis")
+    private final MwCounter expirationLatencyTotalMillis = newMwCounter();
+
     private ScheduledFuture<?> expirationTask;
 
     @SuppressWarnings("checkstyle:magicnumber")
@@ -148,6 +161,29 @@ public final class ExpirationManager {
     }
 
 
+    /**
+     * Records the removal of an expired entry.
+     *
+     * @param latencyMillis the time passed between the expiration of the entry and its removal
+     */
+    public void onExpired(long latencyMillis) {
+        expiredEntryCount.inc();
+        expirationLatencyTotalMillis.inc(Math.max(0, latencyMillis));
+    }
+
+    /**
+     * Returns the average time in millis passed between the expiration of an entry and its removal.
+     */
+    @Probe(name = "expirationLatencyAvgMillis")
+    public long getAverageExpirationLatencyMillis() {
+        long count = expiredEntryCount.get();
+        return count == 0 ? 0 : expirationLatencyTotalMillis.get() / count;
+    }
+
+    public long getExpiredEntryCount() {
+        return expiredEntryCount.get();
+    }
+
     private int getInteger(String propertyName, int defaultValue) {
         Config config = nodeEngine.getConfig();
         String property = config.getProperty(propertyName);
@@ -19,6 +19,7 @@ package com.hazelcast.map.impl.operation;
 import com.hazelcast.core.EntryEventType;
 import com.hazelcast.core.EntryView;
 import com.hazelcast.map.impl.EntryViews;
+import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.event.MapEventPublisher;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.RecordInfo;
@@ -26,6 +27,7 @@ import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.BackupAwareOperation;
 import com.hazelcast.spi.Operation;
 
+import static com.hazelcast.internal.cluster.Versions.V3_9;
 import static com.hazelcast.map.impl.record.Records.buildRecordInfo;
 
 public abstract class BasePutOperation extends LockAwareOperation implements BackupAwareOperation {
@@ -33,6 +35,8 @@ public abstract class BasePutOperation extends LockAwareOperation implements Bac
     protected transient Data dataOldValue;
     protected transient EntryEventType eventType;
     protected transient boolean putTransient;
+    // the value of the record before the update, the base of the value delta sent to the backups
+    private transient Data previousValue;
 
     public BasePutOperation(String name, Data dataKey, Data value) {
         super(name, dataKey, value, -1);
@@ -45,6 +49,18 @@ public abstract class BasePutOperation extends LockAwareOperation implements Bac
     public BasePutOperation() {
     }
 
+    @Override
+    public void innerBeforeRun() throws Exception {
+        super.innerBeforeRun();
+        if (mapContainer.getDeltaBackupMinValueSize() > 0 && recordStore != null) {
+            // binary values are immutable, so the previous value doesn't need to be copied
+            Record record = recordStore.getRecord(dataKey);
+            if (record != null && record.getValue() instanceof Data) {
+                previousValue = (Data) record.getValue();
+            }
+        }
+    }
+
     @Override
     public void afterRun() {
         mapServiceContext.interceptAfterPut(name, dataValue);
@@ -90,9 +106,33 @@ public abstract class BasePutOperation extends LockAwareOperation implements Bac
         if (isPostProcessing(recordStore)) {
             dataValue = mapServiceContext.toData(record.getValue());
         }
+        ValueDelta valueDelta = createValueDelta(record);
+        if (valueDelta != null) {
+            mapContainer.getSentDeltaBackupCount().inc();
+            return new PutDeltaBackupOperation(name, dataKey, valueDelta, replicationInfo, putTransient);
+        }
         return new PutBackupOperation(name, dataKey, dataValue, replicationInfo, putTransient);
     }
 
+    /**
+     * Creates the delta from the old to the new value when the value is large enough to benefit from it.
+     * Deltas are only sent when the cluster version is at least 3.9, since older members don't know
+     * the {@link PutDeltaBackupOperation}.
+     * Only updates of binary records are considered, since the backups of object records may serialize their values
+     * differently and newly created records have no previous value on the backups.
+     *
+     * @see MapContainer#getDeltaBackupMinValueSize()
+     */
+    private ValueDelta createValueDelta(Record record) {
+        int minValueSize = mapContainer.getDeltaBackupMinValueSize();
+        if (minValueSize <= 0 || previousValue == null || record.getVersion() == 0
+                || !getNodeEngine().getClusterService().getClusterVersion().isGreaterOrEqual(V3_9)
+                || !(record.getValue() instanceof Data) || dataValue.totalSize() < minValueSize) {
+            return null;
+        }
+        return ValueDelta.create(previousValue, dataValue);
+    }
+
     @Override
     public final int getAsyncBackupCount() {
         return mapContainer.getAsyncBackupCount();
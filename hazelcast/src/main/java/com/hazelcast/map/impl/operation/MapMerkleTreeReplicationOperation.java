@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.PartitionContainer;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Replicates only the entries which differ from the given Merkle trees of the replica, and removes
+ * the replica entries in the differing leaves which don't exist on the owner anymore.
+ * <p>
+ * Sent only when the cluster version is at least 3.9, so the format of {@link MapReplicationOperation}
+ * stays compatible with 3.8 members.
+ */
+public class MapMerkleTreeReplicationOperation extends MapReplicationOperation {
+
+    public MapMerkleTreeReplicationOperation() {
+    }
+
+    /**
+     * @param replicaMerkleTrees snapshots of the Merkle trees of the replica per map name
+     */
+    public MapMerkleTreeReplicationOperation(PartitionContainer container, int partitionId, int replicaIndex,
+                                             Map<String, int[]> replicaMerkleTrees) {
+        setPartitionId(partitionId).setReplicaIndex(replicaIndex);
+
+        mapReplicationStateHolder.prepare(container, replicaIndex, replicaMerkleTrees);
+        writeBehindStateHolder.prepare(container, replicaIndex);
+        mapNearCacheStateHolder.prepare(container, replicaIndex);
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        mapReplicationStateHolder.writeDifferingLeaves(out);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        mapReplicationStateHolder.readDifferingLeaves(in);
+    }
+
+    @Override
+    public int getId() {
+        return MapDataSerializerHook.MERKLE_TREE_MAP_REPLICATION;
+    }
+}
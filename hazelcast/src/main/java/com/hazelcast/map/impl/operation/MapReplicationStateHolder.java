@@ -17,6 +17,7 @@
 package com.hazelcast.map.impl.operation;
 
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.internal.util.merkletree.MerkleTree;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapDataSerializerHook;
 import com.hazelcast.map.impl.MapServiceContext;
@@ -31,12 +32,17 @@ import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
 import com.hazelcast.util.Clock;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import static com.hazelcast.internal.util.merkletree.MerkleTreeUtil.compareTrees;
+import static com.hazelcast.internal.util.merkletree.MerkleTreeUtil.getNodeCount;
 import static com.hazelcast.map.impl.record.Records.applyRecordInfo;
 
 /**
@@ -49,6 +55,9 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable {
     // propagates the information if the given record store has been already loaded with map-loaded
     // if so, the loading won't be triggered again after a migration to avoid duplicate loading.
     protected Map<String, Boolean> loaded;
+    // the Merkle tree leaves per map for which only the entries have been replicated, the maps which are
+    // not present here are replicated completely
+    protected Map<String, int[]> differingLeaves;
 
     private MapReplicationOperation mapReplicationOperation;
 
@@ -64,8 +73,22 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable {
     }
 
     void prepare(PartitionContainer container, int replicaIndex) {
+        prepare(container, replicaIndex, null);
+    }
+
+    /**
+     * Prepares the state to be replicated. When the Merkle trees of the replica are given, only the entries of the
+     * leaves which differ from the trees of this partition are replicated, and the maps with matching trees are
+     * skipped.
+     *
+     * @param container          the partition container
+     * @param replicaIndex       the index of the replica
+     * @param replicaMerkleTrees snapshots of the Merkle trees of the replica per map name, or {@code null}
+     */
+    void prepare(PartitionContainer container, int replicaIndex, Map<String, int[]> replicaMerkleTrees) {
         data = new HashMap<String, Set<RecordReplicationInfo>>(container.getMaps().size());
         loaded = new HashMap<String, Boolean>(container.getMaps().size());
+        differingLeaves = new HashMap<String, int[]>();
         for (Map.Entry<String, RecordStore> entry : container.getMaps().entrySet()) {
             RecordStore recordStore = entry.getValue();
 
@@ -77,12 +100,26 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable {
             MapServiceContext mapServiceContext = mapContainer.getMapServiceContext();
             String mapName = entry.getKey();
             loaded.put(mapName, recordStore.isLoaded());
+
+            int[] leaves = compareMerkleTrees(recordStore, replicaMerkleTrees);
+            if (leaves != null && leaves.length == 0) {
+                // the replica already has the same entries
+                continue;
+            }
+            MerkleTree merkleTree = null;
+            if (leaves != null) {
+                differingLeaves.put(mapName, leaves);
+                merkleTree = recordStore.getMerkleTree();
+            }
             // now prepare data to migrate records
             Set<RecordReplicationInfo> recordSet = new HashSet<RecordReplicationInfo>(recordStore.size());
             final Iterator<Record> iterator = recordStore.iterator();
             while (iterator.hasNext()) {
                 Record record = iterator.next();
                 Data key = record.getKey();
+                if (merkleTree != null && !isInLeaves(merkleTree, key, leaves)) {
+                    continue;
+                }
                 RecordReplicationInfo recordReplicationInfo
                         = mapReplicationOperation.createRecordReplicationInfo(key, record, mapServiceContext);
                 recordSet.add(recordReplicationInfo);
@@ -91,13 +128,38 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable {
         }
     }
 
+    /**
+     * Returns the differing leaves of the Merkle trees of the record store and its replica, or {@code null}
+     * if the trees can't be compared and the record store has to be replicated completely.
+     */
+    private static int[] compareMerkleTrees(RecordStore recordStore, Map<String, int[]> replicaMerkleTrees) {
+        MerkleTree merkleTree = recordStore.getMerkleTree();
+        if (merkleTree == null || replicaMerkleTrees == null) {
+            return null;
+        }
+        int[] replicaTree = replicaMerkleTrees.get(recordStore.getName());
+        if (replicaTree == null || replicaTree.length != getNodeCount(merkleTree.depth())) {
+            return null;
+        }
+        return compareTrees(merkleTree.snapshot(), replicaTree);
+    }
+
+    private static boolean isInLeaves(MerkleTree merkleTree, Data key, int[] leaves) {
+        return Arrays.binarySearch(leaves, merkleTree.getLeafOrderForHash(key.hashCode())) >= 0;
+    }
+
     void applyState() {
         if (data != null) {
             for (Map.Entry<String, Set<RecordReplicationInfo>> dataEntry : data.entrySet()) {
                 Set<RecordReplicationInfo> recordReplicationInfos = dataEntry.getValue();
                 final String mapName = dataEntry.getKey();
                 RecordStore recordStore = mapReplicationOperation.getRecordStore(mapName);
-                recordStore.reset();
+                int[] leaves = differingLeaves.get(mapName);
+                if (leaves != null && recordStore.getMerkleTree() != null) {
+                    removeRecordsInLeaves(recordStore, leaves);
+                } else {
+                    recordStore.reset();
+                }
                 recordStore.setPreMigrationLoadedStatus(loaded.get(mapName));
 
                 for (RecordReplicationInfo recordReplicationInfo : recordReplicationInfos) {
@@ -111,6 +173,21 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable {
         }
     }
 
+    private static void removeRecordsInLeaves(RecordStore recordStore, int[] leaves) {
+        MerkleTree merkleTree = recordStore.getMerkleTree();
+        List<Data> keys = new ArrayList<Data>();
+        Iterator<Record> iterator = recordStore.iterator();
+        while (iterator.hasNext()) {
+            Data key = iterator.next().getKey();
+            if (isInLeaves(merkleTree, key, leaves)) {
+                keys.add(key);
+            }
+        }
+        for (Data key : keys) {
+            recordStore.removeBackup(key);
+        }
+    }
+
     @Override
     public void writeData(ObjectDataOutput out) throws IOException {
         out.writeInt(data.size());
@@ -130,6 +207,18 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable {
         }
     }
 
+    /**
+     * Writes the differing Merkle tree leaves, which are only sent by a {@link MapMerkleTreeReplicationOperation}
+     * so the format of the other replication operations doesn't change.
+     */
+    void writeDifferingLeaves(ObjectDataOutput out) throws IOException {
+        out.writeInt(differingLeaves.size());
+        for (Map.Entry<String, int[]> leavesEntry : differingLeaves.entrySet()) {
+            out.writeUTF(leavesEntry.getKey());
+            out.writeIntArray(leavesEntry.getValue());
+        }
+    }
+
     @Override
     public void readData(ObjectDataInput in) throws IOException {
         int size = in.readInt();
@@ -150,6 +239,16 @@ public class MapReplicationStateHolder implements IdentifiedDataSerializable {
         for (int i = 0; i < loadedSize; i++) {
             loaded.put(in.readUTF(), in.readBoolean());
         }
+
+        differingLeaves = new HashMap<String, int[]>();
+    }
+
+    void readDifferingLeaves(ObjectDataInput in) throws IOException {
+        int differingLeavesSize = in.readInt();
+        differingLeaves = new HashMap<String, int[]>(differingLeavesSize);
+        for (int i = 0; i < differingLeavesSize; i++) {
+            differingLeaves.put(in.readUTF(), in.readIntArray());
+        }
     }
 
     @Override
@@ -16,7 +16,10 @@
 
 package com.hazelcast.map.impl.operation;
 
+import com.hazelcast.core.HazelcastException;
 import com.hazelcast.core.ManagedContext;
+import com.hazelcast.core.Offloadable;
+import com.hazelcast.core.ReadOnly;
 import com.hazelcast.map.EntryBackupProcessor;
 import com.hazelcast.map.EntryProcessor;
 import com.hazelcast.map.impl.MapDataSerializerHook;
@@ -31,17 +34,63 @@ import com.hazelcast.query.impl.FalsePredicate;
 import com.hazelcast.query.impl.QueryableEntry;
 import com.hazelcast.spi.BackupAwareOperation;
 import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.OperationAccessor;
+import com.hazelcast.spi.OperationResponseHandler;
+import com.hazelcast.spi.exception.RetryableHazelcastException;
+import com.hazelcast.spi.exception.WrongTargetException;
+import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
+import com.hazelcast.spi.impl.operationservice.impl.responses.CallTimeoutResponse;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.spi.serialization.SerializationService;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.hazelcast.config.InMemoryFormat.OBJECT;
+import static com.hazelcast.core.Offloadable.NO_OFFLOADING;
+import static com.hazelcast.spi.ExecutionService.OFFLOADABLE_EXECUTOR;
+import static com.hazelcast.spi.InvocationBuilder.DEFAULT_TRY_PAUSE_MILLIS;
+import static com.hazelcast.spi.properties.GroupProperty.MAP_ENTRY_PROCESSOR_OFFLOADING_CHUNK_SIZE;
+import static com.hazelcast.spi.properties.GroupProperty.MAP_ENTRY_PROCESSOR_OFFLOADING_ENABLED;
 
 /**
+ * Applies an entry processor to all entries of a partition.
+ * <p>
+ * If {@link com.hazelcast.spi.properties.GroupProperty#MAP_ENTRY_PROCESSOR_OFFLOADING_ENABLED} is set and the entry
+ * processor implements {@link Offloadable}, the entries are read on the partition thread and processed in chunks in
+ * parallel on the executor of the entry processor. When all chunks are processed, the modified entries are written back
+ * at once by a {@link PartitionWideEntryWriteBackOperation} on the partition thread, which also sends the backups.
+ * A {@link ReadOnly} entry processor must not modify entries, so nothing is written back.
+ * <p>
+ * The threading of the offloaded processing looks as follows:
+ * <ol>
+ * <li>partition-thread (read the entries of the partition)</li>
+ * <li>execution-threads (process the chunks)</li>
+ * <li>partition-thread (write back the modified entries of the partition)</li>
+ * </ol>
+ * The partition is neither locked nor kept from migrating during the processing. Instead nothing is written back if a
+ * chunk fails or the partition has migrated meanwhile, and the failure is the response for the whole partition, so the
+ * invocation may retry it. If an entry was changed after it was read, nothing is written back either and the entry
+ * processor is applied again to all entries of the partition on the partition thread. So an offloaded entry processor is
+ * applied at least once per entry and must tolerate being called again for the same entry. Entries added after the
+ * partition was read may not be processed.
+ * <p>
  * GOTCHA: This operation does NOT load missing keys from map-store for now.
  */
+@SuppressWarnings("checkstyle:methodcount")
 public class PartitionWideEntryOperation extends AbstractMultipleEntryOperation implements BackupAwareOperation {
 
+    private transient boolean offloading;
+    private transient boolean readOnly;
+    private transient OperationServiceImpl ops;
+    private transient int pendingChunks;
+    private transient Throwable offloadingFailure;
+    private transient PartitionWideEntryWriteBackOperation writeBackOperation;
+
     public PartitionWideEntryOperation(String name, EntryProcessor entryProcessor) {
         super(name, entryProcessor);
     }
@@ -56,10 +105,29 @@ public class PartitionWideEntryOperation extends AbstractMultipleEntryOperation
         SerializationService serializationService = getNodeEngine().getSerializationService();
         ManagedContext managedContext = serializationService.getManagedContext();
         managedContext.initialize(entryProcessor);
+
+        this.ops = (OperationServiceImpl) getNodeEngine().getOperationService();
+        this.readOnly = entryProcessor instanceof ReadOnly;
+        this.offloading = isOffloadingRequested();
+    }
+
+    private boolean isOffloadingRequested() {
+        if (!(entryProcessor instanceof Offloadable)) {
+            return false;
+        }
+        if (NO_OFFLOADING.equals(((Offloadable) entryProcessor).getExecutorName())) {
+            return false;
+        }
+        return getNodeEngine().getProperties().getBoolean(MAP_ENTRY_PROCESSOR_OFFLOADING_ENABLED);
     }
 
     @Override
     public void run() {
+        if (offloading) {
+            runOffloaded();
+            return;
+        }
+
         long now = getNow();
         boolean shouldClone = mapContainer.shouldCloneOnEntryProcessing();
         SerializationService serializationService = getNodeEngine().getSerializationService();
@@ -96,14 +164,129 @@ public class PartitionWideEntryOperation extends AbstractMultipleEntryOperation
         }
     }
 
+    private void runOffloaded() {
+        if (readOnly && entryProcessor.getBackupProcessor() != null) {
+            throw new HazelcastException("EntryProcessor.getBackupProcessor() should return null if ReadOnly implemented");
+        }
+
+        HazelcastProperties properties = getNodeEngine().getProperties();
+        int chunkSize = properties.getInteger(MAP_ENTRY_PROCESSOR_OFFLOADING_CHUNK_SIZE);
+        boolean shouldClone = OBJECT.equals(mapContainer.getMapConfig().getInMemoryFormat());
+
+        List<OffloadedChunk> chunks = new ArrayList<OffloadedChunk>();
+        OffloadedChunk chunk = null;
+        Iterator<Record> iterator = recordStore.iterator(getNow(), false);
+        while (iterator.hasNext()) {
+            Record record = iterator.next();
+            if (chunk == null || chunk.size() == chunkSize) {
+                chunk = new OffloadedChunk(chunkSize);
+                chunks.add(chunk);
+            }
+            Object value = record.getValue();
+            chunk.add(record.getKey(), shouldClone ? toData(value) : value);
+        }
+
+        String executorName = ((Offloadable) entryProcessor).getExecutorName();
+        executorName = executorName.equals(Offloadable.OFFLOADABLE_EXECUTOR) ? OFFLOADABLE_EXECUTOR : executorName;
+
+        responses = new MapEntries(recordStore.size());
+        writeBackOperation = new PartitionWideEntryWriteBackOperation(name, entryProcessor, getPredicate(), chunkSize);
+        pendingChunks = chunks.size() + 1;
+        ops.onStartAsyncOperation(this);
+        for (OffloadedChunk offloadedChunk : chunks) {
+            try {
+                getNodeEngine().getExecutionService().execute(executorName, offloadedChunk);
+            } catch (Throwable t) {
+                onChunkDone(null, null, t);
+            }
+        }
+        // the extra pending chunk makes sure the response isn't sent before all chunks were submitted
+        onChunkDone(null, null, null);
+    }
+
+    private void onChunkDone(MapEntries chunkResponses, PartitionWideEntryWriteBackOperation chunkWriteBackOperation,
+                             Throwable failure) {
+        synchronized (this) {
+            if (failure != null && offloadingFailure == null) {
+                offloadingFailure = failure;
+            }
+            if (chunkResponses != null) {
+                addResponses(chunkResponses);
+            }
+            if (chunkWriteBackOperation != null) {
+                writeBackOperation.addAll(chunkWriteBackOperation);
+            }
+            if (--pendingChunks > 0) {
+                return;
+            }
+        }
+
+        // nothing has been written yet, so a failure can be retried for the whole partition
+        if (offloadingFailure != null) {
+            sendOffloadedResponse(offloadingFailure);
+        } else if (writeBackOperation.isEmpty()) {
+            sendOffloadedResponse(responses);
+        } else {
+            writeBack();
+        }
+    }
+
+    private void addResponses(MapEntries entries) {
+        for (int i = 0; i < entries.size(); i++) {
+            responses.add(entries.getKey(i), entries.getValue(i));
+        }
+    }
+
+    private void sendOffloadedResponse(Object response) {
+        try {
+            getOperationResponseHandler().sendResponse(this, response);
+        } finally {
+            ops.onCompletionAsyncOperation(this);
+        }
+    }
+
+    private void writeBack() {
+        writeBackOperation.setPartitionId(getPartitionId());
+        writeBackOperation.setReplicaIndex(0);
+        writeBackOperation.setNodeEngine(getNodeEngine());
+        writeBackOperation.setCallerUuid(getCallerUuid());
+        OperationAccessor.setCallerAddress(writeBackOperation, getCallerAddress());
+        writeBackOperation.setOperationResponseHandler(new WriteBackResponseHandler());
+        ops.execute(writeBackOperation);
+    }
+
+    private void throwModificationInReadOnlyException() {
+        throw new UnsupportedOperationException("Entry Processor " + entryProcessor.getClass().getName()
+                + " marked as ReadOnly tried to modify map " + name + ". This is not supported. Remove "
+                + "the ReadOnly marker from the Entry Processor or do not modify the entry in the process "
+                + "method.");
+    }
+
+    @Override
+    public void onExecutionFailure(Throwable e) {
+        if (offloading) {
+            // there won't be any response sent by the invocation since returnsResponse() returns false
+            sendResponse(e);
+        } else {
+            super.onExecutionFailure(e);
+        }
+    }
+
+    @Override
+    public boolean returnsResponse() {
+        // the response of an offloaded processing is sent by the last processed chunk
+        return !offloading && super.returnsResponse();
+    }
+
     @Override
     public Object getResponse() {
-        return responses;
+        return offloading ? null : responses;
     }
 
     @Override
     public boolean shouldBackup() {
-        return mapContainer.getTotalBackupCount() > 0 && entryProcessor.getBackupProcessor() != null;
+        // the backups of an offloaded processing are sent by the write back operations
+        return !offloading && mapContainer.getTotalBackupCount() > 0 && entryProcessor.getBackupProcessor() != null;
     }
 
     @Override
@@ -163,4 +346,93 @@ public class PartitionWideEntryOperation extends AbstractMultipleEntryOperation
         return MapDataSerializerHook.PARTITION_WIDE_ENTRY;
     }
 
+    /**
+     * Processes a chunk of the entries read from the partition on the executor of the entry processor.
+     */
+    private final class OffloadedChunk implements Runnable {
+
+        private final List<Data> keys;
+        private final List<Object> values;
+
+        OffloadedChunk(int chunkSize) {
+            this.keys = new ArrayList<Data>(chunkSize);
+            this.values = new ArrayList<Object>(chunkSize);
+        }
+
+        void add(Data key, Object value) {
+            keys.add(key);
+            values.add(value);
+        }
+
+        int size() {
+            return keys.size();
+        }
+
+        @Override
+        public void run() {
+            try {
+                long now = getNow();
+                MapEntries chunkResponses = new MapEntries(keys.size());
+                PartitionWideEntryWriteBackOperation chunkWriteBackOperation
+                        = new PartitionWideEntryWriteBackOperation(name, entryProcessor, getPredicate(), keys.size());
+                for (int i = 0; i < keys.size(); i++) {
+                    processEntry(keys.get(i), values.get(i), now, chunkResponses, chunkWriteBackOperation);
+                }
+                onChunkDone(chunkResponses, chunkWriteBackOperation, null);
+            } catch (Throwable t) {
+                onChunkDone(null, null, t);
+            }
+        }
+
+        private void processEntry(Data key, Object value, long now, MapEntries chunkResponses,
+                                  PartitionWideEntryWriteBackOperation writeBackOperation) {
+            if (!applyPredicate(key, value)) {
+                return;
+            }
+
+            Map.Entry entry = createMapEntry(key, value);
+            Data response = PartitionWideEntryOperation.this.process(entry);
+            if (noOp(entry, value, now)) {
+                if (response != null) {
+                    chunkResponses.add(key, response);
+                }
+                return;
+            }
+            if (readOnly) {
+                throwModificationInReadOnlyException();
+            }
+            writeBackOperation.add(key, toData(value), toData(entry.getValue()), response);
+        }
+    }
+
+    /**
+     * Sends the response of the offloaded processing when the modified entries were written back and retries the write
+     * back when the partition is migrating. A failed write back has written nothing, so its failure is sent as the
+     * response for the whole partition.
+     */
+    private final class WriteBackResponseHandler implements OperationResponseHandler {
+
+        @Override
+        public void sendResponse(final Operation op, Object response) {
+            if (isRetryable(response)) {
+                getNodeEngine().getExecutionService().schedule(new Runnable() {
+                    @Override
+                    public void run() {
+                        ops.execute(op);
+                    }
+                }, DEFAULT_TRY_PAUSE_MILLIS, TimeUnit.MILLISECONDS);
+            } else if (response instanceof Throwable || writeBackOperation.isProcessedAgain()) {
+                sendOffloadedResponse(response);
+            } else {
+                addResponses((MapEntries) response);
+                sendOffloadedResponse(responses);
+            }
+        }
+
+        private boolean isRetryable(Object response) {
+            return response instanceof CallTimeoutResponse
+                    || (response instanceof RetryableHazelcastException && !(response instanceof WrongTargetException));
+        }
+    }
+
 }
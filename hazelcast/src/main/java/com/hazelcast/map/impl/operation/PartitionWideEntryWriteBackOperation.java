@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.core.ManagedContext;
+import com.hazelcast.map.EntryBackupProcessor;
+import com.hazelcast.map.EntryProcessor;
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.MapEntries;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.spi.BackupAwareOperation;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes back the entries of a partition modified by an offloaded {@link PartitionWideEntryOperation}.
+ * <p>
+ * The entries are written only if all of them still have the value the entry processor has seen. Otherwise an entry was
+ * changed concurrently, nothing is written back and the entry processor is applied again to all entries of the partition
+ * on the partition thread, as the not offloaded operation would do. So the entry processor may be called more than once
+ * for an entry, see {@link PartitionWideEntryOperation}. The backups of all written entries are sent in a single
+ * {@link MultipleEntryBackupOperation}.
+ * <p>
+ * The response is the results of the entry processor for the written entries, or for all entries of the partition if
+ * they were processed again, see {@link #isProcessedAgain()}.
+ */
+public class PartitionWideEntryWriteBackOperation extends AbstractMultipleEntryOperation implements BackupAwareOperation {
+
+    private List<Data> keys;
+    private List<Data> oldValues;
+    private List<Data> newValues;
+    private List<Data> results;
+    private Predicate predicate;
+
+    private transient Set<Data> writtenKeys;
+    private transient boolean processedAgain;
+
+    public PartitionWideEntryWriteBackOperation() {
+    }
+
+    public PartitionWideEntryWriteBackOperation(String name, EntryProcessor entryProcessor, Predicate predicate,
+                                                int expectedSize) {
+        super(name, entryProcessor);
+        this.predicate = predicate;
+        this.keys = new ArrayList<Data>(expectedSize);
+        this.oldValues = new ArrayList<Data>(expectedSize);
+        this.newValues = new ArrayList<Data>(expectedSize);
+        this.results = new ArrayList<Data>(expectedSize);
+    }
+
+    /**
+     * Adds an entry modified by the entry processor.
+     *
+     * @param key      the key of the entry
+     * @param oldValue the value the entry processor has seen or {@code null} if the entry didn't exist
+     * @param newValue the value set by the entry processor or {@code null} if it removed the entry
+     * @param result   the result of the entry processor
+     */
+    void add(Data key, Data oldValue, Data newValue, Data result) {
+        keys.add(key);
+        oldValues.add(oldValue);
+        newValues.add(newValue);
+        results.add(result);
+    }
+
+    void addAll(PartitionWideEntryWriteBackOperation other) {
+        keys.addAll(other.keys);
+        oldValues.addAll(other.oldValues);
+        newValues.addAll(other.newValues);
+        results.addAll(other.results);
+    }
+
+    boolean isEmpty() {
+        return keys.isEmpty();
+    }
+
+    /**
+     * Returns {@code true} if the entries were changed concurrently, so the entry processor was applied again to all
+     * entries of the partition and the response replaces the results of the offloaded processing.
+     */
+    boolean isProcessedAgain() {
+        return processedAgain;
+    }
+
+    @Override
+    public void innerBeforeRun() throws Exception {
+        super.innerBeforeRun();
+
+        SerializationService serializationService = getNodeEngine().getSerializationService();
+        ManagedContext managedContext = serializationService.getManagedContext();
+        managedContext.initialize(entryProcessor);
+    }
+
+    @Override
+    public void run() {
+        long now = getNow();
+        writtenKeys = new LinkedHashSet<Data>();
+        if (!isUnchanged()) {
+            processedAgain = true;
+            processAgain(now);
+            return;
+        }
+
+        responses = new MapEntries(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            Data key = keys.get(i);
+            writeBack(key, recordStore.get(key, false), newValues.get(i), now);
+            addResponse(key, results.get(i));
+        }
+    }
+
+    private boolean isUnchanged() {
+        for (int i = 0; i < keys.size(); i++) {
+            if (!isUnchanged(recordStore.get(keys.get(i), false), oldValues.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isUnchanged(Object currentValue, Data oldValue) {
+        if (currentValue == null || oldValue == null) {
+            return currentValue == oldValue;
+        }
+        return toData(currentValue).equals(oldValue);
+    }
+
+    private void writeBack(Data key, Object currentValue, Data newValue, long now) {
+        Map.Entry entry = createMapEntry(key, currentValue);
+        entry.setValue(toObject(newValue));
+        apply(entry, key, currentValue, now);
+    }
+
+    private void processAgain(long now) {
+        responses = new MapEntries(recordStore.size());
+        Iterator<Record> iterator = recordStore.iterator(now, false);
+        while (iterator.hasNext()) {
+            Record record = iterator.next();
+            processAgain(record.getKey(), record.getValue(), now);
+        }
+    }
+
+    private void processAgain(Data key, Object currentValue, long now) {
+        boolean shouldClone = mapContainer.shouldCloneOnEntryProcessing();
+        Object value = shouldClone ? toObject(toData(currentValue)) : currentValue;
+        if (value == null || (predicate != null && !predicate.apply(mapContainer.newQueryEntry(key, value)))) {
+            return;
+        }
+
+        Map.Entry entry = createMapEntry(key, value);
+        addResponse(key, process(entry));
+        if (!noOp(entry, currentValue, now)) {
+            apply(entry, key, currentValue, now);
+        }
+    }
+
+    private void apply(Map.Entry entry, Data key, Object oldValue, long now) {
+        writtenKeys.add(key);
+        if (!entryRemoved(entry, key, oldValue, now)) {
+            entryAddedOrUpdated(entry, key, oldValue, now);
+        }
+        evict(key);
+    }
+
+    private void addResponse(Data key, Data response) {
+        if (response != null) {
+            responses.add(key, response);
+        }
+    }
+
+    @Override
+    public Object getResponse() {
+        return responses;
+    }
+
+    @Override
+    public boolean shouldBackup() {
+        return mapContainer.getTotalBackupCount() > 0 && entryProcessor.getBackupProcessor() != null
+                && !writtenKeys.isEmpty();
+    }
+
+    @Override
+    public int getSyncBackupCount() {
+        return 0;
+    }
+
+    @Override
+    public int getAsyncBackupCount() {
+        return mapContainer.getTotalBackupCount();
+    }
+
+    @Override
+    public Operation getBackupOperation() {
+        EntryBackupProcessor backupProcessor = entryProcessor.getBackupProcessor();
+        MultipleEntryBackupOperation backupOperation = new MultipleEntryBackupOperation(name, writtenKeys, backupProcessor);
+        backupOperation.setWanEventList(wanEventList);
+        return backupOperation;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeObject(entryProcessor);
+        out.writeObject(predicate);
+        out.writeInt(keys.size());
+        for (int i = 0; i < keys.size(); i++) {
+            out.writeData(keys.get(i));
+            out.writeData(oldValues.get(i));
+            out.writeData(newValues.get(i));
+            out.writeData(results.get(i));
+        }
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        entryProcessor = in.readObject();
+        predicate = in.readObject();
+        int size = in.readInt();
+        keys = new ArrayList<Data>(size);
+        oldValues = new ArrayList<Data>(size);
+        newValues = new ArrayList<Data>(size);
+        results = new ArrayList<Data>(size);
+        for (int i = 0; i < size; i++) {
+            keys.add(in.readData());
+            oldValues.add(in.readData());
+            newValues.add(in.readData());
+            results.add(in.readData());
+        }
+    }
+
+    @Override
+    public int getId() {
+        return MapDataSerializerHook.PARTITION_WIDE_ENTRY_WRITE_BACK;
+    }
+}
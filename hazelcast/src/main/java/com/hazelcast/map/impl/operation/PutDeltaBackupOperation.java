@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.map.impl.EntryViews;
+import com.hazelcast.map.impl.MapDataSerializerHook;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.record.RecordInfo;
+import com.hazelcast.map.impl.record.Records;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.BackupOperation;
+
+import java.io.IOException;
+
+/**
+ * Backup operation of an update which ships only the {@link ValueDelta} of the value instead of the full value.
+ * <p>
+ * The delta is applied only if the backup record has the same version and value the owner record had before
+ * the update, otherwise a replica sync of the partition is triggered.
+ * <p>
+ * Only sent when the cluster version is at least 3.9, older members receive a {@link PutBackupOperation}.
+ */
+public final class PutDeltaBackupOperation extends MutatingKeyBasedMapOperation implements BackupOperation {
+
+    private RecordInfo recordInfo;
+    private boolean putTransient;
+    private ValueDelta valueDelta;
+    // set when the delta couldn't be applied and a replica sync has been triggered instead
+    private transient boolean deltaRejected;
+
+    public PutDeltaBackupOperation(String name, Data dataKey, ValueDelta valueDelta, RecordInfo recordInfo,
+                                   boolean putTransient) {
+        super(name, dataKey, null);
+        this.valueDelta = valueDelta;
+        this.recordInfo = recordInfo;
+        this.putTransient = putTransient;
+    }
+
+    public PutDeltaBackupOperation() {
+    }
+
+    @Override
+    public void run() {
+        if (!applyValueDelta()) {
+            deltaRejected = true;
+            return;
+        }
+        ttl = recordInfo.getTtl();
+        Record record = recordStore.putBackup(dataKey, dataValue, ttl, putTransient);
+        Records.applyRecordInfo(record, recordInfo);
+    }
+
+    private boolean applyValueDelta() {
+        Record record = recordStore.getRecord(dataKey);
+        // every update increments the version of the owner record by one
+        if (record != null && record.getVersion() == recordInfo.getVersion() - 1 && record.getValue() instanceof Data) {
+            dataValue = valueDelta.apply((Data) record.getValue());
+        }
+        if (dataValue != null) {
+            mapContainer.getAppliedDeltaBackupCount().inc();
+            return true;
+        }
+
+        ILogger logger = getLogger();
+        if (logger.isFinestEnabled()) {
+            logger.finest("Backup of the key " + dataKey + " doesn't match the base of the value delta, partitionId="
+                    + getPartitionId() + ", replicaIndex=" + getReplicaIndex() + ". Triggering a replica sync.");
+        }
+        InternalPartitionServiceImpl partitionService = (InternalPartitionServiceImpl) getNodeEngine().getPartitionService();
+        partitionService.getReplicaManager().triggerPartitionReplicaSync(getPartitionId(), getReplicaIndex(), 0L);
+        return false;
+    }
+
+    @Override
+    public void afterRun() throws Exception {
+        if (deltaRejected) {
+            return;
+        }
+        evict(dataKey);
+        publishWANReplicationEventBackup();
+    }
+
+    private void publishWANReplicationEventBackup() {
+        if (!mapContainer.isWanReplicationEnabled()) {
+            return;
+        }
+
+        Record record = recordStore.getRecord(dataKey);
+        if (record == null) {
+            return;
+        }
+
+        Data valueConvertedData = mapServiceContext.toData(dataValue);
+        EntryView entryView = EntryViews.createSimpleEntryView(dataKey, valueConvertedData, record);
+        mapEventPublisher.publishWanReplicationUpdateBackup(name, entryView);
+    }
+
+    @Override
+    public Object getResponse() {
+        return Boolean.TRUE;
+    }
+
+    @Override
+    public int getId() {
+        return MapDataSerializerHook.PUT_DELTA_BACKUP;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        recordInfo.writeData(out);
+        out.writeBoolean(putTransient);
+        valueDelta.writeData(out);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        recordInfo = new RecordInfo();
+        recordInfo.readData(in);
+        putTransient = in.readBoolean();
+        valueDelta = new ValueDelta();
+        valueDelta.readData(in);
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+
+import java.io.IOException;
+
+/**
+ * A compact patch turning the serialized form of a value into the serialized form of its new value.
+ * <p>
+ * The patch keeps the common prefix and suffix of both values and replaces the bytes in between, which is cheap to
+ * compute and captures small in-place changes of large values such as the update of a single field of a document.
+ * The patch records the length and the hash of the value it has been computed from, so it is only applied to the
+ * very same value.
+ *
+ * @see PutBackupOperation
+ */
+public final class ValueDelta {
+
+    private int baseLength;
+    private long baseHash;
+    private int prefixLength;
+    private int suffixLength;
+    private byte[] replacement;
+
+    ValueDelta() {
+    }
+
+    private ValueDelta(int baseLength, long baseHash, int prefixLength, int suffixLength, byte[] replacement) {
+        this.baseLength = baseLength;
+        this.baseHash = baseHash;
+        this.prefixLength = prefixLength;
+        this.suffixLength = suffixLength;
+        this.replacement = replacement;
+    }
+
+    /**
+     * Computes the patch from the old to the new value.
+     *
+     * @param oldValue the old value
+     * @param newValue the new value
+     * @return the patch or {@code null} if it isn't smaller than half of the new value
+     */
+    public static ValueDelta create(Data oldValue, Data newValue) {
+        byte[] base = oldValue.toByteArray();
+        byte[] target = newValue.toByteArray();
+        int maxCommon = Math.min(base.length, target.length);
+
+        int prefixLength = 0;
+        while (prefixLength < maxCommon && base[prefixLength] == target[prefixLength]) {
+            prefixLength++;
+        }
+        int suffixLength = 0;
+        while (suffixLength < maxCommon - prefixLength
+                && base[base.length - 1 - suffixLength] == target[target.length - 1 - suffixLength]) {
+            suffixLength++;
+        }
+
+        int replacementLength = target.length - prefixLength - suffixLength;
+        if (replacementLength > target.length / 2) {
+            return null;
+        }
+        byte[] replacement = new byte[replacementLength];
+        System.arraycopy(target, prefixLength, replacement, 0, replacementLength);
+        return new ValueDelta(base.length, oldValue.hash64(), prefixLength, suffixLength, replacement);
+    }
+
+    /**
+     * Applies the patch to the given value.
+     *
+     * @param oldValue the value to patch
+     * @return the new value or {@code null} if the given value isn't the one the patch has been computed from
+     */
+    public Data apply(Data oldValue) {
+        if (oldValue == null || oldValue.totalSize() != baseLength || oldValue.hash64() != baseHash) {
+            return null;
+        }
+        byte[] base = oldValue.toByteArray();
+        byte[] target = new byte[prefixLength + replacement.length + suffixLength];
+        System.arraycopy(base, 0, target, 0, prefixLength);
+        System.arraycopy(replacement, 0, target, prefixLength, replacement.length);
+        System.arraycopy(base, base.length - suffixLength, target, prefixLength + replacement.length, suffixLength);
+        return new HeapData(target);
+    }
+
+    /**
+     * Returns the number of bytes of the new value shipped with the patch.
+     */
+    public int getReplacementLength() {
+        return replacement.length;
+    }
+
+    void writeData(ObjectDataOutput out) throws IOException {
+        out.writeInt(baseLength);
+        out.writeLong(baseHash);
+        out.writeInt(prefixLength);
+        out.writeInt(suffixLength);
+        out.writeByteArray(replacement);
+    }
+
+    void readData(ObjectDataInput in) throws IOException {
+        baseLength = in.readInt();
+        baseHash = in.readLong();
+        prefixLength = in.readInt();
+        suffixLength = in.readInt();
+        replacement = in.readByteArray();
+    }
+}
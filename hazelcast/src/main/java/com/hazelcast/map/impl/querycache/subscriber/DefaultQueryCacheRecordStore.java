@@ -21,6 +21,7 @@ import com.hazelcast.config.QueryCacheConfig;
 import com.hazelcast.internal.eviction.EvictionListener;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.map.impl.querycache.subscriber.record.DataQueryCacheRecordFactory;
+import com.hazelcast.map.impl.querycache.subscriber.record.NativeQueryCacheRecordFactory;
 import com.hazelcast.map.impl.querycache.subscriber.record.ObjectQueryCacheRecordFactory;
 import com.hazelcast.map.impl.querycache.subscriber.record.QueryCacheRecord;
 import com.hazelcast.map.impl.querycache.subscriber.record.QueryCacheRecordFactory;
@@ -55,7 +56,8 @@ class DefaultQueryCacheRecordStore implements QueryCacheRecordStore {
         this.serializationService = serializationService;
         this.recordFactory = getRecordFactory(config.getInMemoryFormat());
         this.indexes = indexes;
-        this.evictionOperator = new EvictionOperator(cache, config, listener, serializationService.getClassLoader());
+        this.evictionOperator = new EvictionOperator(cache, config, new ReleasingEvictionListener(listener),
+                serializationService.getClassLoader());
     }
 
     private QueryCacheRecord accessRecord(QueryCacheRecord record) {
@@ -73,6 +75,8 @@ class DefaultQueryCacheRecordStore implements QueryCacheRecordStore {
                 return new DataQueryCacheRecordFactory(serializationService);
             case OBJECT:
                 return new ObjectQueryCacheRecordFactory(serializationService);
+            case NATIVE:
+                return new NativeQueryCacheRecordFactory(serializationService);
             default:
                 throw new IllegalArgumentException("Not a known format [" + inMemoryFormat + "]");
         }
@@ -85,6 +89,9 @@ class DefaultQueryCacheRecordStore implements QueryCacheRecordStore {
         QueryCacheRecord entry = recordFactory.createEntry(keyData, valueData);
         QueryCacheRecord oldEntry = cache.put(keyData, entry);
         saveIndex(keyData, entry, oldEntry);
+        if (oldEntry != null) {
+            recordFactory.release(oldEntry);
+        }
 
         return oldEntry;
     }
@@ -109,6 +116,7 @@ class DefaultQueryCacheRecordStore implements QueryCacheRecordStore {
         QueryCacheRecord oldRecord = cache.remove(keyData);
         if (oldRecord != null) {
             removeIndex(keyData, oldRecord.getValue());
+            recordFactory.release(oldRecord);
         }
         return oldRecord;
     }
@@ -170,4 +178,27 @@ class DefaultQueryCacheRecordStore implements QueryCacheRecordStore {
     public int size() {
         return cache.size();
     }
+
+    /**
+     * Passes the evicted records to the listener of the record store and releases them.
+     */
+    private final class ReleasingEvictionListener implements EvictionListener<Data, QueryCacheRecord> {
+
+        private final EvictionListener<Data, QueryCacheRecord> listener;
+
+        ReleasingEvictionListener(EvictionListener<Data, QueryCacheRecord> listener) {
+            this.listener = listener;
+        }
+
+        @Override
+        public void onEvict(Data dataKey, QueryCacheRecord record, boolean wasExpired) {
+            try {
+                if (listener != null) {
+                    listener.onEvict(dataKey, record, wasExpired);
+                }
+            } finally {
+                recordFactory.release(record);
+            }
+        }
+    }
 }
@@ -16,7 +16,10 @@
 
 package com.hazelcast.map.impl.querycache.subscriber;
 
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.core.ICompletableFuture;
 import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.map.impl.querycache.InvokerWrapper;
 import com.hazelcast.map.impl.querycache.QueryCacheContext;
 import com.hazelcast.map.impl.querycache.accumulator.AccumulatorHandler;
 import com.hazelcast.map.impl.querycache.accumulator.AccumulatorInfo;
@@ -28,8 +31,10 @@ import com.hazelcast.map.impl.querycache.event.sequence.SubscriberSequencerProvi
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
 
 import static com.hazelcast.map.impl.querycache.subscriber.EventPublisherHelper.publishEventLost;
+import static java.lang.Boolean.TRUE;
 import static java.lang.String.format;
 
 /**
@@ -37,6 +42,10 @@ import static java.lang.String.format;
  * {@link com.hazelcast.map.QueryCache QueryCache}.
  * Otherwise, it informs registered callback if there is any.
  *
+ * When a gap in the sequence of a partition is detected, the publisher side accumulator of that partition is
+ * asked to replay its events starting from the first missing sequence. If the missing events are still
+ * buffered there, the query cache catches up incrementally without being repopulated.
+ *
  * This class can be accessed by multiple-threads at a time.
  */
 public class SubscriberAccumulator extends BasicAccumulator<QueryCacheEventData> {
@@ -129,17 +138,42 @@ public class SubscriberAccumulator extends BasicAccumulator<QueryCacheEventData>
     }
 
     private void handleUnexpectedEvent(QueryCacheEventData event) {
-        addEventSequenceToBrokenSequences(event);
-        publishEventLost(context, info.getMapName(), info.getCacheName(), event.getPartitionId());
+        int partitionId = event.getPartitionId();
+        long expectedSequence = sequenceProvider.getSequence(partitionId) + 1L;
+        if (addToBrokenSequences(partitionId, expectedSequence)) {
+            replayFrom(partitionId, expectedSequence);
+        }
+        publishEventLost(context, info.getMapName(), info.getCacheName(), partitionId);
     }
 
-    private void addEventSequenceToBrokenSequences(QueryCacheEventData event) {
-        Long prev = brokenSequences.putIfAbsent(event.getPartitionId(), event.getSequence());
+    private boolean addToBrokenSequences(int partitionId, long expectedSequence) {
+        Long prev = brokenSequences.putIfAbsent(partitionId, expectedSequence);
 
         if (prev == null && logger.isFinestEnabled()) {
             logger.finest(format("Added unexpected event sequence to broken sequences "
                             + "[partitionId=%d, expected-sequence=%d, broken-sequences-size=%d]",
-                    event.getPartitionId(), event.getSequence(), brokenSequences.size()));
+                    partitionId, expectedSequence, brokenSequences.size()));
+        }
+        return prev == null;
+    }
+
+    /**
+     * Asynchronously moves the read cursor of the publisher side accumulator back to the given sequence,
+     * so the events which were lost in transit are sent again.
+     */
+    private void replayFrom(final int partitionId, final long sequence) {
+        SubscriberContextSupport subscriberContextSupport = context.getSubscriberContext().getSubscriberContextSupport();
+        InvokerWrapper invokerWrapper = context.getInvokerWrapper();
+        try {
+            Object recoveryOperation = subscriberContextSupport.createRecoveryOperation(info.getMapName(),
+                    info.getCacheName(), sequence, partitionId);
+            Future future = invokerWrapper.invokeOnPartitionOwner(recoveryOperation, partitionId);
+            if (future instanceof ICompletableFuture) {
+                ((ICompletableFuture<Object>) future).andThen(new ReplayCallback(partitionId, sequence));
+            }
+        } catch (Exception e) {
+            logger.warning(format("Could not request replay of events [partitionId=%d, sequence=%d]",
+                    partitionId, sequence), e);
         }
     }
 
@@ -194,4 +228,35 @@ public class SubscriberAccumulator extends BasicAccumulator<QueryCacheEventData>
     public boolean isEndEvent(QueryCacheEventData event) {
         return event.getSequence() == -1L;
     }
+
+    private final class ReplayCallback implements ExecutionCallback<Object> {
+
+        private final int partitionId;
+        private final long sequence;
+
+        private ReplayCallback(int partitionId, long sequence) {
+            this.partitionId = partitionId;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void onResponse(Object response) {
+            SubscriberContextSupport subscriberContextSupport
+                    = context.getSubscriberContext().getSubscriberContextSupport();
+            if (TRUE.equals(subscriberContextSupport.resolveResponseForRecoveryOperation(response))) {
+                if (logger.isFinestEnabled()) {
+                    logger.finest(format("Replaying events [partitionId=%d, sequence=%d]", partitionId, sequence));
+                }
+            } else {
+                logger.warning(format("Events starting from sequence %d of partition %d are no longer available "
+                        + "for replay, query cache %s stays inconsistent until it is repopulated",
+                        sequence, partitionId, info.getCacheName()));
+            }
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            logger.warning(format("Could not replay events [partitionId=%d, sequence=%d]", partitionId, sequence), t);
+        }
+    }
 }
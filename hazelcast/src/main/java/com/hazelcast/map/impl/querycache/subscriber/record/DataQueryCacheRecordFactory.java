@@ -37,6 +37,11 @@ public class DataQueryCacheRecordFactory implements QueryCacheRecordFactory {
         return new DataQueryCacheRecord(keyData, valueData, serializationService);
     }
 
+    @Override
+    public void release(QueryCacheRecord record) {
+        // the record is only kept on the heap
+    }
+
     @Override
     public boolean isEquals(Object value1, Object value2) {
         return serializationService.toData(value1).equals(serializationService.toData(value2));
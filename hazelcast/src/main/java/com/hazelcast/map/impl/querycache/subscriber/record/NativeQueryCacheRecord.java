@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.querycache.subscriber.record;
+
+import com.hazelcast.internal.memory.impl.NativeMemoryBlocks;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+
+/**
+ * Represents a record with a {@link Data} key and a value which is kept in serialized form outside of the Java heap.
+ * <p>
+ * The value is deserialized from the native memory block on every access, so it never stays on the heap. When the
+ * record is released, its serialized value is copied to the heap before the block is freed, since the replaced or
+ * removed record may still be read, e.g. for the old value of an event.
+ */
+class NativeQueryCacheRecord extends AbstractQueryCacheRecord {
+
+    private final Data keyData;
+
+    private final NativeMemoryBlocks.Block valueBlock;
+
+    private final SerializationService serializationService;
+
+    // set before the value block is released
+    private volatile Data releasedValueData;
+
+    public NativeQueryCacheRecord(Data keyData, NativeMemoryBlocks.Block valueBlock,
+                                  SerializationService serializationService) {
+        this.keyData = keyData;
+        this.valueBlock = valueBlock;
+        this.serializationService = serializationService;
+    }
+
+    @Override
+    public Object getValue() {
+        if (valueBlock == null) {
+            return null;
+        }
+        byte[] bytes = valueBlock.toByteArray();
+        Data valueData = bytes != null ? new HeapData(bytes) : releasedValueData;
+        return serializationService.toObject(valueData);
+    }
+
+    void release(NativeMemoryBlocks blocks) {
+        if (valueBlock == null) {
+            return;
+        }
+        byte[] bytes = valueBlock.toByteArray();
+        if (bytes != null) {
+            releasedValueData = new HeapData(bytes);
+            blocks.release(valueBlock);
+        }
+    }
+
+    @Override
+    public final Data getKey() {
+        return keyData;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.querycache.subscriber.record;
+
+import com.hazelcast.internal.memory.impl.MallocMemoryAllocator;
+import com.hazelcast.internal.memory.impl.MemoryManagerBean;
+import com.hazelcast.internal.memory.impl.NativeMemoryBlocks;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+
+/**
+ * Factory for {@link NativeQueryCacheRecord}.
+ * <p>
+ * Values of the created records are copied into {@link NativeMemoryBlocks} owned by this factory,
+ * so only keys and small record handles are kept on the heap. The native memory of a value is freed
+ * when its record is {@link #release(QueryCacheRecord) released}. The size of a query cache is bounded
+ * by its eviction config, so the native memory isn't limited by this factory.
+ *
+ * @see NativeQueryCacheRecord
+ */
+public class NativeQueryCacheRecordFactory implements QueryCacheRecordFactory {
+
+    private final SerializationService serializationService;
+    private final NativeMemoryBlocks blocks;
+
+    public NativeQueryCacheRecordFactory(SerializationService serializationService) {
+        this.serializationService = serializationService;
+        this.blocks = new NativeMemoryBlocks(new MemoryManagerBean(new MallocMemoryAllocator(Long.MAX_VALUE), MEM));
+    }
+
+    @Override
+    public QueryCacheRecord createEntry(Data keyData, Data valueData) {
+        NativeMemoryBlocks.Block valueBlock = valueData == null ? null : blocks.store(valueData.toByteArray());
+        return new NativeQueryCacheRecord(keyData, valueBlock, serializationService);
+    }
+
+    @Override
+    public void release(QueryCacheRecord record) {
+        ((NativeQueryCacheRecord) record).release(blocks);
+    }
+
+    @Override
+    public boolean isEquals(Object value1, Object value2) {
+        return serializationService.toData(value1).equals(serializationService.toData(value2));
+    }
+}
@@ -37,6 +37,11 @@ public class ObjectQueryCacheRecordFactory implements QueryCacheRecordFactory {
         return new ObjectQueryCacheRecord(keyData, valueData, serializationService);
     }
 
+    @Override
+    public void release(QueryCacheRecord record) {
+        // the record is only kept on the heap
+    }
+
     @Override
     public boolean isEquals(Object value1, Object value2) {
         Object v1 = value1 instanceof Data ? serializationService.toObject(value1) : value1;
@@ -32,5 +32,12 @@ public interface QueryCacheRecordFactory {
      */
     QueryCacheRecord createEntry(Data key, Data value);
 
+    /**
+     * Releases the resources of a {@link QueryCacheRecord} which has been removed from the query cache.
+     *
+     * @param record the removed record
+     */
+    void release(QueryCacheRecord record);
+
     boolean isEquals(Object cacheRecordValue, Object value);
 }
@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.nio.serialization.Data;
+import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.LONG_SIZE_IN_BYTES;
+import static com.hazelcast.util.JVMUtil.REFERENCE_COST_IN_BYTES;
+
+/**
+ * A smaller variant of {@link AbstractRecord} for maps which don't use statistics, expiration or eviction.
+ * <p>
+ * Timestamps are kept as int seconds relative to {@link #EPOCH_TIME_MILLIS} and hits as an int, which saves
+ * 16 bytes per record. Timestamps are rounded up to the next second, so a TTL given on put can only expire
+ * an entry later than requested, never earlier. A zero timestamp is kept as zero, since it means the entry
+ * was not accessed or updated yet.
+ *
+ * @param <V> the type of the value of Record.
+ * @see Records#isCompactRecordApplicable(com.hazelcast.config.MapConfig)
+ */
+abstract class AbstractCompactRecord<V> implements Record<V> {
+
+    /**
+     * 2017-01-01T00:00:00Z, int seconds relative to it cover the years 1949 to 2085.
+     */
+    static final long EPOCH_TIME_MILLIS = 1483228800000L;
+
+    private static final int NUMBER_OF_LONGS = 2;
+    private static final int NUMBER_OF_INTS = 4;
+    private static final long MILLIS_PER_SECOND = 1000L;
+
+    protected Data key;
+    protected long version;
+    protected long ttl;
+    protected int creationTime;
+
+    @SuppressFBWarnings(value = "VO_VOLATILE_INCREMENT",
+            justification = "Record can be accessed by only its own partition thread.")
+    protected volatile int hits;
+    protected volatile int lastAccessTime;
+    protected volatile int lastUpdateTime;
+
+    AbstractCompactRecord() {
+    }
+
+    @Override
+    public final long getVersion() {
+        return version;
+    }
+
+    @Override
+    public final void setVersion(long version) {
+        this.version = version;
+    }
+
+    @Override
+    public long getTtl() {
+        return ttl;
+    }
+
+    @Override
+    public void setTtl(long ttl) {
+        this.ttl = ttl;
+    }
+
+    @Override
+    public long getLastAccessTime() {
+        return toMillis(lastAccessTime);
+    }
+
+    @Override
+    public void setLastAccessTime(long lastAccessTime) {
+        this.lastAccessTime = toSeconds(lastAccessTime);
+    }
+
+    @Override
+    public long getLastUpdateTime() {
+        return toMillis(lastUpdateTime);
+    }
+
+    @Override
+    public void setLastUpdateTime(long lastUpdateTime) {
+        this.lastUpdateTime = toSeconds(lastUpdateTime);
+    }
+
+    @Override
+    public long getCreationTime() {
+        return toMillis(creationTime);
+    }
+
+    @Override
+    public void setCreationTime(long creationTime) {
+        this.creationTime = toSeconds(creationTime);
+    }
+
+    @Override
+    public long getHits() {
+        return hits;
+    }
+
+    @Override
+    public void setHits(long hits) {
+        this.hits = (int) Math.min(hits, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public long getCost() {
+        return REFERENCE_COST_IN_BYTES + NUMBER_OF_LONGS * LONG_SIZE_IN_BYTES + NUMBER_OF_INTS * INT_SIZE_IN_BYTES;
+    }
+
+    @Override
+    public void onUpdate(long now) {
+        onAccess(now);
+
+        version++;
+        lastUpdateTime = toSeconds(now);
+    }
+
+    @Override
+    public Object getCachedValueUnsafe() {
+        return Record.NOT_CACHED;
+    }
+
+    @Override
+    public void onAccess(long now) {
+        if (hits < Integer.MAX_VALUE) {
+            hits++;
+        }
+        lastAccessTime = toSeconds(now);
+    }
+
+    @Override
+    public void onStore() {
+    }
+
+    @Override
+    public boolean casCachedValue(Object expectedValue, Object newValue) {
+        return true;
+    }
+
+    @Override
+    public Data getKey() {
+        return key;
+    }
+
+    @Override
+    public void setKey(Data key) {
+        this.key = key;
+    }
+
+    @Override
+    public final long getSequence() {
+        return NOT_AVAILABLE;
+    }
+
+    @Override
+    public final void setSequence(long sequence) {
+    }
+
+    @Override
+    public long getExpirationTime() {
+        return NOT_AVAILABLE;
+    }
+
+    @Override
+    public void setExpirationTime(long expirationTime) {
+    }
+
+    @Override
+    public long getLastStoredTime() {
+        return NOT_AVAILABLE;
+    }
+
+    @Override
+    public void setLastStoredTime(long lastStoredTime) {
+    }
+
+    static int toSeconds(long millis) {
+        if (millis == 0L) {
+            return 0;
+        }
+        long relativeMillis = millis - EPOCH_TIME_MILLIS;
+        long seconds = relativeMillis / MILLIS_PER_SECOND;
+        if (relativeMillis > 0 && relativeMillis % MILLIS_PER_SECOND != 0) {
+            seconds++;
+        }
+        if (seconds == 0) {
+            // zero is reserved for "not set"
+            seconds = 1;
+        }
+        return (int) Math.max(Integer.MIN_VALUE, Math.min(Integer.MAX_VALUE, seconds));
+    }
+
+    static long toMillis(int seconds) {
+        return seconds == 0 ? 0L : EPOCH_TIME_MILLIS + seconds * MILLIS_PER_SECOND;
+    }
+
+    @SuppressWarnings("checkstyle:npathcomplexity")
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        AbstractCompactRecord<?> that = (AbstractCompactRecord<?>) o;
+        if (version != that.version) {
+            return false;
+        }
+        if (ttl != that.ttl) {
+            return false;
+        }
+        if (creationTime != that.creationTime) {
+            return false;
+        }
+        if (hits != that.hits) {
+            return false;
+        }
+        if (lastAccessTime != that.lastAccessTime) {
+            return false;
+        }
+        if (lastUpdateTime != that.lastUpdateTime) {
+            return false;
+        }
+        return key.equals(that.key);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = key.hashCode();
+        result = 31 * result + (int) (version ^ (version >>> 32));
+        result = 31 * result + (int) (ttl ^ (ttl >>> 32));
+        result = 31 * result + creationTime;
+        result = 31 * result + hits;
+        result = 31 * result + lastAccessTime;
+        result = 31 * result + lastUpdateTime;
+        return result;
+    }
+}
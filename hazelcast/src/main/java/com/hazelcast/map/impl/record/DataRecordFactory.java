@@ -22,12 +22,15 @@ import com.hazelcast.core.PartitioningStrategy;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.serialization.SerializationService;
 
+import static com.hazelcast.config.CacheDeserializedValues.NEVER;
+
 public class DataRecordFactory implements RecordFactory<Data> {
 
     private final SerializationService serializationService;
     private final PartitioningStrategy partitionStrategy;
     private final CacheDeserializedValues cacheDeserializedValues;
     private final boolean statisticsEnabled;
+    private final boolean compactRecords;
 
     public DataRecordFactory(MapConfig config, SerializationService serializationService,
                              PartitioningStrategy partitionStrategy) {
@@ -35,6 +38,7 @@ public class DataRecordFactory implements RecordFactory<Data> {
         this.partitionStrategy = partitionStrategy;
         this.statisticsEnabled = config.isStatisticsEnabled();
         this.cacheDeserializedValues = config.getCacheDeserializedValues();
+        this.compactRecords = Records.isCompactRecordApplicable(config);
     }
 
     @Override
@@ -42,6 +46,9 @@ public class DataRecordFactory implements RecordFactory<Data> {
         assert value != null : "value can not be null";
 
         final Data data = serializationService.toData(value, partitionStrategy);
+        if (compactRecords) {
+            return cacheDeserializedValues == NEVER ? new CompactDataRecord(data) : new CompactCachedDataRecord(data);
+        }
         switch (cacheDeserializedValues) {
             case NEVER:
                 return statisticsEnabled ? new DataRecordWithStats(data) : new DataRecord(data);
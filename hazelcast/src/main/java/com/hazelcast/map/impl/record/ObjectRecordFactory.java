@@ -24,10 +24,12 @@ public class ObjectRecordFactory implements RecordFactory<Object> {
 
     private final SerializationService serializationService;
     private final boolean statisticsEnabled;
+    private final boolean compactRecords;
 
     public ObjectRecordFactory(MapConfig config, SerializationService serializationService) {
         this.serializationService = serializationService;
         this.statisticsEnabled = config.isStatisticsEnabled();
+        this.compactRecords = Records.isCompactRecordApplicable(config);
     }
 
     @Override
@@ -35,6 +37,9 @@ public class ObjectRecordFactory implements RecordFactory<Object> {
         assert value != null : "value can not be null";
 
         Object objectValue = serializationService.toObject(value);
+        if (compactRecords) {
+            return new CompactObjectRecord(objectValue);
+        }
         return statisticsEnabled ? new ObjectRecordWithStats(objectValue) : new ObjectRecord(objectValue);
     }
 
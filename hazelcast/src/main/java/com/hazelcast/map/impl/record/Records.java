@@ -16,6 +16,7 @@
 
 package com.hazelcast.map.impl.record;
 
+import com.hazelcast.config.MapConfig;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.spi.serialization.SerializationService;
 
@@ -29,6 +30,24 @@ public final class Records {
     private Records() {
     }
 
+    /**
+     * Returns {@code true} if the records of a map with the supplied config can be compact records,
+     * which is the case when the map doesn't use statistics, expiration or eviction.
+     * <p>
+     * Compact records keep their creation, last access and last update times in seconds, rounded up to the next
+     * second, so these times lose their millisecond precision. This shows in the times of the entry views of the
+     * map and in the last update times compared by merge policies like {@code LatestUpdateMapMergePolicy}, which
+     * can't tell apart updates made within the same second.
+     *
+     * @see AbstractCompactRecord
+     */
+    static boolean isCompactRecordApplicable(MapConfig mapConfig) {
+        return !mapConfig.isStatisticsEnabled()
+                && mapConfig.getTimeToLiveSeconds() == 0
+                && mapConfig.getMaxIdleSeconds() == 0
+                && mapConfig.getMapEvictionPolicy() == null;
+    }
+
     public static void applyRecordInfo(Record record, RecordInfo replicationInfo) {
         record.setVersion(replicationInfo.getVersion());
         record.setHits(replicationInfo.getHits());
@@ -21,6 +21,7 @@ import com.hazelcast.core.EntryView;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.event.MapEventPublisher;
 import com.hazelcast.map.impl.eviction.Evictor;
+import com.hazelcast.map.impl.eviction.ExpirationManager;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.nio.Address;
 import com.hazelcast.nio.serialization.Data;
@@ -29,12 +30,15 @@ import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.properties.GroupProperty;
 import com.hazelcast.spi.properties.HazelcastProperties;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 
 import static com.hazelcast.core.EntryEventType.EVICTED;
 import static com.hazelcast.core.EntryEventType.EXPIRED;
+import static com.hazelcast.map.impl.ExpirationTimeSetter.calculateExpirationTime;
 import static com.hazelcast.map.impl.ExpirationTimeSetter.calculateExpirationWithDelay;
 import static com.hazelcast.map.impl.ExpirationTimeSetter.calculateMaxIdleMillis;
 import static com.hazelcast.map.impl.ExpirationTimeSetter.getIdlenessStartTime;
@@ -49,17 +53,24 @@ import static com.hazelcast.map.impl.eviction.Evictor.NULL_EVICTOR;
  */
 abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
 
+    /**
+     * Width of the time slots of the {@link ExpirationIndex}.
+     */
+    private static final long EXPIRATION_SLOT_MILLIS = 1000L;
+
     protected final long expiryDelayMillis;
     protected final EventService eventService;
     protected final MapEventPublisher mapEventPublisher;
     protected final Address thisAddress;
     /**
-     * Iterates over a pre-set entry count/percentage in one round.
-     * Used in expiration logic for traversing entries. Initializes lazily.
+     * Keys of the entries which may expire, ordered by expiration time.
+     * Used in expiration logic to visit only the entries which are due.
      */
-    protected Iterator<Record> expirationIterator;
+    protected final ExpirationIndex expirationIndex = new ExpirationIndex(EXPIRATION_SLOT_MILLIS);
     protected volatile boolean hasEntryWithCustomTTL;
 
+    private final ExpirationManager expirationManager;
+
     protected AbstractEvictableRecordStore(MapContainer mapContainer, int partitionId) {
         super(mapContainer, partitionId);
         NodeEngine nodeEngine = mapServiceContext.getNodeEngine();
@@ -68,6 +79,7 @@ abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
         eventService = nodeEngine.getEventService();
         mapEventPublisher = mapServiceContext.getMapEventPublisher();
         thisAddress = nodeEngine.getThisAddress();
+        expirationManager = mapServiceContext.getExpirationManager();
     }
 
     /**
@@ -83,19 +95,25 @@ abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
     @Override
     public void evictExpiredEntries(int percentage, boolean backup) {
         final long now = getNow();
-        final int size = size();
-        final int maxIterationCount = getMaxIterationCount(size, percentage);
-        final int maxRetry = 3;
-        int loop = 0;
-        int evictedEntryCount = 0;
-        while (true) {
-            evictedEntryCount += evictExpiredEntriesInternal(maxIterationCount, now, backup);
-            if (evictedEntryCount >= maxIterationCount) {
-                break;
+        final int maxEvictionCount = getMaxIterationCount(size(), percentage);
+        final long maxIdleMillis = calculateMaxIdleMillis(mapContainer.getMapConfig());
+
+        List<Data> dueKeys = new ArrayList<Data>();
+        expirationIndex.pollDue(now, dueKeys, maxEvictionCount);
+        for (Data key : dueKeys) {
+            Record record = storage.get(key);
+            if (record == null) {
+                continue;
             }
-            loop++;
-            if (loop > maxRetry) {
-                break;
+            long expirationTime = calculateExpirationTime(record, maxIdleMillis);
+            if (getOrNullIfExpired(record, now, backup) == null) {
+                if (!backup) {
+                    expirationManager.onExpired(now - expirationTime);
+                }
+            } else {
+                // expiration was postponed by an update or access, or the entry is locked
+                long nextCheckTime = backup ? expirationTime + expiryDelayMillis : expirationTime;
+                expirationIndex.schedule(key, Math.max(nextCheckTime, now + 1));
             }
         }
     }
@@ -122,30 +140,6 @@ abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
         return Math.round(maxIterationCount);
     }
 
-    private int evictExpiredEntriesInternal(int maxIterationCount, long now, boolean backup) {
-        int evictedCount = 0;
-        int checkedEntryCount = 0;
-        initExpirationIterator();
-        while (expirationIterator.hasNext()) {
-            if (checkedEntryCount >= maxIterationCount) {
-                break;
-            }
-            checkedEntryCount++;
-            Record record = expirationIterator.next();
-            record = getOrNullIfExpired(record, now, backup);
-            if (record == null) {
-                evictedCount++;
-            }
-        }
-        return evictedCount;
-    }
-
-    private void initExpirationIterator() {
-        if (expirationIterator == null || !expirationIterator.hasNext()) {
-            expirationIterator = storage.values().iterator();
-        }
-    }
-
     @Override
     public void evictEntries(Data excludedKey) {
         if (shouldEvict()) {
@@ -159,6 +153,25 @@ abstract class AbstractEvictableRecordStore extends AbstractRecordStore {
         return evictor != NULL_EVICTOR && evictor.checkEvictable(this);
     }
 
+    /**
+     * Adds the key of the given record to the {@link ExpirationIndex} if the record may expire.
+     * Needs to be called whenever a record is stored or its TTL is changed.
+     */
+    protected void indexExpiration(Data key, Record record) {
+        if (isRecordStoreExpirable()) {
+            long maxIdleMillis = calculateMaxIdleMillis(mapContainer.getMapConfig());
+            expirationIndex.schedule(key, calculateExpirationTime(record, maxIdleMillis));
+        }
+    }
+
+    /**
+     * Removes the key of a removed record from the {@link ExpirationIndex}.
+     * Needs to be called whenever a record is removed.
+     */
+    protected void unindexExpiration(Data key) {
+        expirationIndex.unschedule(key);
+    }
+
     protected void markRecordStoreExpirable(long ttl) {
         if (ttl > 0L && ttl < Long.MAX_VALUE) {
             hasEntryWithCustomTTL = true;
@@ -20,6 +20,8 @@ import com.hazelcast.concurrent.lock.LockService;
 import com.hazelcast.concurrent.lock.LockStore;
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
+import com.hazelcast.internal.util.merkletree.ArrayMerkleTree;
+import com.hazelcast.internal.util.merkletree.MerkleTree;
 import com.hazelcast.map.impl.EntryCostEstimator;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapService;
@@ -46,6 +48,7 @@ import static com.hazelcast.map.impl.ExpirationTimeSetter.calculateMaxIdleMillis
 import static com.hazelcast.map.impl.ExpirationTimeSetter.calculateTTLMillis;
 import static com.hazelcast.map.impl.ExpirationTimeSetter.pickTTL;
 import static com.hazelcast.map.impl.ExpirationTimeSetter.setExpirationTime;
+import static com.hazelcast.spi.properties.GroupProperty.MAP_MERKLE_TREE_DEPTH;
 
 
 /**
@@ -108,7 +111,22 @@ abstract class AbstractRecordStore implements RecordStore<Record> {
 
     @Override
     public Storage createStorage(RecordFactory recordFactory, InMemoryFormat memoryFormat) {
-        return new StorageImpl(recordFactory, memoryFormat, serializationService);
+        return new StorageImpl(recordFactory, memoryFormat, serializationService, createMerkleTree());
+    }
+
+    private MerkleTree createMerkleTree() {
+        int depth = mapServiceContext.getNodeEngine().getProperties().getInteger(MAP_MERKLE_TREE_DEPTH);
+        // without backups there is no replica to compare with
+        if (depth <= 0 || mapContainer.getTotalBackupCount() == 0) {
+            return null;
+        }
+        return new ArrayMerkleTree(depth);
+    }
+
+    @Override
+    public MerkleTree getMerkleTree() {
+        // only the default storage maintains a Merkle tree
+        return storage instanceof StorageImpl ? ((StorageImpl) storage).getMerkleTree() : null;
     }
 
     @Override
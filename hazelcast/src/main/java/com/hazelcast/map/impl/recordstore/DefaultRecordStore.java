@@ -228,6 +228,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
     public void putRecord(Data key, Record record) {
         markRecordStoreExpirable(record.getTtl());
         storage.put(key, record);
+        indexExpiration(key, record);
         updateStatsOnPut(record.getHits());
     }
 
@@ -245,6 +246,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
         if (record == null) {
             record = createRecord(value, ttl, now);
             storage.put(key, record);
+            indexExpiration(key, record);
         } else {
             updateRecord(key, record, value, now);
         }
@@ -311,6 +313,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
         } else {
             storage.clear(false);
         }
+        expirationIndex.clear();
     }
 
     /**
@@ -415,6 +418,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
         if (value != null) {
             record = createRecord(value, DEFAULT_TTL, getNow());
             storage.put(key, record);
+            indexExpiration(key, record);
             if (!backup) {
                 saveIndex(record, null);
             }
@@ -459,6 +463,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
         while (iterator.hasNext()) {
             Record record = iterator.next();
             storage.removeRecord(record);
+            unindexExpiration(record.getKey());
             updateStatsOnRemove(record.getHits());
             iterator.remove();
         }
@@ -493,6 +498,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
     public void reset() {
         mapDataStore.reset();
         storage.clear(false);
+        expirationIndex.clear();
         resetStats();
     }
 
@@ -505,6 +511,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
             mapDataStore.flush(key, value, backup);
             removeIndex(record);
             storage.removeRecord(record);
+            unindexExpiration(record.getKey());
             updateStatsOnRemove(record.getHits());
             if (!backup) {
                 mapServiceContext.interceptRemove(name, value);
@@ -532,6 +539,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
             return;
         }
         storage.removeRecord(record);
+        unindexExpiration(record.getKey());
         updateStatsOnRemove(record.getHits());
         mapDataStore.removeBackup(key, now);
     }
@@ -576,6 +584,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
             mapDataStore.remove(key, now);
             onStore(record);
             storage.removeRecord(record);
+            unindexExpiration(record.getKey());
             updateStatsOnRemove(record.getHits());
             removed = true;
         }
@@ -765,9 +774,11 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
         if (record == null) {
             record = createRecord(value, ttl, now);
             storage.put(key, record);
+            indexExpiration(key, record);
         } else {
             updateRecord(key, record, value, now);
             updateExpiryTime(record, ttl, mapContainer.getMapConfig());
+            indexExpiration(key, record);
         }
 
         saveIndex(record, oldValue);
@@ -794,6 +805,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
             record = createRecord(newValue, DEFAULT_TTL, now);
             mergeRecordExpiration(record, mergingEntry);
             storage.put(key, record);
+            indexExpiration(key, record);
         } else {
             oldValue = record.getValue();
             EntryView existingEntry = EntryViews.createLazyEntryView(record.getKey(), record.getValue(),
@@ -805,11 +817,13 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
                 mapDataStore.remove(key, now);
                 onStore(record);
                 storage.removeRecord(record);
+                unindexExpiration(record.getKey());
                 updateStatsOnRemove(record.getHits());
                 return true;
             }
             if (newValue == mergingEntry.getValue()) {
                 mergeRecordExpiration(record, mergingEntry);
+                indexExpiration(key, record);
             }
             // same with the existing entry so no need to map-store etc operations.
             if (recordFactory.isEquals(newValue, oldValue)) {
@@ -877,11 +891,13 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
             value = mapServiceContext.interceptPut(name, null, value);
             record = createRecord(value, ttl, now);
             storage.put(key, record);
+            indexExpiration(key, record);
         } else {
             oldValue = record.getValue();
             value = mapServiceContext.interceptPut(name, oldValue, value);
             updateRecord(key, record, value, now);
             updateExpiryTime(record, ttl, mapContainer.getMapConfig());
+            indexExpiration(key, record);
         }
         saveIndex(record, oldValue);
         mapDataStore.addTransient(key, now);
@@ -921,11 +937,13 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
             value = mapServiceContext.interceptPut(name, null, value);
             record = createRecord(value, ttl, now);
             storage.put(key, record);
+            indexExpiration(key, record);
         } else {
             oldValue = record.getValue();
             value = mapServiceContext.interceptPut(name, oldValue, value);
             updateRecord(key, record, value, now);
             updateExpiryTime(record, ttl, mapContainer.getMapConfig());
+            indexExpiration(key, record);
         }
         if (!backup) {
             saveIndex(record, oldValue);
@@ -966,6 +984,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
             if (oldValue != null) {
                 record = createRecord(oldValue, DEFAULT_TTL, now);
                 storage.put(key, record);
+                indexExpiration(key, record);
             }
         } else {
             accessRecord(record, now);
@@ -978,6 +997,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
             record = createRecord(value, ttl, now);
             storage.put(key, record);
             updateExpiryTime(record, ttl, mapContainer.getMapConfig());
+            indexExpiration(key, record);
         }
         saveIndex(record, oldValue);
         return oldValue;
@@ -998,6 +1018,7 @@ public class DefaultRecordStore extends AbstractEvictableRecordStore {
             onStore(record);
         }
         storage.removeRecord(record);
+        unindexExpiration(record.getKey());
         updateStatsOnRemove(record.getHits());
         return oldValue;
     }
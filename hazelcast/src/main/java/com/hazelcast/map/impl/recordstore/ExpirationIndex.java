@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Orders the keys of a record store by their expiration time, so expired entries can be found without scanning.
+ * <p>
+ * Keys are kept in time slots of {@code slotMillis} width, a key is due once the end of its slot has passed.
+ * The index only holds a lower bound of the expiration time of a key: scheduling a key again only moves it to
+ * an earlier slot, never to a later one. So updates and accesses which postpone the expiration don't need to touch
+ * the index, it is up to the caller to check a due key against its record and to reschedule it if it hasn't
+ * expired yet. Keys of removed records have to be {@link #unschedule(Data) unscheduled}.
+ * <p>
+ * This class is not thread-safe, it is only accessed by the partition thread of its record store.
+ */
+final class ExpirationIndex {
+
+    private final long slotMillis;
+    private final TreeMap<Long, Set<Data>> slots = new TreeMap<Long, Set<Data>>();
+    private final Map<Data, Long> slotByKey = new HashMap<Data, Long>();
+
+    ExpirationIndex(long slotMillis) {
+        this.slotMillis = slotMillis;
+    }
+
+    /**
+     * Schedules a key to be checked for expiration at the given time.
+     *
+     * @param key            the key to schedule
+     * @param expirationTime the expiration time in millis, {@code Long.MAX_VALUE} means the key never expires
+     */
+    void schedule(Data key, long expirationTime) {
+        if (expirationTime < 0 || expirationTime > Long.MAX_VALUE - slotMillis) {
+            return;
+        }
+        Long slot = (expirationTime + slotMillis - 1) / slotMillis;
+        Long currentSlot = slotByKey.get(key);
+        if (currentSlot != null) {
+            if (currentSlot <= slot) {
+                return;
+            }
+            removeFromSlot(currentSlot, key);
+        }
+        slotByKey.put(key, slot);
+        Set<Data> keys = slots.get(slot);
+        if (keys == null) {
+            keys = new HashSet<Data>();
+            slots.put(slot, keys);
+        }
+        keys.add(key);
+    }
+
+    /**
+     * Removes a key from the index, a key which is not scheduled is ignored.
+     *
+     * @param key the key to remove
+     */
+    void unschedule(Data key) {
+        Long slot = slotByKey.remove(key);
+        if (slot != null) {
+            removeFromSlot(slot, key);
+        }
+    }
+
+    /**
+     * Removes the keys which are due at the given time from the index.
+     *
+     * @param now      the current time in millis
+     * @param dueKeys  the collection to add the due keys to
+     * @param maxCount the maximum number of keys to remove
+     * @return the number of removed keys
+     */
+    int pollDue(long now, Collection<Data> dueKeys, int maxCount) {
+        long nowSlot = now / slotMillis;
+        int count = 0;
+        while (count < maxCount && !slots.isEmpty()) {
+            Map.Entry<Long, Set<Data>> first = slots.firstEntry();
+            if (first.getKey() > nowSlot) {
+                break;
+            }
+            Iterator<Data> iterator = first.getValue().iterator();
+            while (count < maxCount && iterator.hasNext()) {
+                Data key = iterator.next();
+                iterator.remove();
+                slotByKey.remove(key);
+                dueKeys.add(key);
+                count++;
+            }
+            if (first.getValue().isEmpty()) {
+                slots.remove(first.getKey());
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns {@code true} if there is at least one key which is due at the given time.
+     */
+    boolean hasDue(long now) {
+        return !slots.isEmpty() && slots.firstKey() <= now / slotMillis;
+    }
+
+    int size() {
+        return slotByKey.size();
+    }
+
+    void clear() {
+        slots.clear();
+        slotByKey.clear();
+    }
+
+    private void removeFromSlot(Long slot, Data key) {
+        Set<Data> keys = slots.get(slot);
+        keys.remove(key);
+        if (keys.isEmpty()) {
+            slots.remove(slot);
+        }
+    }
+}
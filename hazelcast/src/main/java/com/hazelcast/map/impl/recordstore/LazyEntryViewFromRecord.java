@@ -45,6 +45,30 @@ public class LazyEntryViewFromRecord<R extends Record> extends SampleableConcurr
         this.serializationService = serializationService;
     }
 
+    /**
+     * Creates a reusable view which is bound to a record by {@link #reset(Record)}.
+     * <p/>
+     * {@link #getEntryKey()} and {@link #getEntryValue()} are not meaningful for such a view.
+     */
+    public LazyEntryViewFromRecord(SerializationService serializationService) {
+        super(null, null);
+        this.serializationService = serializationService;
+    }
+
+    /**
+     * Binds this view to the supplied record, so one view can be used for many records
+     * without allocating a new view per record.
+     *
+     * @param record the record to wrap
+     * @return this view
+     */
+    public LazyEntryViewFromRecord<R> reset(R record) {
+        this.record = record;
+        this.key = null;
+        this.value = null;
+        return this;
+    }
+
     @Override
     public Object getKey() {
         if (key == null) {
@@ -18,6 +18,7 @@ package com.hazelcast.map.impl.recordstore;
 
 import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.util.merkletree.MerkleTree;
 import com.hazelcast.map.impl.MapContainer;
 import com.hazelcast.map.impl.MapEntries;
 import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
@@ -182,6 +183,14 @@ public interface RecordStore<R extends Record> extends LocalRecordStoreStats {
      */
     Iterator<Record> iterator();
 
+    /**
+     * Returns the Merkle tree maintained over the entries of this record store.
+     *
+     * @return the Merkle tree or {@code null} if Merkle trees are disabled for this record store
+     * @see com.hazelcast.spi.properties.GroupProperty#MAP_MERKLE_TREE_DEPTH
+     */
+    MerkleTree getMerkleTree();
+
     /**
      * Iterates over record store entries by respecting expiration.
      *
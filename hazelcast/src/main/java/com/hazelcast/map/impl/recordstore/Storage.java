@@ -22,6 +22,7 @@ import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
 import com.hazelcast.spi.serialization.SerializationService;
 
 import java.util.Collection;
+import java.util.List;
 
 /**
  * Represents actual storage layer behind a {@link RecordStore}.
@@ -74,6 +75,15 @@ public interface Storage<K, R> {
      */
     Iterable<LazyEntryViewFromRecord> getRandomSamples(int sampleCount);
 
+    /**
+     * Used for sampling based eviction, puts sampled records into the supplied list
+     * without creating an {@link com.hazelcast.core.EntryView} per sample.
+     *
+     * @param sampleCount sample count.
+     * @param samples     list to put the sampled records into.
+     */
+    void sampleRecords(int sampleCount, List<R> samples);
+
     MapKeysWithCursor fetchKeys(int tableIndex, int size);
 
     MapEntriesWithCursor fetchEntries(int tableIndex, int size, SerializationService serializationService);
@@ -17,10 +17,10 @@
 package com.hazelcast.map.impl.recordstore;
 
 import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.internal.util.merkletree.MerkleTree;
 import com.hazelcast.map.impl.EntryCostEstimator;
 import com.hazelcast.map.impl.iterator.MapEntriesWithCursor;
 import com.hazelcast.map.impl.iterator.MapKeysWithCursor;
-import com.hazelcast.map.impl.record.AbstractRecord;
 import com.hazelcast.map.impl.record.Record;
 import com.hazelcast.map.impl.record.RecordFactory;
 import com.hazelcast.nio.serialization.Data;
@@ -43,19 +43,37 @@ public class StorageImpl<R extends Record> implements Storage<Data, R> {
 
     private final RecordFactory<R> recordFactory;
     private final StorageSCHM<R> records;
+    private final SerializationService serializationService;
+    private final MerkleTree merkleTree;
+    // values of the OBJECT in-memory format can be mutated in place, so their tree is rebuilt on every access
+    private final boolean mutableValues;
+    // true if the entries may have changed since the Merkle tree was last built
+    private boolean merkleTreeStale = true;
 
     // not final for testing purposes.
     private EntryCostEstimator<Data, Record> entryCostEstimator;
 
     StorageImpl(RecordFactory<R> recordFactory, InMemoryFormat inMemoryFormat, SerializationService serializationService) {
+        this(recordFactory, inMemoryFormat, serializationService, null);
+    }
+
+    /**
+     * @param merkleTree the Merkle tree to build over the stored entries, {@code null} if disabled
+     */
+    StorageImpl(RecordFactory<R> recordFactory, InMemoryFormat inMemoryFormat, SerializationService serializationService,
+                MerkleTree merkleTree) {
         this.recordFactory = recordFactory;
         this.entryCostEstimator = createMapSizeEstimator(inMemoryFormat);
         this.records = new StorageSCHM<R>(serializationService);
+        this.serializationService = serializationService;
+        this.merkleTree = merkleTree;
+        this.mutableValues = inMemoryFormat == InMemoryFormat.OBJECT;
     }
 
     @Override
     public void clear(boolean isDuringShutdown) {
         records.clear();
+        merkleTreeStale = true;
 
         entryCostEstimator.reset();
     }
@@ -68,9 +86,10 @@ public class StorageImpl<R extends Record> implements Storage<Data, R> {
     @Override
     public void put(Data key, R record) {
 
-        ((AbstractRecord) record).setKey(key);
+        record.setKey(key);
 
         R previousRecord = records.put(key, record);
+        merkleTreeStale = true;
 
         if (previousRecord == null) {
             updateCostEstimate(entryCostEstimator.calculateEntryCost(key, record));
@@ -85,6 +104,7 @@ public class StorageImpl<R extends Record> implements Storage<Data, R> {
         updateCostEstimate(-entryCostEstimator.calculateValueCost(record));
 
         recordFactory.setValue(record, value);
+        merkleTreeStale = true;
 
         updateCostEstimate(entryCostEstimator.calculateValueCost(record));
     }
@@ -131,10 +151,40 @@ public class StorageImpl<R extends Record> implements Storage<Data, R> {
 
         Data key = record.getKey();
         records.remove(key);
+        merkleTreeStale = true;
 
         updateCostEstimate(-entryCostEstimator.calculateEntryCost(key, record));
     }
 
+    /**
+     * Returns the Merkle tree over the stored entries, rebuilding it if the entries may have changed since it was
+     * last built. The values are only hashed here, so updates don't pay for the tree while no replica sync runs.
+     *
+     * @return the Merkle tree or {@code null} if Merkle trees are disabled
+     */
+    public MerkleTree getMerkleTree() {
+        if (merkleTree != null && (merkleTreeStale || mutableValues)) {
+            merkleTree.clear();
+            for (R record : records.values()) {
+                merkleTree.updateAdd(record.getKey().hashCode(), hashValue(record.getValue()));
+            }
+            merkleTreeStale = false;
+        }
+        return merkleTree;
+    }
+
+    /**
+     * Returns the hash of the serialized form of the value, so that the same value hashes the same
+     * on every replica regardless of the in-memory format.
+     */
+    private int hashValue(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        Data data = value instanceof Data ? (Data) value : serializationService.toData(value);
+        return data.hashCode();
+    }
+
     protected void updateCostEstimate(long entrySize) {
         entryCostEstimator.adjustEstimateBy(entrySize);
     }
@@ -153,6 +203,11 @@ public class StorageImpl<R extends Record> implements Storage<Data, R> {
         return records.getRandomSamples(sampleCount);
     }
 
+    @Override
+    public void sampleRecords(int sampleCount, List<R> samples) {
+        records.sampleValues(sampleCount, samples);
+    }
+
     @Override
     public MapKeysWithCursor fetchKeys(int tableIndex, int size) {
         List<Data> keys = new ArrayList<Data>(size);
@@ -143,6 +143,7 @@ public class MapReduceService
             jobTracker.unregisterJobSupervisorCancellation(jobId);
         }
 
+        supervisor.dispose();
         JobSupervisorKey key = new JobSupervisorKey(supervisor);
         return jobSupervisors.remove(key) == supervisor;
     }
@@ -20,6 +20,7 @@ import com.hazelcast.mapreduce.impl.AbstractJobTracker;
 import com.hazelcast.mapreduce.impl.MapReduceDataSerializerHook;
 import com.hazelcast.mapreduce.impl.MapReduceService;
 import com.hazelcast.mapreduce.impl.task.JobSupervisor;
+import com.hazelcast.spi.impl.operationexecutor.impl.OperationThread;
 
 import java.util.Map;
 
@@ -31,6 +32,8 @@ public class GetResultOperation
 
     private volatile Map result;
 
+    private transient boolean offloading;
+
     public GetResultOperation() {
     }
 
@@ -47,21 +50,51 @@ public class GetResultOperation
             throws Exception {
 
         MapReduceService mapReduceService = getService();
-        JobSupervisor supervisor = mapReduceService.getJobSupervisor(getName(), getJobId());
-        if (supervisor != null) {
-            result = supervisor.getJobResults();
-
-            // This is the final call so cleanup on all nodes that are not job owners
-            if (!supervisor.isOwnerNode()) {
-                mapReduceService.destroyJobSupervisor(supervisor);
-                AbstractJobTracker jobTracker = (AbstractJobTracker) mapReduceService.getJobTracker(getName());
-                jobTracker.unregisterTrackableJob(getJobId());
-                jobTracker.unregisterMapCombineTask(getJobId());
-                jobTracker.unregisterReducerTask(getJobId());
+        final JobSupervisor supervisor = mapReduceService.getJobSupervisor(getName(), getJobId());
+        if (supervisor == null) {
+            return;
+        }
+
+        // Merging the spilled values of a streaming job reads from disk, so it must not block an operation thread
+        offloading = supervisor.isStreamingReduce() && Thread.currentThread() instanceof OperationThread;
+        if (!offloading) {
+            collectResults(supervisor);
+            return;
+        }
+
+        mapReduceService.getExecutorService(getName()).execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    collectResults(supervisor);
+                    sendResponse(result);
+                } catch (Throwable t) {
+                    sendResponse(t);
+                }
             }
+        });
+    }
+
+    private void collectResults(JobSupervisor supervisor) {
+        MapReduceService mapReduceService = getService();
+        result = supervisor.getJobResults();
+
+        // This is the final call so cleanup on all nodes that are not job owners
+        if (!supervisor.isOwnerNode()) {
+            mapReduceService.destroyJobSupervisor(supervisor);
+            AbstractJobTracker jobTracker = (AbstractJobTracker) mapReduceService.getJobTracker(getName());
+            jobTracker.unregisterTrackableJob(getJobId());
+            jobTracker.unregisterMapCombineTask(getJobId());
+            jobTracker.unregisterReducerTask(getJobId());
         }
     }
 
+    @Override
+    public boolean returnsResponse() {
+        // An offloaded operation sends its response from the map reduce executor
+        return !offloading;
+    }
+
     @Override
     public Object getResponse() {
         return result;
@@ -55,6 +55,7 @@ public class DefaultContext<KeyIn, ValueIn>
 
     private final CombinerFactory<KeyIn, ValueIn, ?> combinerFactory;
     private final MapCombineTask mapCombineTask;
+    private final boolean streaming;
 
     private final IFunction<KeyIn, Combiner<ValueIn, ?>> combinerFunction = new IFunction<KeyIn, Combiner<ValueIn, ?>>() {
         @Override
@@ -73,7 +74,17 @@ public class DefaultContext<KeyIn, ValueIn>
     private volatile InternalSerializationService serializationService;
 
     protected DefaultContext(CombinerFactory<KeyIn, ValueIn, ?> combinerFactory, MapCombineTask mapCombineTask) {
+        this(combinerFactory, mapCombineTask, false);
+    }
+
+    /**
+     * @param streaming {@code true} if the combiners are finalized and dropped after each requested chunk instead of
+     *                  being reset, so the count of combiners doesn't grow with the count of emitted keys
+     */
+    protected DefaultContext(CombinerFactory<KeyIn, ValueIn, ?> combinerFactory, MapCombineTask mapCombineTask,
+                             boolean streaming) {
         this.mapCombineTask = mapCombineTask;
+        this.streaming = streaming;
         this.combinerFactory = combinerFactory != null ? combinerFactory : new CollectingCombinerFactory<KeyIn, ValueIn>();
     }
 
@@ -95,12 +106,19 @@ public class DefaultContext<KeyIn, ValueIn>
         for (Map.Entry<KeyIn, Combiner<ValueIn, ?>> entry : combiners.entrySet()) {
             Combiner<ValueIn, ?> combiner = entry.getValue();
             Chunk chunk = (Chunk) combiner.finalizeChunk();
-            combiner.reset();
+            if (streaming) {
+                combiner.finalizeCombine();
+            } else {
+                combiner.reset();
+            }
 
             if (chunk != null) {
                 chunkMap.put(entry.getKey(), chunk);
             }
         }
+        if (streaming) {
+            combiners.clear();
+        }
         COLLECTED.set(this, 0);
         return chunkMap;
     }
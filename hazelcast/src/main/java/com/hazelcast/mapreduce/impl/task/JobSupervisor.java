@@ -39,9 +39,11 @@ import com.hazelcast.nio.Address;
 import com.hazelcast.spi.ExecutionService;
 import com.hazelcast.spi.NodeEngine;
 import com.hazelcast.spi.TaskScheduler;
+import com.hazelcast.spi.properties.HazelcastProperties;
 import com.hazelcast.util.ExceptionUtil;
 import com.hazelcast.util.executor.ManagedExecutorService;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -59,6 +61,10 @@ import static com.hazelcast.cluster.memberselector.MemberSelectors.DATA_MEMBER_S
 import static com.hazelcast.mapreduce.JobPartitionState.State.REDUCING;
 import static com.hazelcast.mapreduce.impl.MapReduceUtil.createJobProcessInformation;
 import static com.hazelcast.mapreduce.impl.operation.RequestPartitionResult.ResultState.SUCCESSFUL;
+import static com.hazelcast.memory.MemoryUnit.MEGABYTES;
+import static com.hazelcast.spi.properties.GroupProperty.MAPREDUCE_STREAMING_BUFFER_SIZE_MB;
+import static com.hazelcast.spi.properties.GroupProperty.MAPREDUCE_STREAMING_ENABLED;
+import static com.hazelcast.spi.properties.GroupProperty.MAPREDUCE_STREAMING_SPILL_DIRECTORY;
 import static com.hazelcast.util.ExceptionUtil.fixAsyncStackTrace;
 
 /**
@@ -82,6 +88,8 @@ public class JobSupervisor {
     private final JobTaskConfiguration configuration;
     private final MapReduceService mapReduceService;
     private final ExecutorService executorService;
+    private final boolean streaming;
+    private final SpillingReduceBuffer reduceBuffer;
 
     private final JobProcessInformationImpl jobProcessInformation;
 
@@ -94,6 +102,14 @@ public class JobSupervisor {
         this.jobOwner = configuration.getJobOwner();
         this.executorService = mapReduceService.getExecutorService(configuration.getName());
 
+        HazelcastProperties properties = configuration.getNodeEngine().getProperties();
+        this.streaming = properties.getBoolean(MAPREDUCE_STREAMING_ENABLED);
+        this.reduceBuffer = streaming && configuration.getReducerFactory() != null
+                ? new SpillingReduceBuffer(configuration.getNodeEngine().getSerializationService(),
+                new File(properties.getString(MAPREDUCE_STREAMING_SPILL_DIRECTORY)),
+                MEGABYTES.toBytes(properties.getLong(MAPREDUCE_STREAMING_BUFFER_SIZE_MB)))
+                : null;
+
         // Calculate partition count
         this.jobProcessInformation = createJobProcessInformation(configuration, this);
 
@@ -235,7 +251,9 @@ public class JobSupervisor {
         DefaultContext currentContext = context.get();
 
         Map<Object, Object> result;
-        if (configuration.getReducerFactory() != null) {
+        if (reduceBuffer != null) {
+            result = reduceBuffer.reduce(configuration.getReducerFactory());
+        } else if (configuration.getReducerFactory() != null) {
             int mapSize = MapReduceUtil.mapSize(reducers.size());
             result = new HashMapAdapter<Object, Object>(mapSize);
             for (Map.Entry<Object, Reducer> entry : reducers.entrySet()) {
@@ -329,7 +347,8 @@ public class JobSupervisor {
     }
 
     public <K, V> DefaultContext<K, V> getOrCreateContext(MapCombineTask mapCombineTask) {
-        DefaultContext<K, V> newContext = new DefaultContext<K, V>(configuration.getCombinerFactory(), mapCombineTask);
+        DefaultContext<K, V> newContext = new DefaultContext<K, V>(configuration.getCombinerFactory(), mapCombineTask,
+                streaming);
 
         if (context.compareAndSet(null, newContext)) {
             return newContext;
@@ -353,6 +372,34 @@ public class JobSupervisor {
         return this.remoteReducers.get(partitionId);
     }
 
+    /**
+     * Returns whether the values are reduced by merging the spilled values when the results are requested, which
+     * reads the spill files and therefore shouldn't be done on an operation thread.
+     *
+     * @return {@code true} if the job is streaming and has a reducer
+     */
+    public boolean isStreamingReduce() {
+        return reduceBuffer != null;
+    }
+
+    /**
+     * Releases the spilled values and the reduced results of the job. Called when the job supervisor is destroyed.
+     */
+    public void dispose() {
+        if (reduceBuffer != null) {
+            reduceBuffer.dispose();
+        }
+    }
+
+    /**
+     * Returns the buffer the values to reduce are spilled to in the streaming mode.
+     *
+     * @return the reduce buffer or {@code null} if the job isn't streaming or has no reducer
+     */
+    SpillingReduceBuffer getReduceBuffer() {
+        return reduceBuffer;
+    }
+
     public JobProcessInformationImpl getJobProcessInformation() {
         return jobProcessInformation;
     }
@@ -117,6 +117,13 @@ public class ReducerTask<Key, Chunk>
     }
 
     private void reduceChunk(Map<Key, Chunk> chunk) {
+        SpillingReduceBuffer reduceBuffer = supervisor.getReduceBuffer();
+        if (reduceBuffer != null) {
+            for (Map.Entry<Key, Chunk> entry : chunk.entrySet()) {
+                reduceBuffer.add(entry.getKey(), entry.getValue());
+            }
+            return;
+        }
         for (Map.Entry<Key, Chunk> entry : chunk.entrySet()) {
             Reducer reducer = supervisor.getReducerByKey(entry.getKey());
             if (reducer != null) {
@@ -0,0 +1,345 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.mapreduce.impl.task;
+
+import com.hazelcast.core.HazelcastException;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.mapreduce.Reducer;
+import com.hazelcast.mapreduce.ReducerFactory;
+import com.hazelcast.mapreduce.impl.CombinerResultList;
+import com.hazelcast.mapreduce.impl.HashMapAdapter;
+import com.hazelcast.nio.IOUtil;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Buffers the values a member reduces in the streaming mode of a map reduce job.
+ * <p>
+ * The received values are kept serialized in a buffer of bounded size. When the buffer is full, it is sorted by
+ * the serialized key and written to a spill file. When the results are requested, the buffer and the spill files are
+ * merged, so all values of a key are reduced one after the other by a single reducer, which is finalized before the
+ * next key is reduced. This way the memory of the reducing phase is bounded by the buffer size and the results,
+ * independent of the number of values and reducers.
+ * <p>
+ * The buffer is filled by the {@link ReducerTask}, which is never executed concurrently, and read after the reducing
+ * of all partitions has finished. The methods are synchronized for the visibility between these threads. The results
+ * are kept after the merge, so a repeated request returns them again, until the buffer is disposed with the job.
+ */
+final class SpillingReduceBuffer {
+
+    /**
+     * Estimated heap size of a buffered record in addition to its serialized key and value.
+     */
+    static final int RECORD_OVERHEAD_BYTES = 64;
+
+    private static final int NULL_LENGTH = -1;
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    private static final Comparator<Record> RECORD_COMPARATOR = new Comparator<Record>() {
+        @Override
+        public int compare(Record record1, Record record2) {
+            return compareKeys(record1.key, record2.key);
+        }
+    };
+
+    private static final Comparator<RecordCursor> CURSOR_COMPARATOR = new Comparator<RecordCursor>() {
+        @Override
+        public int compare(RecordCursor cursor1, RecordCursor cursor2) {
+            return compareKeys(cursor1.current.key, cursor2.current.key);
+        }
+    };
+
+    private final SerializationService serializationService;
+    private final File spillDirectory;
+    private final long maxBufferedBytes;
+    private final List<Record> records = new ArrayList<Record>();
+    private final List<File> spillFiles = new ArrayList<File>();
+
+    private long bufferedBytes;
+    private Map<Object, Object> results;
+    private boolean disposed;
+
+    SpillingReduceBuffer(SerializationService serializationService, File spillDirectory, long maxBufferedBytes) {
+        this.serializationService = serializationService;
+        this.spillDirectory = spillDirectory;
+        this.maxBufferedBytes = maxBufferedBytes;
+    }
+
+    /**
+     * Adds a value or the values of a collected chunk to reduce for the given key.
+     */
+    synchronized void add(Object key, Object value) {
+        if (disposed) {
+            return;
+        }
+        Data keyData = serializationService.toData(key);
+        if (value instanceof CombinerResultList) {
+            for (Object collectedValue : (List) value) {
+                add(keyData, serializationService.toData(collectedValue));
+            }
+        } else {
+            add(keyData, serializationService.toData(value));
+        }
+    }
+
+    private void add(Data key, Data value) {
+        records.add(new Record(key, value));
+        bufferedBytes += key.totalSize() + (value == null ? 0 : value.totalSize()) + RECORD_OVERHEAD_BYTES;
+        if (bufferedBytes >= maxBufferedBytes) {
+            spill();
+        }
+    }
+
+    synchronized int getSpillFileCount() {
+        return spillFiles.size();
+    }
+
+    /**
+     * Reduces all buffered and spilled values on the first call and releases them. The results are kept, so later
+     * calls return the same results until the buffer is disposed.
+     *
+     * @param reducerFactory the factory of the reducers
+     * @return the non-null results of the reducers by key
+     */
+    synchronized Map<Object, Object> reduce(ReducerFactory reducerFactory) {
+        if (results == null) {
+            results = disposed ? new HashMapAdapter<Object, Object>() : mergeRuns(reducerFactory);
+        }
+        return results;
+    }
+
+    private Map<Object, Object> mergeRuns(ReducerFactory reducerFactory) {
+        Collections.sort(records, RECORD_COMPARATOR);
+        List<RecordCursor> cursors = new ArrayList<RecordCursor>(spillFiles.size() + 1);
+        try {
+            cursors.add(new MemoryCursor(records));
+            for (File spillFile : spillFiles) {
+                cursors.add(new FileCursor(spillFile));
+            }
+            return merge(cursors, reducerFactory);
+        } catch (IOException e) {
+            throw new HazelcastException("Could not read map reduce spill file", e);
+        } finally {
+            for (RecordCursor cursor : cursors) {
+                cursor.close();
+            }
+            releaseRecords();
+        }
+    }
+
+    private Map<Object, Object> merge(List<RecordCursor> cursors, ReducerFactory reducerFactory) throws IOException {
+        PriorityQueue<RecordCursor> queue = new PriorityQueue<RecordCursor>(cursors.size() + 1, CURSOR_COMPARATOR);
+        for (RecordCursor cursor : cursors) {
+            if (cursor.advance()) {
+                queue.offer(cursor);
+            }
+        }
+
+        Map<Object, Object> results = new HashMapAdapter<Object, Object>();
+        Data currentKey = null;
+        Reducer reducer = null;
+        while (!queue.isEmpty()) {
+            RecordCursor cursor = queue.poll();
+            Record record = cursor.current;
+            if (!record.key.equals(currentKey)) {
+                finalizeReducer(currentKey, reducer, results);
+                currentKey = record.key;
+                reducer = reducerFactory.newReducer(serializationService.toObject(currentKey));
+                reducer.beginReduce();
+            }
+            reducer.reduce(serializationService.toObject(record.value));
+
+            if (cursor.advance()) {
+                queue.offer(cursor);
+            }
+        }
+        finalizeReducer(currentKey, reducer, results);
+        return results;
+    }
+
+    private void finalizeReducer(Data key, Reducer reducer, Map<Object, Object> results) {
+        if (reducer == null) {
+            return;
+        }
+        Object result = reducer.finalizeReduce();
+        if (result != null) {
+            results.put(serializationService.toObject(key), result);
+        }
+    }
+
+    /**
+     * Deletes the spill files and drops the buffered values and the results. Values added afterwards are ignored.
+     */
+    synchronized void dispose() {
+        disposed = true;
+        results = null;
+        releaseRecords();
+    }
+
+    private void releaseRecords() {
+        records.clear();
+        bufferedBytes = 0;
+        for (File spillFile : spillFiles) {
+            IOUtil.deleteQuietly(spillFile);
+        }
+        spillFiles.clear();
+    }
+
+    private void spill() {
+        Collections.sort(records, RECORD_COMPARATOR);
+        DataOutputStream out = null;
+        try {
+            File spillFile = File.createTempFile("hz-mapreduce-", ".spill", spillDirectory);
+            spillFiles.add(spillFile);
+            out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(spillFile), STREAM_BUFFER_SIZE));
+            for (Record record : records) {
+                writeData(out, record.key);
+                writeData(out, record.value);
+            }
+        } catch (IOException e) {
+            throw new HazelcastException("Could not write map reduce spill file to " + spillDirectory, e);
+        } finally {
+            IOUtil.closeResource(out);
+        }
+        records.clear();
+        bufferedBytes = 0;
+    }
+
+    private static void writeData(DataOutputStream out, Data data) throws IOException {
+        if (data == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = data.toByteArray();
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Orders the keys by their hash and then by their bytes, so equal keys are adjacent.
+     */
+    static int compareKeys(Data key1, Data key2) {
+        int hash1 = key1.hashCode();
+        int hash2 = key2.hashCode();
+        if (hash1 != hash2) {
+            return hash1 < hash2 ? -1 : 1;
+        }
+
+        byte[] bytes1 = key1.toByteArray();
+        byte[] bytes2 = key2.toByteArray();
+        int length = Math.min(bytes1.length, bytes2.length);
+        for (int i = 0; i < length; i++) {
+            if (bytes1[i] != bytes2[i]) {
+                return bytes1[i] < bytes2[i] ? -1 : 1;
+            }
+        }
+        return bytes1.length - bytes2.length;
+    }
+
+    private static final class Record {
+        private final Data key;
+        private final Data value;
+
+        Record(Data key, Data value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * Iterates the records of a sorted run.
+     */
+    private abstract static class RecordCursor {
+        Record current;
+
+        abstract boolean advance() throws IOException;
+
+        void close() {
+        }
+    }
+
+    private static final class MemoryCursor extends RecordCursor {
+        private final List<Record> records;
+        private int index;
+
+        MemoryCursor(List<Record> records) {
+            this.records = records;
+        }
+
+        @Override
+        boolean advance() {
+            if (index == records.size()) {
+                current = null;
+                return false;
+            }
+            current = records.get(index++);
+            return true;
+        }
+    }
+
+    private static final class FileCursor extends RecordCursor {
+        private final DataInputStream in;
+
+        FileCursor(File file) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(file), STREAM_BUFFER_SIZE));
+        }
+
+        @Override
+        boolean advance() throws IOException {
+            Data key;
+            try {
+                key = readData(in);
+            } catch (EOFException e) {
+                current = null;
+                return false;
+            }
+            current = new Record(key, readData(in));
+            return true;
+        }
+
+        private static Data readData(DataInputStream in) throws IOException {
+            int length = in.readInt();
+            if (length == NULL_LENGTH) {
+                return null;
+            }
+            byte[] bytes = new byte[length];
+            in.readFully(bytes);
+            return new HeapData(bytes);
+        }
+
+        @Override
+        void close() {
+            IOUtil.closeResource(in);
+        }
+    }
+}
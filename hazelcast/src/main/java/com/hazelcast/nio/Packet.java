@@ -45,15 +45,17 @@ public final class Packet extends HeapData implements OutboundFrame {
     //             PACKET HEADER FLAGS
     //
     // Flags are dispatched against in a cascade:
-    // 1. URGENT (bit 4)
+    // 1. URGENT (bit 4) and COMPRESSED (bit 7)
     // 2. Packet type (bits 0, 2, 5)
     // 3. Flags specific to a given packet type (bits 1, 6)
 
 
-    // 1. URGENT flag
+    // 1. URGENT and COMPRESSED flags
 
     /** Marks the packet as Urgent  */
     public static final int FLAG_URGENT = 1 << 4;
+    /** Marks the payload of the packet as compressed, see {@link com.hazelcast.nio.tcp.MemberWriteHandler} */
+    public static final int FLAG_COMPRESSED = 1 << 7;
 
 
     // 2. Packet type flags, encode up to 7 packet types.
@@ -385,6 +387,7 @@ public final class Packet extends HeapData implements OutboundFrame {
                 + ", conn=" + conn
                 + ", rawFlags=" + Integer.toBinaryString(flags)
                 + ", isUrgent=" + isUrgent()
+                + ", isCompressed=" + isFlagRaised(FLAG_COMPRESSED)
                 + ", packetType=" + type.name()
                 + ", typeSpecificFlags=" + type.describeFlags(flags)
                 + '}';
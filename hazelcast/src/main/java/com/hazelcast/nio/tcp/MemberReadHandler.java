@@ -18,16 +18,21 @@ package com.hazelcast.nio.tcp;
 
 import com.hazelcast.internal.networking.ReadHandler;
 import com.hazelcast.internal.networking.SocketReader;
+import com.hazelcast.internal.util.compression.Lz4Codec;
 import com.hazelcast.internal.util.counters.Counter;
 import com.hazelcast.nio.Packet;
 import com.hazelcast.spi.impl.packetdispatcher.PacketDispatcher;
 
 import java.nio.ByteBuffer;
 
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.readIntB;
+
 /**
  * The {@link ReadHandler} for member to member communication.
  *
  * It reads as many packets from the src ByteBuffer as possible, and each of the Packets is send to the {@link PacketDispatcher}.
+ * Packets flagged with {@link Packet#FLAG_COMPRESSED} are decompressed before being dispatched.
  *
  * @see PacketDispatcher
  * @see MemberWriteHandler
@@ -38,12 +43,19 @@ public class MemberReadHandler implements ReadHandler {
     protected Packet packet;
 
     private final PacketDispatcher packetDispatcher;
+    private final PacketCompressionStats compressionStats;
     private final Counter normalPacketsRead;
     private final Counter priorityPacketsRead;
 
     public MemberReadHandler(TcpIpConnection connection, PacketDispatcher packetDispatcher) {
+        this(connection, packetDispatcher, new PacketCompressionStats());
+    }
+
+    public MemberReadHandler(TcpIpConnection connection, PacketDispatcher packetDispatcher,
+                             PacketCompressionStats compressionStats) {
         this.connection = connection;
         this.packetDispatcher = packetDispatcher;
+        this.compressionStats = compressionStats;
         SocketReader socketReader = connection.getSocketReader();
         this.normalPacketsRead = socketReader.getNormalFramesReadCounter();
         this.priorityPacketsRead = socketReader.getPriorityFramesReadCounter();
@@ -72,8 +84,24 @@ public class MemberReadHandler implements ReadHandler {
             normalPacketsRead.inc();
         }
 
+        if (packet.isFlagRaised(Packet.FLAG_COMPRESSED)) {
+            packet = decompress(packet);
+        }
         packet.setConn(connection);
 
         packetDispatcher.dispatch(packet);
     }
+
+    private Packet decompress(Packet packet) {
+        long startNanos = System.nanoTime();
+        byte[] compressed = packet.toByteArray();
+        int size = readIntB(compressed, 0);
+        byte[] payload = new byte[size];
+        Lz4Codec.decompress(compressed, INT_SIZE_IN_BYTES, compressed.length - INT_SIZE_IN_BYTES, payload, 0, size);
+        compressionStats.decompressionTimeNanos.inc(System.nanoTime() - startNanos);
+        compressionStats.decompressedPacketCount.inc();
+
+        return new Packet(payload, packet.getPartitionId())
+                .resetFlagsTo(packet.getFlags() & ~Packet.FLAG_COMPRESSED);
+    }
 }
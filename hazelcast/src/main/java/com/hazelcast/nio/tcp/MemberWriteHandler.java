@@ -16,22 +16,125 @@
 
 package com.hazelcast.nio.tcp;
 
+import com.hazelcast.instance.MemberImpl;
+import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.internal.networking.WriteHandler;
+import com.hazelcast.internal.util.compression.Lz4Codec;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.Connection;
 import com.hazelcast.nio.Packet;
 
 import java.nio.ByteBuffer;
 
+import static com.hazelcast.internal.cluster.Versions.V3_9;
+import static com.hazelcast.internal.util.compression.Lz4Codec.maxCompressedLength;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+import static com.hazelcast.nio.Bits.writeIntB;
+
 /**
  * A {@link WriteHandler} that for member to member communication.
  *
  * It writes {@link Packet} instances to the {@link ByteBuffer}.
  *
+ * When a compression threshold is set, the payload of the packets at least that large is compressed with the
+ * {@link Lz4Codec} and the packet is flagged with {@link Packet#FLAG_COMPRESSED}. The compressed payload starts with
+ * the length of the uncompressed payload. Packets which don't shrink are written as they are.
+ *
+ * Older members can't decompress packets, so packets are only compressed when the cluster version is at least 3.9
+ * and the peer of the connection is a known member of at least version 3.9.
+ *
  * @see MemberReadHandler
  */
 public class MemberWriteHandler implements WriteHandler<Packet> {
 
+    private final Connection connection;
+    private final ClusterService clusterService;
+    private final int compressionThreshold;
+    private final PacketCompressionStats compressionStats;
+    private final Lz4Codec codec;
+
+    // once the peer supports compression it always does, since neither the cluster version nor the peer can downgrade
+    private boolean peerSupportsCompression;
+
+    // the packet being written and its compressed form, if any
+    private Packet packet;
+    private Packet compressedPacket;
+
+    public MemberWriteHandler() {
+        this(null, null, 0, new PacketCompressionStats());
+    }
+
+    /**
+     * @param connection           the connection to write the packets to
+     * @param clusterService       the cluster service to check if the peer supports compression
+     * @param compressionThreshold the minimum payload size of the packets to compress, {@code 0} disables compression
+     * @param compressionStats     the compression metrics to update
+     */
+    public MemberWriteHandler(Connection connection, ClusterService clusterService, int compressionThreshold,
+                              PacketCompressionStats compressionStats) {
+        this.connection = connection;
+        this.clusterService = clusterService;
+        this.compressionThreshold = compressionThreshold;
+        this.compressionStats = compressionStats;
+        this.codec = compressionThreshold > 0 ? new Lz4Codec() : null;
+    }
+
     @Override
     public boolean onWrite(Packet packet, ByteBuffer dst) {
-        return packet.writeTo(dst);
+        if (codec == null) {
+            return packet.writeTo(dst);
+        }
+
+        if (packet != this.packet) {
+            // decided once per packet, since a partially written packet must be continued in the same form
+            this.packet = packet;
+            this.compressedPacket = isCompressionSupportedByPeer() ? compress(packet) : packet;
+        }
+        if (!compressedPacket.writeTo(dst)) {
+            return false;
+        }
+        this.packet = null;
+        this.compressedPacket = null;
+        return true;
+    }
+
+    private boolean isCompressionSupportedByPeer() {
+        if (peerSupportsCompression) {
+            return true;
+        }
+        if (!clusterService.getClusterVersion().isGreaterOrEqual(V3_9)) {
+            return false;
+        }
+        Address endpoint = connection.getEndPoint();
+        MemberImpl member = endpoint != null ? clusterService.getMember(endpoint) : null;
+        peerSupportsCompression = member != null && member.getVersion().asVersion().isGreaterOrEqual(V3_9);
+        return peerSupportsCompression;
+    }
+
+    private Packet compress(Packet packet) {
+        int size = packet.totalSize();
+        if (size < compressionThreshold || packet.isFlagRaised(Packet.FLAG_COMPRESSED)) {
+            return packet;
+        }
+
+        long startNanos = System.nanoTime();
+        byte[] compressed = new byte[INT_SIZE_IN_BYTES + maxCompressedLength(size)];
+        writeIntB(compressed, 0, size);
+        int compressedSize = INT_SIZE_IN_BYTES
+                + codec.compress(packet.toByteArray(), 0, size, compressed, INT_SIZE_IN_BYTES);
+        compressionStats.compressionTimeNanos.inc(System.nanoTime() - startNanos);
+
+        if (compressedSize >= size) {
+            compressionStats.incompressiblePacketCount.inc();
+            return packet;
+        }
+        byte[] payload = new byte[compressedSize];
+        System.arraycopy(compressed, 0, payload, 0, compressedSize);
+
+        compressionStats.compressedPacketCount.inc();
+        compressionStats.uncompressedBytes.inc(size);
+        compressionStats.compressedBytes.inc(compressedSize);
+        return new Packet(payload, packet.getPartitionId())
+                .resetFlagsTo(packet.getFlags() | Packet.FLAG_COMPRESSED);
     }
 }
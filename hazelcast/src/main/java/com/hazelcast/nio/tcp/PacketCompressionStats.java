@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.nio.tcp;
+
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.internal.util.counters.MwCounter;
+
+import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
+
+/**
+ * The compression metrics of the member to member packets, shared by the {@link MemberWriteHandler}s and
+ * {@link MemberReadHandler}s of all connections.
+ */
+public class PacketCompressionStats {
+
+    private static final int PERCENT = 100;
+
+    @Probe
+    final MwCounter compressedPacketCount = newMwCounter();
+    @Probe
+    final MwCounter incompressiblePacketCount = newMwCounter();
+    @Probe
+    final MwCounter uncompressedBytes = newMwCounter();
+    @Probe
+    final MwCounter compressedBytes = newMwCounter();
+    @Probe
+    final MwCounter compressionTimeNanos = newMwCounter();
+    @Probe
+    final MwCounter decompressedPacketCount = newMwCounter();
+    @Probe
+    final MwCounter decompressionTimeNanos = newMwCounter();
+
+    /**
+     * Returns the ratio of the compressed to the uncompressed size of the compressed packets, in percent.
+     */
+    @Probe
+    public long compressionRatioPercent() {
+        long uncompressed = uncompressedBytes.get();
+        return uncompressed == 0 ? 0 : compressedBytes.get() * PERCENT / uncompressed;
+    }
+
+    public long getCompressedPacketCount() {
+        return compressedPacketCount.get();
+    }
+
+    public long getDecompressedPacketCount() {
+        return decompressedPacketCount.get();
+    }
+}
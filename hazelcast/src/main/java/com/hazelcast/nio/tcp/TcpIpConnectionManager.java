@@ -130,6 +130,8 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
     @Probe
     private final MwCounter closedCount = newMwCounter();
 
+    private final PacketCompressionStats packetCompressionStats = new PacketCompressionStats();
+
     private final ScheduledExecutorService scheduler
             = new ScheduledThreadPoolExecutor(4, new ThreadFactoryImpl("TcpIpConnectionManager-thread-"));
 
@@ -149,6 +151,11 @@ public class TcpIpConnectionManager implements ConnectionManager, PacketHandler
         this.socketChannelWrapperFactory = ioService.getSocketChannelWrapperFactory();
         this.metricsRegistry = metricsRegistry;
         metricsRegistry.scanAndRegister(this, "tcp.connection");
+        metricsRegistry.scanAndRegister(packetCompressionStats, "tcp.compression");
+    }
+
+    public PacketCompressionStats getPacketCompressionStats() {
+        return packetCompressionStats;
     }
 
     public IOService getIoService() {
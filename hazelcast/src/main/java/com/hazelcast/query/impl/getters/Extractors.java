@@ -17,6 +17,7 @@
 package com.hazelcast.query.impl.getters;
 
 import com.hazelcast.config.MapAttributeConfig;
+import com.hazelcast.core.HazelcastJsonValue;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.nio.serialization.Data;
 import com.hazelcast.nio.serialization.Portable;
@@ -28,6 +29,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+import static com.hazelcast.internal.serialization.impl.SerializationConstants.JAVASCRIPT_JSON_SERIALIZATION_TYPE;
 import static com.hazelcast.query.impl.getters.ExtractorHelper.extractArgumentsFromAttributeName;
 import static com.hazelcast.query.impl.getters.ExtractorHelper.extractAttributeNameNameWithoutArguments;
 
@@ -39,6 +41,7 @@ public final class Extractors {
     private static final float EVICTION_PERCENTAGE = 0.2f;
 
     private volatile PortableGetter genericPortableGetter;
+    private final JsonGetter jsonGetter = new JsonGetter();
 
     /**
      * Maps the extractorAttributeName WITHOUT the arguments to a ValueExtractor instance.
@@ -71,7 +74,7 @@ public final class Extractors {
     }
 
     /**
-     * @return Data (in this case it's portable) or Object (in this case it's non-portable)
+     * @return Data (in this case it's portable or JSON) or Object (in this case it's non-portable)
      */
     private static Object getTargetObject(InternalSerializationService serializationService, Object target) {
         Data targetData;
@@ -84,7 +87,7 @@ public final class Extractors {
 
         if (target instanceof Data) {
             targetData = (Data) target;
-            if (targetData.isPortable()) {
+            if (targetData.isPortable() || isJson(targetData)) {
                 return targetData;
             } else {
                 // convert non-portable Data to object
@@ -114,7 +117,10 @@ public final class Extractors {
             Object arguments = argumentsParser.parse(extractArgumentsFromAttributeName(attributeName));
             return new ExtractorGetter(serializationService, valueExtractor, arguments);
         } else {
-            if (targetObject instanceof Data) {
+            if (targetObject instanceof HazelcastJsonValue
+                    || targetObject instanceof Data && isJson((Data) targetObject)) {
+                return jsonGetter;
+            } else if (targetObject instanceof Data) {
                 if (genericPortableGetter == null) {
                     // will be initialised a couple of times in the worst case
                     genericPortableGetter = new PortableGetter(serializationService);
@@ -126,6 +132,13 @@ public final class Extractors {
         }
     }
 
+    /**
+     * Returns {@code true} if the given data is a serialized {@link HazelcastJsonValue}.
+     */
+    public static boolean isJson(Data data) {
+        return data.getType() == JAVASCRIPT_JSON_SERIALIZATION_TYPE;
+    }
+
     public static Extractors empty() {
         return new Extractors(Collections.<MapAttributeConfig>emptyList(), null);
     }
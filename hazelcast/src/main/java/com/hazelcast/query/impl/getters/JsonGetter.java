@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.getters;
+
+import com.hazelcast.core.HazelcastJsonValue;
+import com.hazelcast.nio.Bits;
+import com.hazelcast.nio.serialization.Data;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static com.hazelcast.internal.serialization.impl.HeapData.DATA_OFFSET;
+import static com.hazelcast.nio.Bits.INT_SIZE_IN_BYTES;
+
+/**
+ * Reads the fields of {@link HazelcastJsonValue}s, either from their serialized form or from the
+ * deserialized value, by using a {@link JsonNavigator}.
+ */
+final class JsonGetter extends Getter {
+
+    private static final int MAX_CACHED_PATHS = 1000;
+
+    /**
+     * The serialized form is the JSON string written by {@link com.hazelcast.nio.ObjectDataOutput#writeUTF(String)}:
+     * the char count followed by the encoded chars.
+     */
+    private static final int JSON_OFFSET = DATA_OFFSET + INT_SIZE_IN_BYTES;
+
+    private final ConcurrentMap<String, JsonNavigator.Path> paths = new ConcurrentHashMap<String, JsonNavigator.Path>();
+
+    JsonGetter() {
+        super(null);
+    }
+
+    @Override
+    Object getValue(Object target, String fieldPath) throws Exception {
+        JsonNavigator.Path path = getPath(fieldPath);
+        if (target instanceof Data) {
+            Data data = (Data) target;
+            byte[] bytes = data.toByteArray();
+            return new JsonNavigator(bytes, JSON_OFFSET, data.totalSize()).read(path);
+        }
+        byte[] bytes = target.toString().getBytes(Bits.UTF_8);
+        return new JsonNavigator(bytes, 0, bytes.length).read(path);
+    }
+
+    private JsonNavigator.Path getPath(String fieldPath) {
+        JsonNavigator.Path path = paths.get(fieldPath);
+        if (path == null) {
+            path = JsonNavigator.Path.parse(fieldPath);
+            if (paths.size() < MAX_CACHED_PATHS) {
+                paths.put(fieldPath, path);
+            }
+        }
+        return path;
+    }
+
+    @Override
+    Object getValue(Object obj) throws Exception {
+        throw new IllegalArgumentException("Path agnostic value extraction unsupported");
+    }
+
+    @Override
+    Class getReturnType() {
+        throw new IllegalArgumentException("Non applicable for JsonGetter");
+    }
+
+    @Override
+    boolean isCacheable() {
+        // Non-cacheable since it's a generic getter and the cache shouldn't be polluted with the same instance
+        // for various keys. A singleton should be used instead during getter creation.
+        return false;
+    }
+}
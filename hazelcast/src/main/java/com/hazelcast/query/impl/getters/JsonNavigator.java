@@ -0,0 +1,446 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.getters;
+
+import com.hazelcast.core.HazelcastJsonValue;
+import com.hazelcast.nio.Bits;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads a field of a JSON document directly from its UTF-8 encoded bytes.
+ * <p>
+ * The document is scanned once from the beginning: values which are not on the path are skipped
+ * by only tracking quotes and nesting, field names are compared as bytes and only the value at
+ * the end of the path is decoded. Nothing is allocated for the skipped parts of the document.
+ * <p>
+ * The path consists of field names separated by dots, array indexes like {@code items[1]} and
+ * {@code [any]} which reads the rest of the path from every element of an array into a {@link MultiResult}.
+ * <p>
+ * An instance is bound to a document and used by a single thread.
+ */
+final class JsonNavigator {
+
+    private static final int MAX_ASCII = 0x7F;
+    private static final int HEX_RADIX = 16;
+    private static final int UNICODE_ESCAPE_LENGTH = 4;
+    private static final int MASK_6_BITS = 0x3F;
+
+    private final byte[] bytes;
+    private final int end;
+    private int pos;
+
+    JsonNavigator(byte[] bytes, int offset, int end) {
+        this.bytes = bytes;
+        this.pos = offset;
+        this.end = end;
+    }
+
+    /**
+     * Reads the value at the given path.
+     *
+     * @return the value, {@code null} if the path doesn't exist or a {@link MultiResult} if the path
+     * contains {@code [any]}
+     */
+    Object read(Path path) {
+        if (path.hasAny) {
+            MultiResult<Object> result = new MultiResult<Object>();
+            collect(path, 0, result);
+            return result;
+        }
+        return navigate(path, 0) ? readValue() : null;
+    }
+
+    /**
+     * Moves to the value at the given path without [any] segments.
+     *
+     * @return {@code true} if the value exists, in this case the position is at the start of the value
+     */
+    private boolean navigate(Path path, int segmentIndex) {
+        if (!navigatePrefix(path, segmentIndex, path.segments.length)) {
+            return false;
+        }
+        skipWhitespace();
+        return pos < end;
+    }
+
+    private void collect(Path path, int segmentIndex, MultiResult<Object> result) {
+        int anyIndex = segmentIndex;
+        while (anyIndex < path.segments.length && !path.segments[anyIndex].any) {
+            anyIndex++;
+        }
+        if (anyIndex == path.segments.length) {
+            result.add(navigate(path, segmentIndex) ? readValue() : null);
+            return;
+        }
+        if (!navigatePrefix(path, segmentIndex, anyIndex)) {
+            return;
+        }
+        skipWhitespace();
+        if (pos >= end || bytes[pos] != '[') {
+            return;
+        }
+        pos++;
+        while (true) {
+            skipWhitespace();
+            if (pos >= end || bytes[pos] == ']') {
+                return;
+            }
+            int elementStart = pos;
+            collect(path, anyIndex + 1, result);
+            pos = elementStart;
+            skipValue();
+            if (!skipSeparator(']')) {
+                return;
+            }
+        }
+    }
+
+    private boolean navigatePrefix(Path path, int from, int to) {
+        for (int i = from; i < to; i++) {
+            Segment segment = path.segments[i];
+            boolean found = segment.name != null ? moveToField(segment) : moveToElement(segment.index);
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean moveToField(Segment segment) {
+        skipWhitespace();
+        if (pos >= end || bytes[pos] != '{') {
+            return false;
+        }
+        pos++;
+        while (true) {
+            skipWhitespace();
+            if (pos >= end || bytes[pos] != '"') {
+                return false;
+            }
+            boolean matches = matchFieldName(segment);
+            skipWhitespace();
+            if (pos >= end || bytes[pos] != ':') {
+                return false;
+            }
+            pos++;
+            if (matches) {
+                return true;
+            }
+            skipValue();
+            if (!skipSeparator('}')) {
+                return false;
+            }
+        }
+    }
+
+    private boolean moveToElement(int index) {
+        skipWhitespace();
+        if (pos >= end || bytes[pos] != '[') {
+            return false;
+        }
+        pos++;
+        for (int i = 0; ; i++) {
+            skipWhitespace();
+            if (pos >= end || bytes[pos] == ']') {
+                return false;
+            }
+            if (i == index) {
+                return true;
+            }
+            skipValue();
+            if (!skipSeparator(']')) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Skips a comma after a value.
+     *
+     * @return {@code true} if there is a next value, {@code false} if the closing character was reached
+     */
+    private boolean skipSeparator(char closing) {
+        skipWhitespace();
+        if (pos < end && bytes[pos] == ',') {
+            pos++;
+            return true;
+        }
+        if (pos < end && bytes[pos] == closing) {
+            pos++;
+        }
+        return false;
+    }
+
+    /**
+     * Compares the quoted field name at the current position with the name of the segment and moves after it.
+     */
+    private boolean matchFieldName(Segment segment) {
+        int start = pos + 1;
+        boolean escaped = skipString();
+        int length = pos - 1 - start;
+        if (escaped) {
+            return segment.name.equals(decodeString(start, pos - 1, true));
+        }
+        byte[] name = segment.nameBytes;
+        if (length != name.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (bytes[start + i] != name[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Object readValue() {
+        skipWhitespace();
+        byte b = bytes[pos];
+        int start = pos;
+        switch (b) {
+            case '"':
+                skipString();
+                return decodeString(start + 1, pos - 1, true);
+            case '{':
+            case '[':
+                skipValue();
+                // escape sequences are kept, so the nested document stays valid JSON
+                return new HazelcastJsonValue(decodeString(start, pos, false));
+            case 't':
+                skipValue();
+                return Boolean.TRUE;
+            case 'f':
+                skipValue();
+                return Boolean.FALSE;
+            case 'n':
+                skipValue();
+                return null;
+            default:
+                skipValue();
+                return readNumber(start, pos);
+        }
+    }
+
+    @SuppressWarnings("checkstyle:magicnumber")
+    private Object readNumber(int start, int stop) {
+        boolean negative = bytes[start] == '-';
+        long value = 0;
+        for (int i = negative ? start + 1 : start; i < stop; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                // fraction, exponent or out of long range
+                return Double.parseDouble(new String(bytes, start, stop - start, Bits.UTF_8));
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Skips the value at the current position.
+     */
+    private void skipValue() {
+        skipWhitespace();
+        if (pos >= end) {
+            return;
+        }
+        byte b = bytes[pos];
+        if (b == '"') {
+            skipString();
+        } else if (b == '{' || b == '[') {
+            int depth = 0;
+            while (pos < end) {
+                b = bytes[pos];
+                if (b == '"') {
+                    skipString();
+                    continue;
+                }
+                if (b == '{' || b == '[') {
+                    depth++;
+                } else if (b == '}' || b == ']') {
+                    depth--;
+                }
+                pos++;
+                if (depth == 0) {
+                    return;
+                }
+            }
+        } else {
+            while (pos < end) {
+                b = bytes[pos];
+                if (b == ',' || b == '}' || b == ']' || isWhitespace(b)) {
+                    return;
+                }
+                pos++;
+            }
+        }
+    }
+
+    /**
+     * Moves after the closing quote of the string at the current position.
+     *
+     * @return {@code true} if the string contains escape sequences
+     */
+    private boolean skipString() {
+        boolean escaped = false;
+        pos++;
+        while (pos < end) {
+            byte b = bytes[pos++];
+            if (b == '\\') {
+                escaped = true;
+                pos++;
+            } else if (b == '"') {
+                break;
+            }
+        }
+        return escaped;
+    }
+
+    private void skipWhitespace() {
+        while (pos < end && isWhitespace(bytes[pos])) {
+            pos++;
+        }
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    /**
+     * Decodes the UTF-8 encoded bytes between the given positions.
+     *
+     * @param unescape {@code true} if the JSON escape sequences should be resolved
+     */
+    @SuppressWarnings({"checkstyle:cyclomaticcomplexity", "checkstyle:npathcomplexity", "checkstyle:magicnumber"})
+    private String decodeString(int start, int stop, boolean unescape) {
+        StringBuilder sb = new StringBuilder(stop - start);
+        int i = start;
+        while (i < stop) {
+            int b = bytes[i++] & 0xFF;
+            if (unescape && b == '\\' && i < stop) {
+                char escape = (char) bytes[i++];
+                switch (escape) {
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'u':
+                        sb.append((char) Integer.parseInt(
+                                new String(bytes, i, UNICODE_ESCAPE_LENGTH, Bits.UTF_8), HEX_RADIX));
+                        i += UNICODE_ESCAPE_LENGTH;
+                        break;
+                    default:
+                        sb.append(escape);
+                }
+            } else if (b <= MAX_ASCII) {
+                sb.append((char) b);
+            } else if (b >> 5 == 0x06) {
+                sb.append((char) (((b & 0x1F) << 6) | (bytes[i++] & MASK_6_BITS)));
+            } else if (b >> 4 == 0x0E) {
+                sb.append((char) (((b & 0x0F) << 12) | ((bytes[i++] & MASK_6_BITS) << 6) | (bytes[i++] & MASK_6_BITS)));
+            } else {
+                int codePoint = ((b & 0x07) << 18) | ((bytes[i++] & MASK_6_BITS) << 12)
+                        | ((bytes[i++] & MASK_6_BITS) << 6) | (bytes[i++] & MASK_6_BITS);
+                sb.appendCodePoint(codePoint);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Parsed form of an attribute path, immutable and shared between threads.
+     */
+    static final class Path {
+
+        private final Segment[] segments;
+        private final boolean hasAny;
+
+        private Path(Segment[] segments, boolean hasAny) {
+            this.segments = segments;
+            this.hasAny = hasAny;
+        }
+
+        static Path parse(String attributePath) {
+            List<Segment> segments = new ArrayList<Segment>();
+            boolean hasAny = false;
+            for (String part : attributePath.split("\\.")) {
+                int bracket = part.indexOf('[');
+                String name = bracket == -1 ? part : part.substring(0, bracket);
+                if (!name.isEmpty()) {
+                    segments.add(new Segment(name, -1, false));
+                }
+                while (bracket != -1) {
+                    int closing = part.indexOf(']', bracket);
+                    if (closing == -1) {
+                        throw new IllegalArgumentException("Missing ']' in attribute path: " + attributePath);
+                    }
+                    String index = part.substring(bracket + 1, closing).trim();
+                    if ("any".equals(index)) {
+                        segments.add(new Segment(null, -1, true));
+                        hasAny = true;
+                    } else {
+                        segments.add(new Segment(null, Integer.parseInt(index), false));
+                    }
+                    bracket = part.indexOf('[', closing);
+                }
+            }
+            return new Path(segments.toArray(new Segment[0]), hasAny);
+        }
+    }
+
+    private static final class Segment {
+
+        private final String name;
+        private final byte[] nameBytes;
+        private final int index;
+        private final boolean any;
+
+        private Segment(String name, int index, boolean any) {
+            this.name = name;
+            this.nameBytes = name == null ? null : encode(name);
+            this.index = index;
+            this.any = any;
+        }
+
+        /**
+         * Encodes the name in the same way as {@link com.hazelcast.nio.ObjectDataOutput#writeUTF(String)}.
+         */
+        private static byte[] encode(String name) {
+            byte[] buffer = new byte[name.length() * 3];
+            int length = 0;
+            for (int i = 0; i < name.length(); i++) {
+                length += Bits.writeUtf8Char(buffer, length, name.charAt(i));
+            }
+            byte[] encoded = new byte[length];
+            System.arraycopy(buffer, 0, encoded, 0, length);
+            return encoded;
+        }
+    }
+}
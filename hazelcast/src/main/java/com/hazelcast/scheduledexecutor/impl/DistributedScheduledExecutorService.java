@@ -17,6 +17,7 @@
 package com.hazelcast.scheduledexecutor.impl;
 
 import com.hazelcast.core.DistributedObject;
+import com.hazelcast.instance.HazelcastThreadGroup;
 import com.hazelcast.spi.ManagedService;
 import com.hazelcast.spi.MigrationAwareService;
 import com.hazelcast.spi.NodeEngine;
@@ -24,14 +25,22 @@ import com.hazelcast.spi.Operation;
 import com.hazelcast.spi.PartitionMigrationEvent;
 import com.hazelcast.spi.PartitionReplicationEvent;
 import com.hazelcast.spi.RemoteService;
+import com.hazelcast.spi.impl.NodeEngineImpl;
 import com.hazelcast.spi.impl.executionservice.InternalExecutionService;
 import com.hazelcast.spi.partition.MigrationEndpoint;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.util.executor.SingleExecutorThreadFactory;
 
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static com.hazelcast.spi.properties.GroupProperty.SCHEDULED_EXECUTOR_TIMING_WHEEL_BATCH_SIZE;
+import static com.hazelcast.spi.properties.GroupProperty.SCHEDULED_EXECUTOR_TIMING_WHEEL_ENABLED;
+import static com.hazelcast.spi.properties.GroupProperty.SCHEDULED_EXECUTOR_TIMING_WHEEL_SIZE;
+import static com.hazelcast.spi.properties.GroupProperty.SCHEDULED_EXECUTOR_TIMING_WHEEL_TICK_MILLIS;
+
 /**
  * Scheduled executor service, middle-man responsible for managing Scheduled Executor containers.
  */
@@ -48,6 +57,9 @@ public class DistributedScheduledExecutorService
 
     private ScheduledExecutorMemberBin memberBin;
 
+    // null unless the timing wheel backend is enabled
+    private volatile HashedWheelTaskScheduler timingWheel;
+
     private final ConcurrentMap<String, Boolean> shutdownExecutors
             = new ConcurrentHashMap<String, Boolean>();
 
@@ -80,10 +92,19 @@ public class DistributedScheduledExecutorService
         return nodeEngine;
     }
 
+    /**
+     * Returns the timing wheel the tasks are scheduled on, or {@code null} if the tasks are scheduled
+     * on the scheduled durable executors of the {@link InternalExecutionService}.
+     */
+    HashedWheelTaskScheduler getTimingWheel() {
+        return timingWheel;
+    }
+
     @Override
     public void reset() {
         shutdown(true);
 
+        timingWheel = createTimingWheel();
         memberBin = new ScheduledExecutorMemberBin(nodeEngine);
 
         for (int partitionId = 0; partitionId < partitions.length; partitionId++) {
@@ -94,10 +115,32 @@ public class DistributedScheduledExecutorService
         }
     }
 
+    private HashedWheelTaskScheduler createTimingWheel() {
+        HazelcastProperties properties = nodeEngine.getProperties();
+        if (!properties.getBoolean(SCHEDULED_EXECUTOR_TIMING_WHEEL_ENABLED)) {
+            return null;
+        }
+
+        HazelcastThreadGroup threadGroup = ((NodeEngineImpl) nodeEngine).getNode().getHazelcastThreadGroup();
+        HashedWheelTaskScheduler wheel = new HashedWheelTaskScheduler(
+                new SingleExecutorThreadFactory(threadGroup, "scheduled.wheel"),
+                properties.getMillis(SCHEDULED_EXECUTOR_TIMING_WHEEL_TICK_MILLIS),
+                properties.getInteger(SCHEDULED_EXECUTOR_TIMING_WHEEL_SIZE),
+                properties.getInteger(SCHEDULED_EXECUTOR_TIMING_WHEEL_BATCH_SIZE),
+                nodeEngine.getLogger(HashedWheelTaskScheduler.class));
+        wheel.start();
+        return wheel;
+    }
+
     @Override
     public void shutdown(boolean terminate) {
         shutdownExecutors.clear();
 
+        if (timingWheel != null) {
+            timingWheel.shutdown();
+            timingWheel = null;
+        }
+
         if (memberBin != null) {
             memberBin.destroy();
          }
@@ -0,0 +1,649 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.scheduledexecutor.impl;
+
+import com.hazelcast.logging.ILogger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.hazelcast.util.Preconditions.checkNotNull;
+import static com.hazelcast.util.Preconditions.checkPositive;
+import static com.hazelcast.util.QuickMath.nextPowerOfTwo;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * A hashed timing wheel scheduling the tasks of the scheduled executors of a member.
+ * <p>
+ * The wheel is an array of buckets, each one covering a tick. A scheduled task is linked into the bucket of its
+ * deadline and counts the turns of the wheel left until it expires, so scheduling and cancelling a task is O(1)
+ * regardless of the count of scheduled tasks, and a task is a single {@link WheelTask} which is also its future.
+ * <p>
+ * A single worker thread advances the wheel once per tick. Each task which expired in a tick is handed to the
+ * executor of its scheduler, so the tasks run in parallel on the threads of the executors. With a batch size above 1,
+ * the tasks of an executor which expired in the same tick are handed to it in batches run one after the other
+ * on a single thread, which saves submissions at the cost of parallelism.
+ * A task never fires before its deadline but it may fire up to a tick late.
+ * <p>
+ * New and cancelled tasks are queued for the worker thread, which is the only thread touching the buckets.
+ * When the scheduler is shut down, the tasks which didn't fire yet are cancelled.
+ */
+final class HashedWheelTaskScheduler {
+
+    private static final int MAX_TRANSFERS_PER_TICK = 100000;
+
+    private final ILogger logger;
+    private final long tickNanos;
+    private final int mask;
+    private final WheelTask<?>[] buckets;
+    private final int batchSize;
+    private final Queue<WheelTask<?>> pendingTasks = new ConcurrentLinkedQueue<WheelTask<?>>();
+    private final Queue<WheelTask<?>> cancelledTasks = new ConcurrentLinkedQueue<WheelTask<?>>();
+    // only accessed by the worker thread
+    private final List<WheelTask<?>> expiredTasks = new ArrayList<WheelTask<?>>();
+    private final Thread worker;
+    private final long startNanos;
+
+    private volatile boolean shutdown;
+    // only accessed by the worker thread
+    private long tick;
+
+    HashedWheelTaskScheduler(ThreadFactory threadFactory, long tickMillis, int wheelSize, int batchSize, ILogger logger) {
+        checkPositive(tickMillis, "tickMillis should be positive");
+        checkPositive(wheelSize, "wheelSize should be positive");
+        this.batchSize = checkPositive(batchSize, "batchSize should be positive");
+        this.logger = logger;
+        this.tickNanos = MILLISECONDS.toNanos(tickMillis);
+        this.buckets = new WheelTask<?>[nextPowerOfTwo(wheelSize)];
+        this.mask = buckets.length - 1;
+        this.startNanos = System.nanoTime();
+        this.worker = threadFactory.newThread(new Worker());
+    }
+
+    void start() {
+        worker.start();
+    }
+
+    /**
+     * Shuts this scheduler down. The worker thread stops advancing the wheel and cancels the tasks which didn't
+     * fire yet, the tasks which are scheduled afterwards are rejected.
+     */
+    void shutdown() {
+        shutdown = true;
+        LockSupport.unpark(worker);
+    }
+
+    /**
+     * Schedules a one-shot task.
+     *
+     * @param command  the task to run
+     * @param executor the executor to run the task on
+     * @param delay    the delay of the task
+     * @param unit     the unit of the delay
+     * @return the future of the task, completed with the result of the task
+     * @throws RejectedExecutionException if this scheduler is shut down
+     */
+    <V> ScheduledFuture<V> schedule(Callable<V> command, Executor executor, long delay, TimeUnit unit) {
+        checkNotNull(command, "command can't be null");
+        return schedule(new CommandTask<V>(command, executor, 0), delay, unit);
+    }
+
+    /**
+     * Schedules a periodic task. A run of the task is skipped if the previous run is still in progress. If a run
+     * fails, the next runs are suppressed and the future is completed with the failure.
+     *
+     * @param command      the task to run
+     * @param executor     the executor to run the task on
+     * @param initialDelay the delay of the first run
+     * @param period       the period between the starts of the runs
+     * @param unit         the unit of the delay and the period
+     * @return the future of the task, which is only completed when the task is cancelled or a run fails
+     * @throws RejectedExecutionException if this scheduler is shut down
+     */
+    ScheduledFuture<?> scheduleAtFixedRate(Runnable command, Executor executor, long initialDelay, long period,
+                                           TimeUnit unit) {
+        checkNotNull(command, "command can't be null");
+        checkPositive(period, "period should be positive");
+        return schedule(new CommandTask<Object>(command, executor, unit.toNanos(period)), initialDelay, unit);
+    }
+
+    /**
+     * Schedules a task, which is its own future. A task can only be scheduled once.
+     *
+     * @param task  the task to schedule
+     * @param delay the delay of the task, or of its first run for a periodic task
+     * @param unit  the unit of the delay
+     * @return the task
+     * @throws RejectedExecutionException if this scheduler is shut down
+     */
+    <V> WheelTask<V> schedule(WheelTask<V> task, long delay, TimeUnit unit) {
+        checkNotNull(task, "task can't be null");
+        if (task.scheduler != null) {
+            throw new IllegalStateException("Task is already scheduled: " + task);
+        }
+        if (shutdown) {
+            throw new RejectedExecutionException("Scheduler is shut down");
+        }
+        task.scheduler = this;
+        task.deadlineNanos = System.nanoTime() + unit.toNanos(Math.max(delay, 0));
+        pendingTasks.offer(task);
+        if (shutdown) {
+            // the worker may have cancelled the pending tasks before this one has been queued
+            task.cancel(false);
+        }
+        return task;
+    }
+
+    private boolean waitForNextTick() {
+        long deadline = startNanos + tickNanos * (tick + 1);
+        for (; ; ) {
+            if (shutdown) {
+                return false;
+            }
+            long sleepNanos = deadline - System.nanoTime();
+            if (sleepNanos <= 0) {
+                return true;
+            }
+            LockSupport.parkNanos(sleepNanos);
+        }
+    }
+
+    private void removeCancelledTasks() {
+        for (; ; ) {
+            WheelTask<?> task = cancelledTasks.poll();
+            if (task == null) {
+                return;
+            }
+            unlink(task);
+        }
+    }
+
+    private void transferPendingTasks() {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            WheelTask<?> task = pendingTasks.poll();
+            if (task == null) {
+                return;
+            }
+            if (!task.isCancelled()) {
+                link(task, tick);
+            }
+        }
+    }
+
+    /**
+     * Links the task into the bucket of its deadline.
+     *
+     * @param task     the task to link
+     * @param fromTick the first tick whose bucket is still to be expired, an overdue task expires in this tick
+     */
+    private void link(WheelTask<?> task, long fromTick) {
+        long deadlineTicks = (task.deadlineNanos - startNanos) / tickNanos;
+        long targetTick = Math.max(deadlineTicks, fromTick);
+        task.remainingRounds = (targetTick - fromTick) / buckets.length;
+        int index = (int) (targetTick & mask);
+
+        WheelTask<?> head = buckets[index];
+        task.bucket = index;
+        task.prev = null;
+        task.next = head;
+        if (head != null) {
+            head.prev = task;
+        }
+        buckets[index] = task;
+    }
+
+    private void unlink(WheelTask<?> task) {
+        if (task.bucket < 0) {
+            return;
+        }
+        if (task.prev == null) {
+            buckets[task.bucket] = task.next;
+        } else {
+            task.prev.next = task.next;
+        }
+        if (task.next != null) {
+            task.next.prev = task.prev;
+        }
+        task.bucket = -1;
+        task.prev = null;
+        task.next = null;
+    }
+
+    private void expireBucket(int index) {
+        WheelTask<?> task = buckets[index];
+        while (task != null) {
+            WheelTask<?> next = task.next;
+            if (task.remainingRounds <= 0) {
+                unlink(task);
+                expiredTasks.add(task);
+            } else {
+                task.remainingRounds--;
+            }
+            task = next;
+        }
+    }
+
+    private void fireExpiredTasks() {
+        int expiredCount = expiredTasks.size();
+        Batch batch = null;
+        for (int i = 0; i < expiredCount; i++) {
+            WheelTask<?> task = expiredTasks.get(i);
+            try {
+                batch = fire(task, batch, expiredCount - i);
+            } catch (Throwable t) {
+                // a task failing to fire is completed with the failure instead of being lost
+                logger.warning("Failed to fire scheduled task " + task, t);
+                task.onSubmitFailure(t);
+            }
+        }
+        if (batch != null) {
+            submit(batch);
+        }
+        expiredTasks.clear();
+    }
+
+    /**
+     * Fires an expired task, either directly or by adding it to the batch of its executor.
+     *
+     * @param task           the expired task
+     * @param batch          the batch which is being filled, or {@code null}
+     * @param remainingCount the count of expired tasks left to fire, including this one
+     * @return the batch which is being filled after firing the task, or {@code null}
+     */
+    private Batch fire(WheelTask<?> task, Batch batch, int remainingCount) {
+        if (task.isPeriodic() && !task.isDone()) {
+            task.deadlineNanos = task.deadlineNanos + task.periodNanos;
+            // the bucket of the current tick is already expired, so an overdue run expires in the next tick
+            link(task, tick + 1);
+        }
+        if (!task.beforeFire()) {
+            return batch;
+        }
+
+        if (batchSize == 1) {
+            submit(task);
+            return null;
+        }
+        Batch current = batch;
+        if (current == null || current.executor != task.executor || current.size == current.tasks.length) {
+            // allocated before the previous batch is submitted, so a failure can't leave a submitted batch behind
+            current = new Batch(task.executor, Math.min(batchSize, remainingCount));
+            if (batch != null) {
+                submit(batch);
+            }
+        }
+        current.tasks[current.size++] = task;
+        return current;
+    }
+
+    private void submit(WheelTask<?> task) {
+        Throwable failure = execute(task.executor, task);
+        if (failure != null) {
+            task.onSubmitFailure(failure);
+        }
+    }
+
+    private void submit(Batch batch) {
+        Throwable failure = execute(batch.executor, batch.size == 1 ? batch.tasks[0] : batch);
+        if (failure != null) {
+            for (int i = 0; i < batch.size; i++) {
+                batch.tasks[i].onSubmitFailure(failure);
+            }
+        }
+    }
+
+    /**
+     * Hands fired tasks to their executor.
+     *
+     * @return {@code null} if the executor took the tasks, otherwise its failure
+     */
+    private Throwable execute(Executor executor, Runnable runnable) {
+        try {
+            executor.execute(runnable);
+            return null;
+        } catch (RejectedExecutionException e) {
+            if (logger.isFinestEnabled()) {
+                logger.finest("Scheduled tasks rejected by their executor: " + e.getMessage());
+            }
+            return e;
+        } catch (Throwable t) {
+            logger.warning("Failed to submit scheduled tasks to their executor", t);
+            return t;
+        }
+    }
+
+    private void cancelRemainingTasks() {
+        for (WheelTask<?> task : expiredTasks) {
+            task.cancel(false);
+        }
+        expiredTasks.clear();
+        for (int i = 0; i < buckets.length; i++) {
+            WheelTask<?> task = buckets[i];
+            while (task != null) {
+                WheelTask<?> next = task.next;
+                unlink(task);
+                task.cancel(false);
+                task = next;
+            }
+        }
+        for (; ; ) {
+            WheelTask<?> task = pendingTasks.poll();
+            if (task == null) {
+                break;
+            }
+            task.cancel(false);
+        }
+        cancelledTasks.clear();
+    }
+
+    private final class Worker implements Runnable {
+
+        @Override
+        public void run() {
+            while (waitForNextTick()) {
+                try {
+                    removeCancelledTasks();
+                    transferPendingTasks();
+                    expireBucket((int) (tick & mask));
+                    fireExpiredTasks();
+                } catch (Throwable t) {
+                    // the expired tasks which weren't fired yet are kept, so they are fired in the next tick
+                    logger.severe("Failed to advance the scheduled task timing wheel", t);
+                }
+                tick++;
+            }
+            cancelRemainingTasks();
+        }
+    }
+
+    /**
+     * The tasks of an executor which expired in the same tick, run one after the other.
+     */
+    private static final class Batch implements Runnable {
+
+        private final Executor executor;
+        private final WheelTask<?>[] tasks;
+        private int size;
+
+        Batch(Executor executor, int capacity) {
+            this.executor = executor;
+            this.tasks = new WheelTask<?>[capacity];
+        }
+
+        @Override
+        public void run() {
+            for (int i = 0; i < size; i++) {
+                tasks[i].run();
+            }
+        }
+    }
+
+    /**
+     * A task scheduled on the wheel and its future. Subclasses implement {@link #call()}, so a task only costs
+     * a single object on the wheel.
+     * <p>
+     * The task can't be interrupted: a running one-shot task can't be cancelled, cancelling a running periodic task
+     * only prevents its next runs. As with {@link java.util.concurrent.ScheduledExecutorService#scheduleAtFixedRate},
+     * a failed run of a periodic task completes the future with the failure and suppresses the next runs.
+     *
+     * @param <V> the type of the result of the task
+     */
+    abstract static class WheelTask<V> implements ScheduledFuture<V>, Runnable {
+
+        private static final int IDLE = 0;
+        private static final int RUNNING = 1;
+        private static final int DONE = 2;
+        private static final int CANCELLED = 3;
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<WheelTask> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(WheelTask.class, "state");
+
+        private final Executor executor;
+        private final long periodNanos;
+
+        // set when the task is scheduled
+        private volatile HashedWheelTaskScheduler scheduler;
+        private volatile long deadlineNanos;
+        private volatile int state;
+
+        // published by the write of the state
+        private V result;
+        private Throwable failure;
+
+        // only accessed by the worker thread
+        private long remainingRounds;
+        private int bucket = -1;
+        private WheelTask<?> prev;
+        private WheelTask<?> next;
+
+        /**
+         * @param executor    the executor to run the task on
+         * @param periodNanos the period between the starts of the runs of a periodic task, 0 for a one-shot task
+         */
+        WheelTask(Executor executor, long periodNanos) {
+            this.executor = checkNotNull(executor, "executor can't be null");
+            this.periodNanos = periodNanos;
+        }
+
+        /**
+         * Runs the command of the task. The result of a run of a periodic task is ignored.
+         */
+        abstract V call() throws Exception;
+
+        boolean isPeriodic() {
+            return periodNanos > 0;
+        }
+
+        /**
+         * Called by the worker thread when the task expired.
+         *
+         * @return {@code true} if the task should be run, {@code false} if it was cancelled or, for a periodic
+         * task, its previous run is still in progress
+         */
+        boolean beforeFire() {
+            if (isPeriodic()) {
+                return STATE.compareAndSet(this, IDLE, RUNNING);
+            }
+            return state == IDLE;
+        }
+
+        /**
+         * Called by the worker thread when the task fired but couldn't be handed to its executor.
+         */
+        void onSubmitFailure(Throwable t) {
+            if (isPeriodic()) {
+                STATE.compareAndSet(this, RUNNING, IDLE);
+            } else if (STATE.compareAndSet(this, IDLE, RUNNING)) {
+                failure = t;
+                complete(DONE);
+            }
+        }
+
+        @Override
+        public void run() {
+            if (isPeriodic()) {
+                try {
+                    call();
+                } catch (Throwable t) {
+                    // the task stays linked until its next expiry, where it is dropped since it is done
+                    failure = t;
+                    if (STATE.compareAndSet(this, RUNNING, DONE)) {
+                        synchronized (this) {
+                            notifyAll();
+                        }
+                    }
+                    return;
+                }
+                STATE.compareAndSet(this, RUNNING, IDLE);
+                return;
+            }
+
+            if (!STATE.compareAndSet(this, IDLE, RUNNING)) {
+                return;
+            }
+            try {
+                result = call();
+            } catch (Throwable t) {
+                failure = t;
+            }
+            complete(DONE);
+        }
+
+        private void complete(int newState) {
+            state = newState;
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            for (; ; ) {
+                int current = state;
+                if (current == DONE || current == CANCELLED || (current == RUNNING && !isPeriodic())) {
+                    return false;
+                }
+                if (STATE.compareAndSet(this, current, CANCELLED)) {
+                    break;
+                }
+            }
+            HashedWheelTaskScheduler scheduler = this.scheduler;
+            if (scheduler != null) {
+                scheduler.cancelledTasks.offer(this);
+            }
+            synchronized (this) {
+                notifyAll();
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state == CANCELLED;
+        }
+
+        @Override
+        public boolean isDone() {
+            return state >= DONE;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(deadlineNanos - System.nanoTime(), NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            if (o == this) {
+                return 0;
+            }
+            long diff = getDelay(NANOSECONDS) - o.getDelay(NANOSECONDS);
+            return diff < 0 ? -1 : (diff > 0 ? 1 : 0);
+        }
+
+        @Override
+        public V get() throws InterruptedException, ExecutionException {
+            synchronized (this) {
+                while (state < DONE) {
+                    wait();
+                }
+            }
+            return report();
+        }
+
+        @Override
+        public V get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            long deadline = System.nanoTime() + unit.toNanos(timeout);
+            synchronized (this) {
+                while (state < DONE) {
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        throw new TimeoutException();
+                    }
+                    NANOSECONDS.timedWait(this, remainingNanos);
+                }
+            }
+            return report();
+        }
+
+        private V report() throws ExecutionException {
+            if (state == CANCELLED) {
+                throw new CancellationException();
+            }
+            if (failure != null) {
+                throw new ExecutionException(failure);
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return getClass().getSimpleName() + "{"
+                    + "periodNanos=" + periodNanos
+                    + ", state=" + state
+                    + '}';
+        }
+    }
+
+    /**
+     * A task running a {@link Callable} once or a {@link Runnable} periodically.
+     */
+    private static final class CommandTask<V> extends WheelTask<V> {
+
+        private final Object command;
+
+        CommandTask(Object command, Executor executor, long periodNanos) {
+            super(executor, periodNanos);
+            this.command = command;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        V call() throws Exception {
+            if (isPeriodic()) {
+                ((Runnable) command).run();
+                return null;
+            }
+            return ((Callable<V>) command).call();
+        }
+
+        @Override
+        public String toString() {
+            return "CommandTask{"
+                    + "command=" + command
+                    + ", periodic=" + isPeriodic()
+                    + ", done=" + isDone()
+                    + '}';
+        }
+    }
+}
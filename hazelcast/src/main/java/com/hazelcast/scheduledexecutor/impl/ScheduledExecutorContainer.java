@@ -37,6 +37,7 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -319,7 +320,7 @@ public class ScheduledExecutorContainer {
 
     /**
      * State is published after every run.
-     * When replicas get promoted, they start of, with the latest state see {@link TaskRunner#initOnce()}
+     * When replicas get promoted, they start of, with the latest state see {@link #initOnce(ScheduledTaskDescriptor)}
      */
     protected void publishTaskState(String taskName, Map stateSnapshot, ScheduledTaskStatisticsImpl statsSnapshot,
                                     ScheduledTaskResult result) {
@@ -342,6 +343,13 @@ public class ScheduledExecutorContainer {
     private <V> void doSchedule(ScheduledTaskDescriptor descriptor) {
         assert descriptor.getScheduledFuture() == null;
         TaskDefinition definition = descriptor.getDefinition();
+        descriptor.setStateLoaded(false);
+
+        HashedWheelTaskScheduler timingWheel = getTimingWheel();
+        if (timingWheel != null) {
+            doScheduleOnTimingWheel(timingWheel, descriptor);
+            return;
+        }
 
         ScheduledFuture future;
         TaskRunner<V> runner;
@@ -366,30 +374,131 @@ public class ScheduledExecutorContainer {
         descriptor.setScheduledFuture(future);
     }
 
+    private <V> void doScheduleOnTimingWheel(HashedWheelTaskScheduler timingWheel, ScheduledTaskDescriptor descriptor) {
+        TaskDefinition definition = descriptor.getDefinition();
+        Executor executor = executionService.getScheduledDurable(name);
+
+        long periodNanos;
+        switch (definition.getType()) {
+            case SINGLE_RUN:
+                periodNanos = 0;
+                break;
+            case AT_FIXED_RATE:
+                periodNanos = definition.getUnit().toNanos(definition.getPeriod());
+                break;
+            default:
+                throw new IllegalArgumentException();
+        }
+
+        WheelTaskRunner<V> runner = new WheelTaskRunner<V>(descriptor, executor, periodNanos);
+        timingWheel.schedule(runner, definition.getInitialDelay(), definition.getUnit());
+
+        descriptor.setTaskOwner(true);
+        descriptor.setScheduledFuture(runner);
+    }
+
+    private HashedWheelTaskScheduler getTimingWheel() {
+        DistributedScheduledExecutorService service = nodeEngine.getService(SERVICE_NAME);
+        return service.getTimingWheel();
+    }
+
     private void checkNotStaleTask(String taskName) {
         if (!has(taskName)) {
             throw new StaleTaskException("Task with name " + taskName + " not found. ");
         }
     }
 
-    private class TaskRunner<V> implements Callable<V>, Runnable {
+    private <V> V runTask(ScheduledTaskDescriptor descriptor, ScheduledTaskStatisticsImpl statistics)
+            throws Exception {
+        TaskDefinition<V> definition = descriptor.getDefinition();
+        String taskName = definition.getName();
+        ScheduledTaskResult resolution = null;
+
+        beforeRun(descriptor, statistics);
+        try {
+            V result = definition.getCommand().call();
+            if (SINGLE_RUN.equals(definition.getType())) {
+                resolution = new ScheduledTaskResult(result);
+            }
+            return result;
+        } catch (Throwable t) {
+            logger.warning("Exception occurred during scheduled task run phase", t);
+            resolution = new ScheduledTaskResult(t);
+            throw rethrow(t);
+        } finally {
+            afterRun(taskName, definition.getCommand(), statistics, resolution);
+        }
+    }
 
-        private final String taskName;
+    private void initOnce(ScheduledTaskDescriptor descriptor) {
+        if (descriptor.isStateLoaded()) {
+            return;
+        }
 
-        private final Callable<V> original;
+        Callable original = descriptor.getDefinition().getCommand();
+        Map snapshot = descriptor.getState();
+        if (original instanceof StatefulTask && !snapshot.isEmpty()) {
+            ((StatefulTask) original).load(snapshot);
+        }
 
-        private final ScheduledTaskDescriptor descriptor;
+        descriptor.setStateLoaded(true);
+    }
 
-        private final ScheduledTaskStatisticsImpl statistics;
+    private void beforeRun(ScheduledTaskDescriptor descriptor, ScheduledTaskStatisticsImpl statistics) {
+        String taskName = descriptor.getDefinition().getName();
+        if (logger.isFinestEnabled()) {
+            logger.finest("[Scheduler: " + name + "][Partition: " + partitionId + "][Task: " + taskName + "] "
+                    + "Entering running mode.");
+        }
+
+        try {
+            initOnce(descriptor);
+            statistics.onBeforeRun();
+        } catch (Exception ex) {
+            logger.warning("[Scheduler: " + name + "][Partition: " + partitionId + "][Task: " + taskName + "] "
+                    + "Unexpected exception during beforeRun occurred: ", ex);
+        }
+    }
+
+    private void afterRun(String taskName, Callable original, ScheduledTaskStatisticsImpl statistics,
+                          ScheduledTaskResult resolution) {
+        try {
+            statistics.onAfterRun();
 
-        private boolean initted;
+            Map state = new HashMap();
+            if (original instanceof StatefulTask) {
+                ((StatefulTask) original).save(state);
+            }
 
-        private ScheduledTaskResult resolution;
+            publishTaskState(taskName, state, statistics, resolution);
+        } catch (Exception ex) {
+            logger.warning("[Scheduler: " + name + "][Partition: " + partitionId + "][Task: " + taskName + "] "
+                    + "Unexpected exception during afterRun occurred: ", ex);
+        } finally {
+            notifyResultReady(taskName);
+        }
+
+        if (logger.isFinestEnabled()) {
+            logger.finest("[Scheduler: " + name + "][Partition: " + partitionId + "][Task: " + taskName + "] "
+                    + "Exiting running mode.");
+        }
+    }
+
+    private void notifyResultReady(String taskName) {
+        Operation op = new ResultReadyNotifyOperation(offprintHandler(taskName));
+        createInvocationBuilder(op)
+                .setCallTimeout(Long.MAX_VALUE)
+                .invoke();
+    }
+
+    private class TaskRunner<V> implements Callable<V>, Runnable {
+
+        private final ScheduledTaskDescriptor descriptor;
+
+        private final ScheduledTaskStatisticsImpl statistics;
 
         TaskRunner(ScheduledTaskDescriptor descriptor) {
             this.descriptor = descriptor;
-            this.original = descriptor.getDefinition().getCommand();
-            this.taskName = descriptor.getDefinition().getName();
             this.statistics = descriptor.getStatsSnapshot();
             statistics.onInit();
         }
@@ -397,20 +506,7 @@ public class ScheduledExecutorContainer {
         @Override
         public V call()
                 throws Exception {
-            beforeRun();
-            try {
-                V result = original.call();
-                if (SINGLE_RUN.equals(descriptor.getDefinition().getType())) {
-                    resolution = new ScheduledTaskResult(result);
-                }
-                return result;
-            } catch (Throwable t) {
-                logger.warning("Exception occurred during scheduled task run phase", t);
-                resolution = new ScheduledTaskResult(t);
-                throw rethrow(t);
-            } finally {
-                afterRun();
-            }
+            return runTask(descriptor, statistics);
         }
 
         @Override
@@ -421,65 +517,29 @@ public class ScheduledExecutorContainer {
                 throw rethrow(e);
             }
         }
+    }
 
-        private void initOnce() {
-            if (initted) {
-                return;
-            }
-
-            Map snapshot = descriptor.getState();
-            if (original instanceof StatefulTask && !snapshot.isEmpty()) {
-                ((StatefulTask) original).load(snapshot);
-            }
-
-            initted = true;
-        }
-
-        private void beforeRun() {
-            if (logger.isFinestEnabled()) {
-                logger.finest("[Scheduler: " + name + "][Partition: " + partitionId + "][Task: " + taskName + "] "
-                        + "Entering running mode.");
-            }
-
-            try {
-                initOnce();
-                statistics.onBeforeRun();
-            } catch (Exception ex) {
-                logger.warning("[Scheduler: " + name + "][Partition: " + partitionId + "][Task: " + taskName + "] "
-                        + "Unexpected exception during beforeRun occurred: ", ex);
-            }
-        }
-
-        private void afterRun() {
-            try {
-                statistics.onAfterRun();
+    /**
+     * Runs a task scheduled on the timing wheel, the runner is the task on the wheel and its future.
+     */
+    private final class WheelTaskRunner<V> extends HashedWheelTaskScheduler.WheelTask<V> {
 
-                Map state = new HashMap();
-                if (original instanceof StatefulTask) {
-                    ((StatefulTask) original).save(state);
-                }
+        private final ScheduledTaskDescriptor descriptor;
 
-                publishTaskState(taskName, state, statistics, resolution);
-            } catch (Exception ex) {
-                logger.warning("[Scheduler: " + name + "][Partition: " + partitionId + "][Task: " + taskName + "] "
-                        + "Unexpected exception during afterRun occurred: ", ex);
-            } finally {
-                notifyResultReady();
-            }
+        private final ScheduledTaskStatisticsImpl statistics;
 
-            if (logger.isFinestEnabled()) {
-                logger.finest("[Scheduler: " + name + "][Partition: " + partitionId + "][Task: " + taskName + "] "
-                        + "Exiting running mode.");
-            }
+        WheelTaskRunner(ScheduledTaskDescriptor descriptor, Executor executor, long periodNanos) {
+            super(executor, periodNanos);
+            this.descriptor = descriptor;
+            this.statistics = descriptor.getStatsSnapshot();
+            statistics.onInit();
         }
 
-        private void notifyResultReady() {
-            Operation op = new ResultReadyNotifyOperation(offprintHandler(taskName));
-            createInvocationBuilder(op)
-                    .setCallTimeout(Long.MAX_VALUE)
-                    .invoke();
+        @Override
+        V call()
+                throws Exception {
+            return runTask(descriptor, statistics);
         }
-
     }
 
 
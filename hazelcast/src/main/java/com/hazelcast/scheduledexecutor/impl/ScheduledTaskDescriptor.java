@@ -49,6 +49,13 @@ public class ScheduledTaskDescriptor implements IdentifiedDataSerializable {
      */
     private transient boolean isTaskOwner;
 
+    /**
+     * Only accessed by the runs of the task, which happen one after the other.
+     * Set once the state of a {@link com.hazelcast.scheduledexecutor.StatefulTask} has been loaded into the task,
+     * reset when the task is scheduled again.
+     */
+    private transient boolean stateLoaded;
+
     /**
      * SPMC (see. Member owned tasks)
      */
@@ -96,6 +103,14 @@ public class ScheduledTaskDescriptor implements IdentifiedDataSerializable {
         this.isTaskOwner = taskOwner;
     }
 
+    boolean isStateLoaded() {
+        return stateLoaded;
+    }
+
+    void setStateLoaded(boolean stateLoaded) {
+        this.stateLoaded = stateLoaded;
+    }
+
     ScheduledTaskStatisticsImpl getStatsSnapshot() {
         return stats.snapshot();
     }
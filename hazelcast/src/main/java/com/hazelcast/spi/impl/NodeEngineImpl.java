@@ -30,6 +30,7 @@ import com.hazelcast.internal.diagnostics.InvocationPlugin;
 import com.hazelcast.internal.diagnostics.MemberHazelcastInstanceInfoPlugin;
 import com.hazelcast.internal.diagnostics.MetricsPlugin;
 import com.hazelcast.internal.diagnostics.NetworkingPlugin;
+import com.hazelcast.internal.diagnostics.OperationProfilerPlugin;
 import com.hazelcast.internal.diagnostics.OverloadedConnectionsPlugin;
 import com.hazelcast.internal.diagnostics.PendingInvocationsPlugin;
 import com.hazelcast.internal.diagnostics.SlowOperationPlugin;
@@ -46,6 +47,7 @@ import com.hazelcast.internal.metrics.metricsets.GarbageCollectionMetricSet;
 import com.hazelcast.internal.metrics.metricsets.OperatingSystemMetricSet;
 import com.hazelcast.internal.metrics.metricsets.RuntimeMetricSet;
 import com.hazelcast.internal.metrics.metricsets.ThreadMetricSet;
+import com.hazelcast.internal.metrics.publishers.MetricsPublishingService;
 import com.hazelcast.internal.partition.InternalPartitionService;
 import com.hazelcast.internal.partition.MigrationInfo;
 import com.hazelcast.internal.usercodedeployment.UserCodeDeploymentClassLoader;
@@ -122,6 +124,7 @@ public class NodeEngineImpl implements NodeEngine {
     private final SerializationService serializationService;
     private final LoggingServiceImpl loggingService;
     private final Diagnostics diagnostics;
+    private final MetricsPublishingService metricsPublishingService;
     private final UserCodeDeploymentService userCodeDeploymentService;
 
     @SuppressWarnings("checkstyle:executablestatementcount")
@@ -131,6 +134,8 @@ public class NodeEngineImpl implements NodeEngine {
         this.serializationService = node.getSerializationService();
         this.logger = node.getLogger(NodeEngine.class.getName());
         this.metricsRegistry = newMetricRegistry(node);
+        this.metricsPublishingService = new MetricsPublishingService(
+                node.getLogger(MetricsPublishingService.class), metricsRegistry, node.getProperties());
         this.proxyService = new ProxyServiceImpl(this);
         this.serviceManager = new ServiceManagerImpl(this);
         this.executionService = new ExecutionServiceImpl(this);
@@ -218,6 +223,10 @@ public class NodeEngineImpl implements NodeEngine {
         return metricsRegistry;
     }
 
+    public MetricsPublishingService getMetricsPublishingService() {
+        return metricsPublishingService;
+    }
+
     public PacketDispatcher getPacketDispatcher() {
         return packetDispatcher;
     }
@@ -248,11 +257,15 @@ public class NodeEngineImpl implements NodeEngine {
         diagnostics.register(new PendingInvocationsPlugin(this));
         diagnostics.register(new MetricsPlugin(this));
         diagnostics.register(new SlowOperationPlugin(this));
+        diagnostics.register(new OperationProfilerPlugin(this));
         diagnostics.register(new InvocationPlugin(this));
         diagnostics.register(new MemberHazelcastInstanceInfoPlugin(this));
         diagnostics.register(new SystemLogPlugin(this));
         diagnostics.register(new StoreLatencyPlugin(this));
         diagnostics.register(new NetworkingPlugin(this));
+
+        metricsPublishingService.loadPublishers(node.getConfigClassLoader(), node.hazelcastInstance);
+        metricsPublishingService.start();
     }
 
     public Diagnostics getDiagnostics() {
@@ -499,6 +512,7 @@ public class NodeEngineImpl implements NodeEngine {
         wanReplicationService.shutdown();
         executionService.shutdown();
         metricsRegistry.shutdown();
+        metricsPublishingService.shutdown();
         diagnostics.shutdown();
     }
 }
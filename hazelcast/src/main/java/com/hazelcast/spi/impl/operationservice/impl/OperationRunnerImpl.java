@@ -24,6 +24,7 @@ import com.hazelcast.instance.MemberImpl;
 import com.hazelcast.instance.Node;
 import com.hazelcast.instance.NodeState;
 import com.hazelcast.instance.OutOfMemoryErrorDispatcher;
+import com.hazelcast.internal.metrics.LatencyHistograms;
 import com.hazelcast.internal.metrics.MetricsProvider;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
@@ -95,6 +96,8 @@ class OperationRunnerImpl extends OperationRunner implements MetricsProvider {
 
     private final Counter failedBackupsCounter;
     private final OperationBackupHandler backupHandler;
+    // null if the latency histograms are disabled
+    private final LatencyHistograms latencyHistograms;
 
     // has only meaning for metrics.
     private final int genericId;
@@ -122,6 +125,7 @@ class OperationRunnerImpl extends OperationRunner implements MetricsProvider {
         this.staleReadOnMigrationEnabled = !node.getProperties().getBoolean(DISABLE_STALE_READ_ON_PARTITION_MIGRATION);
         this.failedBackupsCounter = failedBackupsCounter;
         this.backupHandler = operationService.backupHandler;
+        this.latencyHistograms = operationService.operationLatencyHistograms;
         // only a ad-hoc operation runner will be called concurrently
         this.executedOperationsCounter = partitionId == AD_HOC_PARTITION_ID ? newMwCounter() : newSwCounter();
     }
@@ -167,6 +171,7 @@ class OperationRunnerImpl extends OperationRunner implements MetricsProvider {
     @Override
     public void run(Operation op) {
         executedOperationsCounter.inc();
+        long startNanos = latencyHistograms == null ? 0 : System.nanoTime();
 
         boolean publishCurrentTask = publishCurrentTask();
 
@@ -200,6 +205,9 @@ class OperationRunnerImpl extends OperationRunner implements MetricsProvider {
             if (publishCurrentTask) {
                 currentTask = null;
             }
+            if (latencyHistograms != null) {
+                latencyHistograms.record(op.getClass(), System.nanoTime() - startNanos);
+            }
         }
     }
 
@@ -21,6 +21,7 @@ import com.hazelcast.instance.MemberImpl;
 import com.hazelcast.instance.Node;
 import com.hazelcast.internal.cluster.ClusterClock;
 import com.hazelcast.internal.management.dto.SlowOperationDTO;
+import com.hazelcast.internal.metrics.LatencyHistograms;
 import com.hazelcast.internal.metrics.MetricsProvider;
 import com.hazelcast.internal.metrics.MetricsRegistry;
 import com.hazelcast.internal.metrics.Probe;
@@ -58,6 +59,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+import static com.hazelcast.internal.metrics.LatencyHistograms.newLatencyHistogramsIfEnabled;
 import static com.hazelcast.internal.metrics.ProbeLevel.MANDATORY;
 import static com.hazelcast.internal.util.counters.MwCounter.newMwCounter;
 import static com.hazelcast.spi.InvocationBuilder.DEFAULT_CALL_TIMEOUT;
@@ -119,6 +121,8 @@ public final class OperationServiceImpl implements InternalOperationService, Met
     final BackpressureRegulator backpressureRegulator;
     final OutboundResponseHandler outboundResponseHandler;
     final OutboundOperationHandler outboundOperationHandler;
+    // null if the latency histograms are disabled
+    final LatencyHistograms operationLatencyHistograms;
     volatile Invocation.Context invocationContext;
 
     private final InvocationMonitor invocationMonitor;
@@ -164,6 +168,9 @@ public final class OperationServiceImpl implements InternalOperationService, Met
                 node.getHazelcastThreadGroup(), node.getLogger(AsyncInboundResponseHandler.class),
                 inboundResponseHandler, node.getProperties());
 
+        this.operationLatencyHistograms = newLatencyHistogramsIfEnabled(
+                nodeEngine.getMetricsRegistry(), "operation.latency");
+
         this.operationExecutor = new OperationExecutorImpl(
                 node.getProperties(), node.loggingService, thisAddress, new OperationRunnerFactoryImpl(this),
                 node.getHazelcastThreadGroup(), node.getNodeExtension());
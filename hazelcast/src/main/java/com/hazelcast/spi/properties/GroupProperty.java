@@ -26,6 +26,8 @@ import com.hazelcast.map.impl.query.QueryResultSizeLimiter;
 import com.hazelcast.query.TruePredicate;
 import com.hazelcast.query.impl.predicates.QueryOptimizerFactory;
 
+import java.io.File;
+
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.SECONDS;
 
@@ -231,6 +233,43 @@ public final class GroupProperty {
     public static final HazelcastProperty SOCKET_BUFFER_DIRECT
             = new HazelcastProperty("hazelcast.socket.buffer.direct", false);
 
+    /**
+     * The minimum size in bytes of the payload of a member to member packet to compress it, {@code 0} disables
+     * the compression.
+     * <p>
+     * The packets are compressed with a fast LZ4 codec, which pays off for large and redundant payloads like JSON
+     * documents on bandwidth constrained links. A member always decompresses the compressed packets it receives,
+     * so the property only controls the packets this member sends and can differ between members. Packets are only
+     * compressed when the cluster version is at least 3.9 and the receiving member is at least of version 3.9.
+     */
+    public static final HazelcastProperty SOCKET_COMPRESSION_THRESHOLD
+            = new HazelcastProperty("hazelcast.socket.compression.threshold", 0);
+
+    /**
+     * Enables the shared memory transport for connections between members running on the same host.
+     * <p>
+     * The data of such connections is exchanged over memory mapped ring buffers instead of the loopback TCP
+     * stack, which avoids the system calls and copies per packet. The ring buffers are polled, so the transport
+     * is only used with the spinning IO threading model ({@code -Dhazelcast.io.spinning=true}); it has to be
+     * enabled on all members of the cluster.
+     */
+    public static final HazelcastProperty IO_SHARED_MEMORY_ENABLED
+            = new HazelcastProperty("hazelcast.io.shared.memory.enabled", false);
+
+    /**
+     * The directory the shared memory files are created in, preferably a memory backed file system.
+     * The files are deleted as soon as both sides of a connection have mapped them.
+     */
+    public static final HazelcastProperty IO_SHARED_MEMORY_DIRECTORY
+            = new HazelcastProperty("hazelcast.io.shared.memory.directory",
+            new File("/dev/shm").isDirectory() ? "/dev/shm" : System.getProperty("java.io.tmpdir"));
+
+    /**
+     * The size in KB of the shared memory ring buffer of each direction of a connection, has to be a power of two.
+     */
+    public static final HazelcastProperty IO_SHARED_MEMORY_BUFFER_SIZE
+            = new HazelcastProperty("hazelcast.io.shared.memory.buffer.size", 1024);
+
 
     /**
      * Overrides receive buffer size for connections opened by clients.
@@ -373,6 +412,50 @@ public final class GroupProperty {
     public static final HazelcastProperty MAP_REPLICA_SCHEDULED_TASK_DELAY_SECONDS
             = new HazelcastProperty("hazelcast.map.replica.scheduled.task.delay.seconds", 10, SECONDS);
 
+    /**
+     * The depth of the Merkle trees maintained per map partition, {@code 0} disables them.
+     * <p>
+     * When enabled, the owner and the backups of a partition maintain a Merkle tree over the entries of each map
+     * with backups, and a replica sync only transfers the entries of the tree leaves which differ between the owner
+     * and the backup instead of the whole partition. A tree of depth {@code n} has {@code 2^(n-1)} leaves, so deeper
+     * trees narrow down the transferred entries at the expense of {@code 2^n} ints of memory per map partition.
+     * The value must be the same on all members.
+     */
+    public static final HazelcastProperty MAP_MERKLE_TREE_DEPTH
+            = new HazelcastProperty("hazelcast.map.merkle.tree.depth", 0);
+
+    /**
+     * The minimum size in bytes of a serialized map value for which an update ships only the delta to the previous
+     * value to the backups, {@code 0} disables delta backups.
+     * <p>
+     * The delta is sent only for maps with {@link com.hazelcast.config.InMemoryFormat#BINARY} in-memory format when
+     * it is at most half the size of the new value. A backup which doesn't hold the exact previous value applies
+     * nothing and triggers a replica sync of the partition instead.
+     */
+    public static final HazelcastProperty MAP_DELTA_BACKUP_MIN_VALUE_SIZE
+            = new HazelcastProperty("hazelcast.map.delta.backup.min.value.size", 0);
+
+    /**
+     * Enables the offloading of partition wide entry processing, as done by
+     * {@link com.hazelcast.core.IMap#executeOnEntries(com.hazelcast.map.EntryProcessor)}, for entry processors which
+     * implement {@link com.hazelcast.core.Offloadable}.
+     * <p>
+     * The entries of a partition are then processed in chunks of {@link #MAP_ENTRY_PROCESSOR_OFFLOADING_CHUNK_SIZE}
+     * entries in parallel on the executor of the entry processor, and only the modified entries are written back on the
+     * partition thread, so the partition isn't blocked for the whole processing. If an entry was changed after it was read
+     * or the partition has migrated meanwhile, the partition is processed again, so the entry processor must tolerate
+     * being applied more than once to an entry.
+     */
+    public static final HazelcastProperty MAP_ENTRY_PROCESSOR_OFFLOADING_ENABLED
+            = new HazelcastProperty("hazelcast.map.entry.processor.offloading.enabled", false);
+
+    /**
+     * The count of entries processed per offloaded task when partition wide entry processing is offloaded,
+     * see {@link #MAP_ENTRY_PROCESSOR_OFFLOADING_ENABLED}.
+     */
+    public static final HazelcastProperty MAP_ENTRY_PROCESSOR_OFFLOADING_CHUNK_SIZE
+            = new HazelcastProperty("hazelcast.map.entry.processor.offloading.chunk.size", 1000);
+
     /**
      * You can use MAP_EXPIRY_DELAY_SECONDS to deal with some possible edge cases, such as using EntryProcessor.
      * Without this delay, you may see that an EntryProcessor running on the owner partition found a key, but
@@ -392,6 +475,26 @@ public final class GroupProperty {
     public static final HazelcastProperty JMX_UPDATE_INTERVAL_SECONDS
             = new HazelcastProperty("hazelcast.jmx.update.interval.seconds", 5, SECONDS);
 
+    /**
+     * The period in seconds the metrics are collected and published by the
+     * {@link com.hazelcast.internal.metrics.publishers.MetricsPublishingService}.
+     * If set to 0, the metrics are not published.
+     */
+    public static final HazelcastProperty METRICS_PUBLISHING_PERIOD_SECONDS
+            = new HazelcastProperty("hazelcast.metrics.publishing.period.seconds", 0, SECONDS);
+    /**
+     * Every n-th collection cycle all metrics are pushed to the metrics publishers instead of only the changed ones,
+     * so a publisher which missed a cycle catches up.
+     */
+    public static final HazelcastProperty METRICS_PUBLISHING_FULL_SNAPSHOT_INTERVAL
+            = new HazelcastProperty("hazelcast.metrics.publishing.full.snapshot.interval", 10);
+    /**
+     * Comma separated class names of the
+     * {@link com.hazelcast.internal.metrics.publishers.MetricsPublisher} implementations the metrics are pushed to.
+     */
+    public static final HazelcastProperty METRICS_PUBLISHER_CLASSES
+            = new HazelcastProperty("hazelcast.metrics.publisher.classes", "");
+
     public static final HazelcastProperty MC_MAX_VISIBLE_INSTANCE_COUNT
             = new HazelcastProperty("hazelcast.mc.max.visible.instance.count", 100);
     public static final HazelcastProperty MC_MAX_VISIBLE_SLOW_OPERATION_COUNT
@@ -666,6 +769,63 @@ public final class GroupProperty {
     public static final HazelcastProperty QUERY_OPTIMIZER_TYPE
             = new HazelcastProperty("hazelcast.query.optimizer.type", QueryOptimizerFactory.Type.RULES.toString());
 
+    /**
+     * Enables the streaming execution of map reduce jobs with a reducer.
+     * <p/>
+     * In streaming mode the combiners of a member are dropped after each sent chunk, so the combined state is bounded
+     * by the chunk size, and the reducing members buffer the received values instead of keeping a reducer per key.
+     * When a buffer exceeds {@link #MAPREDUCE_STREAMING_BUFFER_SIZE_MB}, it is sorted by key and spilled to a file.
+     * When the job results are requested, the sorted buffer and the spill files are merged and each key is reduced
+     * by a single reducer at a time.
+     */
+    public static final HazelcastProperty MAPREDUCE_STREAMING_ENABLED
+            = new HazelcastProperty("hazelcast.mapreduce.streaming.enabled", false);
+    /**
+     * The maximum size in megabytes of the values a member buffers per map reduce job in streaming mode before they
+     * are spilled to disk.
+     */
+    public static final HazelcastProperty MAPREDUCE_STREAMING_BUFFER_SIZE_MB
+            = new HazelcastProperty("hazelcast.mapreduce.streaming.buffer.size.mb", 64);
+    /**
+     * The directory the map reduce spill files are written to. Defaults to the temporary directory of the JVM.
+     */
+    public static final HazelcastProperty MAPREDUCE_STREAMING_SPILL_DIRECTORY
+            = new HazelcastProperty("hazelcast.mapreduce.streaming.spill.directory", System.getProperty("java.io.tmpdir"));
+
+    /**
+     * Enables the hashed timing wheel backend of the scheduled executor service.
+     * <p/>
+     * By default each scheduled task is queued in a shared JDK scheduled executor, which costs a heap insertion and
+     * several objects per task. When the timing wheel is enabled, a task is linked into a bucket of a wheel which is
+     * advanced by a single thread every {@link #SCHEDULED_EXECUTOR_TIMING_WHEEL_TICK_MILLIS}, so a member can keep
+     * a very large number of delayed tasks. Tasks fire with tick granularity, they may fire up to a tick late.
+     * <p/>
+     * Unlike the JDK backend, a run of a fixed-rate task is skipped while its previous run is still in progress,
+     * instead of being run right after it to catch up. The runs which are skipped are not run later.
+     */
+    public static final HazelcastProperty SCHEDULED_EXECUTOR_TIMING_WHEEL_ENABLED
+            = new HazelcastProperty("hazelcast.scheduled.executor.timing.wheel.enabled", false);
+    /**
+     * The duration of a tick of the scheduled executor timing wheel.
+     */
+    public static final HazelcastProperty SCHEDULED_EXECUTOR_TIMING_WHEEL_TICK_MILLIS
+            = new HazelcastProperty("hazelcast.scheduled.executor.timing.wheel.tick.millis", 10, MILLISECONDS);
+    /**
+     * The count of buckets of the scheduled executor timing wheel, rounded up to a power of two. Tasks which are due
+     * after a full turn of the wheel stay in their bucket for multiple rounds.
+     */
+    public static final HazelcastProperty SCHEDULED_EXECUTOR_TIMING_WHEEL_SIZE
+            = new HazelcastProperty("hazelcast.scheduled.executor.timing.wheel.size", 512);
+    /**
+     * The maximum count of tasks, expired in the same tick, which are handed to the executor of their scheduler as
+     * a single batch. A batch runs its tasks one after the other on a single thread, so batching saves submissions
+     * to the executor but the tasks of a batch don't run in parallel and a slow task delays the others.
+     * <p/>
+     * Batching is disabled by default: each task is handed to the executor on its own.
+     */
+    public static final HazelcastProperty SCHEDULED_EXECUTOR_TIMING_WHEEL_BATCH_SIZE
+            = new HazelcastProperty("hazelcast.scheduled.executor.timing.wheel.batch.size", 1);
+
 
     /**
      * Forces the JCache provider, which can have values client or server, to force the provider type.
@@ -194,6 +194,50 @@ public class SampleableConcurrentHashMap<K, V> extends ConcurrentReferenceHashMa
         return new LazySamplingEntryIterableIterator<E>(sampleCount);
     }
 
+    /**
+     * Samples <code>sampleCount</code> values starting from a random position
+     * and puts them into <code>values</code> list.
+     *
+     * Unlike {@link #getRandomSamples(int)}, no sampling entry is created per sampled value,
+     * so this method is preferred when sampling is done frequently, e.g. on every eviction.
+     *
+     * @param sampleCount Count of samples
+     * @param values      List that sampled values will be put into
+     * @return the count of sampled values
+     */
+    public int sampleValues(int sampleCount, List<V> values) {
+        if (sampleCount < 0) {
+            throw new IllegalArgumentException("Sample count cannot be a negative value.");
+        }
+        if (sampleCount == 0 || size() == 0) {
+            return 0;
+        }
+        final int randomNumber = ThreadLocalRandomProvider.get().nextInt(Integer.MAX_VALUE);
+        int segmentIndex = randomNumber % segments.length;
+        int counter = 0;
+        for (int i = 0; i < segments.length && counter < sampleCount; i++) {
+            final Segment<K, V> segment = segments[segmentIndex];
+            if (segment != null) {
+                final HashEntry<K, V>[] table = segment.table;
+                int bucketIndex = randomNumber % table.length;
+                for (int j = 0; j < table.length && counter < sampleCount; j++) {
+                    HashEntry<K, V> entry = table[bucketIndex];
+                    while (entry != null && counter < sampleCount) {
+                        final V value = entry.value();
+                        if (isValidForSampling(value)) {
+                            values.add(value);
+                            counter++;
+                        }
+                        entry = entry.next;
+                    }
+                    bucketIndex = ++bucketIndex < table.length ? bucketIndex : 0;
+                }
+            }
+            segmentIndex = ++segmentIndex < segments.length ? segmentIndex : 0;
+        }
+        return counter;
+    }
+
     /**
      * This class is implements both of "Iterable" and "Iterator" interfaces.
      * So we can use only one object (instead of two) both for "Iterable" and "Iterator" interfaces.
@@ -0,0 +1,441 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.wan.impl;
+
+import com.hazelcast.config.WANQueueFullBehavior;
+import com.hazelcast.config.WanPublisherConfig;
+import com.hazelcast.config.WanReplicationConfig;
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.instance.HazelcastThreadGroup;
+import com.hazelcast.instance.Node;
+import com.hazelcast.internal.metrics.Probe;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.monitor.LocalWanPublisherStats;
+import com.hazelcast.monitor.impl.LocalWanPublisherStatsImpl;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.IOUtil;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.OperationService;
+import com.hazelcast.util.AddressUtil;
+import com.hazelcast.wan.ReplicationEventObject;
+import com.hazelcast.wan.WANReplicationQueueFullException;
+import com.hazelcast.wan.WanReplicationEndpoint;
+import com.hazelcast.wan.WanReplicationEvent;
+import com.hazelcast.wan.WanReplicationService;
+
+import java.io.IOException;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.hazelcast.util.EmptyStatement.ignore;
+import static com.hazelcast.util.ExceptionUtil.rethrow;
+import static com.hazelcast.util.Preconditions.checkHasText;
+
+/**
+ * Open source {@link WanReplicationEndpoint} which replicates map events to a target cluster in batches.
+ * <p>
+ * Events are buffered in a {@link WanCoalescingQueue} so that only the latest event per key is sent within a batch
+ * window. A dedicated publisher thread drains the queue into batches of up to {@value #DEFAULT_BATCH_SIZE} events,
+ * compresses batches above a size threshold and sends them to one of the configured target endpoints as a
+ * {@link WanBatchReplicationOperation}. Up to {@value #DEFAULT_MAX_CONCURRENT_BATCHES} batches are in flight at the same
+ * time; a batch is acknowledged by the target when all its events have been applied. Batches which fail or time out
+ * are put back into the queue and sent to the next endpoint.
+ * <p>
+ * The queue keeps at most one event per key in flight, so batches in flight at the same time never share a key and
+ * a retried event never overtakes a newer event for the same key. Events for different keys may be applied on the
+ * target in a different order than they were published.
+ * <p>
+ * When the queue is full, new events are dropped or, depending on {@link WanPublisherConfig#getQueueFullBehavior()},
+ * mutating operations fail with a {@link WANReplicationQueueFullException}.
+ * <p>
+ * The publisher is configured with the following {@link WanPublisherConfig#getProperties() properties}:
+ * <ul>
+ * <li>{@value #ENDPOINTS}: comma separated list of target cluster member addresses (mandatory)</li>
+ * <li>{@value #BATCH_SIZE}: maximum number of events in a batch</li>
+ * <li>{@value #BATCH_MAX_DELAY_MILLIS}: maximum time an event waits for its batch to fill up</li>
+ * <li>{@value #RESPONSE_TIMEOUT_MILLIS}: time to wait for the acknowledgement of a batch</li>
+ * <li>{@value #MAX_CONCURRENT_BATCHES}: maximum number of unacknowledged batches</li>
+ * <li>{@value #COMPRESSION_THRESHOLD}: serialized batch size in bytes above which a batch is compressed,
+ * a negative value disables compression</li>
+ * </ul>
+ */
+public class WanBatchReplication implements WanReplicationEndpoint {
+
+    /**
+     * Property for the comma separated list of target cluster member addresses.
+     */
+    public static final String ENDPOINTS = "endpoints";
+    /**
+     * Property for the maximum number of events in a batch.
+     */
+    public static final String BATCH_SIZE = "batch.size";
+    /**
+     * Property for the maximum time in milliseconds an event waits for its batch to fill up.
+     */
+    public static final String BATCH_MAX_DELAY_MILLIS = "batch.max.delay.millis";
+    /**
+     * Property for the time in milliseconds to wait for the acknowledgement of a batch.
+     */
+    public static final String RESPONSE_TIMEOUT_MILLIS = "response.timeout.millis";
+    /**
+     * Property for the maximum number of batches in flight.
+     */
+    public static final String MAX_CONCURRENT_BATCHES = "max.concurrent.batches";
+    /**
+     * Property for the serialized batch size in bytes above which batches are compressed.
+     */
+    public static final String COMPRESSION_THRESHOLD = "compression.threshold";
+
+    static final int DEFAULT_BATCH_SIZE = 500;
+    static final long DEFAULT_BATCH_MAX_DELAY_MILLIS = 1000;
+    static final long DEFAULT_RESPONSE_TIMEOUT_MILLIS = 60000;
+    static final int DEFAULT_MAX_CONCURRENT_BATCHES = 2;
+    static final int DEFAULT_COMPRESSION_THRESHOLD = 1024;
+
+    private static final long IDLE_TIMEOUT_MILLIS = 1000;
+    private static final long FAILURE_BACKOFF_MILLIS = 1000;
+    private static final int DEFAULT_PORT = 5701;
+
+    private final LocalWanPublisherStatsImpl localWanPublisherStats = new LocalWanPublisherStatsImpl();
+    private final AtomicLong publishedEventCount = new AtomicLong();
+    private final AtomicLong publishedBatchCount = new AtomicLong();
+    private final AtomicLong failedBatchCount = new AtomicLong();
+    private final AtomicLong uncompressedBytes = new AtomicLong();
+    private final AtomicLong sentBytes = new AtomicLong();
+
+    private Node node;
+    private ILogger logger;
+    private String wanReplicationName;
+    private String targetGroupName;
+    private WANQueueFullBehavior queueFullBehavior;
+    private List<Address> targetEndpoints;
+    private int batchSize;
+    private long batchMaxDelayMillis;
+    private long responseTimeoutMillis;
+    private int maxConcurrentBatches;
+    private int compressionThreshold;
+
+    private WanCoalescingQueue eventQueue;
+    private Semaphore inFlightBatches;
+    private PublisherThread publisherThread;
+
+    private volatile int endpointIndex;
+    private volatile long backoffUntil;
+    private volatile boolean running;
+
+    @Override
+    public void init(Node node, WanReplicationConfig wanReplicationConfig, WanPublisherConfig publisherConfig) {
+        this.node = node;
+        this.logger = node.getLogger(WanBatchReplication.class);
+        this.wanReplicationName = wanReplicationConfig.getName();
+        this.targetGroupName = publisherConfig.getGroupName();
+        this.queueFullBehavior = publisherConfig.getQueueFullBehavior();
+
+        Map<String, Comparable> properties = publisherConfig.getProperties();
+        this.targetEndpoints = parseEndpoints(getProperty(properties, ENDPOINTS, ""));
+        this.batchSize = getProperty(properties, BATCH_SIZE, DEFAULT_BATCH_SIZE);
+        this.batchMaxDelayMillis = getProperty(properties, BATCH_MAX_DELAY_MILLIS, DEFAULT_BATCH_MAX_DELAY_MILLIS);
+        this.responseTimeoutMillis = getProperty(properties, RESPONSE_TIMEOUT_MILLIS, DEFAULT_RESPONSE_TIMEOUT_MILLIS);
+        this.maxConcurrentBatches = getProperty(properties, MAX_CONCURRENT_BATCHES, DEFAULT_MAX_CONCURRENT_BATCHES);
+        this.compressionThreshold = getProperty(properties, COMPRESSION_THRESHOLD, DEFAULT_COMPRESSION_THRESHOLD);
+
+        this.eventQueue = new WanCoalescingQueue(publisherConfig.getQueueCapacity());
+        this.inFlightBatches = new Semaphore(maxConcurrentBatches);
+        this.running = true;
+
+        node.getNodeEngine().getMetricsRegistry()
+                .scanAndRegister(this, "wan[" + wanReplicationName + "][" + targetGroupName + "]");
+
+        this.publisherThread = new PublisherThread(node.getHazelcastThreadGroup());
+        publisherThread.start();
+    }
+
+    @Override
+    public void shutdown() {
+        running = false;
+        if (publisherThread != null) {
+            publisherThread.interrupt();
+        }
+        if (node != null) {
+            node.getNodeEngine().getMetricsRegistry().deregister(this);
+        }
+    }
+
+    @Override
+    public void publishReplicationEvent(String serviceName, ReplicationEventObject eventObject) {
+        publishReplicationEvent(new WanReplicationEvent(serviceName, eventObject));
+    }
+
+    @Override
+    public void publishReplicationEventBackup(String serviceName, ReplicationEventObject eventObject) {
+        // backup events are not queued; events pending on a member are lost if the member fails
+    }
+
+    @Override
+    public void publishReplicationEvent(WanReplicationEvent wanReplicationEvent) {
+        if (!running) {
+            return;
+        }
+        eventQueue.offer(wanReplicationEvent, System.currentTimeMillis());
+    }
+
+    @Override
+    public void checkWanReplicationQueues() {
+        if (queueFullBehavior != WANQueueFullBehavior.DISCARD_AFTER_MUTATION && running && eventQueue.isFull()) {
+            throw new WANReplicationQueueFullException(
+                    "WAN replication event queue for target group " + targetGroupName + " is full");
+        }
+    }
+
+    /**
+     * Removes all pending events.
+     *
+     * @return the number of removed events
+     */
+    public int clearQueues() {
+        return eventQueue.clear();
+    }
+
+    public String getTargetGroupName() {
+        return targetGroupName;
+    }
+
+    public LocalWanPublisherStats getStats() {
+        localWanPublisherStats.setOutboundQueueSize(eventQueue.size());
+        localWanPublisherStats.setConnected(isConnected());
+        return localWanPublisherStats;
+    }
+
+    @Probe
+    public int outboundQueueSize() {
+        return eventQueue.size();
+    }
+
+    /**
+     * Returns the time in milliseconds the oldest pending event has been waiting for replication.
+     */
+    @Probe
+    public long replicationLagMillis() {
+        long oldest = eventQueue.getOldestEnqueueTime();
+        return oldest < 0 ? 0 : Math.max(0, System.currentTimeMillis() - oldest);
+    }
+
+    @Probe
+    public long publishedEventCount() {
+        return publishedEventCount.get();
+    }
+
+    @Probe
+    public long publishedBatchCount() {
+        return publishedBatchCount.get();
+    }
+
+    @Probe
+    public long failedBatchCount() {
+        return failedBatchCount.get();
+    }
+
+    @Probe
+    public long coalescedEventCount() {
+        return eventQueue.getCoalescedEventCount();
+    }
+
+    @Probe
+    public long droppedEventCount() {
+        return eventQueue.getDroppedEventCount();
+    }
+
+    @Probe
+    public long uncompressedBytes() {
+        return uncompressedBytes.get();
+    }
+
+    @Probe
+    public long sentBytes() {
+        return sentBytes.get();
+    }
+
+    @Probe
+    public int inFlightBatches() {
+        return maxConcurrentBatches - inFlightBatches.availablePermits();
+    }
+
+    private boolean isConnected() {
+        Address target = currentTarget();
+        return target != null && node.getConnectionManager().getConnection(target) != null;
+    }
+
+    private Address currentTarget() {
+        if (targetEndpoints.isEmpty()) {
+            return null;
+        }
+        return targetEndpoints.get(endpointIndex % targetEndpoints.size());
+    }
+
+    private void sendBatch(List<WanReplicationEvent> events, long enqueueTime) throws IOException {
+        NodeEngine nodeEngine = node.getNodeEngine();
+        Data data = nodeEngine.getSerializationService().toData(new WanEventBatch(events));
+        byte[] bytes = data.toByteArray();
+        boolean compress = compressionThreshold >= 0 && bytes.length > compressionThreshold;
+        byte[] payload = compress ? IOUtil.compress(bytes) : bytes;
+        uncompressedBytes.addAndGet(bytes.length);
+        sentBytes.addAndGet(payload.length);
+
+        Address target = currentTarget();
+        OperationService operationService = nodeEngine.getOperationService();
+        operationService.createInvocationBuilder(WanReplicationService.SERVICE_NAME,
+                new WanBatchReplicationOperation(payload, compress), target)
+                .setTryCount(1)
+                .setCallTimeout(responseTimeoutMillis)
+                .invoke()
+                .andThen(new BatchAcknowledgementCallback(events, enqueueTime));
+    }
+
+    private void onBatchFailure(List<WanReplicationEvent> events, long enqueueTime, Throwable t) {
+        failedBatchCount.incrementAndGet();
+        Address target = currentTarget();
+        logger.warning("Failed to replicate a batch of " + events.size() + " events to " + target
+                + " of target group " + targetGroupName + ", retrying. Cause: " + t);
+        endpointIndex++;
+        backoffUntil = System.currentTimeMillis() + FAILURE_BACKOFF_MILLIS;
+        eventQueue.putBack(events, enqueueTime);
+    }
+
+    private static List<Address> parseEndpoints(String endpoints) {
+        checkHasText(endpoints, "WAN replication property '" + ENDPOINTS + "' must be set");
+        List<Address> addresses = new ArrayList<Address>();
+        for (String endpoint : endpoints.split(",")) {
+            String trimmed = endpoint.trim();
+            if (trimmed.length() == 0) {
+                continue;
+            }
+            AddressUtil.AddressHolder holder = AddressUtil.getAddressHolder(trimmed, DEFAULT_PORT);
+            try {
+                addresses.add(new Address(holder.getAddress(), holder.getPort()));
+            } catch (UnknownHostException e) {
+                throw rethrow(e);
+            }
+        }
+        return addresses;
+    }
+
+    private static int getProperty(Map<String, Comparable> properties, String name, int defaultValue) {
+        Comparable value = properties.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value.toString());
+    }
+
+    private static long getProperty(Map<String, Comparable> properties, String name, long defaultValue) {
+        Comparable value = properties.get(name);
+        return value == null ? defaultValue : Long.parseLong(value.toString());
+    }
+
+    private static String getProperty(Map<String, Comparable> properties, String name, String defaultValue) {
+        Comparable value = properties.get(name);
+        return value == null ? defaultValue : value.toString();
+    }
+
+    private final class BatchAcknowledgementCallback implements ExecutionCallback<Object> {
+
+        private final List<WanReplicationEvent> events;
+        private final long enqueueTime;
+
+        private BatchAcknowledgementCallback(List<WanReplicationEvent> events, long enqueueTime) {
+            this.events = events;
+            this.enqueueTime = enqueueTime;
+        }
+
+        @Override
+        public void onResponse(Object response) {
+            try {
+                eventQueue.acknowledge(events);
+                long latency = System.currentTimeMillis() - enqueueTime;
+                for (int i = 0; i < events.size(); i++) {
+                    localWanPublisherStats.incrementPublishedEventCount(latency);
+                }
+                publishedEventCount.addAndGet(events.size());
+                publishedBatchCount.incrementAndGet();
+            } finally {
+                inFlightBatches.release();
+            }
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            try {
+                onBatchFailure(events, enqueueTime, t);
+            } finally {
+                inFlightBatches.release();
+            }
+        }
+    }
+
+    private final class PublisherThread extends Thread {
+
+        private PublisherThread(HazelcastThreadGroup threadGroup) {
+            super(threadGroup.getInternalThreadGroup(),
+                    threadGroup.getThreadNamePrefix("wan-batch-replication-" + targetGroupName));
+            setContextClassLoader(threadGroup.getClassLoader());
+            setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    publish();
+                } catch (InterruptedException e) {
+                    ignore(e);
+                } catch (Throwable t) {
+                    logger.severe("Failed to publish WAN replication events to target group " + targetGroupName, t);
+                }
+            }
+        }
+
+        private void publish() throws InterruptedException, IOException {
+            long backoff = backoffUntil - System.currentTimeMillis();
+            if (backoff > 0) {
+                Thread.sleep(backoff);
+            }
+
+            inFlightBatches.acquire();
+            List<WanReplicationEvent> batch = new ArrayList<WanReplicationEvent>(batchSize);
+            long enqueueTime;
+            try {
+                enqueueTime = eventQueue.drainTo(batch, batchSize, batchMaxDelayMillis, IDLE_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                inFlightBatches.release();
+                throw e;
+            }
+            if (batch.isEmpty()) {
+                inFlightBatches.release();
+                return;
+            }
+
+            try {
+                sendBatch(batch, enqueueTime);
+            } catch (Throwable t) {
+                onBatchFailure(batch, enqueueTime, t);
+                inFlightBatches.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.wan.impl;
+
+import com.hazelcast.core.EntryView;
+import com.hazelcast.core.ExecutionCallback;
+import com.hazelcast.internal.cluster.impl.operations.WanReplicationOperation;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.map.impl.wan.MapReplicationRemove;
+import com.hazelcast.map.impl.wan.MapReplicationUpdate;
+import com.hazelcast.nio.IOUtil;
+import com.hazelcast.nio.ObjectDataInput;
+import com.hazelcast.nio.ObjectDataOutput;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.nio.serialization.IdentifiedDataSerializable;
+import com.hazelcast.spi.NodeEngine;
+import com.hazelcast.spi.Operation;
+import com.hazelcast.spi.impl.operationservice.InternalOperationService;
+import com.hazelcast.spi.impl.operationservice.impl.OperationServiceImpl;
+import com.hazelcast.spi.impl.operationservice.impl.responses.ErrorResponse;
+import com.hazelcast.wan.ReplicationEventObject;
+import com.hazelcast.wan.WanReplicationEvent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Applies a batch of WAN replication events sent by a {@link WanBatchReplication} of a source cluster.
+ * <p>
+ * The batch is shipped as a (possibly compressed) serialized {@link WanEventBatch}. The events are applied as
+ * partition operations on the target cluster and the operation responds, which acknowledges the batch to the
+ * source cluster, only after all of them have completed. The execution is asynchronous so the generic thread
+ * executing this operation isn't blocked while the events are applied.
+ */
+public class WanBatchReplicationOperation extends Operation
+        implements WanReplicationOperation, IdentifiedDataSerializable {
+
+    private byte[] payload;
+    private boolean compressed;
+
+    public WanBatchReplicationOperation() {
+    }
+
+    public WanBatchReplicationOperation(byte[] payload, boolean compressed) {
+        this.payload = payload;
+        this.compressed = compressed;
+    }
+
+    @Override
+    public boolean returnsResponse() {
+        // the response is sent when all events have been applied
+        return false;
+    }
+
+    @Override
+    public void run() throws Exception {
+        NodeEngine nodeEngine = getNodeEngine();
+        byte[] bytes = compressed ? IOUtil.decompress(payload) : payload;
+        WanEventBatch batch = nodeEngine.getSerializationService().toObject(new HeapData(bytes));
+
+        List<Operation> operations = new ArrayList<Operation>(batch.getEvents().size());
+        for (WanReplicationEvent event : batch.getEvents()) {
+            Operation operation = createOperation(event);
+            if (operation != null) {
+                operations.add(operation);
+            }
+        }
+
+        if (operations.isEmpty()) {
+            sendResponse(true);
+            return;
+        }
+
+        getOperationServiceImpl().onStartAsyncOperation(this);
+        InternalOperationService operationService = (InternalOperationService) nodeEngine.getOperationService();
+        ExecutionCallback<Object> callback = new BatchCompletionCallback(operations.size());
+        for (Operation operation : operations) {
+            operationService.invokeOnPartition(MapService.SERVICE_NAME, operation, operation.getPartitionId())
+                    .andThen(callback);
+        }
+    }
+
+    @Override
+    public void onExecutionFailure(Throwable cause) {
+        getOperationServiceImpl().onCompletionAsyncOperation(this);
+        sendResponse(new ErrorResponse(cause, getCallId(), isUrgent()));
+        getLogger().severe(cause);
+    }
+
+    private Operation createOperation(WanReplicationEvent event) {
+        if (!MapService.SERVICE_NAME.equals(event.getServiceName())) {
+            getLogger().warning("Ignoring WAN replication event of unsupported service " + event.getServiceName());
+            return null;
+        }
+
+        MapService mapService = getNodeEngine().getService(MapService.SERVICE_NAME);
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        ReplicationEventObject eventObject = event.getEventObject();
+        Operation operation;
+        Data key;
+        if (eventObject instanceof MapReplicationUpdate) {
+            MapReplicationUpdate update = (MapReplicationUpdate) eventObject;
+            EntryView<Data, Data> entryView = update.getEntryView();
+            key = entryView.getKey();
+            operation = mapServiceContext.getMapOperationProvider(update.getMapName())
+                    .createMergeOperation(update.getMapName(), key, entryView, update.getMergePolicy(), true);
+        } else if (eventObject instanceof MapReplicationRemove) {
+            MapReplicationRemove remove = (MapReplicationRemove) eventObject;
+            key = remove.getKey();
+            operation = mapServiceContext.getMapOperationProvider(remove.getMapName())
+                    .createRemoveOperation(remove.getMapName(), key, true);
+        } else {
+            getLogger().warning("Ignoring unsupported WAN replication event " + eventObject);
+            return null;
+        }
+        operation.setPartitionId(getNodeEngine().getPartitionService().getPartitionId(key));
+        return operation;
+    }
+
+    private OperationServiceImpl getOperationServiceImpl() {
+        return (OperationServiceImpl) getNodeEngine().getOperationService();
+    }
+
+    @Override
+    protected void toString(StringBuilder sb) {
+        super.toString(sb);
+
+        sb.append(", payloadLength=").append(payload == null ? 0 : payload.length);
+        sb.append(", compressed=").append(compressed);
+    }
+
+    @Override
+    public int getFactoryId() {
+        return WanDataSerializerHook.F_ID;
+    }
+
+    @Override
+    public int getId() {
+        return WanDataSerializerHook.WAN_BATCH_REPLICATION_OPERATION;
+    }
+
+    @Override
+    protected void writeInternal(ObjectDataOutput out) throws IOException {
+        super.writeInternal(out);
+        out.writeBoolean(compressed);
+        out.writeByteArray(payload);
+    }
+
+    @Override
+    protected void readInternal(ObjectDataInput in) throws IOException {
+        super.readInternal(in);
+        compressed = in.readBoolean();
+        payload = in.readByteArray();
+    }
+
+    private final class BatchCompletionCallback implements ExecutionCallback<Object> {
+
+        private final AtomicInteger pendingOperations;
+
+        private BatchCompletionCallback(int operationCount) {
+            this.pendingOperations = new AtomicInteger(operationCount);
+        }
+
+        @Override
+        public void onResponse(Object response) {
+            if (pendingOperations.decrementAndGet() == 0) {
+                getOperationServiceImpl().onCompletionAsyncOperation(WanBatchReplicationOperation.this);
+                sendResponse(true);
+            }
+        }
+
+        @Override
+        public void onFailure(Throwable t) {
+            // the first failure fails the whole batch, the source cluster will resend it
+            if (pendingOperations.getAndSet(-1) > 0) {
+                onExecutionFailure(t);
+            }
+        }
+    }
+}
@@ -0,0 +1,324 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.wan.impl;
+
+import com.hazelcast.map.impl.wan.MapReplicationRemove;
+import com.hazelcast.map.impl.wan.MapReplicationUpdate;
+import com.hazelcast.wan.ReplicationEventObject;
+import com.hazelcast.wan.WanReplicationEvent;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A bounded queue of WAN replication events which keeps only the latest event per key.
+ * <p>
+ * Events are kept in insertion order of their keys; when a new event arrives for a key which is already pending,
+ * the pending event is replaced in place. This way a hot key updated many times within a batch window is
+ * replicated only once with its latest state.
+ * <p>
+ * Per-key ordering is preserved across concurrent batches by keeping at most one event per key in flight: the keys
+ * of a drained batch stay in flight until the batch is {@link #acknowledge(List) acknowledged} or
+ * {@link #putBack(List, long) put back}, and events offered for such a key in the meantime are held back and not
+ * drained into another batch. Batches in flight at the same time therefore never share a key, so the target can
+ * apply them concurrently. When a failed batch is put back, an event is dropped if a newer event for its key is
+ * held back.
+ * <p>
+ * Events which can't be associated with a key are never coalesced.
+ */
+final class WanCoalescingQueue {
+
+    private final int capacity;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    // events ready to be drained
+    private final LinkedHashMap<Object, PendingEvent> events = new LinkedHashMap<Object, PendingEvent>();
+    // events held back since an event for their key is in flight
+    private final LinkedHashMap<Object, PendingEvent> heldBackEvents = new LinkedHashMap<Object, PendingEvent>();
+    private final Set<Object> inFlightKeys = new HashSet<Object>();
+
+    private volatile int size;
+    private volatile long coalescedEventCount;
+    private volatile long droppedEventCount;
+
+    WanCoalescingQueue(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * Offers an event to the queue.
+     *
+     * @param event the event to offer
+     * @param now   the current time in millis, used to track the replication lag
+     * @return {@code true} if the event was added or coalesced with a pending one,
+     * {@code false} if the queue is full and the event has been dropped
+     */
+    boolean offer(WanReplicationEvent event, long now) {
+        Object key = coalescingKey(event);
+        lock.lock();
+        try {
+            boolean inFlight = inFlightKeys.contains(key);
+            LinkedHashMap<Object, PendingEvent> target = inFlight ? heldBackEvents : events;
+            PendingEvent pending = target.get(key);
+            if (pending != null) {
+                pending.event = event;
+                coalescedEventCount++;
+                return true;
+            }
+            if (size >= capacity) {
+                droppedEventCount++;
+                return false;
+            }
+            target.put(key, new PendingEvent(event, now));
+            updateSize();
+            if (!inFlight) {
+                notEmpty.signal();
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Acknowledges a drained batch which has been delivered. The keys of the batch are no longer in flight and
+     * the events held back for them become ready to be drained.
+     *
+     * @param batch the delivered events
+     */
+    void acknowledge(List<WanReplicationEvent> batch) {
+        lock.lock();
+        try {
+            for (WanReplicationEvent event : batch) {
+                releaseKey(coalescingKey(event));
+            }
+            updateSize();
+            if (!events.isEmpty()) {
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Puts back events of a batch which couldn't be delivered. An event is only put back if no newer event
+     * for the same key has been offered in the meantime, otherwise the newer event replaces it. Since this is
+     * a retry, the capacity is not enforced.
+     *
+     * @param batch       the events to put back
+     * @param enqueueTime the original enqueue time of the batch
+     */
+    void putBack(List<WanReplicationEvent> batch, long enqueueTime) {
+        lock.lock();
+        try {
+            for (WanReplicationEvent event : batch) {
+                Object key = coalescingKey(event);
+                if (!releaseKey(key) && !events.containsKey(key)) {
+                    events.put(key, new PendingEvent(event, enqueueTime));
+                }
+            }
+            updateSize();
+            if (!events.isEmpty()) {
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks the key as no longer in flight and makes the event held back for it ready to be drained.
+     *
+     * @return {@code true} if an event was held back for the key
+     */
+    private boolean releaseKey(Object key) {
+        inFlightKeys.remove(key);
+        PendingEvent heldBack = heldBackEvents.remove(key);
+        if (heldBack == null) {
+            return false;
+        }
+        events.put(key, heldBack);
+        return true;
+    }
+
+    /**
+     * Drains up to {@code batchSize} events into {@code batch}. Blocks until either {@code batchSize} events
+     * are pending or the oldest pending event has waited for {@code maxDelayMillis}, or the timeout elapses.
+     * The keys of the drained events are in flight until the batch is acknowledged or put back.
+     *
+     * @param batch          the list to drain the events to
+     * @param batchSize      the maximum number of events to drain
+     * @param maxDelayMillis the maximum time an event waits for a batch to fill up
+     * @param timeoutMillis  the maximum time to block when no event is pending
+     * @return the enqueue time of the oldest drained event or {@code -1} if nothing was drained
+     * @throws InterruptedException if interrupted while waiting
+     */
+    long drainTo(List<WanReplicationEvent> batch, int batchSize, long maxDelayMillis, long timeoutMillis)
+            throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            long remainingNanos = TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            while (events.isEmpty()) {
+                if (remainingNanos <= 0) {
+                    return -1;
+                }
+                remainingNanos = notEmpty.awaitNanos(remainingNanos);
+            }
+
+            while (events.size() < batchSize) {
+                long waited = System.currentTimeMillis() - oldestEnqueueTime();
+                long delayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis - waited);
+                if (delayNanos <= 0) {
+                    break;
+                }
+                notEmpty.awaitNanos(delayNanos);
+            }
+
+            long oldest = oldestEnqueueTime();
+            Iterator<Map.Entry<Object, PendingEvent>> iterator = events.entrySet().iterator();
+            for (int i = 0; i < batchSize && iterator.hasNext(); i++) {
+                Map.Entry<Object, PendingEvent> entry = iterator.next();
+                batch.add(entry.getValue().event);
+                inFlightKeys.add(entry.getKey());
+                iterator.remove();
+            }
+            updateSize();
+            return oldest;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the enqueue time of the oldest pending event or {@code -1} if the queue is empty.
+     */
+    long getOldestEnqueueTime() {
+        lock.lock();
+        try {
+            long oldest = events.isEmpty() ? -1 : oldestEnqueueTime();
+            if (!heldBackEvents.isEmpty()) {
+                long oldestHeldBack = heldBackEvents.values().iterator().next().enqueueTime;
+                oldest = oldest < 0 ? oldestHeldBack : Math.min(oldest, oldestHeldBack);
+            }
+            return oldest;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int clear() {
+        lock.lock();
+        try {
+            int removed = size;
+            events.clear();
+            heldBackEvents.clear();
+            size = 0;
+            return removed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isFull() {
+        return size >= capacity;
+    }
+
+    long getCoalescedEventCount() {
+        return coalescedEventCount;
+    }
+
+    long getDroppedEventCount() {
+        return droppedEventCount;
+    }
+
+    private void updateSize() {
+        size = events.size() + heldBackEvents.size();
+    }
+
+    private long oldestEnqueueTime() {
+        return events.values().iterator().next().enqueueTime;
+    }
+
+    private static Object coalescingKey(WanReplicationEvent event) {
+        ReplicationEventObject eventObject = event.getEventObject();
+        if (eventObject instanceof MapReplicationUpdate) {
+            MapReplicationUpdate update = (MapReplicationUpdate) eventObject;
+            return new CoalescingKey(event.getServiceName(), update.getMapName(), update.getEntryView().getKey());
+        } else if (eventObject instanceof MapReplicationRemove) {
+            MapReplicationRemove remove = (MapReplicationRemove) eventObject;
+            return new CoalescingKey(event.getServiceName(), remove.getMapName(), remove.getKey());
+        }
+        // unknown event types are never coalesced
+        return event;
+    }
+
+    private static final class PendingEvent {
+        private final long enqueueTime;
+        private WanReplicationEvent event;
+
+        PendingEvent(WanReplicationEvent event, long enqueueTime) {
+            this.event = event;
+            this.enqueueTime = enqueueTime;
+        }
+    }
+
+    private static final class CoalescingKey {
+        private final String serviceName;
+        private final String objectName;
+        private final Object key;
+
+        CoalescingKey(String serviceName, String objectName, Object key) {
+            this.serviceName = serviceName;
+            this.objectName = objectName;
+            this.key = key;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CoalescingKey that = (CoalescingKey) o;
+            return serviceName.equals(that.serviceName)
+                    && objectName.equals(that.objectName)
+                    && key.equals(that.key);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = serviceName.hashCode();
+            result = 31 * result + objectName.hashCode();
+            result = 31 * result + key.hashCode();
+            return result;
+        }
+    }
+}
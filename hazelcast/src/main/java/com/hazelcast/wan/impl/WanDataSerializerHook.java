@@ -49,6 +49,16 @@ public class WanDataSerializerHook implements DataSerializerHook {
      */
     public static final int MAP_REPLICATION_REMOVE = 2;
 
+    /**
+     * Id of {@link WanEventBatch}
+     */
+    public static final int WAN_EVENT_BATCH = 3;
+
+    /**
+     * Id of {@link WanBatchReplicationOperation}
+     */
+    public static final int WAN_BATCH_REPLICATION_OPERATION = 4;
+
     @Override
     public int getFactoryId() {
         return F_ID;
@@ -67,6 +77,10 @@ public class WanDataSerializerHook implements DataSerializerHook {
                         return new MapReplicationUpdate();
                     case MAP_REPLICATION_REMOVE:
                         return new MapReplicationRemove();
+                    case WAN_EVENT_BATCH:
+                        return new WanEventBatch();
+                    case WAN_BATCH_REPLICATION_OPERATION:
+                        return new WanBatchReplicationOperation();
                 }
                 throw new IllegalArgumentException("Unknown type-id: " + typeId);
             }
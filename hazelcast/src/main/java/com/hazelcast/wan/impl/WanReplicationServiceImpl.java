@@ -19,14 +19,17 @@ package com.hazelcast.wan.impl;
 import com.hazelcast.config.WanPublisherConfig;
 import com.hazelcast.config.WanReplicationConfig;
 import com.hazelcast.instance.Node;
+import com.hazelcast.monitor.LocalWanPublisherStats;
 import com.hazelcast.monitor.LocalWanStats;
 import com.hazelcast.monitor.WanSyncState;
+import com.hazelcast.monitor.impl.LocalWanStatsImpl;
 import com.hazelcast.nio.ClassLoaderUtil;
 import com.hazelcast.util.ExceptionUtil;
 import com.hazelcast.wan.WanReplicationEndpoint;
 import com.hazelcast.wan.WanReplicationPublisher;
 import com.hazelcast.wan.WanReplicationService;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -128,7 +131,11 @@ public class WanReplicationServiceImpl implements WanReplicationService {
 
     @Override
     public void clearQueues(String wanReplicationName, String targetGroupName) {
-        throw new UnsupportedOperationException("Clearing WAN replication queues is not supported.");
+        WanBatchReplication endpoint = getBatchReplication(wanReplicationName, targetGroupName);
+        if (endpoint == null) {
+            throw new UnsupportedOperationException("Clearing WAN replication queues is not supported.");
+        }
+        endpoint.clearQueues();
     }
 
     @Override
@@ -138,6 +145,39 @@ public class WanReplicationServiceImpl implements WanReplicationService {
 
     @Override
     public Map<String, LocalWanStats> getStats() {
+        Map<String, LocalWanStats> stats = null;
+        for (WanReplicationPublisherDelegate wanReplication : wanReplications.values()) {
+            Map<String, LocalWanPublisherStats> publisherStats = new HashMap<String, LocalWanPublisherStats>();
+            for (WanReplicationEndpoint endpoint : wanReplication.getEndpoints()) {
+                if (endpoint instanceof WanBatchReplication) {
+                    WanBatchReplication batchReplication = (WanBatchReplication) endpoint;
+                    publisherStats.put(batchReplication.getTargetGroupName(), batchReplication.getStats());
+                }
+            }
+            if (publisherStats.isEmpty()) {
+                continue;
+            }
+            if (stats == null) {
+                stats = new HashMap<String, LocalWanStats>();
+            }
+            LocalWanStatsImpl localWanStats = new LocalWanStatsImpl();
+            localWanStats.setLocalPublisherStatsMap(publisherStats);
+            stats.put(wanReplication.getName(), localWanStats);
+        }
+        return stats;
+    }
+
+    private WanBatchReplication getBatchReplication(String wanReplicationName, String targetGroupName) {
+        WanReplicationPublisherDelegate wanReplication = wanReplications.get(wanReplicationName);
+        if (wanReplication == null) {
+            return null;
+        }
+        for (WanReplicationEndpoint endpoint : wanReplication.getEndpoints()) {
+            if (endpoint instanceof WanBatchReplication
+                    && targetGroupName.equals(((WanBatchReplication) endpoint).getTargetGroupName())) {
+                return (WanBatchReplication) endpoint;
+            }
+        }
         return null;
     }
 
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cache.impl;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class CacheEventBatchTest {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    @Test
+    public void testAdd_groupsEventsByType() {
+        CacheEventBatch batch = new CacheEventBatch();
+        CacheEventData created1 = newEvent(CacheEventType.CREATED, 1, "a");
+        CacheEventData updated = newEvent(CacheEventType.UPDATED, 1, "b");
+        CacheEventData created2 = newEvent(CacheEventType.CREATED, 2, "c");
+
+        batch.add(created1);
+        batch.add(updated);
+        batch.add(created2);
+
+        assertEquals(asList(CacheEventType.CREATED, CacheEventType.UPDATED),
+                new ArrayList<CacheEventType>(batch.getEventTypes()));
+        assertEquals(asList(created1, created2), new ArrayList<CacheEventData>(batch.remove(CacheEventType.CREATED)));
+        assertEquals(asList(updated), new ArrayList<CacheEventData>(batch.remove(CacheEventType.UPDATED)));
+        assertTrue(batch.isEmpty());
+    }
+
+    @Test
+    public void testAdd_keepsAllEventsOfKey() {
+        CacheEventBatch batch = new CacheEventBatch();
+
+        batch.add(newEvent(CacheEventType.UPDATED, 1, "a"));
+        batch.add(newEvent(CacheEventType.UPDATED, 1, "b"));
+
+        assertEquals(2, batch.remove(CacheEventType.UPDATED).size());
+    }
+
+    @Test
+    public void testRemove_whenNoEventOfType() {
+        CacheEventBatch batch = new CacheEventBatch();
+
+        assertNull(batch.remove(CacheEventType.CREATED));
+    }
+
+    @Test
+    public void testClear() {
+        CacheEventBatch batch = new CacheEventBatch();
+        batch.add(newEvent(CacheEventType.CREATED, 1, "a"));
+
+        batch.clear();
+
+        assertTrue(batch.isEmpty());
+    }
+
+    @Test
+    public void testIsBatchable() {
+        assertTrue(CacheEventBatch.isBatchable(CacheEventType.CREATED));
+        assertTrue(CacheEventBatch.isBatchable(CacheEventType.UPDATED));
+        assertTrue(CacheEventBatch.isBatchable(CacheEventType.REMOVED));
+        assertTrue(CacheEventBatch.isBatchable(CacheEventType.EXPIRED));
+        assertFalse(CacheEventBatch.isBatchable(CacheEventType.EVICTED));
+        assertFalse(CacheEventBatch.isBatchable(CacheEventType.INVALIDATED));
+        assertFalse(CacheEventBatch.isBatchable(CacheEventType.COMPLETED));
+    }
+
+    private CacheEventData newEvent(CacheEventType eventType, int key, String value) {
+        return new CacheEventDataImpl("cache", eventType, serializationService.toData(key),
+                serializationService.toData(value), null, false);
+    }
+}
@@ -41,10 +41,13 @@ import org.junit.runner.RunWith;
 import javax.cache.Cache;
 import javax.cache.configuration.FactoryBuilder;
 import javax.cache.configuration.MutableCacheEntryListenerConfiguration;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.Future;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelTest.class})
@@ -108,7 +111,40 @@ public class InternalCacheRecordStoreTest extends CacheTestSupport {
         ICacheService cacheService = node.getNodeEngine().getService(ICacheService.SERVICE_NAME);
         AbstractCacheRecordStore recordStore = (AbstractCacheRecordStore) cacheService
                 .getRecordStore("/hz/" + cacheName, partitionId);
-        assertEquals(0, recordStore.batchEvent.size());
+        assertTrue(recordStore.eventBatch.isEmpty());
+    }
+
+    @Test
+    public void batchEventMapShouldBeCleanedAfterPutAll() {
+        String cacheName = randomString();
+
+        CacheConfig<Integer, String> config = createCacheConfig();
+        CacheFromDifferentNodesTest.SimpleEntryListener<Integer, String> listener =
+                new CacheFromDifferentNodesTest.SimpleEntryListener<Integer, String>();
+        MutableCacheEntryListenerConfiguration<Integer, String> listenerConfiguration =
+                new MutableCacheEntryListenerConfiguration<Integer, String>(
+                        FactoryBuilder.factoryOf(listener), null, true, true);
+
+        config.addCacheEntryListenerConfiguration(listenerConfiguration);
+
+        Cache<Integer, String> cache = cacheManager.createCache(cacheName, config);
+        assertNotNull(cache);
+
+        Integer key = 1;
+        Map<Integer, String> entries = new HashMap<Integer, String>();
+        entries.put(key, "value");
+        cache.putAll(entries);
+
+        HazelcastInstance instance = ((HazelcastCacheManager) cacheManager).getHazelcastInstance();
+        int partitionId = instance.getPartitionService().getPartition(key).getPartitionId();
+
+        Node node = getNode(instance);
+        assertNotNull(node);
+
+        ICacheService cacheService = node.getNodeEngine().getService(ICacheService.SERVICE_NAME);
+        AbstractCacheRecordStore recordStore = (AbstractCacheRecordStore) cacheService
+                .getRecordStore("/hz/" + cacheName, partitionId);
+        assertTrue(recordStore.eventBatch.isEmpty());
     }
 
     /**
@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.cache.recordstore;
+
+import com.hazelcast.cache.impl.CacheService;
+import com.hazelcast.cache.impl.ICacheRecordStore;
+import com.hazelcast.cache.impl.NativeCacheRecordStore;
+import com.hazelcast.cache.impl.record.CacheDataRecord;
+import com.hazelcast.cache.impl.record.CacheNativeRecord;
+import com.hazelcast.cache.impl.record.CacheRecord;
+import com.hazelcast.config.CacheConfig;
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.config.InvalidConfigurationException;
+import com.hazelcast.config.NativeMemoryConfig;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.internal.memory.impl.MallocMemoryAllocator;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.memory.MemorySize;
+import com.hazelcast.memory.MemoryUnit;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import javax.cache.configuration.FactoryBuilder;
+import javax.cache.integration.CacheLoader;
+import javax.cache.processor.EntryProcessor;
+import javax.cache.processor.MutableEntry;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class NativeCacheRecordStoreTest
+        extends CacheRecordStoreTestSupport {
+
+    private static final int NATIVE_MEMORY_SIZE_MB = 1;
+
+    private final SerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    private ICacheRecordStore recordStore;
+    private MallocMemoryAllocator allocator;
+
+    @Override
+    protected Config createConfig() {
+        NativeMemoryConfig nativeMemoryConfig = new NativeMemoryConfig()
+                .setEnabled(true)
+                .setSize(new MemorySize(NATIVE_MEMORY_SIZE_MB, MemoryUnit.MEGABYTES));
+        return super.createConfig().setNativeMemoryConfig(nativeMemoryConfig);
+    }
+
+    @Before
+    public void setUp() {
+        recordStore = createNativeCacheRecordStore();
+        CacheService cacheService = (CacheService) getCacheService(hz);
+        allocator = (MallocMemoryAllocator) cacheService.getNativeMemoryManager().getAllocator();
+    }
+
+    @Test
+    public void putObjectAndGetDataFromCacheRecordStore() {
+        putAndGetFromCacheRecordStore(recordStore, InMemoryFormat.NATIVE);
+
+        assertEquals(CACHE_RECORD_COUNT, recordStore.size());
+        assertTrue(recordStore.getRecord(toData(0)) instanceof CacheNativeRecord);
+        assertTrue(allocator.getUsedMemory() > 0);
+    }
+
+    @Test
+    public void testReplace() {
+        recordStore.put(toData(1), "value", null, null, -1);
+        recordStore.replace(toData(1), "newValue", null, null, -1);
+
+        assertEquals("newValue", serializationService.toObject(recordStore.get(toData(1), null)));
+    }
+
+    @Test
+    public void testRemove_freesNativeMemory() {
+        recordStore.put(toData(1), "value", null, null, -1);
+
+        CacheRecord removedRecord = recordStore.removeRecord(toData(1));
+
+        assertEquals(0, allocator.getUsedMemory());
+        // a removed record is still readable from the heap
+        assertEquals("value", serializationService.toObject(removedRecord.getValue()));
+    }
+
+    @Test
+    public void testClear_freesNativeMemory() {
+        putAndGetFromCacheRecordStore(recordStore, InMemoryFormat.NATIVE);
+
+        recordStore.clear();
+
+        assertEquals(0, recordStore.size());
+        assertEquals(0, allocator.getUsedMemory());
+    }
+
+    @Test
+    public void testGetReadOnlyRecords_returnsHeapCopies() {
+        recordStore.put(toData(1), "value", null, null, -1);
+
+        CacheRecord record = recordStore.getReadOnlyRecords().get(toData(1));
+
+        assertTrue(record instanceof CacheDataRecord);
+        assertEquals("value", serializationService.toObject(record.getValue()));
+    }
+
+    @Test
+    public void testPutRecord_copiesHeapRecordToNativeMemory() {
+        CacheDataRecord heapRecord = new CacheDataRecord(toData("value"), 1000, 2000);
+        heapRecord.setAccessTime(1500);
+        heapRecord.setAccessHit(3);
+
+        recordStore.putRecord(toData(1), heapRecord);
+
+        CacheRecord record = recordStore.getRecord(toData(1));
+        assertTrue(record instanceof CacheNativeRecord);
+        assertEquals(toData("value"), record.getValue());
+        assertEquals(1000, record.getCreationTime());
+        assertEquals(2000, record.getExpirationTime());
+        assertEquals(1500, record.getLastAccessTime());
+        assertEquals(3, record.getAccessHit());
+        assertFalse(record.isExpiredAt(1999));
+        assertTrue(record.isExpiredAt(2000));
+    }
+
+    @Test
+    public void testInvoke() {
+        recordStore.put(toData(1), "value", null, null, -1);
+
+        Object result = recordStore.invoke(toData(1), new AppendingEntryProcessor(), new Object[]{"-suffix"}, -1);
+
+        assertEquals("value", result);
+        assertEquals("value-suffix", serializationService.toObject(recordStore.get(toData(1), null)));
+    }
+
+    @Test
+    public void testInvoke_withReadThrough_doesNotLeakNativeMemory() {
+        CacheConfig cacheConfig = createCacheConfig("readThroughCache", InMemoryFormat.NATIVE)
+                .setReadThrough(true)
+                .setCacheLoaderFactory(FactoryBuilder.factoryOf(new KeyLoader()));
+        ICacheRecordStore readThroughStore = createNativeCacheRecordStore(cacheConfig);
+
+        Object result = readThroughStore.invoke(toData(1), new AppendingEntryProcessor(), new Object[0], -1);
+        assertEquals("loaded-1", result);
+        assertEquals(1, readThroughStore.size());
+
+        readThroughStore.removeRecord(toData(1));
+        assertEquals(0, allocator.getUsedMemory());
+    }
+
+    @Test
+    public void testPut_whenNativeMemoryIsFull_thenEntriesAreForceEvicted() {
+        byte[] value = new byte[(int) MemoryUnit.KILOBYTES.toBytes(64)];
+        int putCount = 2 * (int) MemoryUnit.MEGABYTES.toBytes(NATIVE_MEMORY_SIZE_MB) / value.length;
+
+        for (int i = 0; i < putCount; i++) {
+            recordStore.put(toData(i), value, null, null, -1);
+        }
+
+        assertTrue(recordStore.size() < putCount);
+        assertTrue(recordStore.getRecord(toData(putCount - 1)) instanceof CacheNativeRecord);
+        assertTrue(allocator.getUsedMemory() <= allocator.getCapacity());
+    }
+
+    @Test(expected = InvalidConfigurationException.class)
+    public void testCreate_whenNativeMemoryIsNotEnabled() {
+        HazelcastInstance instance = createHazelcastInstance(new Config());
+        CacheService cacheService = (CacheService) getCacheService(instance);
+        CacheConfig cacheConfig = createCacheConfig(DEFAULT_CACHE_NAME, InMemoryFormat.NATIVE);
+        cacheService.putCacheConfigIfAbsent(cacheConfig);
+
+        new NativeCacheRecordStore(CACHE_NAME_PREFIX + DEFAULT_CACHE_NAME, DEFAULT_PARTITION_ID,
+                getNodeEngine(instance), cacheService);
+    }
+
+    private ICacheRecordStore createNativeCacheRecordStore() {
+        return createNativeCacheRecordStore(createCacheConfig(DEFAULT_CACHE_NAME, InMemoryFormat.NATIVE));
+    }
+
+    private ICacheRecordStore createNativeCacheRecordStore(CacheConfig cacheConfig) {
+        CacheService cacheService = (CacheService) getCacheService(hz);
+        cacheService.putCacheConfigIfAbsent(cacheConfig);
+        return new NativeCacheRecordStore(CACHE_NAME_PREFIX + cacheConfig.getName(), DEFAULT_PARTITION_ID,
+                getNodeEngine(hz), cacheService);
+    }
+
+    private Data toData(Object object) {
+        return serializationService.toData(object);
+    }
+
+    private static class AppendingEntryProcessor implements EntryProcessor<Integer, String, String> {
+
+        @Override
+        public String process(MutableEntry<Integer, String> entry, Object... arguments) {
+            String value = entry.getValue();
+            if (value != null && arguments.length > 0) {
+                entry.setValue(value + arguments[0]);
+            }
+            return value;
+        }
+    }
+
+    private static class KeyLoader implements CacheLoader<Integer, String>, Serializable {
+
+        @Override
+        public String load(Integer key) {
+            return "loaded-" + key;
+        }
+
+        @Override
+        public Map<Integer, String> loadAll(Iterable<? extends Integer> keys) {
+            Map<Integer, String> values = new HashMap<Integer, String>();
+            for (Integer key : keys) {
+                values.put(key, load(key));
+            }
+            return values;
+        }
+    }
+}
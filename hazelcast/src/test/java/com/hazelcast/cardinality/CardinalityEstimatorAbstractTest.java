@@ -29,10 +29,13 @@ import org.junit.Test;
 import org.junit.runners.Parameterized;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assume.assumeTrue;
 
 public abstract class CardinalityEstimatorAbstractTest extends HazelcastTestSupport {
@@ -106,6 +109,49 @@ public abstract class CardinalityEstimatorAbstractTest extends HazelcastTestSupp
         assertEquals(4L, estimator.estimateAsync().get().longValue());
     }
 
+    @Test
+    public void addAll() {
+        estimator.addAll(Arrays.asList(1L, 1L, 2L, 3L, "Test"));
+        assertEquals(4L, estimator.estimate());
+        estimator.addAll(Arrays.asList(1L, 2L));
+        assertEquals(4L, estimator.estimate());
+    }
+
+    @Test
+    public void addAllAsync() throws Exception {
+        estimator.addAllAsync(Arrays.asList(1L, 1L, 2L, 3L, "Test")).get();
+        assertEquals(4L, estimator.estimateAsync().get().longValue());
+    }
+
+    @Test
+    public void addAll_manyObjects() {
+        List<Integer> objects = new ArrayList<Integer>();
+        for (int i = 0; i < 100000; i++) {
+            objects.add(i);
+        }
+        estimator.addAll(objects);
+
+        long estimate = estimator.estimate();
+        assertTrue("estimate=" + estimate, Math.abs(estimate - 100000) < 100000 * 0.05);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void addAll_nullObject() {
+        estimator.addAll(Arrays.asList(1L, null));
+    }
+
+    @Test
+    public void merge() {
+        CardinalityEstimator other = instances[0].getCardinalityEstimator(randomName());
+        estimator.addAll(Arrays.asList(1L, 2L, 3L));
+        other.addAll(Arrays.asList(3L, 4L));
+
+        estimator.merge(other);
+
+        assertEquals(4L, estimator.estimate());
+        assertEquals(2L, other.estimate());
+    }
+
     @Test(expected = com.hazelcast.nio.serialization.HazelcastSerializationException.class)
     public void addCustomObject() {
         assumeTrue(config == null);
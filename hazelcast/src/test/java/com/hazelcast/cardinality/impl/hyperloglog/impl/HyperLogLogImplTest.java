@@ -32,6 +32,7 @@ import java.util.Collection;
 import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 @RunWith(Parameterized.class)
@@ -73,6 +74,59 @@ public class HyperLogLogImplTest {
         assertEquals(4L, hyperLogLog.estimate());
     }
 
+    @Test
+    public void addAll_sameAsAdd() {
+        HyperLogLog other = new HyperLogLogImpl(precision, PRIME_PRECISION);
+        long[] hashes = randomHashes(100000);
+        for (long hash : hashes) {
+            other.add(hash);
+        }
+
+        hyperLogLog.addAll(hashes);
+
+        assertEquals(other.estimate(), hyperLogLog.estimate());
+    }
+
+    @Test
+    public void merge_sparse() {
+        HyperLogLog other = new HyperLogLogImpl(precision, PRIME_PRECISION);
+        hyperLogLog.addAll(new long[]{1L, 2000L, 3000L});
+        other.addAll(new long[]{3000L, 40000L});
+
+        hyperLogLog.merge(other);
+
+        assertEquals(4L, hyperLogLog.estimate());
+        assertEquals(2L, other.estimate());
+    }
+
+    @Test
+    public void merge_dense() {
+        long[] hashes = randomHashes(200000);
+        HyperLogLog other = new HyperLogLogImpl(precision, PRIME_PRECISION);
+        hyperLogLog.addAll(Arrays.copyOfRange(hashes, 0, 120000));
+        other.addAll(Arrays.copyOfRange(hashes, 80000, hashes.length));
+
+        hyperLogLog.merge(other);
+
+        long estimate = hyperLogLog.estimate();
+        assertTrue("estimate=" + estimate, Math.abs(estimate - 200000) < 200000 * 0.05);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void merge_differentPrecision() {
+        HyperLogLog other = new HyperLogLogImpl(precision == 16 ? 15 : precision + 1, PRIME_PRECISION);
+        hyperLogLog.merge(other);
+    }
+
+    private static long[] randomHashes(int count) {
+        Random random = new Random();
+        long[] hashes = new long[count];
+        for (int i = 0; i < count; i++) {
+            hashes[i] = random.nextLong();
+        }
+        return hashes;
+    }
+
     /**
      * - Add up-to runLength() random numbers on both a Set and a HyperLogLog encoder.
      * - Sample the actual count, and the estimate respectively every 100 operations.
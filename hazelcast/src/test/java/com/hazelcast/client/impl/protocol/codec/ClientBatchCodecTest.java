@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.client.impl.protocol.codec;
+
+import com.hazelcast.client.impl.protocol.ClientMessage;
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ClientBatchCodecTest extends HazelcastTestSupport {
+
+    @Test
+    public void testConstructor() {
+        assertUtilityConstructor(ClientBatchCodec.class);
+    }
+
+    @Test
+    public void testEncodeDecode() {
+        List<ClientMessage> requests = new ArrayList<ClientMessage>();
+        for (int i = 0; i < 10; i++) {
+            ClientMessage request = MapPutCodec.encodeRequest("map", data(i), data(i * 100), i, -1);
+            request.setCorrelationId(i);
+            request.setPartitionId(i % 3);
+            requests.add(request);
+        }
+
+        ClientMessage batch = ClientBatchCodec.encodeRequest(requests);
+        assertEquals(ClientBatchCodec.REQUEST_TYPE, batch.getMessageType());
+
+        ClientMessage received = ClientMessage.createForDecode(batch.buffer(), 0);
+        List<ClientMessage> decoded = ClientBatchCodec.decodeRequest(received);
+        assertEquals(requests.size(), decoded.size());
+        for (int i = 0; i < requests.size(); i++) {
+            ClientMessage request = decoded.get(i);
+            assertEquals(i, request.getCorrelationId());
+            assertEquals(i % 3, request.getPartitionId());
+            assertEquals(MapPutCodec.REQUEST_TYPE.id(), request.getMessageType());
+
+            MapPutCodec.RequestParameters parameters = MapPutCodec.decodeRequest(request);
+            assertEquals("map", parameters.name);
+            assertEquals(data(i), parameters.key);
+            assertEquals(data(i * 100), parameters.value);
+            assertEquals(i, parameters.threadId);
+        }
+    }
+
+    @Test
+    public void testEncodeDecode_whenEmpty() {
+        ClientMessage batch = ClientBatchCodec.encodeRequest(Collections.<ClientMessage>emptyList());
+
+        assertTrue(ClientBatchCodec.decodeRequest(ClientMessage.createForDecode(batch.buffer(), 0)).isEmpty());
+    }
+
+    private static Data data(int value) {
+        byte[] bytes = new byte[HeapData.HEAP_DATA_OVERHEAD + 4];
+        bytes[bytes.length - 1] = (byte) value;
+        bytes[bytes.length - 2] = (byte) (value >> 8);
+        return new HeapData(bytes);
+    }
+}
@@ -42,6 +42,8 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
 
 @RunWith(HazelcastParallelClassRunner.class)
@@ -439,6 +441,41 @@ public class LockStoreImplTest extends HazelcastTestSupport {
         assertTrue(locked);
     }
 
+    @Test
+    public void testUnlock_whenLockedTwiceAndUnlockedOnce_thenStillLocked() {
+        lockAndIncreaseReferenceId();
+        lockAndIncreaseReferenceId();
+        unlockAndIncreaseReferenceId();
+
+        assertTrue(lockStore.isLocked(key));
+    }
+
+    @Test
+    public void testLockAndUnlock_whenNoLease_thenEvictionSchedulerNotUsed() {
+        lockAndIncreaseReferenceId();
+        unlockAndIncreaseReferenceId();
+
+        verifyZeroInteractions(mockScheduler);
+    }
+
+    @Test
+    public void testUnlock_whenLeased_thenEvictionCancelled() {
+        leaseTime = 1000;
+        lockAndIncreaseReferenceId();
+        unlockAndIncreaseReferenceId();
+
+        verify(mockScheduler).schedule(leaseTime, key, 1);
+        verify(mockScheduler).cancel(key);
+    }
+
+    @Test
+    public void testGetAcquireTime() {
+        assertEquals(-1, lockStore.getAcquireTime(key));
+        lockAndIncreaseReferenceId();
+        assertThat(lockStore.getAcquireTime(key), greaterThan(0L));
+        unlockAndIncreaseReferenceId();
+        assertEquals(-1, lockStore.getAcquireTime(key));
+    }
 
     private boolean lock() {
         return lockStore.lock(key, callerId, threadId, referenceId, leaseTime);
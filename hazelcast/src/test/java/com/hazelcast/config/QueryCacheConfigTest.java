@@ -24,6 +24,7 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
@@ -67,10 +68,12 @@ public class QueryCacheConfigTest extends HazelcastTestSupport {
         config.setInMemoryFormat(null);
     }
 
-    @Test(expected = IllegalArgumentException.class)
-    public void testSetInMemoryFormat_throwsException_whenNative() {
+    @Test
+    public void testSetInMemoryFormat_whenNative() {
         QueryCacheConfig config = new QueryCacheConfig();
         config.setInMemoryFormat(InMemoryFormat.NATIVE);
+
+        assertEquals(InMemoryFormat.NATIVE, config.getInMemoryFormat());
     }
 
     @Test(expected = NullPointerException.class)
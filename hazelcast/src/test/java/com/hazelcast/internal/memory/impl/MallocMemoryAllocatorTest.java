@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.memory.NativeOutOfMemoryError;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.memory.impl.UnsafeUtil.UNSAFE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MallocMemoryAllocatorTest extends AbstractUnsafeDependentMemoryAccessorTest {
+
+    private static final int CAPACITY = 1024;
+
+    private MallocMemoryAllocator allocator = new MallocMemoryAllocator(CAPACITY);
+    private long address;
+    private long size;
+
+    @After
+    public void tearDown() {
+        if (address != 0) {
+            allocator.free(address, size);
+        }
+    }
+
+    @Test
+    public void testAllocate() {
+        allocate(100);
+
+        for (int i = 0; i < size; i++) {
+            assertEquals(0, UNSAFE.getByte(address + i));
+        }
+        assertEquals(100, allocator.getUsedMemory());
+        assertEquals(CAPACITY - 100, allocator.getFreeMemory());
+    }
+
+    @Test
+    public void testFree() {
+        allocate(100);
+
+        allocator.free(address, size);
+        address = 0;
+
+        assertEquals(0, allocator.getUsedMemory());
+    }
+
+    @Test
+    public void testAllocate_whenCapacityExceeded() {
+        allocate(1000);
+
+        try {
+            allocator.allocate(100);
+            fail();
+        } catch (NativeOutOfMemoryError expected) {
+            assertEquals(1000, allocator.getUsedMemory());
+        }
+    }
+
+    @Test
+    public void testReallocate_whenGrowing() {
+        allocate(8);
+        UNSAFE.putLong(address, 42);
+
+        address = allocator.reallocate(address, 8, 16);
+        size = 16;
+
+        assertEquals(42, UNSAFE.getLong(address));
+        assertEquals(0, UNSAFE.getLong(address + 8));
+        assertEquals(16, allocator.getUsedMemory());
+    }
+
+    @Test
+    public void testReallocate_whenShrinking() {
+        allocate(16);
+        UNSAFE.putLong(address, 42);
+
+        address = allocator.reallocate(address, 16, 8);
+        size = 8;
+
+        assertEquals(42, UNSAFE.getLong(address));
+        assertEquals(8, allocator.getUsedMemory());
+    }
+
+    @Test(expected = NativeOutOfMemoryError.class)
+    public void testReallocate_whenCapacityExceeded() {
+        allocate(1000);
+
+        allocator.reallocate(address, size, 2000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructor_withNonPositiveCapacity() {
+        new MallocMemoryAllocator(0);
+    }
+
+    private void allocate(long size) {
+        this.address = allocator.allocate(size);
+        this.size = size;
+    }
+}
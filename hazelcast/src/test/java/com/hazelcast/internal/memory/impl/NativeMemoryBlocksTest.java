@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.memory.impl;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static com.hazelcast.internal.memory.GlobalMemoryAccessorRegistry.MEM;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class NativeMemoryBlocksTest extends HazelcastTestSupport {
+
+    private MallocMemoryAllocator allocator;
+    private NativeMemoryBlocks blocks;
+
+    @Before
+    public void setUp() {
+        allocator = new MallocMemoryAllocator(1024 * 1024);
+        blocks = new NativeMemoryBlocks(new MemoryManagerBean(allocator, MEM));
+    }
+
+    @Test
+    public void testStore_thenRead() {
+        NativeMemoryBlocks.Block first = blocks.store(bytes(10, 1));
+        NativeMemoryBlocks.Block second = blocks.store(bytes(20, 2));
+
+        assertArrayEquals(bytes(10, 1), first.toByteArray());
+        assertArrayEquals(bytes(20, 2), second.toByteArray());
+        assertEquals(20, second.length());
+        assertEquals(30, blocks.getStoredBytes());
+        assertEquals(30, allocator.getUsedMemory());
+    }
+
+    @Test
+    public void testStore_whenEmpty() {
+        NativeMemoryBlocks.Block block = blocks.store(new byte[0]);
+
+        assertEquals(0, block.toByteArray().length);
+        assertEquals(0, allocator.getUsedMemory());
+
+        blocks.release(block);
+    }
+
+    @Test
+    public void testRelease_freesBlock() {
+        NativeMemoryBlocks.Block first = blocks.store(bytes(10, 1));
+        NativeMemoryBlocks.Block second = blocks.store(bytes(10, 2));
+
+        blocks.release(first);
+
+        assertEquals(10, allocator.getUsedMemory());
+        assertEquals(10, blocks.getStoredBytes());
+        assertNull(first.toByteArray());
+        assertArrayEquals(bytes(10, 2), second.toByteArray());
+    }
+
+    @Test
+    public void testRelease_isIgnoredForReleasedBlock() {
+        blocks.store(bytes(10, 1));
+        NativeMemoryBlocks.Block block = blocks.store(bytes(10, 2));
+
+        blocks.release(block);
+        blocks.release(block);
+
+        assertEquals(10, blocks.getStoredBytes());
+        assertEquals(10, allocator.getUsedMemory());
+    }
+
+    @Test
+    public void testStoreAndRelease_doesNotGrow() {
+        for (int i = 0; i < 10000; i++) {
+            blocks.release(blocks.store(bytes(100, i)));
+        }
+
+        assertEquals(0, blocks.getStoredBytes());
+        assertEquals(0, allocator.getUsedMemory());
+    }
+
+    @Test
+    public void testRelease_whileReading() throws Exception {
+        final AtomicReference<NativeMemoryBlocks.Block> current
+                = new AtomicReference<NativeMemoryBlocks.Block>(blocks.store(bytes(100, 0)));
+        final AtomicBoolean stop = new AtomicBoolean();
+        final AtomicBoolean corrupted = new AtomicBoolean();
+        final CountDownLatch readerStarted = new CountDownLatch(1);
+        Thread reader = new Thread() {
+            @Override
+            public void run() {
+                readerStarted.countDown();
+                while (!stop.get()) {
+                    byte[] read = current.get().toByteArray();
+                    // a read either fails after the release or returns the whole blob
+                    if (read != null && read[1] != (byte) (read[0] + 1)) {
+                        corrupted.set(true);
+                    }
+                }
+            }
+        };
+        reader.start();
+        readerStarted.await();
+
+        for (int i = 1; i < 10000; i++) {
+            NativeMemoryBlocks.Block previous = current.getAndSet(blocks.store(bytes(100, i)));
+            blocks.release(previous);
+        }
+        stop.set(true);
+        assertJoinable(reader);
+
+        assertFalse(corrupted.get());
+        assertEquals(100, allocator.getUsedMemory());
+    }
+
+    private static byte[] bytes(int length, int seed) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (seed + i);
+        }
+        return bytes;
+    }
+}
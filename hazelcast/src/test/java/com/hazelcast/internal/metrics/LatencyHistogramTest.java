@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.metrics;
+
+import com.hazelcast.internal.metrics.impl.MetricsRegistryImpl;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.metrics.LatencyHistogram.BUCKET_COUNT;
+import static com.hazelcast.internal.metrics.LatencyHistogram.MAX_VALUE;
+import static com.hazelcast.internal.metrics.LatencyHistogram.bucketIndex;
+import static com.hazelcast.internal.metrics.LatencyHistogram.bucketUpperBound;
+import static com.hazelcast.internal.metrics.LatencyHistograms.newLatencyHistogramsIfEnabled;
+import static com.hazelcast.test.HazelcastTestSupport.assertJoinable;
+import static com.hazelcast.test.HazelcastTestSupport.sleepMillis;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class LatencyHistogramTest {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    public void testBucketIndex_isContiguous() {
+        for (long value = 1; value < 1 << 16; value++) {
+            int index = bucketIndex(value);
+            assertTrue(index == bucketIndex(value - 1) || index == bucketIndex(value - 1) + 1);
+            assertTrue(bucketUpperBound(index) >= value);
+        }
+        assertEquals(BUCKET_COUNT - 1, bucketIndex(MAX_VALUE));
+        assertEquals(MAX_VALUE, bucketUpperBound(BUCKET_COUNT - 1));
+    }
+
+    @Test
+    public void testBucketUpperBound_isWithinPrecision() {
+        for (long value = 1; value < 1 << 20; value += 7) {
+            long upperBound = bucketUpperBound(bucketIndex(value));
+            assertTrue(upperBound - value <= value / LatencyHistogram.SUB_BUCKET_COUNT);
+        }
+    }
+
+    @Test
+    public void testPercentiles_whenEmpty() {
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.p50());
+        assertEquals(0, histogram.p999());
+        assertEquals(0, histogram.max());
+    }
+
+    @Test
+    public void testPercentiles() {
+        for (int i = 1; i <= 1000; i++) {
+            histogram.recordMicros(i);
+        }
+
+        assertEquals(1000, histogram.count());
+        assertEquals(1000, histogram.max());
+        assertWithinPrecision(500, histogram.p50());
+        assertWithinPrecision(900, histogram.p90());
+        assertWithinPrecision(990, histogram.p99());
+        assertWithinPrecision(999, histogram.p999());
+    }
+
+    @Test
+    public void testPercentile_isCappedAtMax() {
+        histogram.recordMicros(1000);
+
+        assertEquals(1000, histogram.p999());
+    }
+
+    @Test
+    public void testRecord_clampsOutOfRangeLatencies() {
+        histogram.recordMicros(-5);
+        histogram.recordMicros(Long.MAX_VALUE);
+
+        assertEquals(2, histogram.count());
+        assertEquals(0, histogram.p50());
+        assertEquals(MAX_VALUE, histogram.max());
+    }
+
+    @Test
+    public void testRecordNanos() {
+        histogram.recordNanos(MILLISECONDS.toNanos(3));
+
+        assertEquals(3000, histogram.max());
+    }
+
+    @Test
+    public void testPercentiles_whenWindowPassed_thenOldLatenciesDropped() {
+        LatencyHistogram histogram = new LatencyHistogram(50);
+        for (int i = 0; i < 1000; i++) {
+            histogram.recordMicros(1000);
+        }
+        assertEquals(1000, histogram.p50());
+
+        sleepMillis(100);
+        assertEquals(1000, histogram.p50());
+        for (int i = 0; i < 1000; i++) {
+            histogram.recordMicros(10);
+        }
+        sleepMillis(100);
+
+        assertEquals(2000, histogram.count());
+        assertEquals(10, histogram.p50());
+        assertEquals(10, histogram.max());
+    }
+
+    @Test
+    public void testRecord_fromConcurrentThreads() {
+        final int recordsPerThread = 10000;
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            final int latency = i + 1;
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    for (int j = 0; j < recordsPerThread; j++) {
+                        histogram.recordMicros(latency);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        assertJoinable(threads);
+
+        assertEquals(threads.length * recordsPerThread, histogram.count());
+        assertEquals(4, histogram.p50());
+        assertEquals(8, histogram.max());
+    }
+
+    @Test
+    public void testLatencyHistograms_registerProbesPerClass() {
+        MetricsRegistryImpl metricsRegistry = new MetricsRegistryImpl(Logger.getLogger(MetricsRegistryImpl.class),
+                ProbeLevel.INFO);
+        LatencyHistograms histograms = newLatencyHistogramsIfEnabled(metricsRegistry, "operation.latency");
+        assertNotNull(histograms);
+
+        histograms.record(String.class, MILLISECONDS.toNanos(2));
+
+        assertSame(histograms.getHistogram(String.class), histograms.getHistogram(String.class));
+        String prefix = "operation.latency[java.lang.String]";
+        assertEquals(1, metricsRegistry.newLongGauge(prefix + ".count").read());
+        assertEquals(2000, metricsRegistry.newLongGauge(prefix + ".p99Micros").read());
+    }
+
+    @Test
+    public void testLatencyHistograms_whenLevelNotTracked() {
+        MetricsRegistryImpl metricsRegistry = new MetricsRegistryImpl(Logger.getLogger(MetricsRegistryImpl.class),
+                ProbeLevel.MANDATORY);
+
+        assertNull(newLatencyHistogramsIfEnabled(metricsRegistry, "operation.latency"));
+    }
+
+    private static void assertWithinPrecision(long expected, long actual) {
+        assertTrue("expected " + expected + " but was " + actual,
+                actual >= expected && actual <= expected + expected / LatencyHistogram.SUB_BUCKET_COUNT);
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.metrics.publishers;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.internal.metrics.DoubleProbeFunction;
+import com.hazelcast.internal.metrics.LongProbeFunction;
+import com.hazelcast.internal.metrics.impl.MetricsRegistryImpl;
+import com.hazelcast.logging.ILogger;
+import com.hazelcast.logging.Logger;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.spi.properties.HazelcastProperties;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.hazelcast.internal.metrics.ProbeLevel.INFO;
+import static com.hazelcast.test.HazelcastTestSupport.assertContains;
+import static com.hazelcast.test.HazelcastTestSupport.assertNotContains;
+import static com.hazelcast.util.StringUtil.bytesToString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MetricsPublishingServiceTest {
+
+    private final ILogger logger = Logger.getLogger(MetricsPublishingServiceTest.class);
+
+    private MetricsRegistryImpl metricsRegistry;
+    private MetricsPublishingService service;
+    private RecordingPublisher publisher;
+    private long counter;
+    private double ratio;
+
+    @Before
+    public void setup() {
+        metricsRegistry = new MetricsRegistryImpl(logger, INFO);
+        metricsRegistry.register(this, "test.counter", INFO, new LongProbeFunction<MetricsPublishingServiceTest>() {
+            @Override
+            public long get(MetricsPublishingServiceTest source) {
+                return source.counter;
+            }
+        });
+        metricsRegistry.register(this, "test.ratio", INFO, new DoubleProbeFunction<MetricsPublishingServiceTest>() {
+            @Override
+            public double get(MetricsPublishingServiceTest source) {
+                return source.ratio;
+            }
+        });
+
+        Config config = new Config()
+                .setProperty(GroupProperty.METRICS_PUBLISHING_PERIOD_SECONDS.getName(), "1")
+                .setProperty(GroupProperty.METRICS_PUBLISHING_FULL_SNAPSHOT_INTERVAL.getName(), "3");
+        service = new MetricsPublishingService(logger, metricsRegistry, new HazelcastProperties(config));
+        publisher = new RecordingPublisher();
+        service.addPublisher(publisher);
+    }
+
+    @Test
+    public void testIsEnabled_whenPeriodNotSet() {
+        MetricsPublishingService disabled
+                = new MetricsPublishingService(logger, metricsRegistry, new HazelcastProperties(new Config()));
+
+        assertFalse(disabled.isEnabled());
+    }
+
+    @Test
+    public void testSnapshots_beforeFirstCycle() {
+        assertNull(service.getFullSnapshot());
+        assertNull(service.getDeltaSnapshot());
+    }
+
+    @Test
+    public void testCollect_firstCyclePublishesAllProbes() {
+        counter = 5;
+        ratio = 0.5;
+
+        service.collect();
+
+        assertTrue(publisher.fullSnapshot);
+        assertEquals(1, publisher.sequence);
+        assertEquals(5L, publisher.published.get("test.counter"));
+        assertEquals(0.5d, publisher.published.get("test.ratio"));
+        assertContains(bytesToString(service.getFullSnapshot()), "test.counter=5");
+    }
+
+    @Test
+    public void testCollect_publishesOnlyChangedProbes() {
+        service.collect();
+        counter = 10;
+
+        service.collect();
+
+        assertFalse(publisher.fullSnapshot);
+        assertEquals(2, publisher.sequence);
+        assertEquals(10L, publisher.published.get("test.counter"));
+        assertFalse(publisher.published.containsKey("test.ratio"));
+
+        String delta = bytesToString(service.getDeltaSnapshot());
+        assertContains(delta, "test.counter=10");
+        assertNotContains(delta, "test.ratio");
+
+        String full = bytesToString(service.getFullSnapshot());
+        assertContains(full, "test.counter=10");
+        assertContains(full, "test.ratio=0.0");
+    }
+
+    @Test
+    public void testCollect_publishesFullSnapshotPeriodically() {
+        service.collect();
+        service.collect();
+        service.collect();
+        assertFalse(publisher.fullSnapshot);
+
+        service.collect();
+
+        assertTrue(publisher.fullSnapshot);
+        assertEquals(2, publisher.published.size());
+    }
+
+    @Test
+    public void testCollect_forgetsDeregisteredProbes() {
+        service.collect();
+        metricsRegistry.deregister(this);
+
+        service.collect();
+
+        assertNotContains(bytesToString(service.getFullSnapshot()), "test.counter");
+    }
+
+    @Test
+    public void testShutdown() {
+        service.shutdown();
+
+        assertTrue(publisher.shutdown);
+    }
+
+    static class RecordingPublisher implements MetricsPublisher {
+
+        final Map<String, Object> published = new LinkedHashMap<String, Object>();
+        long sequence;
+        boolean fullSnapshot;
+        boolean shutdown;
+
+        @Override
+        public String name() {
+            return "recording";
+        }
+
+        @Override
+        public void beginCycle(long sequence, boolean fullSnapshot) {
+            this.sequence = sequence;
+            this.fullSnapshot = fullSnapshot;
+            published.clear();
+        }
+
+        @Override
+        public void publishLong(String name, long value) {
+            published.put(name, value);
+        }
+
+        @Override
+        public void publishDouble(String name, double value) {
+            published.put(name, value);
+        }
+
+        @Override
+        public void endCycle() {
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.networking.sharedmemory;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class SharedMemoryRingBufferTest {
+
+    private static final int CAPACITY = 64;
+
+    private ByteBuffer buffer;
+    private SharedMemoryRingBuffer producer;
+    private SharedMemoryRingBuffer consumer;
+
+    @Before
+    public void setUp() {
+        buffer = ByteBuffer.allocateDirect(SharedMemoryRingBuffer.requiredSize(CAPACITY)).order(ByteOrder.nativeOrder());
+        // both sides see the same memory, like two processes mapping the same file
+        producer = new SharedMemoryRingBuffer(buffer, 0, CAPACITY);
+        consumer = new SharedMemoryRingBuffer(buffer.duplicate(), 0, CAPACITY);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstruct_whenHeapBuffer() {
+        new SharedMemoryRingBuffer(ByteBuffer.allocate(1024), 0, CAPACITY);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstruct_whenCapacityNotPowerOfTwo() {
+        new SharedMemoryRingBuffer(ByteBuffer.allocateDirect(1024), 0, 100);
+    }
+
+    @Test
+    public void testReadWrite_heapBuffers() {
+        byte[] bytes = bytes(20);
+        assertEquals(20, producer.write(ByteBuffer.wrap(bytes)));
+        assertEquals(20, consumer.available());
+
+        ByteBuffer dst = ByteBuffer.allocate(20);
+        assertEquals(20, consumer.read(dst));
+        assertArrayEquals(bytes, dst.array());
+        assertEquals(0, consumer.available());
+    }
+
+    @Test
+    public void testReadWrite_directBuffers() {
+        byte[] bytes = bytes(20);
+        ByteBuffer src = ByteBuffer.allocateDirect(20);
+        src.put(bytes).flip();
+        assertEquals(20, producer.write(src));
+        assertFalse(src.hasRemaining());
+
+        ByteBuffer dst = ByteBuffer.allocateDirect(20);
+        assertEquals(20, consumer.read(dst));
+        dst.flip();
+        byte[] read = new byte[20];
+        dst.get(read);
+        assertArrayEquals(bytes, read);
+    }
+
+    @Test
+    public void testWrite_whenFull() {
+        assertEquals(CAPACITY, producer.write(ByteBuffer.wrap(bytes(CAPACITY + 10))));
+        assertEquals(0, producer.write(ByteBuffer.wrap(bytes(1))));
+    }
+
+    @Test
+    public void testRead_whenEmpty() {
+        assertEquals(0, consumer.read(ByteBuffer.allocate(10)));
+    }
+
+    @Test
+    public void testReadWrite_wrapsAround() {
+        ByteBuffer dst = ByteBuffer.allocate(CAPACITY);
+        for (int round = 0; round < 10; round++) {
+            byte[] bytes = bytes(CAPACITY / 2 + round);
+            ByteBuffer src = ByteBuffer.wrap(bytes);
+            assertEquals(bytes.length, producer.write(src));
+
+            dst.clear();
+            dst.limit(bytes.length);
+            assertEquals(bytes.length, consumer.read(dst));
+            byte[] read = new byte[bytes.length];
+            System.arraycopy(dst.array(), 0, read, 0, bytes.length);
+            assertArrayEquals(bytes, read);
+        }
+    }
+
+    @Test
+    public void testRead_whenWriteSequenceCorrupted_thenReadAtMostCapacity() {
+        // the write sequence is the first field of the header
+        buffer.putLong(0, Long.MAX_VALUE / 2);
+
+        assertEquals(CAPACITY, consumer.available());
+        assertEquals(CAPACITY, consumer.read(ByteBuffer.allocate(CAPACITY * 4)));
+    }
+
+    @Test
+    public void testRead_whenWriteSequenceBehindReadSequence_thenNothingRead() {
+        buffer.putLong(0, -10);
+
+        assertEquals(0, consumer.available());
+        assertEquals(0, consumer.read(ByteBuffer.allocate(CAPACITY)));
+    }
+
+    @Test
+    public void testWrite_whenReadSequenceCorrupted_thenWriteAtMostCapacity() {
+        // the read sequence is on the second cache line of the header
+        buffer.putLong(64, 10L * CAPACITY);
+
+        assertEquals(CAPACITY, producer.write(ByteBuffer.wrap(bytes(CAPACITY * 4))));
+    }
+
+    @Test
+    public void testClose_visibleToPeer() {
+        assertFalse(consumer.isClosed());
+        producer.close();
+        assertTrue(consumer.isClosed());
+    }
+
+    private static byte[] bytes(int length) {
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = (byte) (i * 7 + length);
+        }
+        return bytes;
+    }
+}
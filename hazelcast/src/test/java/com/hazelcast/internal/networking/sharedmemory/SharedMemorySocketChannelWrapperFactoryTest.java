@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.networking.sharedmemory;
+
+import com.hazelcast.logging.Logger;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.InetAddress;
+import java.net.Socket;
+
+import static com.hazelcast.nio.IOUtil.delete;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class SharedMemorySocketChannelWrapperFactoryTest extends HazelcastTestSupport {
+
+    private static final int CAPACITY = 64;
+
+    private File directory;
+    private SharedMemorySocketChannelWrapperFactory factory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = new File(System.getProperty("java.io.tmpdir"), randomName()).getCanonicalFile();
+        if (!directory.mkdir()) {
+            throw new IOException("Could not create " + directory);
+        }
+        factory = new SharedMemorySocketChannelWrapperFactory(directory, CAPACITY,
+                Logger.getLogger(SharedMemorySocketChannelWrapperFactory.class));
+    }
+
+    @After
+    public void tearDown() {
+        delete(directory);
+    }
+
+    @Test
+    public void testAttach_whenLoopbackPeerAndFileInDirectory_thenAttached() throws IOException {
+        File file = createSharedMemoryFile(directory);
+
+        assertNotNull(factory.attach(socket("127.0.0.1", "127.0.0.1"), file.getPath(), CAPACITY));
+    }
+
+    @Test
+    public void testAttach_whenPeerIsLocalAddress_thenAttached() throws IOException {
+        File file = createSharedMemoryFile(directory);
+
+        assertNotNull(factory.attach(socket("10.0.0.1", "10.0.0.1"), file.getPath(), CAPACITY));
+    }
+
+    @Test
+    public void testAttach_whenRemotePeer_thenDeclined() throws IOException {
+        File file = createSharedMemoryFile(directory);
+
+        assertNull(factory.attach(socket("10.0.0.2", "10.0.0.1"), file.getPath(), CAPACITY));
+    }
+
+    @Test
+    public void testAttach_whenPathNotCanonical_thenDeclined() throws IOException {
+        File file = createSharedMemoryFile(directory);
+        String path = directory.getPath() + File.separator + ".." + File.separator + directory.getName()
+                + File.separator + file.getName();
+
+        assertNull(factory.attach(socket("127.0.0.1", "127.0.0.1"), path, CAPACITY));
+    }
+
+    @Test
+    public void testAttach_whenFileOutsideDirectory_thenDeclined() throws IOException {
+        File otherDirectory = new File(directory, "other");
+        if (!otherDirectory.mkdir()) {
+            throw new IOException("Could not create " + otherDirectory);
+        }
+        File file = createSharedMemoryFile(otherDirectory);
+
+        assertNull(factory.attach(socket("127.0.0.1", "127.0.0.1"), file.getPath(), CAPACITY));
+    }
+
+    private static File createSharedMemoryFile(File directory) throws IOException {
+        File file = File.createTempFile(SharedMemorySocketChannelWrapperFactory.FILE_PREFIX, null, directory);
+        RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw");
+        try {
+            randomAccessFile.setLength(2L * SharedMemoryRingBuffer.requiredSize(CAPACITY));
+        } finally {
+            randomAccessFile.close();
+        }
+        return file.getCanonicalFile();
+    }
+
+    private static Socket socket(String remoteAddress, String localAddress) throws IOException {
+        Socket socket = mock(Socket.class);
+        when(socket.getInetAddress()).thenReturn(InetAddress.getByName(remoteAddress));
+        when(socket.getLocalAddress()).thenReturn(InetAddress.getByName(localAddress));
+        return socket;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.internal.networking.sharedmemory;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.Hazelcast;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.instance.HazelcastInstanceFactory;
+import com.hazelcast.nio.tcp.TcpIpConnection;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastSerialClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastSerialClassRunner.class)
+@Category(QuickTest.class)
+public class SharedMemoryTransportTest extends HazelcastTestSupport {
+
+    private static final String SPINNING_PROPERTY = "hazelcast.io.spinning";
+
+    private String spinning;
+
+    @Before
+    public void setUp() {
+        spinning = System.setProperty(SPINNING_PROPERTY, "true");
+    }
+
+    @After
+    public void tearDown() {
+        HazelcastInstanceFactory.terminateAll();
+        if (spinning == null) {
+            System.clearProperty(SPINNING_PROPERTY);
+        } else {
+            System.setProperty(SPINNING_PROPERTY, spinning);
+        }
+    }
+
+    @Test
+    public void testMembersCommunicateOverSharedMemory() {
+        Config config = new Config()
+                .setProperty(GroupProperty.IO_SHARED_MEMORY_ENABLED.getName(), "true")
+                .setProperty(GroupProperty.IO_SHARED_MEMORY_BUFFER_SIZE.getName(), "64");
+        HazelcastInstance hz1 = Hazelcast.newHazelcastInstance(config);
+        HazelcastInstance hz2 = Hazelcast.newHazelcastInstance(config);
+        assertClusterSizeEventually(2, hz1);
+        assertClusterSizeEventually(2, hz2);
+
+        // values larger than the ring buffers are transferred in multiple chunks
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            sb.append(i);
+        }
+        String value = sb.toString();
+        IMap<Integer, String> map = hz1.getMap(randomMapName());
+        for (int i = 0; i < 10; i++) {
+            map.put(i, value);
+        }
+        IMap<Integer, String> map2 = hz2.getMap(map.getName());
+        for (int i = 0; i < 10; i++) {
+            assertEquals(value, map2.get(i));
+        }
+
+        TcpIpConnection connection = (TcpIpConnection) getNode(hz1).getConnectionManager()
+                .getConnection(getAddress(hz2));
+        assertTrue(connection.getSocketChannel() instanceof SharedMemoryChannel);
+        assertTrue(((SharedMemoryChannel) connection.getSocketChannel()).isSharedMemory());
+    }
+
+    @Test
+    public void testMemberLeaves() {
+        Config config = new Config()
+                .setProperty(GroupProperty.IO_SHARED_MEMORY_ENABLED.getName(), "true");
+        HazelcastInstance hz1 = Hazelcast.newHazelcastInstance(config);
+        HazelcastInstance hz2 = Hazelcast.newHazelcastInstance(config);
+        assertClusterSizeEventually(2, hz1);
+
+        hz2.getLifecycleService().terminate();
+        assertClusterSizeEventually(1, hz1);
+    }
+}
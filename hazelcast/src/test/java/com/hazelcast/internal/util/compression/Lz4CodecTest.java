@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.compression;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static com.hazelcast.internal.util.compression.Lz4Codec.maxCompressedLength;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class Lz4CodecTest {
+
+    private final Lz4Codec codec = new Lz4Codec();
+    private final Random random = new Random(42);
+
+    @Test
+    public void testEmptyInput() {
+        assertRoundTrip(new byte[0]);
+    }
+
+    @Test
+    public void testShortInput() {
+        assertRoundTrip("abc".getBytes());
+    }
+
+    @Test
+    public void testRandomInput() {
+        byte[] input = new byte[10000];
+        random.nextBytes(input);
+
+        assertRoundTrip(input);
+    }
+
+    @Test
+    public void testRepetitiveInput_isCompressed() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 500; i++) {
+            sb.append("{\"id\":").append(i).append(",\"name\":\"some name\",\"active\":true}");
+        }
+        byte[] input = sb.toString().getBytes();
+
+        int compressedLength = assertRoundTrip(input);
+
+        assertTrue("compressed length " + compressedLength, compressedLength < input.length / 4);
+    }
+
+    @Test
+    public void testLongRunsOfLiteralsAndMatches() {
+        byte[] input = new byte[100000];
+        random.nextBytes(input);
+        // a long match
+        Arrays.fill(input, 1000, 5000, (byte) 7);
+        // a long literal run followed by a copy of it
+        System.arraycopy(input, 10000, input, 50000, 20000);
+
+        assertRoundTrip(input);
+    }
+
+    @Test
+    public void testCodecIsReusable() {
+        byte[] input = "hello hello hello hello hello hello hello".getBytes();
+
+        assertRoundTrip(input);
+        assertRoundTrip(input);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedInput() {
+        byte[] input = new byte[1000];
+        Arrays.fill(input, (byte) 1);
+        byte[] compressed = new byte[maxCompressedLength(input.length)];
+        int compressedLength = codec.compress(input, 0, input.length, compressed, 0);
+
+        Lz4Codec.decompress(compressed, 0, compressedLength - 1, new byte[input.length], 0, input.length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOutputTooSmall() {
+        byte[] input = new byte[1000];
+        byte[] compressed = new byte[maxCompressedLength(input.length)];
+        int compressedLength = codec.compress(input, 0, input.length, compressed, 0);
+
+        Lz4Codec.decompress(compressed, 0, compressedLength, new byte[100], 0, 100);
+    }
+
+    private int assertRoundTrip(byte[] input) {
+        byte[] compressed = new byte[maxCompressedLength(input.length) + 3];
+        int compressedLength = codec.compress(input, 0, input.length, compressed, 3);
+
+        byte[] output = new byte[input.length];
+        int outputLength = Lz4Codec.decompress(compressed, 3, compressedLength, output, 0, output.length);
+
+        assertEquals(input.length, outputLength);
+        assertArrayEquals(input, output);
+        return compressedLength;
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.merkletree;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ArrayMerkleTreeTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDepthTooSmall() {
+        new ArrayMerkleTree(ArrayMerkleTree.MIN_DEPTH - 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDepthTooLarge() {
+        new ArrayMerkleTree(ArrayMerkleTree.MAX_DEPTH + 1);
+    }
+
+    @Test
+    public void testEmptyTreeHasZeroHashes() {
+        ArrayMerkleTree tree = new ArrayMerkleTree(4);
+
+        assertArrayEquals(new int[15], tree.snapshot());
+    }
+
+    @Test
+    public void testUpdateAdd_updatesLeafAndRoot() {
+        ArrayMerkleTree tree = new ArrayMerkleTree(4);
+
+        tree.updateAdd(1, 42);
+
+        int leafOrder = tree.getLeafOrderForHash(1);
+        assertEquals(MerkleTreeUtil.hashEntry(1, 42), tree.getNodeHash(leafOrder));
+        assertNotEquals(0, tree.getNodeHash(0));
+    }
+
+    @Test
+    public void testTreeIsIndependentOfUpdateOrder() {
+        ArrayMerkleTree tree1 = new ArrayMerkleTree(6);
+        ArrayMerkleTree tree2 = new ArrayMerkleTree(6);
+
+        for (int i = 0; i < 100; i++) {
+            tree1.updateAdd(i, i * 7);
+        }
+        for (int i = 99; i >= 0; i--) {
+            tree2.updateAdd(i, i * 7);
+        }
+
+        assertArrayEquals(tree1.snapshot(), tree2.snapshot());
+    }
+
+    @Test
+    public void testUpdateReplace() {
+        ArrayMerkleTree tree1 = new ArrayMerkleTree(4);
+        ArrayMerkleTree tree2 = new ArrayMerkleTree(4);
+
+        tree1.updateAdd(1, 1);
+        tree1.updateReplace(1, 1, 2);
+        tree2.updateAdd(1, 2);
+
+        assertArrayEquals(tree2.snapshot(), tree1.snapshot());
+    }
+
+    @Test
+    public void testUpdateRemove_restoresEmptyTree() {
+        ArrayMerkleTree tree = new ArrayMerkleTree(4);
+
+        tree.updateAdd(1, 1);
+        tree.updateAdd(2, 2);
+        tree.updateRemove(1, 1);
+        tree.updateRemove(2, 2);
+
+        assertArrayEquals(new int[15], tree.snapshot());
+    }
+
+    @Test
+    public void testClear() {
+        ArrayMerkleTree tree = new ArrayMerkleTree(4);
+        tree.updateAdd(1, 1);
+
+        tree.clear();
+
+        assertArrayEquals(new int[15], tree.snapshot());
+    }
+
+    @Test
+    public void testSnapshotIsCopy() {
+        ArrayMerkleTree tree = new ArrayMerkleTree(4);
+        int[] snapshot = tree.snapshot();
+
+        tree.updateAdd(1, 1);
+
+        assertArrayEquals(new int[15], snapshot);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.internal.util.merkletree;
+
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.internal.util.merkletree.MerkleTreeUtil.compareTrees;
+import static com.hazelcast.internal.util.merkletree.MerkleTreeUtil.getDepth;
+import static com.hazelcast.internal.util.merkletree.MerkleTreeUtil.getFirstLeafOrder;
+import static com.hazelcast.internal.util.merkletree.MerkleTreeUtil.getLeafCount;
+import static com.hazelcast.internal.util.merkletree.MerkleTreeUtil.getLeafOrderForHash;
+import static com.hazelcast.internal.util.merkletree.MerkleTreeUtil.getLeftChildOrder;
+import static com.hazelcast.internal.util.merkletree.MerkleTreeUtil.getNodeCount;
+import static com.hazelcast.internal.util.merkletree.MerkleTreeUtil.getParentOrder;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MerkleTreeUtilTest extends HazelcastTestSupport {
+
+    @Test
+    public void testConstructor() {
+        assertUtilityConstructor(MerkleTreeUtil.class);
+    }
+
+    @Test
+    public void testTreeGeometry() {
+        assertEquals(15, getNodeCount(4));
+        assertEquals(8, getLeafCount(4));
+        assertEquals(7, getFirstLeafOrder(4));
+        assertEquals(4, getDepth(15));
+    }
+
+    @Test
+    public void testParentAndChildOrders() {
+        assertEquals(1, getLeftChildOrder(0));
+        assertEquals(5, getLeftChildOrder(2));
+        assertEquals(0, getParentOrder(1));
+        assertEquals(0, getParentOrder(2));
+        assertEquals(2, getParentOrder(5));
+        assertEquals(2, getParentOrder(6));
+    }
+
+    @Test
+    public void testLeafOrderForHash_isALeaf() {
+        for (int hash = -1000; hash < 1000; hash++) {
+            int leafOrder = getLeafOrderForHash(hash, 5);
+            assertTrue(leafOrder >= getFirstLeafOrder(5));
+            assertTrue(leafOrder < getNodeCount(5));
+        }
+    }
+
+    @Test
+    public void testCompareTrees_sameTrees() {
+        ArrayMerkleTree local = new ArrayMerkleTree(5);
+        ArrayMerkleTree remote = new ArrayMerkleTree(5);
+        for (int i = 0; i < 100; i++) {
+            local.updateAdd(i, i);
+            remote.updateAdd(i, i);
+        }
+
+        assertArrayEquals(new int[0], compareTrees(local.snapshot(), remote.snapshot()));
+    }
+
+    @Test
+    public void testCompareTrees_returnsDifferingLeaves() {
+        ArrayMerkleTree local = new ArrayMerkleTree(5);
+        ArrayMerkleTree remote = new ArrayMerkleTree(5);
+        for (int i = 0; i < 100; i++) {
+            local.updateAdd(i, i);
+            remote.updateAdd(i, i);
+        }
+        remote.updateRemove(10, 10);
+        remote.updateReplace(20, 20, 21);
+
+        int[] expected = new int[]{local.getLeafOrderForHash(10), local.getLeafOrderForHash(20)};
+        if (expected[0] > expected[1]) {
+            expected = new int[]{expected[1], expected[0]};
+        } else if (expected[0] == expected[1]) {
+            expected = new int[]{expected[0]};
+        }
+        assertArrayEquals(expected, compareTrees(local.snapshot(), remote.snapshot()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompareTrees_differentDepths() {
+        compareTrees(new int[7], new int[15]);
+    }
+}
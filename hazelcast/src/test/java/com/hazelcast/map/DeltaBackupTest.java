@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.impl.MapContainer;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class DeltaBackupTest extends HazelcastTestSupport {
+
+    private final String mapName = randomMapName();
+
+    private HazelcastInstance owner;
+    private HazelcastInstance backup;
+    private String key;
+
+    @Before
+    public void setUp() {
+        Config config = new Config()
+                .setProperty(GroupProperty.MAP_DELTA_BACKUP_MIN_VALUE_SIZE.getName(), "100");
+        config.getMapConfig(mapName).setBackupCount(1);
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+        owner = instances[0];
+        backup = instances[1];
+        key = generateKeyOwnedBy(owner);
+    }
+
+    @Test
+    public void testUpdate_isReplicatedToBackup() {
+        IMap<String, String> map = owner.getMap(mapName);
+        map.put(key, document('a'));
+        map.put(key, document('b'));
+        map.set(key, document('c'));
+        map.replace(key, document('d'));
+
+        assertBackupValueEventually(document('d'));
+        // the first put creates the record, the updates send deltas
+        assertDeltaBackupCountsEventually(3);
+    }
+
+    @Test
+    public void testSet_sendsDelta() {
+        IMap<String, String> map = owner.getMap(mapName);
+        map.set(key, document('a'));
+        map.set(key, document('b'));
+
+        assertBackupValueEventually(document('b'));
+        assertDeltaBackupCountsEventually(1);
+    }
+
+    @Test
+    public void testUpdate_whenValueSmall_thenFullValueSent() {
+        IMap<String, String> map = owner.getMap(mapName);
+        map.put(key, "a");
+        map.put(key, "b");
+
+        assertBackupValueEventually("b");
+        assertEquals(0, getMapContainer(owner).getSentDeltaBackupCount().get());
+    }
+
+    @Test
+    public void testUpdate_whenBackupDiverged_thenReplicaSyncRepairsBackup() {
+        IMap<String, String> map = owner.getMap(mapName);
+        map.put(key, document('a'));
+        assertBackupValueEventually(document('a'));
+
+        SerializationService serializationService = getSerializationService(backup);
+        getBackupRecordStore().putBackup(serializationService.toData(key), serializationService.toData(document('x')));
+
+        map.put(key, document('b'));
+
+        assertBackupValueEventually(document('b'));
+    }
+
+    private void assertBackupValueEventually(final String expected) {
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                SerializationService serializationService = getSerializationService(backup);
+                Record record = getBackupRecordStore().getRecord(serializationService.toData(key));
+                assertEquals(expected, serializationService.toObject((Data) record.getValue()));
+            }
+        });
+    }
+
+    private void assertDeltaBackupCountsEventually(final long expected) {
+        assertEquals(expected, getMapContainer(owner).getSentDeltaBackupCount().get());
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(expected, getMapContainer(backup).getAppliedDeltaBackupCount().get());
+            }
+        });
+    }
+
+    private MapContainer getMapContainer(HazelcastInstance instance) {
+        MapService mapService = getNodeEngineImpl(instance).getService(MapService.SERVICE_NAME);
+        return mapService.getMapServiceContext().getMapContainer(mapName);
+    }
+
+    private RecordStore getBackupRecordStore() {
+        MapService mapService = getNodeEngineImpl(backup).getService(MapService.SERVICE_NAME);
+        int partitionId = owner.getPartitionService().getPartition(key).getPartitionId();
+        return mapService.getMapServiceContext().getRecordStore(partitionId, mapName);
+    }
+
+    private static String document(char field) {
+        char[] chars = new char[1000];
+        Arrays.fill(chars, 'x');
+        chars[500] = field;
+        return new String(chars);
+    }
+}
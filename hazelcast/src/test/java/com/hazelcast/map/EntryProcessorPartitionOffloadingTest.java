@@ -0,0 +1,167 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.core.Offloadable;
+import com.hazelcast.core.ReadOnly;
+import com.hazelcast.query.Predicate;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Map;
+
+import static com.hazelcast.spi.properties.GroupProperty.MAP_ENTRY_PROCESSOR_OFFLOADING_CHUNK_SIZE;
+import static com.hazelcast.spi.properties.GroupProperty.MAP_ENTRY_PROCESSOR_OFFLOADING_ENABLED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class EntryProcessorPartitionOffloadingTest extends HazelcastTestSupport {
+
+    private static final String MAP_NAME = "EntryProcessorPartitionOffloadingTest";
+    private static final int ENTRY_COUNT = 500;
+
+    private HazelcastInstance[] instances;
+    private IMap<Integer, Integer> map;
+
+    @Before
+    public void setUp() {
+        Config config = getConfig()
+                .setProperty(MAP_ENTRY_PROCESSOR_OFFLOADING_ENABLED.getName(), "true")
+                .setProperty(MAP_ENTRY_PROCESSOR_OFFLOADING_CHUNK_SIZE.getName(), "3");
+        instances = createHazelcastInstanceFactory(2).newInstances(config);
+        map = instances[0].getMap(MAP_NAME);
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+    }
+
+    @Test
+    public void testExecuteOnEntries_modifiesAllEntries() {
+        Map<Integer, Object> results = map.executeOnEntries(new IncrementingEntryProcessor());
+
+        assertEquals(ENTRY_COUNT, results.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, results.get(i));
+            assertEquals(i + 1, (int) map.get(i));
+        }
+    }
+
+    @Test
+    public void testExecuteOnEntries_updatesBackups() {
+        map.executeOnEntries(new IncrementingEntryProcessor());
+
+        for (int i = 0; i < ENTRY_COUNT; i += 50) {
+            assertBackupEventually(i, i + 1);
+        }
+    }
+
+    @Test
+    public void testExecuteOnEntries_withPredicate() {
+        Map<Integer, Object> results = map.executeOnEntries(new IncrementingEntryProcessor(), new EvenKeyPredicate());
+
+        assertEquals(ENTRY_COUNT / 2, results.size());
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i % 2 == 0 ? i + 1 : i, (int) map.get(i));
+        }
+    }
+
+    @Test
+    public void testExecuteOnEntries_readOnly_runsOffPartitionThreads() {
+        Map<Integer, Object> results = map.executeOnEntries(new ThreadNameEntryProcessor());
+
+        assertEquals(ENTRY_COUNT, results.size());
+        for (Object threadName : results.values()) {
+            assertFalse((String) threadName, ((String) threadName).contains("partition-operation"));
+        }
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            assertEquals(i, (int) map.get(i));
+        }
+    }
+
+    private void assertBackupEventually(final int key, final int expected) {
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(expected, readFromMapBackup(instances[0], MAP_NAME, key));
+            }
+        });
+    }
+
+    private static class IncrementingEntryProcessor implements EntryProcessor<Integer, Integer>,
+            EntryBackupProcessor<Integer, Integer>, Offloadable {
+
+        @Override
+        public Object process(Map.Entry<Integer, Integer> entry) {
+            int value = entry.getValue();
+            entry.setValue(value + 1);
+            return value;
+        }
+
+        @Override
+        public void processBackup(Map.Entry<Integer, Integer> entry) {
+            entry.setValue(entry.getValue() + 1);
+        }
+
+        @Override
+        public EntryBackupProcessor<Integer, Integer> getBackupProcessor() {
+            return this;
+        }
+
+        @Override
+        public String getExecutorName() {
+            return OFFLOADABLE_EXECUTOR;
+        }
+    }
+
+    private static class ThreadNameEntryProcessor implements EntryProcessor<Integer, Integer>, Offloadable, ReadOnly {
+
+        @Override
+        public Object process(Map.Entry<Integer, Integer> entry) {
+            return Thread.currentThread().getName();
+        }
+
+        @Override
+        public EntryBackupProcessor<Integer, Integer> getBackupProcessor() {
+            return null;
+        }
+
+        @Override
+        public String getExecutorName() {
+            return OFFLOADABLE_EXECUTOR;
+        }
+    }
+
+    private static class EvenKeyPredicate implements Predicate<Integer, Integer> {
+
+        @Override
+        public boolean apply(Map.Entry<Integer, Integer> mapEntry) {
+            return mapEntry.getKey() % 2 == 0;
+        }
+    }
+}
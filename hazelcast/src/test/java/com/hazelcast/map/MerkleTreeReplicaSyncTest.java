@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.internal.partition.impl.InternalPartitionServiceImpl;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.recordstore.RecordStore;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.spi.serialization.SerializationService;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class MerkleTreeReplicaSyncTest extends HazelcastTestSupport {
+
+    private static final int PARTITION_COUNT = 2;
+    private static final int ENTRY_COUNT = 1000;
+
+    private final String mapName = randomMapName();
+
+    @Test
+    public void testMerkleTreesDisabledByDefault() {
+        HazelcastInstance hz = createHazelcastInstance();
+        hz.getMap(mapName).put(1, 1);
+
+        assertNull(getRecordStore(hz, 0).getMerkleTree());
+    }
+
+    @Test
+    public void testReplicaSync_repairsDivergedBackup() {
+        Config config = new Config()
+                .setProperty(GroupProperty.PARTITION_COUNT.getName(), String.valueOf(PARTITION_COUNT))
+                .setProperty(GroupProperty.MAP_MERKLE_TREE_DEPTH.getName(), "6");
+        config.getMapConfig(mapName).setBackupCount(1);
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+        HazelcastInstance owner = instances[0];
+        final HazelcastInstance backup = instances[1];
+
+        String key = generateKeyOwnedBy(owner);
+        final int partitionId = owner.getPartitionService().getPartition(key).getPartitionId();
+        IMap<Object, Object> map = owner.getMap(mapName);
+        map.put(key, "value");
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            map.put(i, i);
+        }
+        waitAllForSafeState(instances);
+
+        final RecordStore ownerStore = getRecordStore(owner, partitionId);
+        final RecordStore backupStore = getRecordStore(backup, partitionId);
+        assertArrayEquals(ownerStore.getMerkleTree().snapshot(), backupStore.getMerkleTree().snapshot());
+
+        // make the backup diverge from the owner
+        SerializationService serializationService = getSerializationService(backup);
+        final Data dataKey = serializationService.toData(key);
+        backupStore.removeBackup(dataKey);
+        backupStore.putBackup(serializationService.toData("stale"), "stale");
+
+        InternalPartitionServiceImpl partitionService = (InternalPartitionServiceImpl) getPartitionService(backup);
+        partitionService.getReplicaManager().triggerPartitionReplicaSync(partitionId, 1, 0);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertArrayEquals(ownerStore.getMerkleTree().snapshot(), backupStore.getMerkleTree().snapshot());
+            }
+        });
+        assertNotNull(backupStore.getRecord(dataKey));
+        assertEquals(ownerStore.size(), backupStore.size());
+    }
+
+    @Test
+    public void testReplicaSync_repairsBackupDivergedByInPlaceMutation_withObjectFormat() {
+        Config config = new Config()
+                .setProperty(GroupProperty.PARTITION_COUNT.getName(), String.valueOf(PARTITION_COUNT))
+                .setProperty(GroupProperty.MAP_MERKLE_TREE_DEPTH.getName(), "6");
+        config.getMapConfig(mapName).setBackupCount(1).setInMemoryFormat(InMemoryFormat.OBJECT);
+        HazelcastInstance[] instances = createHazelcastInstanceFactory(2).newInstances(config);
+        HazelcastInstance owner = instances[0];
+        HazelcastInstance backup = instances[1];
+
+        String key = generateKeyOwnedBy(owner);
+        int partitionId = owner.getPartitionService().getPartition(key).getPartitionId();
+        IMap<Object, Object> map = owner.getMap(mapName);
+        map.put(key, new MutableValue(1));
+        waitAllForSafeState(instances);
+
+        final RecordStore ownerStore = getRecordStore(owner, partitionId);
+        final RecordStore backupStore = getRecordStore(backup, partitionId);
+        assertArrayEquals(ownerStore.getMerkleTree().snapshot(), backupStore.getMerkleTree().snapshot());
+
+        // mutates the stored value in place on the owner only
+        map.executeOnKey(key, new IncrementingEntryProcessor());
+        assertFalse(Arrays.equals(ownerStore.getMerkleTree().snapshot(), backupStore.getMerkleTree().snapshot()));
+
+        InternalPartitionServiceImpl partitionService = (InternalPartitionServiceImpl) getPartitionService(backup);
+        partitionService.getReplicaManager().triggerPartitionReplicaSync(partitionId, 1, 0);
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertArrayEquals(ownerStore.getMerkleTree().snapshot(), backupStore.getMerkleTree().snapshot());
+            }
+        });
+        Data dataKey = getSerializationService(backup).toData(key);
+        assertEquals(2, ((MutableValue) backupStore.getRecord(dataKey).getValue()).value);
+    }
+
+    private RecordStore getRecordStore(HazelcastInstance hz, int partitionId) {
+        MapService mapService = getNodeEngineImpl(hz).getService(MapService.SERVICE_NAME);
+        return mapService.getMapServiceContext().getRecordStore(partitionId, mapName);
+    }
+
+    private static class MutableValue implements Serializable {
+
+        private int value;
+
+        MutableValue(int value) {
+            this.value = value;
+        }
+    }
+
+    private static class IncrementingEntryProcessor extends AbstractEntryProcessor<Object, MutableValue> {
+
+        IncrementingEntryProcessor() {
+            super(false);
+        }
+
+        @Override
+        public Object process(Map.Entry<Object, MutableValue> entry) {
+            MutableValue value = entry.getValue();
+            value.value++;
+            entry.setValue(value);
+            return null;
+        }
+    }
+}
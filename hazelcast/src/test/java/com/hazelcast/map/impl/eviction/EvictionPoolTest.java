@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.eviction;
+
+import com.hazelcast.core.EntryView;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.eviction.LRUEvictionPolicy;
+import com.hazelcast.map.impl.record.Record;
+import com.hazelcast.map.impl.recordstore.LazyEntryViewFromRecord;
+import com.hazelcast.map.impl.recordstore.Storage;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class EvictionPoolTest extends HazelcastTestSupport {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final List<Record> nextSamples = new ArrayList<Record>();
+
+    private Storage storage;
+    private EvictionPool pool;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        storage = mock(Storage.class);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                ((List<Record>) invocation.getArguments()[1]).addAll(nextSamples);
+                return null;
+            }
+        }).when(storage).sampleRecords(anyInt(), anyListOf(Record.class));
+
+        pool = new EvictionPool(LRUEvictionPolicy.INSTANCE, serializationService);
+    }
+
+    @Test
+    public void testPoll_returnsBestCandidateFirst() {
+        Record record1 = newRecord(1, 300);
+        Record record2 = newRecord(2, 100);
+        Record record3 = newRecord(3, 200);
+
+        refill(record1, record2, record3);
+
+        assertSame(record2, pool.poll(null, true));
+        assertSame(record3, pool.poll(null, true));
+        assertSame(record1, pool.poll(null, true));
+        assertNull(pool.poll(null, true));
+    }
+
+    @Test
+    public void testRefill_retainsCandidatesOfPreviousRounds() {
+        Record record1 = newRecord(1, 100);
+        Record record2 = newRecord(2, 200);
+        refill(record1);
+        refill(record2);
+
+        assertEquals(2, pool.size());
+        assertSame(record1, pool.poll(null, true));
+    }
+
+    @Test
+    public void testRefill_doesNotAddSameRecordTwice() {
+        Record record = newRecord(1, 100);
+        refill(record);
+        refill(record);
+
+        assertEquals(1, pool.size());
+    }
+
+    @Test
+    public void testRefill_dropsRemovedRecords() {
+        Record record1 = newRecord(1, 100);
+        Record record2 = newRecord(2, 200);
+        refill(record1, record2);
+
+        when(storage.get(record1.getKey())).thenReturn(null);
+        refill();
+
+        assertEquals(1, pool.size());
+        assertSame(record2, pool.poll(null, true));
+    }
+
+    @Test
+    public void testRefill_keepsOnlyBestCandidates_whenFull() {
+        List<Record> records = new ArrayList<Record>();
+        for (int i = 0; i < EvictionPool.POOL_SIZE + 5; i++) {
+            records.add(newRecord(i, 1000 - i));
+        }
+        refill(records.toArray(new Record[0]));
+
+        assertEquals(EvictionPool.POOL_SIZE, pool.size());
+        assertSame(records.get(records.size() - 1), pool.poll(null, true));
+    }
+
+    @Test
+    public void testPoll_skipsExcludedKey() {
+        Record record1 = newRecord(1, 100);
+        Record record2 = newRecord(2, 200);
+        refill(record1, record2);
+
+        assertSame(record2, pool.poll(record1.getKey(), true));
+    }
+
+    @Test
+    public void testPoll_fallsBackToExcludedKey_whenNoOtherCandidate() {
+        Record record = newRecord(1, 100);
+        refill(record);
+
+        assertNull(pool.poll(record.getKey(), false));
+        assertSame(record, pool.poll(record.getKey(), true));
+    }
+
+    @Test
+    public void testSample_returnsViewsOfSampledRecords() {
+        Record record1 = newRecord(1, 100);
+        Record record2 = newRecord(2, 200);
+        nextSamples.addAll(asList(record1, record2));
+
+        List<Record> sampled = new ArrayList<Record>();
+        for (EntryView sample : pool.sample(storage, 2)) {
+            sampled.add(((LazyEntryViewFromRecord) sample).getRecord());
+        }
+
+        assertEquals(asList(record1, record2), sampled);
+        assertEquals(0, pool.size());
+    }
+
+    private void refill(Record... samples) {
+        nextSamples.clear();
+        nextSamples.addAll(asList(samples));
+        pool.removeStaleCandidates(storage);
+        for (EntryView sample : pool.sample(storage, samples.length)) {
+            pool.offer(((LazyEntryViewFromRecord) sample).getRecord());
+        }
+    }
+
+    private Record newRecord(int key, long lastAccessTime) {
+        Data keyData = serializationService.toData(key);
+        Record record = mock(Record.class);
+        when(record.getKey()).thenReturn(keyData);
+        when(record.getLastAccessTime()).thenReturn(lastAccessTime);
+        when(storage.get(keyData)).thenReturn(record);
+        return record;
+    }
+}
@@ -248,6 +248,32 @@ public class ExpirationManagerTest extends HazelcastTestSupport {
         });
     }
 
+    @Test
+    public void expiredEntries_removedWithoutAccess_andCounted() throws Exception {
+        Config config = new Config();
+        config.setProperty(SYS_PROP_EXPIRATION_TASK_PERIOD_SECONDS, "1");
+        HazelcastInstance node = createHazelcastInstance(config);
+
+        final IMap<Integer, Integer> map = node.getMap("test");
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, i, 1, SECONDS);
+        }
+        map.put(-1, -1);
+
+        final ExpirationManager expirationManager = getExpirationManager(node);
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(1000, expirationManager.getExpiredEntryCount());
+                assertEquals(1, map.size());
+            }
+        });
+    }
+
+    private ExpirationManager getExpirationManager(HazelcastInstance node) {
+        return ((MapService) getNodeEngineImpl(node).getService(SERVICE_NAME)).getMapServiceContext().getExpirationManager();
+    }
+
     private ExpirationManager newExpirationManager(HazelcastInstance node) {
         return new ExpirationManager(getPartitionContainers(node), getNodeEngineImpl(node));
     }
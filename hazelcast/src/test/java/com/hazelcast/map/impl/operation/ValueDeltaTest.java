@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.operation;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ValueDeltaTest {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    @Test
+    public void testSmallChange() {
+        Data oldValue = serializationService.toData(document('a'));
+        Data newValue = serializationService.toData(document('b'));
+
+        ValueDelta delta = ValueDelta.create(oldValue, newValue);
+
+        assertNotNull(delta);
+        assertTrue(delta.getReplacementLength() < 10);
+        assertEquals(newValue, delta.apply(oldValue));
+    }
+
+    @Test
+    public void testGrowingValue() {
+        Data oldValue = serializationService.toData(document('a'));
+        Data newValue = serializationService.toData("prefix" + document('a'));
+
+        ValueDelta delta = ValueDelta.create(oldValue, newValue);
+
+        assertNotNull(delta);
+        assertEquals(newValue, delta.apply(oldValue));
+    }
+
+    @Test
+    public void testCompletelyDifferentValue_returnsNull() {
+        Data oldValue = serializationService.toData("abc");
+        Data newValue = serializationService.toData(42L);
+
+        assertNull(ValueDelta.create(oldValue, newValue));
+    }
+
+    @Test
+    public void testApplyToDifferentBase_returnsNull() {
+        Data oldValue = serializationService.toData(document('a'));
+        Data newValue = serializationService.toData(document('b'));
+        Data otherValue = serializationService.toData(document('c'));
+
+        ValueDelta delta = ValueDelta.create(oldValue, newValue);
+
+        assertNull(delta.apply(otherValue));
+        assertNull(delta.apply(null));
+    }
+
+    private static String document(char field) {
+        char[] chars = new char[1000];
+        Arrays.fill(chars, 'x');
+        chars[500] = field;
+        return new String(chars);
+    }
+}
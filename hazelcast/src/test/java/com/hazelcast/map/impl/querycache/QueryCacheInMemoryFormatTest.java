@@ -55,6 +55,12 @@ public class QueryCacheInMemoryFormatTest extends HazelcastTestSupport {
         testInMemoryFormat(InMemoryFormat.BINARY, expectedDeserializationCount);
     }
 
+    @Test
+    public void testNativeFormat_deserializeOneTime() {
+        int expectedDeserializationCount = 1;
+        testInMemoryFormat(InMemoryFormat.NATIVE, expectedDeserializationCount);
+    }
+
     private void testInMemoryFormat(InMemoryFormat inMemoryFormat, int expectedDeserializationCount) {
         SerializableObject.deserializationCount.set(0);
         String mapName = randomString();
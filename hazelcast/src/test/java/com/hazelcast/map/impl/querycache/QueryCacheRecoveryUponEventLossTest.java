@@ -17,6 +17,7 @@
 package com.hazelcast.map.impl.querycache;
 
 import com.hazelcast.config.Config;
+import com.hazelcast.config.InMemoryFormat;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.config.QueryCacheConfig;
 import com.hazelcast.core.HazelcastInstance;
@@ -99,6 +100,49 @@ public class QueryCacheRecoveryUponEventLossTest extends HazelcastTestSupport {
         assertTrueEventually(task);
     }
 
+    @Test
+    public void testEventLoss_recoveredByReplay_withoutListener() {
+        TestHazelcastInstanceFactory instanceFactory = createHazelcastInstanceFactory(2);
+
+        String mapName = randomString();
+        String queryCacheName = randomString();
+
+        Config config = new Config();
+        config.setProperty(GroupProperty.PARTITION_COUNT.getName(), "1");
+
+        QueryCacheConfig queryCacheConfig = new QueryCacheConfig(queryCacheName);
+        queryCacheConfig.setInMemoryFormat(InMemoryFormat.NATIVE);
+
+        MapConfig mapConfig = config.getMapConfig(mapName);
+        mapConfig.addQueryCacheConfig(queryCacheConfig);
+        mapConfig.setBackupCount(0);
+
+        HazelcastInstance node = instanceFactory.newHazelcastInstance(config);
+        HazelcastInstance node2 = instanceFactory.newHazelcastInstance(config);
+        setTestSequencer(node, 9);
+        setTestSequencer(node2, 9);
+
+        IMap<Integer, Integer> map = getMap(node, mapName);
+        node2.getMap(mapName);
+
+        final QueryCache<Integer, Integer> queryCache
+                = map.getQueryCache(queryCacheName, new SqlPredicate("this > 20"), true);
+
+        for (int i = 0; i < 30; i++) {
+            map.put(i, i);
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(9, queryCache.size());
+                for (int i = 21; i < 30; i++) {
+                    assertEquals(Integer.valueOf(i), queryCache.get(i));
+                }
+            }
+        });
+    }
+
     private void setTestSequencer(HazelcastInstance instance, int eventCount) {
         Node node = getNode(instance);
         MapService service = node.getNodeEngine().getService(MapService.SERVICE_NAME);
@@ -0,0 +1,122 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.map.impl.record;
+
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static com.hazelcast.map.impl.record.AbstractCompactRecord.EPOCH_TIME_MILLIS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class AbstractCompactRecordTest {
+
+    private static final Data KEY = mock(Data.class);
+    private static final Object VALUE = new Object();
+
+    private CompactObjectRecord record;
+
+    @Before
+    public void setUp() throws Exception {
+        record = new CompactObjectRecord(VALUE);
+        record.setKey(KEY);
+    }
+
+    @Test
+    public void testTimestamps_zeroIsKept() {
+        assertEquals(0, record.getCreationTime());
+        assertEquals(0, record.getLastAccessTime());
+        assertEquals(0, record.getLastUpdateTime());
+    }
+
+    @Test
+    public void testTimestamps_wholeSecondsAreKept() {
+        long time = EPOCH_TIME_MILLIS + 123456000L;
+        record.setCreationTime(time);
+        record.setLastAccessTime(time);
+        record.setLastUpdateTime(time);
+
+        assertEquals(time, record.getCreationTime());
+        assertEquals(time, record.getLastAccessTime());
+        assertEquals(time, record.getLastUpdateTime());
+    }
+
+    @Test
+    public void testTimestamps_areRoundedUpToSeconds() {
+        long time = EPOCH_TIME_MILLIS + 123456001L;
+        record.setCreationTime(time);
+
+        assertEquals(EPOCH_TIME_MILLIS + 123457000L, record.getCreationTime());
+    }
+
+    @Test
+    public void testTimestamps_beforeEpoch() {
+        long time = EPOCH_TIME_MILLIS - 123456000L;
+        record.setLastUpdateTime(time);
+
+        assertEquals(time, record.getLastUpdateTime());
+    }
+
+    @Test
+    public void testOnUpdate() {
+        long now = EPOCH_TIME_MILLIS + 5000L;
+        record.onUpdate(now);
+
+        assertEquals(1, record.getVersion());
+        assertEquals(1, record.getHits());
+        assertEquals(now, record.getLastAccessTime());
+        assertEquals(now, record.getLastUpdateTime());
+    }
+
+    @Test
+    public void testHits_areCappedAtIntMax() {
+        record.setHits(Long.MAX_VALUE);
+        record.onAccess(EPOCH_TIME_MILLIS);
+
+        assertEquals(Integer.MAX_VALUE, record.getHits());
+    }
+
+    @Test
+    public void testCasCachedValue() {
+        assertTrue(record.casCachedValue(null, null));
+    }
+
+    @Test
+    public void testEquals() {
+        CompactObjectRecord recordSameAttributes = new CompactObjectRecord(VALUE);
+        recordSameAttributes.setKey(KEY);
+
+        CompactObjectRecord recordOtherCreationTime = new CompactObjectRecord(VALUE);
+        recordOtherCreationTime.setKey(KEY);
+        recordOtherCreationTime.setCreationTime(EPOCH_TIME_MILLIS + 152344000L);
+
+        assertEquals(record, recordSameAttributes);
+        assertEquals(record.hashCode(), recordSameAttributes.hashCode());
+        assertNotEquals(record, recordOtherCreationTime);
+        assertNotEquals(record, new ObjectRecord(VALUE));
+    }
+}
@@ -17,6 +17,7 @@
 package com.hazelcast.map.impl.record;
 
 import com.hazelcast.config.CacheDeserializedValues;
+import com.hazelcast.config.EvictionPolicy;
 import com.hazelcast.config.MapConfig;
 import com.hazelcast.core.PartitioningStrategy;
 import com.hazelcast.internal.serialization.impl.HeapData;
@@ -65,7 +66,8 @@ public class DataRecordFactoryTest extends HazelcastTestSupport {
 
     @Test
     public void givenStatisticsDisabledAndCacheDeserializedValuesIsNEVER_thenCreateDataRecordWithStats() {
-        MapConfig mapConfig = new MapConfig().setStatisticsEnabled(false).setCacheDeserializedValues(CacheDeserializedValues.NEVER);
+        MapConfig mapConfig = new MapConfig().setStatisticsEnabled(false).setCacheDeserializedValues(CacheDeserializedValues.NEVER)
+                .setTimeToLiveSeconds(10);
         DataRecordFactory dataRecordFactory = new DataRecordFactory(mapConfig, mockSerializationService, mockPartitioningStrategy);
 
         Record<Data> dataRecord = newDataRecord(dataRecordFactory);
@@ -85,17 +87,47 @@ public class DataRecordFactoryTest extends HazelcastTestSupport {
 
     @Test
     public void givenStatisticsDisabledAndCacheDeserializedValuesIsDefault_thenCreateCachedDataRecord() {
+        MapConfig mapConfig = new MapConfig().setStatisticsEnabled(false).setMaxIdleSeconds(10);
+        DataRecordFactory dataRecordFactory = new DataRecordFactory(mapConfig, mockSerializationService, mockPartitioningStrategy);
+
+        Record<Data> dataRecord = newDataRecord(dataRecordFactory);
+
+        assertInstanceOf(CachedDataRecord.class, dataRecord);
+    }
+
+    @Test
+    public void givenNoStatisticsExpirationOrEvictionAndCacheDeserializedValuesIsNEVER_thenCreateCompactDataRecord() {
+        MapConfig mapConfig = new MapConfig().setStatisticsEnabled(false).setCacheDeserializedValues(CacheDeserializedValues.NEVER);
+        DataRecordFactory dataRecordFactory = new DataRecordFactory(mapConfig, mockSerializationService, mockPartitioningStrategy);
+
+        Record<Data> dataRecord = newDataRecord(dataRecordFactory);
+
+        assertInstanceOf(CompactDataRecord.class, dataRecord);
+    }
+
+    @Test
+    public void givenNoStatisticsExpirationOrEvictionAndCacheDeserializedValuesIsDefault_thenCreateCompactCachedDataRecord() {
         MapConfig mapConfig = new MapConfig().setStatisticsEnabled(false);
         DataRecordFactory dataRecordFactory = new DataRecordFactory(mapConfig, mockSerializationService, mockPartitioningStrategy);
 
         Record<Data> dataRecord = newDataRecord(dataRecordFactory);
 
+        assertInstanceOf(CompactCachedDataRecord.class, dataRecord);
+    }
+
+    @Test
+    public void givenStatisticsDisabledAndEvictionEnabled_thenCreateCachedDataRecord() {
+        MapConfig mapConfig = new MapConfig().setStatisticsEnabled(false).setEvictionPolicy(EvictionPolicy.LRU);
+        DataRecordFactory dataRecordFactory = new DataRecordFactory(mapConfig, mockSerializationService, mockPartitioningStrategy);
+
+        Record<Data> dataRecord = newDataRecord(dataRecordFactory);
+
         assertInstanceOf(CachedDataRecord.class, dataRecord);
     }
 
     private Record<Data> newDataRecord(DataRecordFactory dataRecordFactory) {
         Record<Data> record = dataRecordFactory.newRecord(object);
-        ((AbstractRecord) record).setKey(data);
+        record.setKey(data);
         return record;
     }
 }
@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.hazelcast.map.impl.recordstore;
+
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.map.impl.MapService;
+import com.hazelcast.map.impl.MapServiceContext;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ExpirationIndexTest extends HazelcastTestSupport {
+
+    private static final long SLOT_MILLIS = 1000;
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final ExpirationIndex index = new ExpirationIndex(SLOT_MILLIS);
+
+    @Test
+    public void testPollDue_returnsOnlyDueKeys() {
+        index.schedule(key(1), 1000);
+        index.schedule(key(2), 2500);
+        index.schedule(key(3), 5000);
+
+        List<Data> dueKeys = new ArrayList<Data>();
+        int polled = index.pollDue(3000, dueKeys, Integer.MAX_VALUE);
+
+        assertEquals(2, polled);
+        assertEquals(asList(key(1), key(2)), sorted(dueKeys));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void testPollDue_notDue_beforeExpirationTime() {
+        index.schedule(key(1), 1500);
+
+        assertFalse(index.hasDue(1499));
+        assertTrue(index.hasDue(2000));
+    }
+
+    @Test
+    public void testPollDue_respectsMaxCount() {
+        for (int i = 0; i < 10; i++) {
+            index.schedule(key(i), 1000);
+        }
+
+        List<Data> dueKeys = new ArrayList<Data>();
+        index.pollDue(1000, dueKeys, 4);
+
+        assertEquals(4, dueKeys.size());
+        assertEquals(6, index.size());
+        assertTrue(index.hasDue(1000));
+    }
+
+    @Test
+    public void testSchedule_movesKeyToEarlierSlot() {
+        index.schedule(key(1), 10000);
+        index.schedule(key(1), 2000);
+
+        List<Data> dueKeys = new ArrayList<Data>();
+        index.pollDue(2000, dueKeys, Integer.MAX_VALUE);
+
+        assertEquals(asList(key(1)), dueKeys);
+        assertEquals(0, index.size());
+        assertFalse(index.hasDue(Long.MAX_VALUE / 2));
+    }
+
+    @Test
+    public void testSchedule_doesNotMoveKeyToLaterSlot() {
+        index.schedule(key(1), 2000);
+        index.schedule(key(1), 10000);
+
+        List<Data> dueKeys = new ArrayList<Data>();
+        index.pollDue(2000, dueKeys, Integer.MAX_VALUE);
+
+        assertEquals(asList(key(1)), dueKeys);
+    }
+
+    @Test
+    public void testSchedule_ignoresEternalKeys() {
+        index.schedule(key(1), Long.MAX_VALUE);
+
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testUnschedule() {
+        index.schedule(key(1), 1000);
+        index.schedule(key(2), 1000);
+
+        index.unschedule(key(1));
+        index.unschedule(key(3));
+
+        List<Data> dueKeys = new ArrayList<Data>();
+        index.pollDue(1000, dueKeys, Integer.MAX_VALUE);
+        assertEquals(asList(key(2)), dueKeys);
+    }
+
+    @Test
+    public void testUnschedule_removesEmptySlot() {
+        index.schedule(key(1), 1000);
+
+        index.unschedule(key(1));
+
+        assertEquals(0, index.size());
+        assertFalse(index.hasDue(Long.MAX_VALUE / 2));
+    }
+
+    @Test
+    public void testRecordStore_unindexesRemovedAndEvictedKeys() {
+        HazelcastInstance hz = createHazelcastInstance();
+        String mapName = randomMapName();
+        IMap<Integer, Integer> map = hz.getMap(mapName);
+        for (int i = 0; i < 10; i++) {
+            map.put(i, i, 1, TimeUnit.HOURS);
+        }
+
+        for (int i = 0; i < 10; i++) {
+            if (i % 2 == 0) {
+                map.remove(i);
+            } else {
+                map.evict(i);
+            }
+        }
+
+        MapService mapService = getNodeEngineImpl(hz).getService(MapService.SERVICE_NAME);
+        MapServiceContext mapServiceContext = mapService.getMapServiceContext();
+        for (int partitionId = 0; partitionId < getPartitionService(hz).getPartitionCount(); partitionId++) {
+            RecordStore recordStore = mapServiceContext.getExistingRecordStore(partitionId, mapName);
+            if (recordStore != null) {
+                assertEquals(0, ((DefaultRecordStore) recordStore).expirationIndex.size());
+            }
+        }
+    }
+
+    @Test
+    public void testClear() {
+        index.schedule(key(1), 1000);
+        index.clear();
+
+        assertEquals(0, index.size());
+        assertFalse(index.hasDue(Long.MAX_VALUE / 2));
+    }
+
+    private Data key(int i) {
+        return serializationService.toData(i);
+    }
+
+    private List<Data> sorted(List<Data> keys) {
+        List<Data> sorted = new ArrayList<Data>();
+        for (int i = 0; i < 10; i++) {
+            if (keys.contains(key(i))) {
+                sorted.add(key(i));
+            }
+        }
+        return sorted;
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.mapreduce.impl.task;
+
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.mapreduce.Reducer;
+import com.hazelcast.mapreduce.ReducerFactory;
+import com.hazelcast.mapreduce.impl.CombinerResultList;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.io.File;
+import java.util.Map;
+
+import static com.hazelcast.nio.IOUtil.deleteQuietly;
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class SpillingReduceBufferTest extends HazelcastTestSupport {
+
+    private static final int KEY_COUNT = 100;
+    private static final int VALUES_PER_KEY = 50;
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    private File spillDirectory;
+
+    @Before
+    public void setUp() {
+        spillDirectory = new File(System.getProperty("java.io.tmpdir"), randomName());
+        assertTrue(spillDirectory.mkdirs());
+    }
+
+    @After
+    public void tearDown() {
+        deleteQuietly(spillDirectory);
+    }
+
+    @Test
+    public void testReduce_withoutSpilling() {
+        SpillingReduceBuffer buffer = new SpillingReduceBuffer(serializationService, spillDirectory, Long.MAX_VALUE);
+        addValues(buffer);
+
+        assertEquals(0, buffer.getSpillFileCount());
+        assertSums(buffer.reduce(new SumReducerFactory()));
+    }
+
+    @Test
+    public void testReduce_withSpilling() {
+        SpillingReduceBuffer buffer = new SpillingReduceBuffer(serializationService, spillDirectory, 4096);
+        addValues(buffer);
+
+        assertTrue(buffer.getSpillFileCount() > 1);
+        assertSums(buffer.reduce(new SumReducerFactory()));
+        assertEquals(0, buffer.getSpillFileCount());
+        assertEquals(0, spillDirectory.list().length);
+    }
+
+    @Test
+    public void testReduce_expandsCollectedValues() {
+        SpillingReduceBuffer buffer = new SpillingReduceBuffer(serializationService, spillDirectory, 256);
+        buffer.add("key", new CombinerResultList<Integer>(asList(1, 2, 3)));
+        buffer.add("key", 4);
+
+        Map<Object, Object> results = buffer.reduce(new SumReducerFactory());
+
+        assertEquals(1, results.size());
+        assertEquals(10L, results.get("key"));
+    }
+
+    @Test
+    public void testReduce_skipsNullResults() {
+        SpillingReduceBuffer buffer = new SpillingReduceBuffer(serializationService, spillDirectory, Long.MAX_VALUE);
+        buffer.add("key", 1);
+
+        Map<Object, Object> results = buffer.reduce(new ReducerFactory<Object, Integer, Long>() {
+            @Override
+            public Reducer<Integer, Long> newReducer(Object key) {
+                return new Reducer<Integer, Long>() {
+                    @Override
+                    public void reduce(Integer value) {
+                    }
+
+                    @Override
+                    public Long finalizeReduce() {
+                        return null;
+                    }
+                };
+            }
+        });
+
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    public void testReduce_whenRepeated_thenSameResults() {
+        SpillingReduceBuffer buffer = new SpillingReduceBuffer(serializationService, spillDirectory, 4096);
+        addValues(buffer);
+
+        Map<Object, Object> results = buffer.reduce(new SumReducerFactory());
+
+        assertSums(buffer.reduce(new SumReducerFactory()));
+        assertSame(results, buffer.reduce(new SumReducerFactory()));
+    }
+
+    @Test
+    public void testDispose_dropsResultsAndIgnoresLateValues() {
+        SpillingReduceBuffer buffer = new SpillingReduceBuffer(serializationService, spillDirectory, 256);
+        addValues(buffer);
+        buffer.reduce(new SumReducerFactory());
+
+        buffer.dispose();
+        addValues(buffer);
+
+        assertEquals(0, spillDirectory.list().length);
+        assertTrue(buffer.reduce(new SumReducerFactory()).isEmpty());
+    }
+
+    @Test
+    public void testDispose_deletesSpillFiles() {
+        SpillingReduceBuffer buffer = new SpillingReduceBuffer(serializationService, spillDirectory, 256);
+        addValues(buffer);
+        assertFalse(spillDirectory.list().length == 0);
+
+        buffer.dispose();
+
+        assertEquals(0, buffer.getSpillFileCount());
+        assertEquals(0, spillDirectory.list().length);
+    }
+
+    private static void addValues(SpillingReduceBuffer buffer) {
+        for (int i = 0; i < VALUES_PER_KEY; i++) {
+            for (int key = 0; key < KEY_COUNT; key++) {
+                buffer.add(key, i);
+            }
+        }
+    }
+
+    private static void assertSums(Map<Object, Object> results) {
+        long expectedSum = VALUES_PER_KEY * (VALUES_PER_KEY - 1) / 2;
+        assertEquals(KEY_COUNT, results.size());
+        for (int key = 0; key < KEY_COUNT; key++) {
+            assertEquals(expectedSum, results.get(key));
+        }
+    }
+
+    private static class SumReducerFactory implements ReducerFactory<Object, Integer, Long> {
+
+        @Override
+        public Reducer<Integer, Long> newReducer(Object key) {
+            return new Reducer<Integer, Long>() {
+                private long sum;
+
+                @Override
+                public void reduce(Integer value) {
+                    sum += value;
+                }
+
+                @Override
+                public Long finalizeReduce() {
+                    return sum;
+                }
+            };
+        }
+    }
+}
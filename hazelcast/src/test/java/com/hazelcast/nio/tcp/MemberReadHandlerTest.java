@@ -21,6 +21,7 @@ import com.hazelcast.nio.Packet;
 import com.hazelcast.spi.impl.packetdispatcher.PacketDispatcher;
 import com.hazelcast.test.HazelcastSerialClassRunner;
 import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.version.MemberVersion;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -32,6 +33,7 @@ import java.util.List;
 
 import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 @RunWith(HazelcastSerialClassRunner.class)
 @Category(QuickTest.class)
@@ -95,6 +97,27 @@ public class MemberReadHandlerTest extends TcpIpConnection_AbstractTest {
         assertEquals(oldPriorityPacketsRead, socketReader.getPriorityFramesReadCounter().get());
     }
 
+    @Test
+    public void whenCompressedPacket() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            sb.append("value").append(i);
+        }
+        Packet packet = new Packet(serializationService.toBytes(sb.toString()), 3);
+        packet.raiseFlags(Packet.FLAG_URGENT);
+        ByteBuffer buffer = ByteBuffer.allocate(1000);
+        MemberWriteHandlerTest.newCompressingWriteHandler(1, new PacketCompressionStats(), MemberVersion.of(3, 9, 0))
+                .onWrite(packet, buffer);
+
+        buffer.flip();
+        readHandler.onRead(buffer);
+
+        assertEquals(1, dispatcher.packets.size());
+        Packet found = dispatcher.packets.get(0);
+        assertEquals(packet, found);
+        assertFalse(found.isFlagRaised(Packet.FLAG_COMPRESSED));
+    }
+
     @Test
     public void whenMultiplePackets() throws Exception {
         ByteBuffer buffer = ByteBuffer.allocate(1000);
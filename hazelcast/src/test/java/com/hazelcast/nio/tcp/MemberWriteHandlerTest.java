@@ -16,22 +16,34 @@
 
 package com.hazelcast.nio.tcp;
 
+import com.hazelcast.instance.MemberImpl;
+import com.hazelcast.internal.cluster.ClusterService;
 import com.hazelcast.internal.serialization.InternalSerializationService;
 import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.nio.Address;
+import com.hazelcast.nio.Connection;
 import com.hazelcast.nio.Packet;
 import com.hazelcast.test.HazelcastParallelClassRunner;
 import com.hazelcast.test.HazelcastTestSupport;
 import com.hazelcast.test.annotation.ParallelTest;
 import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.version.MemberVersion;
+import com.hazelcast.version.Version;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import java.net.UnknownHostException;
 import java.nio.ByteBuffer;
 
+import static com.hazelcast.internal.cluster.Versions.V3_8;
+import static com.hazelcast.internal.cluster.Versions.V3_9;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 @RunWith(HazelcastParallelClassRunner.class)
 @Category({QuickTest.class, ParallelTest.class})
@@ -60,4 +72,117 @@ public class MemberWriteHandlerTest extends HazelcastTestSupport {
         resultPacket.readFrom(bb);
         assertEquals(packet, resultPacket);
     }
+
+    @Test
+    public void whenCompressionEnabled_thenLargePacketCompressed() {
+        PacketCompressionStats stats = new PacketCompressionStats();
+        writeHandler = newCompressingWriteHandler(100, stats, MemberVersion.of(3, 9, 0));
+        Packet packet = new Packet(serializationService.toBytes(largeValue()), 5).raiseFlags(Packet.FLAG_URGENT);
+
+        Packet resultPacket = writeAndRead(packet);
+
+        assertTrue(resultPacket.isFlagRaised(Packet.FLAG_COMPRESSED));
+        assertTrue(resultPacket.isUrgent());
+        assertEquals(5, resultPacket.getPartitionId());
+        assertTrue(resultPacket.totalSize() < packet.totalSize());
+        assertEquals(1, stats.getCompressedPacketCount());
+        assertTrue(stats.compressionRatioPercent() < 100);
+    }
+
+    @Test
+    public void whenCompressionEnabled_thenSmallPacketNotCompressed() {
+        PacketCompressionStats stats = new PacketCompressionStats();
+        writeHandler = newCompressingWriteHandler(100, stats, MemberVersion.of(3, 9, 0));
+        Packet packet = new Packet(serializationService.toBytes("foobar"));
+
+        Packet resultPacket = writeAndRead(packet);
+
+        assertEquals(packet, resultPacket);
+        assertEquals(0, stats.getCompressedPacketCount());
+    }
+
+    @Test
+    public void whenPeerDoesNotSupportCompression_thenLargePacketNotCompressed() {
+        PacketCompressionStats stats = new PacketCompressionStats();
+        writeHandler = newCompressingWriteHandler(100, stats, MemberVersion.of(3, 8, 0));
+        Packet packet = new Packet(serializationService.toBytes(largeValue()));
+
+        Packet resultPacket = writeAndRead(packet);
+
+        assertFalse(resultPacket.isFlagRaised(Packet.FLAG_COMPRESSED));
+        assertEquals(packet, resultPacket);
+        assertEquals(0, stats.getCompressedPacketCount());
+    }
+
+    @Test
+    public void whenClusterVersionIsOlder_thenLargePacketNotCompressed() {
+        PacketCompressionStats stats = new PacketCompressionStats();
+        writeHandler = newCompressingWriteHandler(100, stats, MemberVersion.of(3, 9, 0), V3_8);
+        Packet packet = new Packet(serializationService.toBytes(largeValue()));
+
+        Packet resultPacket = writeAndRead(packet);
+
+        assertFalse(resultPacket.isFlagRaised(Packet.FLAG_COMPRESSED));
+        assertEquals(0, stats.getCompressedPacketCount());
+    }
+
+    @Test
+    public void whenCompressedPacketDoesNotFitInBuffer_thenWrittenInMultipleCalls() {
+        writeHandler = newCompressingWriteHandler(100, new PacketCompressionStats(), MemberVersion.of(3, 9, 0));
+        Packet packet = new Packet(serializationService.toBytes(largeValue()));
+        ByteBuffer bb = ByteBuffer.allocate(100000);
+
+        ByteBuffer small = ByteBuffer.allocate(20);
+        while (!writeHandler.onWrite(packet, small)) {
+            small.flip();
+            bb.put(small);
+            small.clear();
+        }
+        small.flip();
+        bb.put(small);
+
+        bb.flip();
+        Packet resultPacket = new Packet();
+        assertTrue(resultPacket.readFrom(bb));
+        assertTrue(resultPacket.isFlagRaised(Packet.FLAG_COMPRESSED));
+    }
+
+    static MemberWriteHandler newCompressingWriteHandler(int compressionThreshold, PacketCompressionStats stats,
+                                                         MemberVersion peerVersion) {
+        return newCompressingWriteHandler(compressionThreshold, stats, peerVersion, V3_9);
+    }
+
+    private static MemberWriteHandler newCompressingWriteHandler(int compressionThreshold, PacketCompressionStats stats,
+                                                                 MemberVersion peerVersion, Version clusterVersion) {
+        Address peerAddress;
+        try {
+            peerAddress = new Address("127.0.0.1", 5702);
+        } catch (UnknownHostException e) {
+            throw new AssertionError(e);
+        }
+        Connection connection = mock(Connection.class);
+        when(connection.getEndPoint()).thenReturn(peerAddress);
+        ClusterService clusterService = mock(ClusterService.class);
+        when(clusterService.getClusterVersion()).thenReturn(clusterVersion);
+        when(clusterService.getMember(peerAddress)).thenReturn(new MemberImpl(peerAddress, peerVersion, false));
+        return new MemberWriteHandler(connection, clusterService, compressionThreshold, stats);
+    }
+
+    private Packet writeAndRead(Packet packet) {
+        ByteBuffer bb = ByteBuffer.allocate(100000);
+        assertTrue(writeHandler.onWrite(packet, bb));
+
+        bb.flip();
+        Packet resultPacket = new Packet();
+        resultPacket.readFrom(bb);
+        return resultPacket;
+    }
+
+    private static String largeValue() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            sb.append("{\"id\":").append(i).append(",\"name\":\"some name\"}");
+        }
+        return sb.toString();
+    }
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query;
+
+import com.hazelcast.core.HazelcastJsonValue;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.query.impl.QueryEntry;
+import com.hazelcast.query.impl.getters.Extractors;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class JsonPredicatesTest {
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+
+    @Test
+    public void testJsonValue_serializationRoundTrip() {
+        HazelcastJsonValue value = new HazelcastJsonValue("{\"name\": \"Z\u00fcrich\"}");
+
+        assertEquals(value, serializationService.toObject(serializationService.toData(value)));
+    }
+
+    @Test
+    public void testJsonPredicate_onSerializedValue() {
+        Object value = serializationService.toData(createValue("Clark", 100));
+        assertJsonPredicates(toQueryEntry("1", value));
+    }
+
+    @Test
+    public void testJsonPredicate_onDeserializedValue() {
+        assertJsonPredicates(toQueryEntry("1", createValue("Clark", 100)));
+    }
+
+    private void assertJsonPredicates(QueryEntry entry) {
+        assertTrue(new SqlPredicate("strength >= 75").apply(entry));
+        assertTrue(new SqlPredicate("name like C% and powers[any] = 'flight'").apply(entry));
+        assertTrue(Predicates.equal("home.city", "Metropolis").apply(entry));
+        assertFalse(Predicates.equal("home.city", "Gotham").apply(entry));
+        assertFalse(new SqlPredicate("character = 'Bizarro'").apply(entry));
+    }
+
+    private HazelcastJsonValue createValue(String name, int strength) {
+        return new HazelcastJsonValue("{\"name\": \"" + name + "\", \"strength\": " + strength
+                + ", \"powers\": [\"speed\", \"flight\"], \"home\": {\"city\": \"Metropolis\"}}");
+    }
+
+    private QueryEntry toQueryEntry(Object key, Object value) {
+        return new QueryEntry(serializationService, serializationService.toData(key), value, Extractors.empty());
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.query.impl.getters;
+
+import com.hazelcast.core.HazelcastJsonValue;
+import com.hazelcast.internal.serialization.InternalSerializationService;
+import com.hazelcast.internal.serialization.impl.DefaultSerializationServiceBuilder;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class JsonGetterTest {
+
+    private static final String JSON = "{\"name\": \"John\", \"age\": 35, \"height\": 1.83, \"married\": true,"
+            + " \"spouse\": null, \"quote\": \"say \\\"hi\\\" \\u00e9\", \"city\": \"Z\u00fcrich\","
+            + " \"address\": {\"street\": {\"name\": \"Main\", \"no\": 12}, \"zip\": \"8000\"},"
+            + " \"tags\": [\"a\", \"b\", [1, 2]], \"escaped\\\"key\": 1,"
+            + " \"children\": [{\"name\": \"Anna\", \"age\": 5}, {\"name\": \"Ben\"}]}";
+
+    private final InternalSerializationService serializationService = new DefaultSerializationServiceBuilder().build();
+    private final JsonGetter getter = new JsonGetter();
+
+    @Test
+    public void testPrimitives() throws Exception {
+        assertEquals("John", getValue("name"));
+        assertEquals(35L, getValue("age"));
+        assertEquals(1.83, getValue("height"));
+        assertEquals(true, getValue("married"));
+        assertNull(getValue("spouse"));
+    }
+
+    @Test
+    public void testStrings_withEscapesAndNonAsciiChars() throws Exception {
+        assertEquals("say \"hi\" \u00e9", getValue("quote"));
+        assertEquals("Z\u00fcrich", getValue("city"));
+        assertEquals(1L, getValue("escaped\"key"));
+    }
+
+    @Test
+    public void testNestedFields() throws Exception {
+        assertEquals("Main", getValue("address.street.name"));
+        assertEquals(12L, getValue("address.street.no"));
+        assertEquals("8000", getValue("address.zip"));
+    }
+
+    @Test
+    public void testNestedDocuments() throws Exception {
+        assertEquals(new HazelcastJsonValue("{\"name\": \"Main\", \"no\": 12}"), getValue("address.street"));
+        assertEquals(new HazelcastJsonValue("[1, 2]"), getValue("tags[2]"));
+    }
+
+    @Test
+    public void testArrayIndex() throws Exception {
+        assertEquals("b", getValue("tags[1]"));
+        assertEquals(2L, getValue("tags[2][1]"));
+        assertEquals("Anna", getValue("children[0].name"));
+        assertNull(getValue("tags[3]"));
+    }
+
+    @Test
+    public void testAny() throws Exception {
+        MultiResult result = (MultiResult) getValue("children[any].name");
+        assertEquals(asList("Anna", "Ben"), result.getResults());
+
+        result = (MultiResult) getValue("children[any].age");
+        assertEquals(asList(5L, null), result.getResults());
+    }
+
+    @Test
+    public void testMissingPaths() throws Exception {
+        assertNull(getValue("surname"));
+        assertNull(getValue("name.first"));
+        assertNull(getValue("address.street.name.first"));
+        assertNull(getValue("age[0]"));
+    }
+
+    @Test
+    public void testDeserializedValue() throws Exception {
+        HazelcastJsonValue value = new HazelcastJsonValue(JSON);
+
+        assertEquals("Z\u00fcrich", getter.getValue(value, "city"));
+        assertEquals(12L, getter.getValue(value, "address.street.no"));
+    }
+
+    @Test
+    public void testNumbers() throws Exception {
+        HazelcastJsonValue value = new HazelcastJsonValue(
+                "{\"a\": -7, \"b\": 1e3, \"c\": 9223372036854775807, \"d\": 92233720368547758070, \"e\": -0.5}");
+
+        assertEquals(-7L, getter.getValue(value, "a"));
+        assertEquals(1000.0, getter.getValue(value, "b"));
+        assertEquals(Long.MAX_VALUE, getter.getValue(value, "c"));
+        assertEquals(9.223372036854776E19, getter.getValue(value, "d"));
+        assertEquals(-0.5, getter.getValue(value, "e"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void getValue_withoutPath() throws Exception {
+        getter.getValue(new HazelcastJsonValue(JSON));
+    }
+
+    @Test
+    public void isCacheable() throws Exception {
+        assertFalse("JSON getter shouldn't be cacheable!", getter.isCacheable());
+    }
+
+    private Object getValue(String path) throws Exception {
+        return getter.getValue(serializationService.toData(new HazelcastJsonValue(JSON)), path);
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.scheduledexecutor;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.ICountDownLatch;
+import com.hazelcast.spi.properties.GroupProperty;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class ScheduledExecutorTimingWheelTest extends ScheduledExecutorServiceTestSupport {
+
+    @Test
+    public void schedule_withTimingWheel() throws Exception {
+        HazelcastInstance[] instances = createClusterWithCount(2, newConfig());
+        IScheduledExecutorService executorService = getScheduledExecutor(instances, "s");
+
+        IScheduledFuture<Double> future = executorService.schedule(new PlainCallableTask(), 200, MILLISECONDS);
+
+        assertEquals(25.0, future.get(), 0);
+        assertTrue(future.isDone());
+    }
+
+    @Test
+    public void scheduleAtFixedRate_withTimingWheel() throws Exception {
+        HazelcastInstance[] instances = createClusterWithCount(2, newConfig());
+        IScheduledExecutorService executorService = getScheduledExecutor(instances, "s");
+        ICountDownLatch latch = instances[0].getCountDownLatch("latch");
+        latch.trySetCount(3);
+
+        IScheduledFuture future = executorService.scheduleAtFixedRate(new ICountdownLatchRunnableTask("latch"),
+                0, 1, SECONDS);
+
+        latch.await(10, SECONDS);
+        future.cancel(false);
+
+        assertEquals(0, latch.getCount());
+        assertTrue(future.isCancelled());
+    }
+
+    @Test
+    public void cancel_withTimingWheel() throws Exception {
+        HazelcastInstance[] instances = createClusterWithCount(1, newConfig());
+        IScheduledExecutorService executorService = getScheduledExecutor(instances, "s");
+
+        IScheduledFuture<Double> future = executorService.schedule(new PlainCallableTask(), 1, SECONDS);
+
+        assertTrue(future.cancel(false));
+        assertTrue(future.isCancelled());
+    }
+
+    private static Config newConfig() {
+        return new Config().setProperty(GroupProperty.SCHEDULED_EXECUTOR_TIMING_WHEEL_ENABLED.getName(), "true");
+    }
+}
@@ -0,0 +1,385 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.scheduledexecutor.impl;
+
+import com.hazelcast.logging.Logger;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class HashedWheelTaskSchedulerTest extends HazelcastTestSupport {
+
+    private static final int WHEEL_SIZE = 8;
+
+    private ExecutorService executor;
+    private HashedWheelTaskScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+        scheduler = newScheduler(1);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+        executor.shutdownNow();
+    }
+
+    private static HashedWheelTaskScheduler newScheduler(int batchSize) {
+        HashedWheelTaskScheduler scheduler = new HashedWheelTaskScheduler(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                return new Thread(r, "wheel-" + randomName());
+            }
+        }, 10, WHEEL_SIZE, batchSize, Logger.getLogger(HashedWheelTaskScheduler.class));
+        scheduler.start();
+        return scheduler;
+    }
+
+    @Test
+    public void testSchedule_returnsResultNotBeforeDelay() throws Exception {
+        long start = System.nanoTime();
+        ScheduledFuture<String> future = scheduler.schedule(new ValueTask("value"), executor, 100, MILLISECONDS);
+
+        assertEquals("value", future.get());
+        assertTrue(NANOSECONDS.toMillis(System.nanoTime() - start) >= 100);
+        assertTrue(future.isDone());
+        assertFalse(future.isCancelled());
+    }
+
+    @Test
+    public void testSchedule_whenDelayLongerThanWheelTurn_thenTaskFiresAfterMultipleRounds() throws Exception {
+        // 8 buckets of 10 ms, so the task waits for several turns of the wheel
+        long start = System.nanoTime();
+        ScheduledFuture<String> future = scheduler.schedule(new ValueTask("value"), executor, 250, MILLISECONDS);
+
+        assertEquals("value", future.get(10, SECONDS));
+        assertTrue(NANOSECONDS.toMillis(System.nanoTime() - start) >= 250);
+    }
+
+    @Test
+    public void testSchedule_whenManyTasksExpireInSameTick_thenAllRun() {
+        final AtomicInteger runs = new AtomicInteger();
+        final int taskCount = 1000;
+        for (int i = 0; i < taskCount; i++) {
+            scheduler.schedule(new Callable<Object>() {
+                @Override
+                public Object call() {
+                    return runs.incrementAndGet();
+                }
+            }, executor, 50, MILLISECONDS);
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(taskCount, runs.get());
+            }
+        });
+    }
+
+    @Test
+    public void testSchedule_whenTasksExpireInSameTick_thenRunInParallel() throws Exception {
+        final CountDownLatch bothRunning = new CountDownLatch(2);
+        Callable<Boolean> task = new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                bothRunning.countDown();
+                return bothRunning.await(10, SECONDS);
+            }
+        };
+
+        ScheduledFuture<Boolean> first = scheduler.schedule(task, executor, 50, MILLISECONDS);
+        ScheduledFuture<Boolean> second = scheduler.schedule(task, executor, 50, MILLISECONDS);
+
+        assertTrue(first.get(20, SECONDS));
+        assertTrue(second.get(20, SECONDS));
+    }
+
+    @Test
+    public void testSchedule_whenBatched_thenAllRun() {
+        HashedWheelTaskScheduler batchingScheduler = newScheduler(4);
+        try {
+            final AtomicInteger runs = new AtomicInteger();
+            for (int i = 0; i < 100; i++) {
+                batchingScheduler.schedule(new Callable<Object>() {
+                    @Override
+                    public Object call() {
+                        return runs.incrementAndGet();
+                    }
+                }, executor, 20, MILLISECONDS);
+            }
+
+            assertTrueEventually(new AssertTask() {
+                @Override
+                public void run() {
+                    assertEquals(100, runs.get());
+                }
+            });
+        } finally {
+            batchingScheduler.shutdown();
+        }
+    }
+
+    @Test(expected = ExecutionException.class)
+    public void testGet_whenTaskFails_thenThrowExecutionException() throws Exception {
+        ScheduledFuture<Object> future = scheduler.schedule(new Callable<Object>() {
+            @Override
+            public Object call() {
+                throw new IllegalStateException("expected");
+            }
+        }, executor, 0, MILLISECONDS);
+
+        future.get();
+    }
+
+    @Test
+    public void testCancel_whenNotFired_thenTaskDoesNotRun() throws Exception {
+        final AtomicInteger runs = new AtomicInteger();
+        ScheduledFuture<Object> future = scheduler.schedule(new Callable<Object>() {
+            @Override
+            public Object call() {
+                return runs.incrementAndGet();
+            }
+        }, executor, 100, MILLISECONDS);
+
+        assertTrue(future.cancel(false));
+        assertTrue(future.isCancelled());
+        assertTrue(future.isDone());
+        assertFalse(future.cancel(false));
+
+        sleepMillis(300);
+        assertEquals(0, runs.get());
+        try {
+            future.get();
+        } catch (CancellationException expected) {
+            ignore(expected);
+            return;
+        }
+        throw new AssertionError("CancellationException expected");
+    }
+
+    @Test
+    public void testScheduleAtFixedRate_runsRepeatedlyUntilCancelled() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(5);
+        final AtomicInteger runs = new AtomicInteger();
+        ScheduledFuture<?> future = scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                runs.incrementAndGet();
+                latch.countDown();
+            }
+        }, executor, 0, 20, MILLISECONDS);
+
+        assertOpenEventually(latch);
+        assertFalse(future.isDone());
+        assertTrue(future.cancel(false));
+
+        final int runsAfterCancel = runs.get();
+        assertTrueAllTheTime(new AssertTask() {
+            @Override
+            public void run() {
+                // a run may have been in flight when the task was cancelled
+                assertTrue(runs.get() <= runsAfterCancel + 1);
+            }
+        }, 1);
+    }
+
+    @Test
+    public void testScheduleAtFixedRate_whenPreviousRunInProgress_thenRunSkipped() {
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger concurrentRuns = new AtomicInteger();
+        final AtomicInteger maxConcurrentRuns = new AtomicInteger();
+        ScheduledFuture<?> future = scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                int current = concurrentRuns.incrementAndGet();
+                maxConcurrentRuns.set(Math.max(maxConcurrentRuns.get(), current));
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                concurrentRuns.decrementAndGet();
+            }
+        }, executor, 0, 10, MILLISECONDS);
+
+        sleepMillis(200);
+        release.countDown();
+        future.cancel(false);
+
+        assertEquals(1, maxConcurrentRuns.get());
+    }
+
+    @Test
+    public void testScheduleAtFixedRate_whenPeriodShorterThanTick_thenRunsEveryTick() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(20);
+        ScheduledFuture<?> future = scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        }, executor, 0, 1, MILLISECONDS);
+
+        // 20 runs take about 20 ticks of 10 ms, a run firing a wheel turn late would need 20 turns of 80 ms
+        assertTrue(latch.await(1, SECONDS));
+        future.cancel(false);
+    }
+
+    @Test
+    public void testScheduleAtFixedRate_whenRunFails_thenFutureFailsAndNextRunsSuppressed() throws Exception {
+        final AtomicInteger runs = new AtomicInteger();
+        ScheduledFuture<?> future = scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                runs.incrementAndGet();
+                throw new IllegalStateException("expected");
+            }
+        }, executor, 0, 10, MILLISECONDS);
+
+        try {
+            future.get(10, SECONDS);
+            throw new AssertionError("ExecutionException expected");
+        } catch (ExecutionException expected) {
+            assertTrue(expected.getCause() instanceof IllegalStateException);
+        }
+        assertTrue(future.isDone());
+        assertFalse(future.isCancelled());
+        assertTrueAllTheTime(new AssertTask() {
+            @Override
+            public void run() {
+                assertEquals(1, runs.get());
+            }
+        }, 1);
+    }
+
+    @Test
+    public void testSchedule_whenExecutorRejects_thenFutureFails() throws Exception {
+        executor.shutdown();
+        ScheduledFuture<String> future = scheduler.schedule(new ValueTask("value"), executor, 0, MILLISECONDS);
+
+        try {
+            future.get(10, SECONDS);
+        } catch (ExecutionException expected) {
+            assertTrue(expected.getCause() instanceof RejectedExecutionException);
+            return;
+        }
+        throw new AssertionError("ExecutionException expected");
+    }
+
+    @Test
+    public void testSchedule_whenExecutorFails_thenFutureFails() throws Exception {
+        Executor failingExecutor = new Executor() {
+            @Override
+            public void execute(Runnable command) {
+                throw new IllegalStateException("expected");
+            }
+        };
+        ScheduledFuture<String> future = scheduler.schedule(new ValueTask("value"), failingExecutor, 0, MILLISECONDS);
+
+        try {
+            future.get(10, SECONDS);
+        } catch (ExecutionException expected) {
+            assertTrue(expected.getCause() instanceof IllegalStateException);
+            return;
+        }
+        throw new AssertionError("ExecutionException expected");
+    }
+
+    @Test
+    public void testShutdown_thenPendingTasksCancelled() throws Exception {
+        ScheduledFuture<String> future = scheduler.schedule(new ValueTask("value"), executor, 10, SECONDS);
+        final ScheduledFuture<?> periodic = scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }, executor, 10, 10, SECONDS);
+
+        scheduler.shutdown();
+
+        try {
+            future.get(10, SECONDS);
+            throw new AssertionError("CancellationException expected");
+        } catch (CancellationException expected) {
+            assertTrue(future.isCancelled());
+        }
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() {
+                assertTrue(periodic.isCancelled());
+            }
+        });
+    }
+
+    @Test(expected = RejectedExecutionException.class)
+    public void testSchedule_whenShutdown_thenRejected() {
+        scheduler.shutdown();
+        scheduler.schedule(new ValueTask("value"), executor, 0, MILLISECONDS);
+    }
+
+    @Test
+    public void testGetDelay() {
+        ScheduledFuture<String> future = scheduler.schedule(new ValueTask("value"), executor, 10, SECONDS);
+
+        long delay = future.getDelay(MILLISECONDS);
+        assertTrue(delay > 0 && delay <= SECONDS.toMillis(10));
+        future.cancel(false);
+    }
+
+    private static class ValueTask implements Callable<String> {
+
+        private final String value;
+
+        ValueTask(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String call() {
+            return value;
+        }
+    }
+}
@@ -24,7 +24,10 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
@@ -64,6 +67,40 @@ public class SampleableConcurrentHashMapTest extends HazelcastTestSupport {
         assertEquals(SAMPLE_COUNT, map.size());
     }
 
+    @Test
+    public void valuesSuccessfullySampled() {
+        final int ENTRY_COUNT = 100;
+        final int SAMPLE_COUNT = 15;
+        SampleableConcurrentHashMap<Integer, Integer> sampleableConcurrentHashMap =
+                new SampleableConcurrentHashMap<Integer, Integer>(ENTRY_COUNT);
+
+        for (int i = 0; i < ENTRY_COUNT; i++) {
+            sampleableConcurrentHashMap.put(i, i);
+        }
+
+        List<Integer> values = new ArrayList<Integer>();
+        int sampledCount = sampleableConcurrentHashMap.sampleValues(SAMPLE_COUNT, values);
+
+        // Sure that there is enough sample as we expected
+        assertEquals(SAMPLE_COUNT, sampledCount);
+        assertEquals(SAMPLE_COUNT, values.size());
+        // Sure that all samples are different
+        assertEquals(SAMPLE_COUNT, new HashSet<Integer>(values).size());
+    }
+
+    @Test
+    public void valuesSampled_whenFewerEntriesThanSampleCount() {
+        SampleableConcurrentHashMap<Integer, Integer> sampleableConcurrentHashMap =
+                new SampleableConcurrentHashMap<Integer, Integer>(10);
+        sampleableConcurrentHashMap.put(1, 1);
+        sampleableConcurrentHashMap.put(2, 2);
+
+        List<Integer> values = new ArrayList<Integer>();
+
+        assertEquals(2, sampleableConcurrentHashMap.sampleValues(15, values));
+        assertEquals(2, values.size());
+    }
+
     @Test
     public void applyIfAbsentTest() throws Throwable {
         final SampleableConcurrentHashMap<String, String> map =
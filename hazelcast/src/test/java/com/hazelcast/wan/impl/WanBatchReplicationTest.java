@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.wan.impl;
+
+import com.hazelcast.config.Config;
+import com.hazelcast.config.WANQueueFullBehavior;
+import com.hazelcast.config.WanPublisherConfig;
+import com.hazelcast.config.WanReplicationConfig;
+import com.hazelcast.config.WanReplicationRef;
+import com.hazelcast.core.HazelcastInstance;
+import com.hazelcast.core.IMap;
+import com.hazelcast.map.merge.PassThroughMergePolicy;
+import com.hazelcast.monitor.LocalWanPublisherStats;
+import com.hazelcast.nio.Address;
+import com.hazelcast.test.AssertTask;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.HazelcastTestSupport;
+import com.hazelcast.test.TestHazelcastInstanceFactory;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.wan.WANReplicationQueueFullException;
+import com.hazelcast.wan.WanReplicationService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class WanBatchReplicationTest extends HazelcastTestSupport {
+
+    private static final String WAN_NAME = "batchWan";
+
+    private TestHazelcastInstanceFactory factory;
+    private HazelcastInstance target;
+
+    @Before
+    public void setUp() {
+        factory = createHazelcastInstanceFactory(2);
+        Config targetConfig = new Config();
+        targetConfig.getGroupConfig().setName("target-" + randomString());
+        target = factory.newHazelcastInstance(targetConfig);
+    }
+
+    @After
+    public void tearDown() {
+        factory.terminateAll();
+    }
+
+    @Test
+    public void testEventsReplicatedToTargetCluster() {
+        HazelcastInstance source = factory.newHazelcastInstance(getSourceConfig(getAddress(target), 10000));
+        IMap<Integer, Integer> sourceMap = source.getMap("map");
+        final IMap<Integer, Integer> targetMap = target.getMap("map");
+
+        for (int i = 0; i < 100; i++) {
+            sourceMap.put(i, i);
+        }
+        for (int i = 0; i < 10; i++) {
+            sourceMap.remove(i);
+        }
+
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(90, targetMap.size());
+                assertNull(targetMap.get(0));
+                assertEquals(99, (int) targetMap.get(99));
+            }
+        });
+
+        final WanBatchReplication replication = getBatchReplication(source);
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                LocalWanPublisherStats stats = replication.getStats();
+                assertEquals(0, stats.getOutboundQueueSize());
+                assertTrue(stats.isConnected());
+                assertEquals(replication.publishedEventCount(), stats.getTotalPublishedEventCount());
+                assertEquals(0, replication.replicationLagMillis());
+            }
+        });
+        assertEquals(110 - replication.coalescedEventCount(), replication.publishedEventCount());
+    }
+
+    @Test(expected = WANReplicationQueueFullException.class)
+    public void testQueueFull_throwsException() throws Exception {
+        HazelcastInstance source = newSourceWithPendingEvent(1);
+
+        source.getMap("map").put(2, 2);
+    }
+
+    @Test
+    public void testClearQueues() throws Exception {
+        HazelcastInstance source = newSourceWithPendingEvent(100);
+
+        WanReplicationService wanReplicationService = getNodeEngineImpl(source).getWanReplicationService();
+        String targetGroupName = target.getConfig().getGroupConfig().getName();
+        wanReplicationService.clearQueues(WAN_NAME, targetGroupName);
+
+        assertEquals(0, getBatchReplication(source).outboundQueueSize());
+        assertFalse(wanReplicationService.getStats().isEmpty());
+    }
+
+    private HazelcastInstance newSourceWithPendingEvent(int queueCapacity) throws Exception {
+        Address unreachable = new Address("127.0.0.1", 1);
+        Config config = getSourceConfig(unreachable, queueCapacity);
+        // keep the event in the queue while the batch window is open
+        config.getWanReplicationConfig(WAN_NAME).getWanPublisherConfigs().get(0).getProperties()
+                .put(WanBatchReplication.BATCH_MAX_DELAY_MILLIS, Long.MAX_VALUE / 2);
+        HazelcastInstance source = factory.newHazelcastInstance(config);
+        source.getMap("map").put(1, 1);
+
+        final WanBatchReplication replication = getBatchReplication(source);
+        assertTrueEventually(new AssertTask() {
+            @Override
+            public void run() throws Exception {
+                assertEquals(1, replication.outboundQueueSize());
+            }
+        });
+        return source;
+    }
+
+    private Config getSourceConfig(Address targetAddress, int queueCapacity) {
+        WanPublisherConfig publisherConfig = new WanPublisherConfig()
+                .setClassName(WanBatchReplication.class.getName())
+                .setGroupName(target.getConfig().getGroupConfig().getName())
+                .setQueueCapacity(queueCapacity)
+                .setQueueFullBehavior(WANQueueFullBehavior.THROW_EXCEPTION);
+        publisherConfig.getProperties().put(WanBatchReplication.ENDPOINTS,
+                targetAddress.getHost() + ":" + targetAddress.getPort());
+        publisherConfig.getProperties().put(WanBatchReplication.BATCH_SIZE, 20);
+        publisherConfig.getProperties().put(WanBatchReplication.BATCH_MAX_DELAY_MILLIS, 100);
+        publisherConfig.getProperties().put(WanBatchReplication.COMPRESSION_THRESHOLD, 0);
+
+        WanReplicationConfig wanConfig = new WanReplicationConfig()
+                .setName(WAN_NAME)
+                .addWanPublisherConfig(publisherConfig);
+
+        WanReplicationRef wanRef = new WanReplicationRef()
+                .setName(WAN_NAME)
+                .setMergePolicy(PassThroughMergePolicy.class.getName());
+
+        Config config = new Config();
+        config.getGroupConfig().setName("source-" + randomString());
+        config.addWanReplicationConfig(wanConfig);
+        config.getMapConfig("map").setWanReplicationRef(wanRef);
+        return config;
+    }
+
+    private static WanBatchReplication getBatchReplication(HazelcastInstance instance) {
+        WanReplicationService service = getNodeEngineImpl(instance).getWanReplicationService();
+        WanReplicationPublisherDelegate delegate = (WanReplicationPublisherDelegate) service.getWanReplicationPublisher(WAN_NAME);
+        return (WanBatchReplication) delegate.getEndpoints()[0];
+    }
+}
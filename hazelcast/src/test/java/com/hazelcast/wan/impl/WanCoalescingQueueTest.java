@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2008-2017, Hazelcast, Inc. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.hazelcast.wan.impl;
+
+import com.hazelcast.internal.serialization.impl.HeapData;
+import com.hazelcast.map.impl.SimpleEntryView;
+import com.hazelcast.map.impl.wan.MapReplicationRemove;
+import com.hazelcast.map.impl.wan.MapReplicationUpdate;
+import com.hazelcast.map.merge.PassThroughMergePolicy;
+import com.hazelcast.nio.serialization.Data;
+import com.hazelcast.test.HazelcastParallelClassRunner;
+import com.hazelcast.test.annotation.ParallelTest;
+import com.hazelcast.test.annotation.QuickTest;
+import com.hazelcast.wan.WanReplicationEvent;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.hazelcast.map.impl.MapService.SERVICE_NAME;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(HazelcastParallelClassRunner.class)
+@Category({QuickTest.class, ParallelTest.class})
+public class WanCoalescingQueueTest {
+
+    private WanCoalescingQueue queue = new WanCoalescingQueue(2);
+
+    @Test
+    public void testOffer_coalescesEventsForSameKey() throws Exception {
+        queue.offer(update("map", key(1)), 1);
+        WanReplicationEvent latest = remove("map", key(1));
+        queue.offer(latest, 2);
+
+        assertEquals(1, queue.size());
+        assertEquals(1, queue.getCoalescedEventCount());
+
+        List<WanReplicationEvent> batch = drain(10);
+        assertEquals(1, batch.size());
+        assertSame(latest, batch.get(0));
+    }
+
+    @Test
+    public void testOffer_doesNotCoalesceEventsOfDifferentMaps() {
+        queue.offer(update("map1", key(1)), 1);
+        queue.offer(update("map2", key(1)), 1);
+
+        assertEquals(2, queue.size());
+        assertEquals(0, queue.getCoalescedEventCount());
+    }
+
+    @Test
+    public void testOffer_dropsNewKeysWhenFull() {
+        assertTrue(queue.offer(update("map", key(1)), 1));
+        assertTrue(queue.offer(update("map", key(2)), 1));
+        assertTrue(queue.isFull());
+
+        assertFalse(queue.offer(update("map", key(3)), 1));
+        assertEquals(1, queue.getDroppedEventCount());
+        // an update of a pending key is still accepted
+        assertTrue(queue.offer(update("map", key(1)), 1));
+    }
+
+    @Test
+    public void testDrainTo_preservesInsertionOrderAndBatchSize() throws Exception {
+        WanReplicationEvent first = update("map", key(1));
+        WanReplicationEvent second = update("map", key(2));
+        queue.offer(first, 5);
+        queue.offer(second, 10);
+
+        List<WanReplicationEvent> batch = new ArrayList<WanReplicationEvent>();
+        long enqueueTime = queue.drainTo(batch, 1, 0, 0);
+
+        assertEquals(5, enqueueTime);
+        assertEquals(Collections.singletonList(first), batch);
+        assertEquals(1, queue.size());
+        assertEquals(10, queue.getOldestEnqueueTime());
+    }
+
+    @Test
+    public void testDrainTo_returnsWhenEmpty() throws Exception {
+        List<WanReplicationEvent> batch = new ArrayList<WanReplicationEvent>();
+
+        assertEquals(-1, queue.drainTo(batch, 10, 0, 0));
+        assertTrue(batch.isEmpty());
+    }
+
+    @Test
+    public void testPutBack_doesNotOverrideNewerEvents() throws Exception {
+        WanReplicationEvent old = update("map", key(1));
+        queue.offer(old, 1);
+        List<WanReplicationEvent> batch = drain(10);
+
+        WanReplicationEvent newer = update("map", key(1));
+        queue.offer(newer, 2);
+        batch.add(update("map", key(2)));
+        queue.putBack(batch, 1);
+
+        List<WanReplicationEvent> retried = drain(10);
+        assertEquals(2, retried.size());
+        assertSame(newer, retried.get(0));
+    }
+
+    @Test
+    public void testDrainTo_holdsBackEventsForKeysInFlight() throws Exception {
+        queue.offer(update("map", key(1)), 1);
+        drain(10);
+
+        WanReplicationEvent newer = update("map", key(1));
+        queue.offer(newer, 2);
+
+        assertEquals(1, queue.size());
+        assertEquals(2, queue.getOldestEnqueueTime());
+        assertTrue(drain(10).isEmpty());
+    }
+
+    @Test
+    public void testAcknowledge_releasesHeldBackEvents() throws Exception {
+        queue.offer(update("map", key(1)), 1);
+        List<WanReplicationEvent> batch = drain(10);
+        WanReplicationEvent newer = update("map", key(1));
+        queue.offer(newer, 2);
+
+        queue.acknowledge(batch);
+
+        assertEquals(Collections.singletonList(newer), drain(10));
+    }
+
+    @Test
+    public void testPutBack_withTwoBatchesInFlight_doesNotRetryStaleEvent() throws Exception {
+        WanReplicationEvent stale = update("map", key(1));
+        queue.offer(stale, 1);
+        List<WanReplicationEvent> firstBatch = drain(10);
+
+        WanReplicationEvent newer = update("map", key(1));
+        WanReplicationEvent other = update("map", key(2));
+        queue.offer(newer, 2);
+        queue.offer(other, 3);
+        List<WanReplicationEvent> secondBatch = drain(10);
+        // the key of the first batch is still in flight
+        assertEquals(Collections.singletonList(other), secondBatch);
+
+        // the first batch fails while the second one is still in flight and is acknowledged afterwards
+        queue.putBack(firstBatch, 1);
+        queue.acknowledge(secondBatch);
+
+        assertEquals(Collections.singletonList(newer), drain(10));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testClear() {
+        queue.offer(update("map", key(1)), 1);
+
+        assertEquals(1, queue.clear());
+        assertEquals(0, queue.size());
+        assertEquals(-1, queue.getOldestEnqueueTime());
+    }
+
+    private List<WanReplicationEvent> drain(int batchSize) throws InterruptedException {
+        List<WanReplicationEvent> batch = new ArrayList<WanReplicationEvent>();
+        queue.drainTo(batch, batchSize, 0, 0);
+        return batch;
+    }
+
+    private static Data key(int i) {
+        return new HeapData(new byte[]{0, 0, 0, 0, 0, 0, 0, 0, (byte) i});
+    }
+
+    private static WanReplicationEvent update(String mapName, Data key) {
+        SimpleEntryView<Data, Data> entryView = new SimpleEntryView<Data, Data>(key, key);
+        return new WanReplicationEvent(SERVICE_NAME,
+                new MapReplicationUpdate(mapName, new PassThroughMergePolicy(), entryView));
+    }
+
+    private static WanReplicationEvent remove(String mapName, Data key) {
+        return new WanReplicationEvent(SERVICE_NAME, new MapReplicationRemove(mapName, key, 0));
+    }
+}
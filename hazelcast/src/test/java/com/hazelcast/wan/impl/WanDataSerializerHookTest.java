@@ -47,6 +47,14 @@ public class WanDataSerializerHookTest {
         IdentifiedDataSerializable mapRemove = hook.createFactory()
                 .create(WanDataSerializerHook.MAP_REPLICATION_REMOVE);
         assertTrue(mapRemove instanceof MapReplicationRemove);
+
+        IdentifiedDataSerializable eventBatch = hook.createFactory()
+                .create(WanDataSerializerHook.WAN_EVENT_BATCH);
+        assertTrue(eventBatch instanceof WanEventBatch);
+
+        IdentifiedDataSerializable batchOperation = hook.createFactory()
+                .create(WanDataSerializerHook.WAN_BATCH_REPLICATION_OPERATION);
+        assertTrue(batchOperation instanceof WanBatchReplicationOperation);
     }
 
     @Test(expected = IllegalArgumentException.class)